@@ -0,0 +1,95 @@
+package dev.nipafx.args.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Measures the cold start of RecordArgs by launching {@link FirstParse} in fresh JVMs
+ * and reporting the median time to the first parse as well as the number of loaded classes,
+ * once with the JDK's default CDS archive and once with an archive that was created by
+ * {@link dev.nipafx.args.training.ArgsTraining ArgsTraining}.
+ *
+ * <p>Run with {@code java -cp target/benchmarks.jar dev.nipafx.args.benchmarks.ColdStart [runs]}.</p>
+ */
+public class ColdStart {
+
+	private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+	private static final String CLASS_PATH = System.getProperty("java.class.path");
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+		var archive = Files.createTempFile("record-args-", ".jsa");
+		Files.delete(archive);
+		run(List.of(JAVA, "-XX:ArchiveClassesAtExit=" + archive, "-cp", CLASS_PATH, "dev.nipafx.args.training.ArgsTraining"));
+
+		System.out.printf("%-20s %15s %15s %15s %15s%n",
+				"configuration", "parse [ms]", "process [ms]", "parse classes", "total classes");
+		measure("default CDS", runs);
+		measure("RecordArgs CDS", runs, "-XX:SharedArchiveFile=" + archive);
+		Files.deleteIfExists(archive);
+	}
+
+	private static void measure(String configuration, int runs, String... jvmOptions) throws IOException, InterruptedException {
+		var command = new ArrayList<String>();
+		command.add(JAVA);
+		command.addAll(List.of(jvmOptions));
+		command.addAll(List.of("-Xlog:class+load:stdout", "-cp", CLASS_PATH, FirstParse.class.getName()));
+
+		var results = new ArrayList<Result>();
+		for (int i = 0; i < runs; i++)
+			results.add(run(command));
+
+		System.out.printf("%-20s %15.2f %15.2f %15d %15d%n",
+				configuration,
+				median(results, Result::parseNanos) / 1_000_000.0,
+				median(results, Result::processNanos) / 1_000_000.0,
+				median(results, Result::parseClasses),
+				median(results, Result::totalClasses));
+	}
+
+	private static Result run(List<String> command) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+		long parseNanos = 0;
+		long parseClasses = 0;
+		long totalClasses = 0;
+		boolean parsing = false;
+		try (var output = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while ((line = output.readLine()) != null) {
+				if (line.equals(FirstParse.PARSE_START))
+					parsing = true;
+				else if (line.equals(FirstParse.PARSE_END))
+					parsing = false;
+				else if (line.startsWith(FirstParse.PARSE_NANOS))
+					parseNanos = Long.parseLong(line.substring(FirstParse.PARSE_NANOS.length()));
+				else if (line.contains("[class,load]")) {
+					totalClasses++;
+					if (parsing)
+						parseClasses++;
+				}
+			}
+		}
+		if (process.waitFor() != 0)
+			throw new IllegalStateException("Process failed: " + command);
+		return new Result(parseNanos, System.nanoTime() - start, parseClasses, totalClasses);
+	}
+
+	private static long median(List<Result> results, ToLongFunction<Result> metric) {
+		long[] values = results.stream().mapToLong(metric).toArray();
+		Arrays.sort(values);
+		return values[values.length / 2];
+	}
+
+	private record Result(long parseNanos, long processNanos, long parseClasses, long totalClasses) { }
+
+}
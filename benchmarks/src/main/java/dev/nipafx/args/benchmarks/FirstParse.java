@@ -0,0 +1,48 @@
+package dev.nipafx.args.benchmarks;
+
+import dev.nipafx.args.Args;
+import dev.nipafx.args.ArgsParseException;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Parses one typical argument array and reports how long that took - meant to be launched
+ * in a fresh JVM by {@link ColdStart}.
+ */
+public class FirstParse {
+
+	static final String PARSE_START = "### parse start";
+	static final String PARSE_END = "### parse end";
+	static final String PARSE_NANOS = "### parse nanos: ";
+
+	public static void main(String[] args) throws ArgsParseException {
+		String[] argStrings = {
+				"--mode", "server", "--http.url", "localhost", "--http.port", "8080",
+				"--db.url", "jdbc:h2:mem:", "--db.user", "admin",
+				"--logLevel", "3", "--tags", "one", "two", "--labels", "1=one", "2=two", "--verbose" };
+
+		System.out.println(PARSE_START);
+		System.out.flush();
+		long start = System.nanoTime();
+		var parsed = Args.parse(argStrings, Mode.class, Logging.class);
+		long nanos = System.nanoTime() - start;
+		System.out.println(PARSE_END);
+		System.out.println(PARSE_NANOS + nanos);
+
+		// use the result, so the parse can't be optimized away
+		if (parsed.first() == null)
+			throw new IllegalStateException();
+	}
+
+	record Http(String url, int port) { }
+	record Db(String url, Optional<String> user) { }
+	record Logging(int logLevel, List<String> tags, Map<Integer, String> labels, Optional<Boolean> verbose) { }
+
+	sealed interface Mode permits Client, Server { }
+	record Client(Http http) implements Mode { }
+	record Server(Http http, Db db) implements Mode { }
+
+}
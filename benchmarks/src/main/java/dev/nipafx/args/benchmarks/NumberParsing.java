@@ -0,0 +1,96 @@
+package dev.nipafx.args.benchmarks;
+
+import dev.nipafx.args.Args;
+import dev.nipafx.args.ArgsParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing large numeric lists and maps with RecordArgs to converting the same values with the JDK's
+ * parsers (which is a lower bound as it skips everything else a parse does):
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar NumberParsing
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberParsing {
+
+	public record Numbers(List<Long> longs, List<Double> doubles, Map<Integer, Double> weights) { }
+
+	@Param({ "10000" })
+	public int count;
+
+	private String[] argStrings;
+	private String[] longs;
+	private String[] doubles;
+	private String[] weights;
+
+	@Setup
+	public void createArgStrings() {
+		var random = new Random(42);
+		longs = new String[count];
+		doubles = new String[count];
+		weights = new String[count];
+		for (int i = 0; i < count; i++) {
+			longs[i] = Long.toString(random.nextLong() >> random.nextInt(64));
+			doubles[i] = String.format(Locale.ROOT, "%.3f", random.nextDouble() * 10_000);
+			weights[i] = i + "=" + random.nextInt(1_000) / 100.0;
+		}
+
+		var tokens = new ArrayList<String>(3 * count + 3);
+		tokens.add("--longs");
+		tokens.addAll(List.of(longs));
+		tokens.add("--doubles");
+		tokens.addAll(List.of(doubles));
+		tokens.add("--weights");
+		tokens.addAll(List.of(weights));
+		argStrings = tokens.toArray(String[]::new);
+	}
+
+	@Benchmark
+	public Numbers recordArgs() throws ArgsParseException {
+		return Args.parse(argStrings, Numbers.class);
+	}
+
+	@Benchmark
+	public Numbers jdk() {
+		var parsedLongs = new ArrayList<Long>(count);
+		for (String value : longs)
+			parsedLongs.add(Long.parseLong(value));
+		var parsedDoubles = new ArrayList<Double>(count);
+		for (String value : doubles)
+			parsedDoubles.add(Double.parseDouble(value));
+		var parsedWeights = new HashMap<Integer, Double>(count * 2);
+		for (String value : weights) {
+			int separator = value.indexOf('=');
+			parsedWeights.put(
+					Integer.parseInt(value, 0, separator, 10),
+					Double.parseDouble(value.substring(separator + 1)));
+		}
+		return new Numbers(parsedLongs, parsedDoubles, parsedWeights);
+	}
+
+}
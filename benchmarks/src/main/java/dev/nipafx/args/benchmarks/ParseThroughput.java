@@ -0,0 +1,87 @@
+package dev.nipafx.args.benchmarks;
+
+import dev.nipafx.args.Args;
+import dev.nipafx.args.ArgsParseException;
+import dev.nipafx.args.Parsed2;
+import dev.nipafx.args.benchmarks.FirstParse.Logging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the steady-state throughput of parsing (and unparsing), i.e. after the args types were analyzed and
+ * the JIT compiled the parse path:
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar ParseThroughput
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseThroughput {
+
+	private String[] typical;
+	private String[] manyTokens;
+	private Parsed2<FirstParse.Mode, Logging> parsed;
+
+	@Setup
+	public void createArgStrings() {
+		typical = new String[] {
+				"--mode", "server", "--http.url", "localhost", "--http.port", "8080",
+				"--db.url", "jdbc:h2:mem:", "--db.user", "admin",
+				"--logLevel", "3", "--tags", "one", "two", "--labels", "1=one", "2=two", "--verbose" };
+
+		// alternates between names and values (and lists) to exercise many state transitions
+		var tokens = new ArrayList<String>(List.of(typical));
+		for (int i = 0; i < 100; i++) {
+			tokens.add("--tags");
+			tokens.add("tag-" + i);
+			tokens.add("--unknown");
+			tokens.add("ignored");
+			tokens.add("--labels");
+			tokens.add((i + 10) + "=label-" + i);
+		}
+		manyTokens = tokens.toArray(String[]::new);
+	}
+
+	@Setup
+	public void parse() throws ArgsParseException {
+		parsed = Args.parse(typical, FirstParse.Mode.class, Logging.class);
+	}
+
+	@Benchmark
+	public Parsed2<FirstParse.Mode, Logging> typical() throws ArgsParseException {
+		return Args.parseLeniently(typical, FirstParse.Mode.class, Logging.class);
+	}
+
+	@Benchmark
+	public Parsed2<FirstParse.Mode, Logging> manyTokens() throws ArgsParseException {
+		return Args.parseLeniently(manyTokens, FirstParse.Mode.class, Logging.class);
+	}
+
+	@Benchmark
+	public String[] unparse() {
+		var modeArgs = Args.unparse(parsed.first(), FirstParse.Mode.class);
+		var loggingArgs = Args.unparse(parsed.second());
+		var args = Arrays.copyOf(modeArgs, modeArgs.length + loggingArgs.length);
+		System.arraycopy(loggingArgs, 0, args, modeArgs.length, loggingArgs.length);
+		return args;
+	}
+
+}
@@ -0,0 +1,330 @@
+package dev.nipafx.args.daemon;
+
+import dev.nipafx.args.Args;
+import dev.nipafx.args.ArgsParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.System.Logger.Level.ERROR;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A resident process that parses command lines sent to it over a Unix domain socket, so scripts can validate
+ * their arguments without paying for a JVM launch on every invocation.
+ *
+ * <p>The daemon is started with the args types it may parse to, which are checked with
+ * {@link Args#checkDefinition(Class[]) Args::checkDefinition} (and thus analyzed) right away.
+ * Each connection is handled on its own virtual thread. Clients must send their request within
+ * the request timeout (by default {@value #DEFAULT_REQUEST_TIMEOUT_SECONDS} seconds) - otherwise,
+ * the daemon closes the connection without answering, so idle clients can't hold on to it.</p>
+ *
+ * <h2>Protocol</h2>
+ *
+ * <p>A request is a sequence of NUL-terminated UTF-8 strings, followed by the client shutting down its output:
+ * the first string names the args types as they were passed to the daemon on start
+ * (e.g. {@code com.example.Mode,com.example.LogArgs}), all others are the arguments.
+ * The response is UTF-8 text, after which the daemon closes the connection.
+ * Its first line is either {@code OK} or {@code ERROR}:</p>
+ *
+ * <ul>
+ *     <li>{@code OK} is followed by one line per requested args type (in the requested order), which contains
+ *         the parsed record {@link Args#unparse(Object, Class) unparsed} to arguments, each NUL-terminated like
+ *         in the request - those arguments are normalized (e.g. short names are replaced by names) and parse
+ *         to an equal record, so clients can pass them on or parse them with {@code Args::parse}</li>
+ *     <li>{@code ERROR} is followed by one line per error message</li>
+ * </ul>
+ *
+ * <p>So that each record and message stays on its own line even if it contains line breaks (e.g. because a value
+ * does), backslashes, line feeds, and carriage returns are escaped as {@code \\}, {@code \n}, and {@code \r}.
+ * From a shell script, that looks as follows:</p>
+ *
+ * <pre>{@code
+ * printf '%s\0' com.example.ToolArgs "$@" | socat -t 5 - UNIX-CONNECT:/tmp/tool-args.sock
+ * }</pre>
+ *
+ * <p>The socket file is created with the process' default permissions, so place it in a directory
+ * that only the intended users can access.</p>
+ */
+public final class ArgsDaemon implements AutoCloseable {
+
+	/**
+	 * How long clients have to send their request (unless {@link #start(Path, List, ClassLoader, Duration) configured}
+	 * otherwise).
+	 */
+	public static final long DEFAULT_REQUEST_TIMEOUT_SECONDS = 10;
+
+	private static final int MAX_REQUEST_BYTES = 1 << 20;
+	private static final System.Logger LOGGER = System.getLogger(ArgsDaemon.class.getName());
+
+	private final Path socketFile;
+	private final Map<String, Class<?>[]> typesByName;
+	private final Duration requestTimeout;
+	private final ServerSocketChannel server;
+	private final ExecutorService executor;
+	// closes the connections of clients that don't send their request in time
+	private final ScheduledExecutorService deadlines;
+	private final Thread acceptor;
+
+	private ArgsDaemon(
+			Path socketFile, Map<String, Class<?>[]> typesByName, Duration requestTimeout, ServerSocketChannel server) {
+		this.socketFile = socketFile;
+		this.typesByName = Map.copyOf(typesByName);
+		this.requestTimeout = requestTimeout;
+		this.server = server;
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.deadlines = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("record-args-daemon-deadlines").daemon().factory());
+		this.acceptor = Thread.ofPlatform().name("record-args-daemon").unstarted(this::acceptConnections);
+	}
+
+	/**
+	 * Starts the daemon - use it like this:
+	 *
+	 * <pre>{@code
+	 * java -cp record-args.jar:record-args-daemon.jar:app.jar \
+	 *     dev.nipafx.args.daemon.ArgsDaemon /tmp/tool-args.sock com.example.ToolArgs com.example.Mode,com.example.LogArgs
+	 * }</pre>
+	 *
+	 * @param args the socket file, followed by one entry per accepted combination of args types,
+	 *             where each entry lists the fully qualified names of the types, separated by commas
+	 * @throws IOException if the socket can't be bound
+	 * @throws ClassNotFoundException if an args type can't be found
+	 */
+	public static void main(String[] args) throws IOException, ClassNotFoundException {
+		if (args.length < 2) {
+			System.err.println("Usage: ArgsDaemon <socket file> <args types> [<args types> ...]");
+			System.exit(1);
+		}
+
+		var daemon = start(Path.of(args[0]), List.of(args).subList(1, args.length), ArgsDaemon.class.getClassLoader());
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				daemon.close();
+			} catch (IOException ex) {
+				LOGGER.log(WARNING, "Could not delete the socket file " + daemon.socketFile(), ex);
+			}
+		}));
+		System.out.println("RecordArgs daemon listening on " + daemon.socketFile());
+	}
+
+	/**
+	 * Checks the args types and then starts listening on the socket file.
+	 *
+	 * @param socketFile the socket file to create, which must not exist
+	 * @param typeNames one entry per accepted combination of args types, where each entry lists
+	 *                  the fully qualified names of the types, separated by commas
+	 * @param loader the class loader that loads the args types
+	 * @return the running daemon
+	 * @throws IOException if the socket can't be bound
+	 * @throws ClassNotFoundException if an args type can't be found
+	 * @throws dev.nipafx.args.ArgsDefinitionException if the args types are faulty
+	 */
+	public static ArgsDaemon start(Path socketFile, List<String> typeNames, ClassLoader loader)
+			throws IOException, ClassNotFoundException {
+		return start(socketFile, typeNames, loader, Duration.ofSeconds(DEFAULT_REQUEST_TIMEOUT_SECONDS));
+	}
+
+	/**
+	 * Like {@link #start(Path, List, ClassLoader)} but with the specified request timeout.
+	 *
+	 * @param socketFile the socket file to create, which must not exist
+	 * @param typeNames one entry per accepted combination of args types, where each entry lists
+	 *                  the fully qualified names of the types, separated by commas
+	 * @param loader the class loader that loads the args types
+	 * @param requestTimeout how long clients have to send their request before the daemon closes the connection
+	 * @return the running daemon
+	 * @throws IOException if the socket can't be bound
+	 * @throws ClassNotFoundException if an args type can't be found
+	 * @throws IllegalArgumentException if the request timeout isn't positive
+	 * @throws dev.nipafx.args.ArgsDefinitionException if the args types are faulty
+	 */
+	public static ArgsDaemon start(Path socketFile, List<String> typeNames, ClassLoader loader, Duration requestTimeout)
+			throws IOException, ClassNotFoundException {
+		if (requestTimeout.isNegative() || requestTimeout.isZero())
+			throw new IllegalArgumentException("The request timeout must be positive but was %s.".formatted(requestTimeout));
+		var typesByName = new HashMap<String, Class<?>[]>();
+		for (String names : typeNames) {
+			var types = loadTypes(names, loader);
+			// also analyzes the types, so the first request doesn't have to
+			Args.checkDefinition(types);
+			typesByName.put(normalize(names), types);
+		}
+
+		var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		try {
+			server.bind(UnixDomainSocketAddress.of(socketFile));
+		} catch (IOException ex) {
+			server.close();
+			throw ex;
+		}
+		var daemon = new ArgsDaemon(socketFile, typesByName, requestTimeout, server);
+		daemon.acceptor.start();
+		return daemon;
+	}
+
+	private static Class<?>[] loadTypes(String names, ClassLoader loader) throws ClassNotFoundException {
+		var typeNames = normalize(names).split(",");
+		var types = new Class<?>[typeNames.length];
+		for (int i = 0; i < types.length; i++)
+			types[i] = Class.forName(typeNames[i], true, loader);
+		return types;
+	}
+
+	private static String normalize(String names) {
+		// "com.example.Mode, com.example.LogArgs" ~> "com.example.Mode,com.example.LogArgs"
+		return names.strip().replaceAll("\\s*,\\s*", ",");
+	}
+
+	/**
+	 * @return the socket file the daemon listens on
+	 */
+	public Path socketFile() {
+		return socketFile;
+	}
+
+	private void acceptConnections() {
+		try {
+			while (true) {
+				var channel = server.accept();
+				executor.execute(() -> handle(channel));
+			}
+		} catch (ClosedChannelException ex) {
+			// the daemon was closed
+		} catch (IOException ex) {
+			LOGGER.log(ERROR, "RecordArgs daemon stopped accepting connections", ex);
+		}
+	}
+
+	private void handle(SocketChannel channel) {
+		try (channel) {
+			// closing the channel makes the pending read throw an `AsynchronousCloseException`
+			var deadline = deadlines.schedule(() -> closeIdle(channel), requestTimeout.toNanos(), TimeUnit.NANOSECONDS);
+			var request = readRequest(channel);
+			deadline.cancel(false);
+			var response = respond(request);
+			var buffer = ByteBuffer.wrap(response.getBytes(UTF_8));
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		} catch (IOException ex) {
+			// the client went away or took too long - there's nobody to report that to
+		}
+	}
+
+	private void closeIdle(SocketChannel channel) {
+		try {
+			channel.close();
+			LOGGER.log(WARNING, "Closed a connection whose client didn't send its request within " + requestTimeout);
+		} catch (IOException ex) {
+			LOGGER.log(WARNING, "Could not close a connection whose client didn't send its request in time", ex);
+		}
+	}
+
+	private static String[] readRequest(SocketChannel channel) throws IOException {
+		var request = new ByteArrayOutputStream();
+		var buffer = ByteBuffer.allocate(8192);
+		while (channel.read(buffer) != -1) {
+			request.write(buffer.array(), 0, buffer.position());
+			buffer.clear();
+			if (request.size() > MAX_REQUEST_BYTES)
+				return null;
+		}
+
+		var fields = request.toString(UTF_8).split("\0", -1);
+		// each field is NUL-terminated, so the last "field" is the empty string after the last NUL
+		return fields[fields.length - 1].isEmpty()
+				? Arrays.copyOf(fields, fields.length - 1)
+				: fields;
+	}
+
+	private String respond(String[] request) {
+		if (request == null)
+			return "ERROR\nThe request exceeds %d bytes.\n".formatted(MAX_REQUEST_BYTES);
+		if (request.length == 0)
+			return "ERROR\nThe request names no args types.\n";
+		var types = typesByName.get(normalize(request[0]));
+		if (types == null)
+			return "ERROR\nThe daemon doesn't parse to the args types '%s'.\n".formatted(request[0]);
+
+		var argStrings = Arrays.copyOfRange(request, 1, request.length);
+		try {
+			var parsed = Args.parse(argStrings, types);
+			var response = new StringBuilder("OK\n");
+			for (int i = 0; i < parsed.size(); i++)
+				appendLine(response, toRequestFields(unparse(parsed.get(i), types[i])));
+			return response.toString();
+		} catch (ArgsParseException ex) {
+			var response = new StringBuilder("ERROR\n");
+			ex.errors().forEach(error -> appendLine(response, error.toMessage()));
+			return response.toString();
+		} catch (RuntimeException ex) {
+			// e.g. a bug in RecordArgs or a record's accessor - the client still deserves an answer
+			LOGGER.log(ERROR, "Could not respond to a request for the args types " + request[0], ex);
+			var response = new StringBuilder("ERROR\n");
+			appendLine(response, "The request could not be processed: " + ex);
+			return response.toString();
+		}
+	}
+
+	private static <ARGS_TYPE> String[] unparse(Object args, Class<ARGS_TYPE> type) {
+		return Args.unparse(type.cast(args), type);
+	}
+
+	private static String toRequestFields(String[] argStrings) {
+		var fields = new StringBuilder();
+		for (String argString : argStrings)
+			fields.append(argString).append('\0');
+		return fields.toString();
+	}
+
+	private static void appendLine(StringBuilder response, String line) {
+		for (int i = 0; i < line.length(); i++) {
+			char character = line.charAt(i);
+			switch (character) {
+				case '\\' -> response.append("\\\\");
+				case '\n' -> response.append("\\n");
+				case '\r' -> response.append("\\r");
+				default -> response.append(character);
+			}
+		}
+		response.append('\n');
+	}
+
+	/**
+	 * Stops accepting connections, waits for ongoing requests to be answered, and deletes the socket file.
+	 *
+	 * @throws IOException if the socket can't be closed or its file can't be deleted
+	 */
+	@Override
+	public void close() throws IOException {
+		server.close();
+		try {
+			acceptor.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		// idle clients are still cut off by their deadlines, so this doesn't wait for longer than the request timeout
+		executor.close();
+		deadlines.shutdownNow();
+		Files.deleteIfExists(socketFile);
+	}
+
+}
@@ -0,0 +1,184 @@
+package dev.nipafx.args.daemon;
+
+import dev.nipafx.args.Args;
+import dev.nipafx.args.ArgsDefinitionException;
+import dev.nipafx.args.ArgsParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArgsDaemonTests {
+
+	public record ToolArgs(String name, Optional<Integer> count) { }
+
+	public record Verbosity(Optional<Boolean> verbose) { }
+
+	public record WithFailingAccessor(String name) {
+
+		@Override
+		public String name() {
+			throw new UnsupportedOperationException("no name for you");
+		}
+
+	}
+
+	@TempDir
+	Path directory;
+
+	private ArgsDaemon daemon;
+
+	@BeforeEach
+	void startDaemon() throws IOException, ClassNotFoundException {
+		daemon = ArgsDaemon.start(
+				directory.resolve("args.sock"),
+				List.of(
+						ToolArgs.class.getName(),
+						ToolArgs.class.getName() + ", " + Verbosity.class.getName(),
+						WithFailingAccessor.class.getName()),
+				ArgsDaemonTests.class.getClassLoader(),
+				Duration.ofMillis(500));
+	}
+
+	@AfterEach
+	void closeDaemon() throws IOException {
+		daemon.close();
+	}
+
+	@Test
+	void validArgs_request_okWithUnparsedRecords() throws IOException {
+		var response = send(ToolArgs.class.getName() + "," + Verbosity.class.getName(),
+				"--verbose", "--count", "3", "--name", "tool");
+
+		// "\0003" is NUL followed by "3" ("\03" would be a single character)
+		assertThat(response).isEqualTo("""
+				OK
+				--name\0tool\0--count\0003\0
+				--verbose\0true\0
+				""");
+	}
+
+	@Test
+	void validArgs_requestAndParseResponse_equalRecords() throws IOException, ArgsParseException {
+		var response = send(ToolArgs.class.getName() + "," + Verbosity.class.getName(),
+				"--name", "multi\nline", "--count", "3");
+
+		var lines = response.lines().toList();
+		assertThat(lines.getFirst()).isEqualTo("OK");
+		assertThat(Args.parse(toArgStrings(lines.get(1)), ToolArgs.class))
+				.isEqualTo(new ToolArgs("multi\nline", Optional.of(3)));
+		assertThat(Args.parse(toArgStrings(lines.get(2)), Verbosity.class))
+				.isEqualTo(new Verbosity(Optional.empty()));
+	}
+
+	@Test
+	void invalidArgs_request_errorWithMessages() throws IOException {
+		var response = send(ToolArgs.class.getName(), "--name", "tool", "--count", "three", "--unknown");
+
+		assertThat(response.lines()).first().isEqualTo("ERROR");
+		assertThat(response.lines().skip(1))
+				.hasSize(2)
+				.anyMatch(line -> line.startsWith("The value 'three' for argument '--count' could not be parsed"))
+				.anyMatch(line -> line.startsWith("The provided argument '--unknown' is unknown."));
+	}
+
+	@Test
+	void unknownTypes_request_error() throws IOException {
+		var response = send(Verbosity.class.getName(), "--verbose");
+
+		assertThat(response).isEqualTo("""
+				ERROR
+				The daemon doesn't parse to the args types '%s'.
+				""".formatted(Verbosity.class.getName()));
+	}
+
+	@Test
+	void valueWithLineBreaks_request_escapedInOneLine() throws IOException {
+		var response = send(ToolArgs.class.getName(), "--name", "multi\nline\\name\r");
+
+		assertThat(response).isEqualTo("""
+				OK
+				--name\0multi\\nline\\\\name\\r\0
+				""");
+	}
+
+	@Test
+	void failingRecord_request_errorInsteadOfDroppedConnection() throws IOException {
+		var response = send(WithFailingAccessor.class.getName(), "--name", "name");
+
+		assertThat(response.lines()).first().isEqualTo("ERROR");
+		assertThat(response.lines().skip(1)).singleElement().asString().contains("accessor of 'name'");
+	}
+
+	@Test
+	void idleClient_requestTimeout_connectionClosedWithoutResponse() throws IOException {
+		try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+			channel.connect(UnixDomainSocketAddress.of(daemon.socketFile()));
+			channel.write(ByteBuffer.wrap((ToolArgs.class.getName() + "\0").getBytes(UTF_8)));
+			// don't shut down the output, so the daemon waits for more of the request
+
+			// the daemon closes the connection after the timeout, so the read sees the end of the stream
+			assertThat(channel.read(ByteBuffer.allocate(1024))).isEqualTo(-1);
+		}
+	}
+
+	@Test
+	void closed_socketFileDeleted() throws IOException {
+		daemon.close();
+
+		assertThat(daemon.socketFile()).doesNotExist();
+	}
+
+	@Test
+	void faultyArgsTypes_start_definitionException() {
+		assertThrows(ArgsDefinitionException.class, () -> ArgsDaemon.start(
+				directory.resolve("faulty.sock"), List.of(String.class.getName()), ArgsDaemonTests.class.getClassLoader()));
+		assertThat(directory.resolve("faulty.sock")).doesNotExist();
+	}
+
+	private static String[] toArgStrings(String line) {
+		if (line.isEmpty())
+			return new String[0];
+		// each field is NUL-terminated, so `split` drops the empty string after the last NUL
+		// (only unescapes line feeds because the tests' values contain no backslashes or carriage returns)
+		return line.replace("\\n", "\n").split("\0");
+	}
+
+	private String send(String types, String... args) throws IOException {
+		var request = new StringBuilder(types).append('\0');
+		for (String arg : args)
+			request.append(arg).append('\0');
+
+		try (var channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+			channel.connect(UnixDomainSocketAddress.of(daemon.socketFile()));
+			var buffer = ByteBuffer.wrap(request.toString().getBytes(UTF_8));
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			channel.shutdownOutput();
+
+			var response = new ByteArrayOutputStream();
+			var readBuffer = ByteBuffer.allocate(1024);
+			while (channel.read(readBuffer) != -1) {
+				response.write(readBuffer.array(), 0, readBuffer.position());
+				readBuffer.clear();
+			}
+			return response.toString(UTF_8);
+		}
+	}
+
+}
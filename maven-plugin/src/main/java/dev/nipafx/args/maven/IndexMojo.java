@@ -0,0 +1,186 @@
+package dev.nipafx.args.maven;
+
+import dev.nipafx.args.Args;
+import dev.nipafx.args.ArgsDefinitionException;
+import dev.nipafx.args.ArgsSchemaIndex;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scans the compiled classes in the configured {@code <packages>} for args records and sealed interfaces and
+ * writes the {@link ArgsSchemaIndex schema index} of them to the build output (so it's packaged into the jar),
+ * from which {@code Args} then creates their schemas without reflecting over them.
+ *
+ * <p>Types in those packages that are ill-defined (e.g. with components of unsupported types) fail the build.
+ * So do the combinations of types listed in {@code <parses>} if they fail
+ * {@link Args#checkDefinition(Class[]) Args::checkDefinition} (e.g. with {@code DUPLICATE_ARGUMENT_DEFINITION}) -
+ * otherwise, they're recorded in the index, so {@code Args} skips checking them at runtime.</p>
+ */
+@Mojo(
+		name = "index",
+		defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+		requiresDependencyResolution = ResolutionScope.COMPILE,
+		threadSafe = true)
+public class IndexMojo extends AbstractMojo {
+
+	@Parameter(defaultValue = "${project}", readonly = true, required = true)
+	private MavenProject project;
+
+	@Parameter(defaultValue = "${project.build.outputDirectory}", readonly = true, required = true)
+	private File outputDirectory;
+
+	/**
+	 * The packages (including their subpackages) that contain the args types, e.g.:
+	 *
+	 * <pre>{@code
+	 * <packages>
+	 *     <package>com.example.args</package>
+	 * </packages>
+	 * }</pre>
+	 *
+	 * All records and sealed interfaces in these packages must be well-defined args types.
+	 */
+	@Parameter(required = true)
+	private List<String> packages;
+
+	/**
+	 * The args types that are parsed together, one entry per call to {@code Args::parse}, where each entry
+	 * lists the fully qualified names of the types passed to that call, separated by commas, e.g.:
+	 *
+	 * <pre>{@code
+	 * <parses>
+	 *     <parse>com.example.Mode, com.example.LogArgs</parse>
+	 *     <parse>com.example.ToolArgs</parse>
+	 * </parses>
+	 * }</pre>
+	 */
+	@Parameter
+	private List<String> parses = List.of();
+
+	/**
+	 * Skips indexing.
+	 */
+	@Parameter(property = "recordArgs.skip", defaultValue = "false")
+	private boolean skip;
+
+	@Override
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		if (skip) {
+			getLog().info("Skipping RecordArgs index.");
+			return;
+		}
+
+		var classes = outputDirectory.toPath();
+		var indexFile = classes.resolve(ArgsSchemaIndex.RESOURCE);
+		try {
+			// an index from a previous build would be outdated and mustn't be used while types are checked
+			Files.deleteIfExists(indexFile);
+		} catch (IOException ex) {
+			throw new MojoExecutionException("Could not delete the outdated RecordArgs index " + indexFile + ".", ex);
+		}
+
+		try (var loader = createProjectClassLoader()) {
+			var types = new ArrayList<Class<?>>();
+			for (String typeName : findClassNames(classes)) {
+				var type = loadClass(typeName, loader);
+				if (type.isRecord() || type.isInterface() && type.isSealed())
+					types.add(type);
+			}
+			var parseTypes = new ArrayList<List<Class<?>>>();
+			for (String parse : parses) {
+				var typeNames = parse.split(",");
+				var parsedTypes = new ArrayList<Class<?>>();
+				for (String typeName : typeNames)
+					parsedTypes.add(loadClass(typeName.strip(), loader));
+				parseTypes.add(parsedTypes);
+			}
+
+			var index = new ByteArrayOutputStream();
+			var errors = ArgsSchemaIndex.write(types, parseTypes, index);
+			if (!errors.isEmpty()) {
+				var messages = new ArrayList<String>();
+				for (Map.Entry<String, ArgsDefinitionException> error : errors.entrySet())
+					messages.add("[ %s ]: %s - %s".formatted(error.getKey(), error.getValue().errorCode(), error.getValue().getMessage()));
+				throw new MojoFailureException("RecordArgs found definition errors:\n" + String.join("\n", messages));
+			}
+
+			Files.createDirectories(indexFile.getParent());
+			Files.write(indexFile, index.toByteArray());
+			getLog().info("RecordArgs indexed %s args types and checked %s parses.".formatted(types.size(), parseTypes.size()));
+		} catch (IOException ex) {
+			throw new MojoExecutionException("Could not write the RecordArgs index " + indexFile + ".", ex);
+		}
+	}
+
+	/**
+	 * @return the binary names of the classes in the configured packages
+	 */
+	private List<String> findClassNames(Path classes) throws IOException {
+		var classNames = new ArrayList<String>();
+		if (!Files.isDirectory(classes))
+			return classNames;
+		try (var files = Files.walk(classes)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				var fileName = file.getFileName().toString();
+				if (!fileName.endsWith(".class") || fileName.equals("module-info.class") || fileName.equals("package-info.class"))
+					continue;
+				var relativePath = classes.relativize(file).toString();
+				var className = relativePath
+						.substring(0, relativePath.length() - ".class".length())
+						.replace(File.separatorChar, '.');
+				if (isInConfiguredPackage(className))
+					classNames.add(className);
+			}
+		}
+		return classNames;
+	}
+
+	private boolean isInConfiguredPackage(String className) {
+		for (String packageName : packages)
+			if (className.startsWith(packageName.strip() + "."))
+				return true;
+		return false;
+	}
+
+	private URLClassLoader createProjectClassLoader() throws MojoExecutionException {
+		try {
+			var classPath = project.getCompileClasspathElements();
+			var urls = new URL[classPath.size()];
+			for (int i = 0; i < urls.length; i++)
+				urls[i] = Path.of(classPath.get(i)).toUri().toURL();
+			// delegating to the plugin's class loader first, means `Args` is the plugin's version of RecordArgs
+			return new URLClassLoader(urls, getClass().getClassLoader());
+		} catch (DependencyResolutionRequiredException | MalformedURLException ex) {
+			throw new MojoExecutionException("Could not determine the project's class path.", ex);
+		}
+	}
+
+	private static Class<?> loadClass(String typeName, ClassLoader loader) throws MojoExecutionException {
+		try {
+			// don't initialize the types, so their static initializers don't run during the build
+			return Class.forName(typeName, false, loader);
+		} catch (ClassNotFoundException | LinkageError ex) {
+			throw new MojoExecutionException("Could not load the args type " + typeName + ".", ex);
+		}
+	}
+
+}
@@ -3,13 +3,19 @@ package dev.nipafx.args;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import static dev.nipafx.args.ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE;
 import static dev.nipafx.args.Check.internalErrorOnNull;
@@ -20,6 +26,8 @@ import static dev.nipafx.args.Check.internalErrorOnNullOrBlank;
  *
  * <p>Two {@code Arg} instances are {@link Object#equals(Object) equal} if they have the same name.</p>
  *
+ * <p>Args hold the values of a single parse and are hence mutable and confined to the parsing thread.</p>
+ *
  * @param <T> the type of the component
  */
 sealed interface Arg<T> {
@@ -28,7 +36,15 @@ sealed interface Arg<T> {
 	 * @throws IllegalArgumentException if the argument {@code type} is not supported
 	 */
 	static <T> Arg<T> of(String name, Type type) throws IllegalArgumentException {
-		return AbstractArg.of(name, type);
+		return AbstractArg.of(name, type, null);
+	}
+
+	/**
+	 * @param interner interns converted values - may be {@code null}
+	 * @throws IllegalArgumentException if the argument {@code type} is not supported
+	 */
+	static <T> Arg<T> of(String name, Type type, ArgsInterner interner) throws IllegalArgumentException {
+		return AbstractArg.of(name, type, interner);
 	}
 
 	String name();
@@ -42,6 +58,13 @@ sealed interface Arg<T> {
 	 */
 	void setValue(String value) throws IllegalArgumentException;
 
+	/**
+	 * Informs the argument that {@code count} values are about to be {@link #setValue(String) set},
+	 * so container arguments can size their buffers accordingly - simple arguments ignore this.
+	 */
+	default void expectValues(int count) {
+	}
+
 }
 
 abstract class AbstractArg<T> {
@@ -50,46 +73,55 @@ abstract class AbstractArg<T> {
 			String.class, Path.class,
 			Integer.class, int.class, Long.class, long.class,
 			Float.class, float.class, Double.class, double.class,
-			Boolean.class, boolean.class);
+			Boolean.class, boolean.class,
+			Duration.class, DataSize.class);
 
 	private final String name;
 	private final Class<T> type;
+	// `null` if values aren't interned
+	private final ArgsInterner interner;
 
-	protected AbstractArg(String name, Class<T> type) {
+	protected AbstractArg(String name, Class<T> type, ArgsInterner interner) {
 		this.name = internalErrorOnNullOrBlank(name);
 		this.type = internalErrorOnNull(type);
+		this.interner = interner;
 	}
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	static <T> Arg<T> of(String name, Type type) {
-		return switch (type) {
-			case Class classType -> new SimpleArg<>(name, assertSupported((Class<T>) classType));
-			case ParameterizedType paramType -> switch (paramType.getRawType().getTypeName()) {
-				case "java.util.Optional" -> {
-					var valueType = paramType.getActualTypeArguments()[0];
-					if (valueType instanceof Class classType)
-						yield new OptionalArg<>(name, assertSupported(classType));
-					else
-						throw unexpectedArgumentException(type);
-				}
-				case "java.util.List" -> {
-					var valueType = paramType.getActualTypeArguments()[0];
-					if (valueType instanceof Class classType)
-						yield new ListArg<>(name, assertSupported(classType));
-					else
-						throw unexpectedArgumentException(type);
-				}
-				case "java.util.Map" -> {
-					var keyType = paramType.getActualTypeArguments()[0];
-					var valueType = paramType.getActualTypeArguments()[1];
-					if (keyType instanceof Class keyClass && valueType instanceof Class valueClass)
-						yield new MapArg<>(name, assertSupported(keyClass), assertSupported(valueClass));
-					else
-						throw unexpectedArgumentException(type);
-				}
-				default -> throw unexpectedArgumentException(type);
-			};
-			case null, default -> throw unexpectedArgumentException(type);
+	static <T> Arg<T> of(String name, Type type, ArgsInterner interner) {
+		// no pattern switch over `type` to keep `invokedynamic` off the parse path - see comment in `Args`
+		if (type instanceof Class classType)
+			return new SimpleArg<>(name, assertSupported((Class<T>) classType), interner);
+		if (!(type instanceof ParameterizedType paramType))
+			throw unexpectedArgumentException(type);
+
+		var typeArguments = paramType.getActualTypeArguments();
+		return switch (paramType.getRawType().getTypeName()) {
+			case "java.util.Optional" -> {
+				if (typeArguments[0] instanceof Class valueClass)
+					yield new OptionalArg<>(name, assertSupported(valueClass), interner);
+				else
+					throw unexpectedArgumentException(type);
+			}
+			case "java.util.List" -> {
+				if (typeArguments[0] instanceof Class valueClass)
+					yield new ListArg<>(name, assertSupported(valueClass), interner);
+				else
+					throw unexpectedArgumentException(type);
+			}
+			case "java.util.Set" -> {
+				if (typeArguments[0] instanceof Class valueClass)
+					yield new SetArg<>(name, assertSupported(valueClass), interner);
+				else
+					throw unexpectedArgumentException(type);
+			}
+			case "java.util.Map" -> {
+				if (typeArguments[0] instanceof Class keyClass && typeArguments[1] instanceof Class valueClass)
+					yield new MapArg<>(name, assertSupported(keyClass), assertSupported(valueClass), interner);
+				else
+					throw unexpectedArgumentException(type);
+			}
+			default -> throw unexpectedArgumentException(type);
 		};
 	}
 
@@ -99,6 +131,11 @@ abstract class AbstractArg<T> {
 	}
 
 	private static <T> Class<T> assertSupported(Class<T> type) {
+		if (type.isEnum()) {
+			// creates the lookup table once, when the schema is analyzed, instead of during the first parse
+			EnumLookup.of(type);
+			return type;
+		}
 		if (!SUPPORTED_TYPES.contains(type)) {
 			String message = "Argument type %s is not supported.".formatted(type.getSimpleName());
 			throw new ArgsDefinitionException(UNSUPPORTED_ARGUMENT_TYPE, message);
@@ -106,15 +143,49 @@ abstract class AbstractArg<T> {
 		return type;
 	}
 
+	/**
+	 * Like {@link #parseValueToType(String, Class)} but only parses the range {@code [begin, end)}
+	 * of {@code value}, which spares all but string and path types from creating a substring.
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T> T parseValueToType(String value, int begin, int end, Class<T> type) {
+		if (begin == 0 && end == value.length())
+			return parseValueToType(value, type);
+		if (type.isEnum())
+			return (T) EnumLookup.of(type).valueOf(value, begin, end);
+
+		return (T) switch (type.getSimpleName()) {
+			case "Integer", "int" -> Numbers.parseInt(value, begin, end);
+			case "Long", "long" -> Numbers.parseLong(value, begin, end);
+			case "Float", "float" -> Numbers.parseFloat(value, begin, end);
+			case "Double", "double" -> Numbers.parseDouble(value, begin, end);
+			case "Duration" -> Numbers.parseDuration(value, begin, end);
+			case "DataSize" -> Numbers.parseDataSize(value, begin, end);
+			case "Boolean", "boolean" -> {
+				if (end - begin == 4 && value.startsWith("true", begin))
+					yield true;
+				if (end - begin == 5 && value.startsWith("false", begin))
+					yield false;
+				throw new IllegalArgumentException("Only 'true' and 'false' allowed for boolean args.");
+			}
+			default -> parseValueToType(value.substring(begin, end), type);
+		};
+	}
+
 	@SuppressWarnings("unchecked")
 	protected static <T> T parseValueToType(String value, Class<T> type) {
+		if (type.isEnum())
+			return (T) EnumLookup.of(type).valueOf(value, 0, value.length());
+
 		return (T) switch (type.getSimpleName()) {
 			case "String" -> value;
 			case "Path" -> Path.of(value);
-			case "Integer", "int" -> Integer.parseInt(value);
-			case "Long", "long" -> Long.parseLong(value);
-			case "Float", "float" -> Float.parseFloat(value);
-			case "Double", "double" -> Double.parseDouble(value);
+			case "Integer", "int" -> Numbers.parseInt(value, 0, value.length());
+			case "Long", "long" -> Numbers.parseLong(value, 0, value.length());
+			case "Float", "float" -> Numbers.parseFloat(value, 0, value.length());
+			case "Double", "double" -> Numbers.parseDouble(value, 0, value.length());
+			case "Duration" -> Numbers.parseDuration(value, 0, value.length());
+			case "DataSize" -> Numbers.parseDataSize(value, 0, value.length());
 			case "Boolean", "boolean" -> switch (value) {
 				case "true" -> true;
 				case "false" -> false;
@@ -127,6 +198,18 @@ abstract class AbstractArg<T> {
 		};
 	}
 
+	/**
+	 * @return an instance that is equal to {@code value} and possibly shared with other parses
+	 */
+	protected final <V> V intern(V value) {
+		return interner == null ? value : interner.intern(value);
+	}
+
+	protected static void internalErrorOnFrozen(Object frozenValues) {
+		if (frozenValues != null)
+			throw new IllegalStateException("A container argument was mutated after its value was handed over.");
+	}
+
 	public String name() {
 		return name;
 	}
@@ -152,13 +235,13 @@ final class SimpleArg<T> extends AbstractArg<T> implements Arg<T> {
 
 	private Optional<T> value;
 
-	SimpleArg(String name, Class<T> type) {
-		super(name, type);
+	SimpleArg(String name, Class<T> type, ArgsInterner interner) {
+		super(name, type, interner);
 		this.value = Optional.empty();
 	}
 
 	public void setValue(String value) throws IllegalArgumentException {
-		this.value = Optional.of(parseValueToType(value, type()));
+		this.value = Optional.of(intern(parseValueToType(value, type())));
 	}
 
 	@Override
@@ -174,14 +257,14 @@ final class OptionalArg<T> extends AbstractArg<Optional> implements Arg<Optional
 	private final Class<T> valueType;
 	private Optional<T> value;
 
-	OptionalArg(String name, Class<T> valueType) {
-		super(name, Optional.class);
+	OptionalArg(String name, Class<T> valueType, ArgsInterner interner) {
+		super(name, Optional.class, interner);
 		this.valueType = valueType;
 		this.value = Optional.empty();
 	}
 
 	public void setValue(String value) throws IllegalArgumentException {
-		this.value = Optional.of(parseValueToType(value, valueType));
+		this.value = Optional.of(intern(parseValueToType(value, valueType)));
 	}
 
 	@Override
@@ -199,21 +282,146 @@ final class OptionalArg<T> extends AbstractArg<Optional> implements Arg<Optional
 final class ListArg<T> extends AbstractArg<List> implements Arg<List> {
 
 	private final Class<T> valueType;
-	private final List<T> values;
+	private final ArrayList<T> values;
+	// once the value was requested, the buffer is handed over and must no longer be mutated
+	private FrozenList<T> frozenValues;
 
-	ListArg(String name, Class<T> valueType) {
-		super(name, List.class);
+	ListArg(String name, Class<T> valueType, ArgsInterner interner) {
+		super(name, List.class, interner);
 		this.valueType = valueType;
 		this.values = new ArrayList<>();
 	}
 
 	public void setValue(String value) throws IllegalArgumentException {
-		this.values.add(parseValueToType(value, valueType));
+		internalErrorOnFrozen(frozenValues);
+		this.values.add(intern(parseValueToType(value, valueType)));
+	}
+
+	@Override
+	public void expectValues(int count) {
+		internalErrorOnFrozen(frozenValues);
+		values.ensureCapacity(values.size() + count);
+	}
+
+	/**
+	 * Parses the values in parallel (in chunks on the common fork-join pool) and adds them in order.
+	 *
+	 * @return an array with an entry per value, which is the exception parsing it threw
+	 * 		or {@code null} if it was parsed (and added)
+	 */
+	IllegalArgumentException[] setValuesInParallel(List<String> values) {
+		internalErrorOnFrozen(frozenValues);
+		var parsedValues = new Object[values.size()];
+		var failures = new IllegalArgumentException[values.size()];
+		ForkJoinPool.commonPool().invoke(new ParseValues<>(values, valueType, parsedValues, failures, 0, values.size()));
+
+		this.values.ensureCapacity(this.values.size() + values.size());
+		for (int i = 0; i < parsedValues.length; i++)
+			if (failures[i] == null)
+				this.values.add(intern(valueType.cast(parsedValues[i])));
+		return failures;
 	}
 
 	@Override
 	public Optional<List> value() {
-		return Optional.of(List.copyOf(values));
+		if (frozenValues == null)
+			frozenValues = new FrozenList<>(values);
+		return Optional.of(frozenValues);
+	}
+
+	/**
+	 * Parses the values in {@code [begin, end)} and stores each result (or exception) at its value's index,
+	 * so the results can be merged in order no matter which thread parsed them.
+	 *
+	 * @param <T> the type of the values
+	 */
+	private static final class ParseValues<T> extends RecursiveAction {
+
+		private static final int CHUNK_SIZE = 16_384;
+
+		private final List<String> values;
+		private final Class<T> valueType;
+		private final Object[] parsedValues;
+		private final IllegalArgumentException[] failures;
+		private final int begin;
+		private final int end;
+
+		ParseValues(List<String> values, Class<T> valueType, Object[] parsedValues, IllegalArgumentException[] failures, int begin, int end) {
+			this.values = values;
+			this.valueType = valueType;
+			this.parsedValues = parsedValues;
+			this.failures = failures;
+			this.begin = begin;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - begin <= CHUNK_SIZE) {
+				for (int i = begin; i < end; i++)
+					try {
+						parsedValues[i] = parseValueToType(values.get(i), valueType);
+					} catch (IllegalArgumentException ex) {
+						failures[i] = ex;
+					}
+				return;
+			}
+
+			int middle = (begin + end) >>> 1;
+			invokeAll(
+					new ParseValues<>(values, valueType, parsedValues, failures, begin, middle),
+					new ParseValues<>(values, valueType, parsedValues, failures, middle, end));
+		}
+
+	}
+
+}
+
+@SuppressWarnings("rawtypes")
+final class SetArg<T> extends AbstractArg<Set> implements Arg<Set> {
+
+	private final Class<T> valueType;
+	private Set<T> values;
+	// once the value was requested, the buffer is handed over and must no longer be mutated
+	private FrozenSet<T> frozenValues;
+
+	SetArg(String name, Class<T> valueType, ArgsInterner interner) {
+		super(name, Set.class, interner);
+		this.valueType = valueType;
+		this.values = newSet(valueType, 0);
+	}
+
+	/**
+	 * Enum sets are {@link EnumSet}s, which are backed by a bit mask (for enums with up to 64 constants
+	 * in a single {@code long}), so adding a value or checking whether one is contained is a bit operation.
+	 * Other sets keep the order in which values were first given.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Set<T> newSet(Class<T> valueType, int expectedSize) {
+		if (valueType.isEnum())
+			return EnumSet.noneOf((Class) valueType);
+		return expectedSize == 0 ? new LinkedHashSet<>() : LinkedHashSet.newLinkedHashSet(expectedSize);
+	}
+
+	public void setValue(String value) throws IllegalArgumentException {
+		internalErrorOnFrozen(frozenValues);
+		// repeated values are absorbed by the set
+		this.values.add(intern(parseValueToType(value, valueType)));
+	}
+
+	@Override
+	public void expectValues(int count) {
+		internalErrorOnFrozen(frozenValues);
+		// a set argument can be mentioned more than once, in which case it's too late to presize
+		if (values.isEmpty())
+			values = newSet(valueType, count);
+	}
+
+	@Override
+	public Optional<Set> value() {
+		if (frozenValues == null)
+			frozenValues = new FrozenSet<>(values);
+		return Optional.of(frozenValues);
 	}
 
 }
@@ -223,32 +431,85 @@ final class MapArg<K, V> extends AbstractArg<Map> implements Arg<Map> {
 
 	private final Class<K> keyType;
 	private final Class<V> valueType;
-	private final Map<K, V> values;
+	private Map<K, V> values;
+	// once the value was requested, the buffer is handed over and must no longer be mutated
+	private FrozenMap<K, V> frozenValues;
 
-	MapArg(String name, Class<K> keyType, Class<V> valueType) {
-		super(name, Map.class);
+	MapArg(String name, Class<K> keyType, Class<V> valueType, ArgsInterner interner) {
+		super(name, Map.class, interner);
 		this.keyType = keyType;
 		this.valueType = valueType;
 		this.values = new HashMap<>();
 	}
 
 	public void setValue(String keyValue) throws IllegalArgumentException {
-		var pair = keyValue.split("=");
-		if (pair.length == 1) {
+		internalErrorOnFrozen(frozenValues);
+		int separator = keyValue.indexOf('=');
+		if (separator == -1 || separator == keyValue.length() - 1) {
 			String message = "Map argument '%s' is no valid 'key=value' pair - it has no value.".formatted(keyValue);
 			throw new IllegalArgumentException(message);
-		} else if (pair.length > 2) {
+		} else if (keyValue.indexOf('=', separator + 1) != -1) {
 			String message = "Map argument '%s' is no valid 'key=value' pair - it has more than one equal sign.".formatted(keyValue);
 			throw new IllegalArgumentException(message);
 		}
-		var key = parseValueToType(pair[0], keyType);
-		var value = parseValueToType(pair[1], valueType);
-		this.values.put(key, value);
+		var key = intern(parseValueToType(keyValue, 0, separator, keyType));
+		var value = intern(parseValueToType(keyValue, separator + 1, keyValue.length(), valueType));
+		// `putIfAbsent` detects duplicates with the same single lookup that inserts the pair
+		if (this.values.putIfAbsent(key, value) != null) {
+			String message = "Map argument '%s' repeats the key '%s'.".formatted(keyValue, key);
+			throw new IllegalArgumentException(message);
+		}
+	}
+
+	@Override
+	public void expectValues(int count) {
+		internalErrorOnFrozen(frozenValues);
+		// a map argument can be mentioned more than once, in which case it's too late to presize
+		if (values.isEmpty())
+			values = HashMap.newHashMap(count);
 	}
 
 	@Override
 	public Optional<Map> value() {
-		return Optional.of(Map.copyOf(values));
+		if (frozenValues == null)
+			frozenValues = new FrozenMap<>(values);
+		return Optional.of(frozenValues);
+	}
+
+}
+
+/**
+ * The {@link Rest @Rest} argument, which takes the rest of the argument array as it is,
+ * i.e. without parsing or copying the tokens (its value is a view on the array).
+ */
+@SuppressWarnings("rawtypes")
+final class RestArg extends AbstractArg<List> implements Arg<List> {
+
+	private List<String> values;
+
+	RestArg(String name) {
+		super(name, List.class, null);
+		this.values = List.of();
+	}
+
+	/**
+	 * @throws IllegalStateException always because the rest argument has no name and can hence not be given a value by it
+	 */
+	public void setValue(String value) {
+		var message = "The rest argument '%s' was given the value '%s' by name.".formatted(name(), value);
+		throw new IllegalStateException(message);
+	}
+
+	/**
+	 * @param values the rest of the argument array - must not be changed afterwards
+	 */
+	void setValues(List<String> values) {
+		this.values = Collections.unmodifiableList(internalErrorOnNull(values));
+	}
+
+	@Override
+	public Optional<List> value() {
+		return Optional.of(values);
 	}
 
 }
@@ -1,29 +1,36 @@
 package dev.nipafx.args;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InaccessibleObjectException;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Stream;
 
 import static dev.nipafx.args.ArgsDefinitionErrorCode.DUPLICATE_ARGUMENT_DEFINITION;
 import static dev.nipafx.args.ArgsDefinitionErrorCode.FAULTY_STATIC_INITIALIZER;
 import static dev.nipafx.args.ArgsDefinitionErrorCode.ILLEGAL_ACCESS;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.MULTIPLE_ACTIONS;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.MULTIPLE_REST_ARGUMENTS;
 import static dev.nipafx.args.Check.internalErrorOnNull;
-import static java.util.Arrays.stream;
-import static java.util.stream.Collectors.toMap;
 
 /**
  * Parses command-line arguments to args records - call {@link Args#parse(String[], Class) parse}
  * or one of its overloads (depending on how many args types are involved).
+ *
+ * <p>All methods are thread-safe and don't block each other, so they can be called from any number
+ * of (platform or virtual) threads at once. The analysis of an args type is computed once and then
+ * shared by all threads, but it's immutable - all mutable state is created anew for each call.
+ * The argument array isn't copied but read in place throughout each call, so it must not be changed
+ * concurrently with the call. Changing it afterwards doesn't affect the result - except for
+ * a {@link Rest @Rest} component after "--", which is a view on the array.</p>
  */
 public class Args {
 
@@ -88,6 +95,24 @@ public class Args {
 		return parseTo3Records(argStrings, type1, type2, type3, false);
 	}
 
+	/**
+	 * Parses the specified string array to create instances of any number of specified types.
+	 *
+	 * <p>Use this overload when more than three args types are involved - the returned {@link ParsedN}
+	 * gives access to the instances by their type.</p>
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param types the args types to be created (at least one) - must be records or sealed interfaces with record implementations
+	 * @return a container with instances of all {@code types}, populated with values from {@code argStrings}
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} or no type as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public static ParsedN parse(String[] argStrings, Class<?>... types) throws ArgsParseException {
+		return parseToNRecords(argStrings, types, false);
+	}
+
 	/**
 	 * Parses the specified string array to create an instance of the specified type (ignores parser warnings).
 	 *
@@ -145,163 +170,560 @@ public class Args {
 		return parseTo3Records(argStrings, type1, type2, type3, true);
 	}
 
+	/**
+	 * Parses the specified string array to create instances of any number of specified types (ignores parser warnings).
+	 *
+	 * <p>Use this overload when more than three args types are involved - the returned {@link ParsedN}
+	 * gives access to the instances by their type.</p>
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param types the args types to be created (at least one) - must be records or sealed interfaces with record implementations
+	 * @return a container with instances of all {@code types}, populated with values from {@code argStrings}
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} or no type as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public static ParsedN parseLeniently(String[] argStrings, Class<?>... types) throws ArgsParseException {
+		return parseToNRecords(argStrings, types, true);
+	}
+
+	/**
+	 * Binds the specified values to an instance of the specified args record without tokenizing them into an argument
+	 * array - e.g. to use an args record as the parameter object of an HTTP endpoint's query parameters or form data.
+	 *
+	 * <p>Each key is an argument name (without "--", e.g. {@code http.port}) and its values are converted and validated
+	 * exactly like those that follow the name in an argument array: a flag without values is {@code true}, a simple
+	 * argument must have one value, container arguments take all of them, a {@link Rest @Rest} argument is the list
+	 * itself, and absent arguments are empty if they are containers or optional (and missing otherwise).
+	 * Finally, the record's constructor is called, so it can validate the values.
+	 * Each key is resolved to its argument with a single lookup, no matter how many components the record has.</p>
+	 *
+	 * @param values the values by argument name (without "--") - e.g. parsed query parameters
+	 * @param type the args record to be created
+	 * @return an instance of {@code type}, populated with {@code values}
+	 * @param <ARGS_TYPE> the args record to be created
+	 * @throws ArgsParseException when the values can't be correctly bound (its {@link ArgsParseException#args() args}
+	 * 		are an argument array that is equivalent to the values)
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code bind} (it was likely {@code null}
+	 * 		or contained {@code null} or a blank key as other cases are covered by other exceptions)
+	 */
+	public static <ARGS_TYPE extends Record> ARGS_TYPE bind(
+			Map<String, ? extends List<String>> values, Class<ARGS_TYPE> type) throws ArgsParseException {
+		return bind(values, type, false);
+	}
+
+	/**
+	 * Like {@link #bind(Map, Class)} but ignores unknown argument names.
+	 *
+	 * @param values the values by argument name (without "--") - e.g. parsed query parameters
+	 * @param type the args record to be created
+	 * @return an instance of {@code type}, populated with {@code values}
+	 * @param <ARGS_TYPE> the args record to be created
+	 * @throws ArgsParseException when the values can't be correctly bound (its {@link ArgsParseException#args() args}
+	 * 		are an argument array that is equivalent to the values)
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code bindLeniently} (it was likely {@code null}
+	 * 		or contained {@code null} or a blank key as other cases are covered by other exceptions)
+	 */
+	public static <ARGS_TYPE extends Record> ARGS_TYPE bindLeniently(
+			Map<String, ? extends List<String>> values, Class<ARGS_TYPE> type) throws ArgsParseException {
+		return bind(values, type, true);
+	}
+
+	/**
+	 * Checks whether the specified types are valid args types that can be parsed together - without parsing anything.
+	 *
+	 * <p>{@link #parse(String[], Class) parse} only checks the args records that the argument array selects,
+	 * whereas this method checks all implementations of modes and actions. Call it in a test or during the build
+	 * (e.g. with the goal {@code check} of the {@code record-args-maven-plugin}) to detect definition errors before
+	 * they occur in production. It doesn't run the types' static initializers, though, so it can't detect
+	 * {@link ArgsDefinitionErrorCode#FAULTY_STATIC_INITIALIZER faulty static initializers}.</p>
+	 *
+	 * <p>Besides the errors {@code parse} reports, it detects args that can't be told apart when the types are
+	 * parsed together: components of the same name in different types, a component with the name of a mode
+	 * (e.g. {@code mode} next to a sealed interface {@code Mode}), and two modes of the same name.</p>
+	 *
+	 * @param types the args types that are parsed together - must be records or sealed interfaces with record implementations
+	 * @throws ArgsDefinitionException when not all specified types are valid args types or not all of their
+	 * 		combinations can be parsed together
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code checkDefinition} (it was likely {@code null})
+	 */
+	public static void checkDefinition(Class<?>... types) {
+		if (types == null)
+			throw new IllegalArgumentException("Args types must not be null.");
+		throwIfAnyTypeIsNull(types);
+
+		// records that implement the same mode are alternatives and may hence have components of the same name,
+		// but all records that resolve from different types can be combined and must hence not
+		record ArgOrigin(int typeIndex, Class<? extends Record> recordType) { }
+		var originsByArgName = new HashMap<String, ArgOrigin>();
+		// the same goes for `@Rest` components
+		ArgOrigin restOrigin = null;
+		// modes are selected by an arg (e.g. "--mode") that no component and no other mode may have the name of
+		var modesByName = new HashMap<String, Class<?>>();
+		var errors = new ArrayList<String>();
+		var actionFound = false;
+		for (int typeIndex = 0; typeIndex < types.length; typeIndex++) {
+			if (ArgsModeFilter.isAction(types[typeIndex])) {
+				if (actionFound) {
+					var message = "There can only be one action, but %s is the second such interface.".formatted(types[typeIndex]);
+					throw new ArgsDefinitionException(MULTIPLE_ACTIONS, message);
+				}
+				actionFound = true;
+			} else if (types[typeIndex].isInterface()) {
+				var modeName = ArgsModeFilter.createArgumentName(types[typeIndex]);
+				var existingMode = modesByName.putIfAbsent(modeName, types[typeIndex]);
+				if (existingMode != null)
+					errors.add("Duplicate mode '%s' in types '%s' and '%s'.".formatted(
+							modeName, existingMode.getName(), types[typeIndex].getName()));
+			}
+
+			for (Class<? extends Record> recordType : ArgsModeFilter.resolveRecordTypes(types[typeIndex])) {
+				var schema = RecordSchema.of(recordType);
+				if (schema.restLeaf() != -1) {
+					if (restOrigin != null && restOrigin.typeIndex() != typeIndex) {
+						var message = "Only one args record may have a @Rest component, but '%s' and '%s' both do."
+								.formatted(restOrigin.recordType().getName(), recordType.getName());
+						throw new ArgsDefinitionException(MULTIPLE_REST_ARGUMENTS, message);
+					}
+					restOrigin = new ArgOrigin(typeIndex, recordType);
+				}
+				for (Arg<?> arg : schema.createArgs()) {
+					var origin = new ArgOrigin(typeIndex, recordType);
+					var existingOrigin = originsByArgName.putIfAbsent(arg.name(), origin);
+					if (existingOrigin != null && existingOrigin.typeIndex() != typeIndex)
+						errors.add("Duplicate arg '%s' in types '%s' and '%s'.".formatted(
+								arg.name(), existingOrigin.recordType().getName(), recordType.getName()));
+				}
+				// names are Java identifiers, so short names (with their "-") can't clash with them
+				for (RecordSchema.Leaf leaf : schema.leaves()) {
+					if (leaf.shortName() == 0)
+						continue;
+					var shortName = "-".concat(String.valueOf(leaf.shortName()));
+					var existingOrigin = originsByArgName.putIfAbsent(shortName, new ArgOrigin(typeIndex, recordType));
+					if (existingOrigin != null && existingOrigin.typeIndex() != typeIndex)
+						errors.add("Duplicate short name '%s' in types '%s' and '%s'.".formatted(
+								shortName, existingOrigin.recordType().getName(), recordType.getName()));
+				}
+			}
+		}
+		for (Map.Entry<String, Class<?>> modeByName : modesByName.entrySet()) {
+			var origin = originsByArgName.get(modeByName.getKey());
+			if (origin != null)
+				errors.add("Arg '%s' in type '%s' has the name of the mode '%s'.".formatted(
+						modeByName.getKey(), origin.recordType().getName(), modeByName.getValue().getName()));
+		}
+		if (!errors.isEmpty())
+			throw new ArgsDefinitionException(DUPLICATE_ARGUMENT_DEFINITION, String.join("\n", errors));
+	}
+
+	/**
+	 * Turns the specified args record back into an argument array that {@link #parse(String[], Class) parses}
+	 * to an equal record - the inverse of {@code parse}, e.g. to launch a child process with the same arguments.
+	 *
+	 * <p>Every component is written as its name (with "--") followed by its value(s) in the form {@code parse}
+	 * expects. Empty optionals, lists, and maps are left out. Values whose string form {@code parse} would
+	 * read differently (e.g. strings starting with "--" or with a short name like "-v", or map keys containing "=")
+	 * can't be unparsed.
+	 * A {@link Rest @Rest} component is written last, after "--".
+	 * To include the mode or action that selected the record, call {@link #unparse(Object, Class)}.
+	 * To unparse several args records that are parsed together, concatenate their arrays
+	 * (where the action's array must come first and the one with a rest last).</p>
+	 *
+	 * @param args the args record to unparse
+	 * @return an argument array that parses to a record that is equal to {@code args}
+	 * @throws ArgsDefinitionException when the record's type is not a valid args type
+	 * @throws IllegalArgumentException when {@code args} is {@code null} or has values that can't be unparsed
+	 */
+	public static String[] unparse(Record args) {
+		if (args == null)
+			throw new IllegalArgumentException("Args record must not be null.");
+		return ArgsUnparser.unparse(args, args.getClass());
+	}
+
+	/**
+	 * Like {@link #unparse(Record)} but, if {@code type} is a mode or action interface, also includes the tokens that select
+	 * the record's type (i.e. {@code --mode value} or the action as first token).
+	 *
+	 * @param args the args instance to unparse
+	 * @param type the args type {@code args} is parsed to - must be a record or a sealed interface with record implementations
+	 * @return an argument array that parses to an instance of {@code type} that is equal to {@code args}
+	 * @param <ARGS_TYPE> the args type {@code args} is parsed to
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when {@code args} or {@code type} is {@code null}, {@code args} is
+	 * 		not a record of {@code type}, or it has values that can't be unparsed
+	 */
+	public static <ARGS_TYPE> String[] unparse(ARGS_TYPE args, Class<ARGS_TYPE> type) {
+		if (args == null || type == null)
+			throw new IllegalArgumentException("Neither args instance nor type must be null.");
+		return ArgsUnparser.unparse(args, type);
+	}
+
+	/**
+	 * Encodes the specified args record in a compact binary form that {@link #load(ByteBuffer, Class) load} turns
+	 * back into an equal record without parsing - e.g. to hand a large, already validated args record to a child
+	 * process via a file or shared memory. The snapshot contains a fingerprint of the record's components
+	 * (names and types), so it can only be loaded by a program with the same version of the args record.
+	 *
+	 * @param args the args record to encode
+	 * @return the snapshot
+	 * @throws ArgsDefinitionException when the record's type is not a valid args type
+	 * @throws IllegalArgumentException when {@code args} is {@code null} or contains {@code null} values
+	 */
+	public static byte[] snapshot(Record args) {
+		if (args == null)
+			throw new IllegalArgumentException("Args record must not be null.");
+		return ArgsSnapshot.encode(args);
+	}
+
+	/**
+	 * Creates an args record from the {@link #snapshot(Record) snapshot} that starts at the buffer's position
+	 * (without changing the buffer's position), e.g. a memory-mapped file. The values are read directly from
+	 * the buffer (no tokenizing or converting from strings) and then passed to the record's constructor.
+	 *
+	 * @param snapshot the buffer containing the snapshot
+	 * @param type the args type to be created - must be a record or a sealed interface with record implementations
+	 * @return an instance of {@code type} that is equal to the record the snapshot was created from
+	 * @param <ARGS_TYPE> the args type to be created - must be a record or a sealed interface with record implementations
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when {@code snapshot} or {@code type} is {@code null}, the buffer doesn't contain
+	 * 		a snapshot of (this version of) {@code type} or it is corrupted, or the record's constructor throws an exception
+	 */
+	public static <ARGS_TYPE> ARGS_TYPE load(ByteBuffer snapshot, Class<ARGS_TYPE> type) {
+		if (snapshot == null || type == null)
+			throw new IllegalArgumentException("Neither snapshot nor type must be null.");
+		return type.cast(ArgsSnapshot.decode(snapshot, type));
+	}
+
+	/**
+	 * Like {@link #load(ByteBuffer, Class)} but memory-maps the specified file.
+	 *
+	 * @param snapshotFile the file containing the snapshot
+	 * @param type the args type to be created - must be a record or a sealed interface with record implementations
+	 * @return an instance of {@code type} that is equal to the record the snapshot was created from
+	 * @param <ARGS_TYPE> the args type to be created - must be a record or a sealed interface with record implementations
+	 * @throws IOException when the file can't be read
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when {@code snapshotFile} or {@code type} is {@code null}, the file doesn't contain
+	 * 		a snapshot of (this version of) {@code type} or it is corrupted, or the record's constructor throws an exception
+	 */
+	public static <ARGS_TYPE> ARGS_TYPE load(Path snapshotFile, Class<ARGS_TYPE> type) throws IOException {
+		if (snapshotFile == null || type == null)
+			throw new IllegalArgumentException("Neither snapshot file nor type must be null.");
+		try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+			return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), type);
+		}
+	}
+
 	private static <ARGS_TYPE> ARGS_TYPE parseTo1Record(
 			String[] argStrings, Class<ARGS_TYPE> type, boolean lenient) throws ArgsParseException {
 		throwIfAnyIsNull(argStrings, type);
-		RecordPackager<ARGS_TYPE> packager = types -> getFromInstanceMap(types, type);
-		return parse(argStrings, lenient, packager, type);
+		var instances = parse(argStrings, lenient, null, type);
+		return type.cast(instances[0]);
 	}
 
 	private static <ARGS_TYPE_1, ARGS_TYPE_2> Parsed2<ARGS_TYPE_1, ARGS_TYPE_2> parseTo2Records(
 			String[] argStrings, Class<ARGS_TYPE_1> type1, Class<ARGS_TYPE_2> type2, boolean lenient) throws ArgsParseException {
 		throwIfAnyIsNull(argStrings, type1, type2);
-		RecordPackager<Parsed2<ARGS_TYPE_1, ARGS_TYPE_2>> packager = types -> new Parsed2<>(
-				getFromInstanceMap(types, type1),
-				getFromInstanceMap(types, type2));
-		return parse(argStrings, lenient, packager, type1, type2);
+		var instances = parse(argStrings, lenient, null, type1, type2);
+		return new Parsed2<>(
+				type1.cast(instances[0]),
+				type2.cast(instances[1]));
 	}
 
 	private static <ARGS_TYPE_1, ARGS_TYPE_2, ARGS_TYPE_3> Parsed3<ARGS_TYPE_1, ARGS_TYPE_2, ARGS_TYPE_3> parseTo3Records(
 			String[] argStrings, Class<ARGS_TYPE_1> type1, Class<ARGS_TYPE_2> type2, Class<ARGS_TYPE_3> type3, boolean lenient) throws ArgsParseException {
 		throwIfAnyIsNull(argStrings, type1, type2, type3);
-		RecordPackager<Parsed3<ARGS_TYPE_1, ARGS_TYPE_2, ARGS_TYPE_3>> packager = types -> new Parsed3<>(
-				getFromInstanceMap(types, type1),
-				getFromInstanceMap(types, type2),
-				getFromInstanceMap(types, type3));
-		return parse(argStrings, lenient, packager, type1, type2, type3);
+		var instances = parse(argStrings, lenient, null, type1, type2, type3);
+		return new Parsed3<>(
+				type1.cast(instances[0]),
+				type2.cast(instances[1]),
+				type3.cast(instances[2]));
+	}
+
+	private static ParsedN parseToNRecords(String[] argStrings, Class<?>[] types, boolean lenient) throws ArgsParseException {
+		if (types == null || types.length == 0)
+			throw new IllegalArgumentException("At least one args type must be specified.");
+		throwIfAnyIsNull(argStrings, types);
+		// copy the array, so the caller can't change it after the null check
+		var typesCopy = types.clone();
+		return new ParsedN(typesCopy, parse(argStrings, lenient, null, typesCopy));
 	}
 
-	private static void throwIfAnyIsNull(String[] argStrings, Class<?>... types) {
+	private static <ARGS_TYPE extends Record> ARGS_TYPE bind(
+			Map<String, ? extends List<String>> values, Class<ARGS_TYPE> type, boolean lenient) throws ArgsParseException {
+		if (values == null || type == null)
+			throw new IllegalArgumentException("Neither values nor type must be null.");
+		try {
+			var args = inferArgs(List.of(type), null, false);
+			var messages = ArgsBinder
+					.forArgs(args.all(), type)
+					.bind(values);
+			throwOnErrorsAndMaybeWarnings(messages.errors(), messages.warnings(), lenient);
+			throwOnMissingArguments(args);
+			return type.cast(constructArgTypes(args, null)[0]);
+		} catch (InternalArgsException ex) {
+			throw new ArgsParseException(toArgStrings(values), List.of(type), ex);
+		}
+	}
+
+	private static String[] toArgStrings(Map<String, ? extends List<String>> values) {
+		var argStrings = new ArrayList<String>();
+		for (Map.Entry<String, ? extends List<String>> nameAndValues : values.entrySet()) {
+			argStrings.add("--".concat(nameAndValues.getKey()));
+			argStrings.addAll(nameAndValues.getValue());
+		}
+		return argStrings.toArray(String[]::new);
+	}
+
+	static void throwIfAnyIsNull(String[] argStrings, Class<?>... types) {
 		if (argStrings == null)
 			throw new IllegalArgumentException("Argument array must not be null.");
 		for (int i = 0; i < argStrings.length; i++)
 			if (argStrings[i] == null)
 				throw new IllegalArgumentException("Argument array must not contain null but does at position %s.".formatted(i));
-		for (int i = 0; i < types.length; i++) {
-			var indexWord = switch (i) {
-				case 0 -> "first";
-				case 1 -> "second";
-				case 2 -> "third";
-				default -> (i - 1) + "th";
-			};
-			if (types[i] == null)
+		throwIfAnyTypeIsNull(types);
+	}
+
+	private static void throwIfAnyTypeIsNull(Class<?>... types) {
+		for (int i = 0; i < types.length; i++)
+			if (types[i] == null) {
+				var indexWord = switch (i) {
+					case 0 -> "first";
+					case 1 -> "second";
+					case 2 -> "third";
+					default -> (i + 1) + "th";
+				};
 				throw new IllegalArgumentException("Args type must not be null but %s was.".formatted(indexWord));
-		}
+			}
 	}
 
-	private static <T> T parse(String[] argStrings, boolean lenient, RecordPackager<T> packager, Class<?>... types) throws ArgsParseException {
+	/*
+	 * The parse path runs on every application launch and often only once, so it doesn't use lambdas,
+	 * method references, streams, pattern switches, or string concatenation: their bootstrapping via
+	 * `invokedynamic` would dominate the time to the first parse. (Error paths are exempt from this.)
+	 */
+
+	/**
+	 * @param interner interns converted values and maybe records - may be {@code null}
+	 * @return the args record instances in the same order as the {@code types}, so that
+	 * 		{@code instances[i]} is an instance of {@code types[i]}
+	 */
+	static Record[] parse(String[] argStrings, boolean lenient, ArgsInterner interner, Class<?>... types) throws ArgsParseException {
+		var statistics = ArgsStatistics.enabled();
+		long start = statistics == null ? 0 : System.nanoTime();
 		try {
-			var argsAndTypes = new ArgsModeFilter().processModes(argStrings, types);
+			// the tokens after "--" are neither scanned nor copied if they're the rest
+			var allArgStrings = Arrays.asList(argStrings);
+			int separator = indexOfRestSeparator(argStrings);
+			var argsAndTypes = new ArgsModeFilter().processModes(
+					separator == -1 ? allArgStrings : allArgStrings.subList(0, separator), types);
 			throwOnErrors(argsAndTypes.errors());
 
-			var args = inferArgs(argsAndTypes.types());
-			var messages = ArgsParser
-					.forArgs(args.all().toList())
-					.parse(argsAndTypes.argsStrings());
+			// most arg strings are well-formed, so parse them without creating messages first and only if that
+			// fails, parse them again (with fresh args) to find out what's wrong; in lenient mode, unknown names
+			// are merely skipped unless the resulting warnings are needed for the statistics
+			// combinations of types that were checked when the schema index was written need no further checks
+			var checked = ArgsSchemaIndex.isChecked(types);
+			var args = inferArgs(argsAndTypes.types(), interner, checked);
+			var messages = parseArgs(args, argsAndTypes, allArgStrings, separator, true, lenient && statistics == null);
+			if (messages == null) {
+				args = inferArgs(argsAndTypes.types(), interner, checked);
+				messages = parseArgs(args, argsAndTypes, allArgStrings, separator, false, false);
+			}
 			throwOnErrorsAndMaybeWarnings(messages.errors(), messages.warnings(), lenient);
+			// in strict mode, warnings are errors and recorded as such
+			if (statistics != null && lenient)
+				statistics.recordMessages(messages.warnings());
 
-			var constructorArguments = prepareConstructions(args);
-			var constructorErrors = constructorArguments.stream()
-					.flatMap(constrArg -> constrArg.errors.stream())
-					.toList();
-			throwOnErrors(constructorErrors);
-
-			var constructions = constructArgTypes(constructorArguments);
-			throwOnErrors(constructions.errors());
+			throwOnMissingArguments(args);
 
-			return packager.apply(constructions.argInstances());
+			var instances = constructArgTypes(args, interner);
+			if (statistics != null)
+				statistics.recordParse(types, System.nanoTime() - start);
+			return instances;
 		} catch (InternalArgsException ex) {
+			if (statistics != null)
+				statistics.recordFailedParse(types, ex.errors(), System.nanoTime() - start);
 			throw new ArgsParseException(argStrings, List.of(types), ex);
 		}
 	}
 
-	private static InferredArgs inferArgs(List<Class<? extends Record>> types) {
-		Map<Class<? extends Record>, List<Arg<?>>> argsByType = types.stream()
-				.map(type -> Map.entry(
-						type,
-						stream(type.getRecordComponents())
-								.<Arg<?>> map(Args::readComponent)
-								.toList()
-				))
-				.collect(toMap(Entry::getKey, Entry::getValue));
-		ensureArgUniqueness(argsByType);
-		return new InferredArgs(argsByType);
-	}
-
-	private static void ensureArgUniqueness(Map<Class<? extends Record>, List<Arg<?>>> argsByType) {
-		record ArgAndRecordType(String name, Class<? extends Record> recordType) { }
-		var allArgs = argsByType
-				.entrySet().stream()
-				.flatMap(recordWithArgs -> recordWithArgs
-						.getValue().stream()
-						.map(arg -> new ArgAndRecordType(arg.name(), recordWithArgs.getKey())))
-				.toList();
-		var uniqueArgs = new HashMap<String, ArgAndRecordType>();
+	private static int indexOfRestSeparator(String[] argStrings) {
+		for (int i = 0; i < argStrings.length; i++)
+			if (argStrings[i].equals("--"))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * @param optimistic whether to {@link ArgsParser#parseOptimistically(List, boolean) parse optimistically}
+	 * @param ignoreUnknownNames whether an optimistic parse skips unknown names
+	 * @return the parser's messages or {@code null} if an optimistic parse found an anomaly
+	 */
+	private static ArgsMessages parseArgs(
+			InferredArgs args, ArgsAndTypes argsAndTypes, List<String> allArgStrings, int separator,
+			boolean optimistic, boolean ignoreUnknownNames) {
+		var rest = args.rest();
+		if (separator != -1 && rest == null && optimistic)
+			return null;
+		if (separator != -1 && rest != null)
+			rest.setValues(allArgStrings.subList(separator + 1, allArgStrings.size()));
+
+		// without "--", the first value that belongs to no arg starts the rest
+		var parser = ArgsParser
+				.forArgs(args.all(), args.argsByShortName(), separator == -1 ? rest : null, argsAndTypes.types());
+		var messages = optimistic
+				? parser.parseOptimistically(argsAndTypes.argsStrings(), ignoreUnknownNames)
+				: parser.parse(argsAndTypes.argsStrings());
+		if (messages == null || separator == -1 || rest != null)
+			return messages;
+
+		// without a rest arg, there's nowhere for the tokens after "--" to go
+		var errors = new ArrayList<>(messages.errors());
+		errors.add(new ArgsMessage.UnexpectedValue("--"));
+		return new ArgsMessages(errors, messages.warnings());
+	}
+
+	/**
+	 * @param checked whether the types were already checked with {@link #checkDefinition(Class[])},
+	 * 		so their args are known to be unique
+	 */
+	private static InferredArgs inferArgs(List<Class<? extends Record>> types, ArgsInterner interner, boolean checked) {
+		var schemas = new ArrayList<RecordSchema<?>>(types.size());
+		for (Class<? extends Record> type : types)
+			schemas.add(RecordSchema.of(type));
+		var args = new InferredArgs(schemas, interner);
+		if (!checked) {
+			ensureArgUniqueness(args);
+			ensureAtMostOneRest(args);
+		}
+		return args;
+	}
+
+	private static void ensureArgUniqueness(InferredArgs args) {
+		var recordTypesByArgName = new HashMap<String, Class<? extends Record>>();
 		var errors = new ArrayList<String>();
 
-		for (var arg : allArgs) {
-			if (uniqueArgs.containsKey(arg.name())) {
-				var message = "Duplicate arg '%s' in types '%s' and '%s'.".formatted(
-						arg.name(),
-						uniqueArgs.get(arg.name()).recordType().getName(),
-						arg.recordType().getName());
-				errors.add(message);
-			} else
-				uniqueArgs.put(arg.name(), arg);
+		for (int i = 0; i < args.schemaCount(); i++) {
+			var recordType = args.schema(i).type();
+			for (Arg<?> arg : args.argsOf(i)) {
+				var existingRecordType = recordTypesByArgName.putIfAbsent(arg.name(), recordType);
+				if (existingRecordType != null) {
+					var message = "Duplicate arg '%s' in types '%s' and '%s'.".formatted(
+							arg.name(), existingRecordType.getName(), recordType.getName());
+					errors.add(message);
+				}
+			}
 		}
 		if (!errors.isEmpty())
 			throw new ArgsDefinitionException(DUPLICATE_ARGUMENT_DEFINITION, String.join("\n", errors));
 	}
 
-	private static Arg<?> readComponent(RecordComponent component) {
-		return Arg.of(component.getName(), component.getGenericType());
-	}
-
-	private static List<ConstructorArguments> prepareConstructions(InferredArgs args) {
-		return args
-				.allByType()
-				.map(entry -> prepareConstruction(entry.getKey(), entry.getValue()))
-				.toList();
+	private static void ensureAtMostOneRest(InferredArgs args) {
+		Class<? extends Record> restRecordType = null;
+		for (int i = 0; i < args.schemaCount(); i++) {
+			var recordType = args.schema(i).type();
+			if (args.schema(i).restLeaf() == -1)
+				continue;
+			if (restRecordType != null) {
+				var message = "Only one args record may have a @Rest component, but '%s' and '%s' both do."
+						.formatted(restRecordType.getName(), recordType.getName());
+				throw new ArgsDefinitionException(MULTIPLE_REST_ARGUMENTS, message);
+			}
+			restRecordType = recordType;
+		}
 	}
 
-	private static ConstructorArguments prepareConstruction(Class<? extends Record> type, List<Arg<?>> args) {
-		List<ArgsMessage> errors = new ArrayList<>();
-		Class<?>[] parameters = args.stream()
-				.map(Arg::type)
-				.toArray(Class<?>[]::new);
-		Object[] arguments = args.stream()
-				.map(arg -> {
-					if (arg.value().isEmpty()) {
-						errors.add(new ArgsMessage.MissingArgument(arg.name()));
-						return null;
-					} else
-						return arg.value().get();
-				})
-				.toArray(Object[]::new);
-		return new ConstructorArguments(type, parameters, arguments, errors);
+	private static void throwOnMissingArguments(InferredArgs args) {
+		// usually, no argument is missing, so only create the list when one is
+		List<ArgsMessage> missingArguments = null;
+		for (Arg<?> arg : args.all())
+			if (arg.value().isEmpty()) {
+				if (missingArguments == null)
+					missingArguments = new ArrayList<>();
+				missingArguments.add(new ArgsMessage.MissingArgument(arg.name()));
+			}
+		if (missingArguments != null)
+			throwOnErrors(missingArguments);
 	}
 
-	private static Constructions constructArgTypes(List<ConstructorArguments> constructors) {
-		var argInstances = new HashMap<Class<? extends Record>, Record>();
+	private static Record[] constructArgTypes(InferredArgs args, ArgsInterner interner) {
+		var argInstances = new Record[args.schemaCount()];
 		var errors = new ArrayList<ArgsMessage>();
-		for (var constr : constructors) {
-			var construction = constructArgType(constr.argType(), constr.parameters(), constr.arguments());
-			construction.instance().ifPresent(argInstance -> argInstances.put(constr.argType(), argInstance));
+		for (int i = 0; i < argInstances.length; i++) {
+			var construction = constructArgType(args.schema(i), leafValuesOf(args.argsOf(i)), 0, interner);
+			if (construction.instance().isPresent())
+				argInstances[i] = construction.instance().get();
 			errors.addAll(construction.errors());
 		}
-		return new Constructions(argInstances, errors);
+		throwOnErrors(errors);
+		return argInstances;
+	}
+
+	private static Object[] leafValuesOf(List<Arg<?>> args) {
+		var values = new Object[args.size()];
+		for (int i = 0; i < values.length; i++)
+			values[i] = args.get(i).value().orElseThrow();
+		return values;
+	}
+
+	/**
+	 * Constructs an instance of the schema's record from the values of its leaves.
+	 *
+	 * @param leafValues the values in the order of {@link RecordSchema#leafNames()}
+	 * @throws InternalArgsException if the construction failed, e.g. because the constructor rejected a value
+	 */
+	static <T extends Record> T constructArgType(RecordSchema<T> schema, Object[] leafValues) {
+		var construction = constructArgType(schema, leafValues, 0, null);
+		throwOnErrors(construction.errors());
+		return construction.instance().orElseThrow();
+	}
+
+	/**
+	 * Constructs nested args records bottom-up before the args record itself.
+	 *
+	 * @param leafValues the values of the leaves, where those of the {@code schema} start at {@code firstLeaf}
+	 * 		(in the order of {@link RecordSchema#createArgs()})
+	 * @param interner interns the constructed records (if configured to) - may be {@code null}
+	 */
+	private static <T extends Record> Construction<T> constructArgType(
+			RecordSchema<T> schema, Object[] leafValues, int firstLeaf, ArgsInterner interner) {
+		var components = schema.components();
+		var arguments = new Object[components.size()];
+		// like for the top-level records, report the errors of all nested records
+		List<ArgsMessage> nestedErrors = null;
+		int leafIndex = firstLeaf;
+		for (int i = 0; i < arguments.length; i++) {
+			var component = components.get(i);
+			if (component instanceof RecordSchema.Nested nested) {
+				var construction = constructArgType(nested.schema(), leafValues, leafIndex, interner);
+				if (construction.instance().isPresent())
+					arguments[i] = construction.instance().get();
+				else {
+					if (nestedErrors == null)
+						nestedErrors = new ArrayList<>();
+					nestedErrors.addAll(construction.errors());
+				}
+			} else
+				arguments[i] = leafValues[leafIndex];
+			leafIndex += component.leafCount();
+		}
+		// without all nested records, this one can't be constructed
+		if (nestedErrors != null)
+			return Construction.failed(nestedErrors);
+		var construction = constructArgType(schema.type(), schema.constructor(), arguments);
+		if (interner == null || construction.instance().isEmpty())
+			return construction;
+		return Construction.successful(interner.internRecord(construction.instance().get()));
 	}
 
-	private static <T extends Record> Construction<T> constructArgType(Class<T> type, Class<?>[] parameters, Object[] arguments) {
+	private static <T extends Record> Construction<T> constructArgType(Class<T> type, Constructor<T> canonicalConstructor, Object[] arguments) {
 		try {
-			Constructor<T> canonicalConstructor = type.getDeclaredConstructor(parameters);
-			canonicalConstructor.setAccessible(true);
 			return Construction.successful(canonicalConstructor.newInstance(arguments));
 		// errors that should've been avoided by RecordArgs (i.e. likely bugs)
-		} catch (NoSuchMethodException ex) {
-			var message = "The canonical constructor for %s could not be found - presumably it has these parameters: %s"
-					.formatted(type, Arrays.toString(parameters));
-			throw new IllegalStateException(message, ex);
 		} catch (IllegalArgumentException ex) {
 			var message = "Could not invoke the canonical constructor for %s with these arguments: %s"
 					.formatted(type, Arrays.toString(arguments));
@@ -310,7 +732,7 @@ public class Args {
 			var message = "Apparently, %s is abstract, which should've been caught earlier.".formatted(type);
 			throw new IllegalStateException(message, ex);
 		// errors that should've been avoided by the caller
-		} catch (InaccessibleObjectException | IllegalAccessException ex) {
+		} catch (IllegalAccessException ex) {
 			var message = "Make sure Args has reflective access to the args record %s, e.g. with an `opens ... to ...` directive."
 					.formatted(type);
 			throw new ArgsDefinitionException(ILLEGAL_ACCESS, message, ex);
@@ -319,7 +741,7 @@ public class Args {
 			throw new ArgsDefinitionException(FAULTY_STATIC_INITIALIZER, message, ex);
 		// errors from faulty arguments
 		} catch (InvocationTargetException ex) {
-			return Construction.failed(new ArgsMessage.FailedConstruction(ex.getTargetException()));
+			return Construction.failed(List.of(new ArgsMessage.FailedConstruction(ex.getTargetException())));
 		}
 	}
 
@@ -337,43 +759,82 @@ public class Args {
 		throw new InternalArgsException(messages);
 	}
 
-	@SuppressWarnings("unchecked")
-	private static <ARGS_TYPE> ARGS_TYPE getFromInstanceMap(Map<Class<? extends Record>, Record> instanceMap, Class<ARGS_TYPE> type) {
-		if (instanceMap.containsKey(type))
-			return (ARGS_TYPE) instanceMap.get(type);
-
-		//noinspection SuspiciousMethodCalls
-		return stream(type.getPermittedSubclasses())
-				.filter(instanceMap::containsKey)
-				.map(instanceMap::get)
-				.map(instance -> (ARGS_TYPE) instance)
-				.findAny()
-				.orElseThrow(() -> new IllegalStateException("There should've been an instance of a subtype of '%s'. 🤔".formatted(type)));
-	}
-
 	/*
 	 * INNER TYPES
 	 */
 
-	private interface RecordPackager<T> extends Function<Map<Class<? extends Record>, Record>, T> { }
+	private static class InferredArgs {
 
-	private record ConstructorArguments(
-			Class<? extends Record> argType, Class<?>[] parameters, Object[] arguments, List<ArgsMessage> errors) { }
+		private final List<RecordSchema<?>> schemas;
+		// `argsBySchema.get(i)` are the args created for `schemas.get(i)`
+		private final List<List<Arg<?>>> argsBySchema;
+		private final List<Arg<?>> all;
+
+		private InferredArgs(List<RecordSchema<?>> schemas, ArgsInterner interner) {
+			this.schemas = schemas;
+			this.argsBySchema = new ArrayList<>(schemas.size());
+			this.all = new ArrayList<>();
+			for (RecordSchema<?> schema : schemas) {
+				var args = schema.createArgs(interner);
+				argsBySchema.add(args);
+				all.addAll(args);
+			}
+		}
 
-	private static class InferredArgs {
+		public List<Arg<?>> all() {
+			return all;
+		}
 
-		private final Map<Class<? extends Record>, List<Arg<?>>> argsByType;
+		/**
+		 * @return for each ASCII character, the arg with that {@link ShortName short name} or {@code null}
+		 * 		- {@code null} if no arg has a short name
+		 * @throws ArgsDefinitionException if args of different records have the same short name
+		 */
+		public Arg<?>[] argsByShortName() {
+			Arg<?>[] argsByShortName = null;
+			for (int i = 0; i < schemas.size(); i++) {
+				var shortNameLeaves = schemas.get(i).shortNameLeaves();
+				if (shortNameLeaves == null)
+					continue;
+				if (argsByShortName == null)
+					argsByShortName = new Arg<?>[RecordSchema.SHORT_NAME_TABLE_SIZE];
+				for (char shortName = 0; shortName < shortNameLeaves.length; shortName++) {
+					if (shortNameLeaves[shortName] == -1)
+						continue;
+					var arg = argsBySchema.get(i).get(shortNameLeaves[shortName]);
+					if (argsByShortName[shortName] != null) {
+						var message = "Duplicate short name '-%s' of args '%s' and '%s'."
+								.formatted(shortName, argsByShortName[shortName].name(), arg.name());
+						throw new ArgsDefinitionException(DUPLICATE_ARGUMENT_DEFINITION, message);
+					}
+					argsByShortName[shortName] = arg;
+				}
+			}
+			return argsByShortName;
+		}
+
+		/**
+		 * @return the {@link Rest @Rest} arg or {@code null} if there's none
+		 */
+		public RestArg rest() {
+			for (int i = 0; i < schemas.size(); i++) {
+				int restLeaf = schemas.get(i).restLeaf();
+				if (restLeaf != -1)
+					return (RestArg) argsBySchema.get(i).get(restLeaf);
+			}
+			return null;
+		}
 
-		private InferredArgs(Map<Class<? extends Record>, List<Arg<?>>> argsByType) {
-			this.argsByType = argsByType;
+		public int schemaCount() {
+			return schemas.size();
 		}
 
-		public Stream<Arg<?>> all() {
-			return argsByType.values().stream().flatMap(List::stream);
+		public RecordSchema<?> schema(int index) {
+			return schemas.get(index);
 		}
 
-		public Stream<Entry<Class<? extends Record>, List<Arg<?>>>> allByType() {
-			return argsByType.entrySet().stream();
+		public List<Arg<?>> argsOf(int index) {
+			return argsBySchema.get(index);
 		}
 
 	}
@@ -391,17 +852,8 @@ public class Args {
 			return new Construction<>(Optional.of(internalErrorOnNull(instance)), List.of());
 		}
 
-		public static <T extends Record> Construction<T> failed(ArgsMessage... errors) {
-			return new Construction<>(Optional.empty(), List.of(errors));
-		}
-
-	}
-
-	private record Constructions(Map<Class<? extends Record>, Record> argInstances, List<ArgsMessage> errors) {
-
-		Constructions {
-			argInstances = Map.copyOf(internalErrorOnNull(argInstances));
-			errors = List.copyOf(internalErrorOnNull(errors));
+		public static <T extends Record> Construction<T> failed(List<ArgsMessage> errors) {
+			return new Construction<>(Optional.empty(), errors);
 		}
 
 	}
@@ -0,0 +1,125 @@
+package dev.nipafx.args;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * Binds the values of a key-value source (e.g. an HTTP request's query parameters) to the {@link Arg}s of an
+ * args record without tokenizing them into an argument array: each key is resolved to its arg with a single
+ * lookup in a map that is computed once per args record and its values are set on that arg like those that
+ * follow the arg's name in an argument array. Like {@code ArgsParser}, this uses no lambdas - see comment in {@code Args}.
+ *
+ * <p>A binder holds the messages of a single binding and is hence confined to the binding thread.</p>
+ */
+class ArgsBinder {
+
+	/**
+	 * The index of each leaf (in the order of {@link RecordSchema#leafNames()}) by its name.
+	 */
+	private static final ClassValue<Map<String, Integer>> LEAF_INDICES = new ClassValue<>() {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Map<String, Integer> computeValue(Class<?> type) {
+			var leafNames = RecordSchema.of((Class<? extends Record>) type).leafNames();
+			var leafIndices = HashMap.<String, Integer> newHashMap(leafNames.size());
+			for (int i = 0; i < leafNames.size(); i++)
+				leafIndices.put(leafNames.get(i), i);
+			return Map.copyOf(leafIndices);
+		}
+
+	};
+
+	private final List<Arg<?>> args;
+	private final Class<? extends Record> type;
+	private final Map<String, Integer> leafIndices;
+	private final List<ArgsMessage> mutableErrors;
+	private final List<ArgsMessage> mutableWarnings;
+
+	private ArgsBinder(List<Arg<?>> args, Class<? extends Record> type) {
+		this.args = internalErrorOnNull(args);
+		this.type = internalErrorOnNull(type);
+		this.leafIndices = LEAF_INDICES.get(type);
+		this.mutableErrors = new ArrayList<>();
+		this.mutableWarnings = new ArrayList<>();
+	}
+
+	/**
+	 * @param args the {@link Arg}s of the {@code type}'s leaves (in the order of {@link RecordSchema#leafNames()}),
+	 * 		which will be mutated according to the bound values
+	 * @param type the args record the {@code args} were created for
+	 */
+	static ArgsBinder forArgs(List<Arg<?>> args, Class<? extends Record> type) {
+		return new ArgsBinder(args, type);
+	}
+
+	/**
+	 * @param values the values by argument name - the lists are bound to a {@link Rest @Rest} arg as they are,
+	 * 		so they must not be changed afterwards
+	 * @throws IllegalArgumentException if a key, list, or value is {@code null} or a key is blank
+	 */
+	public ArgsMessages bind(Map<String, ? extends List<String>> values) {
+		internalErrorOnNull(values);
+		for (Map.Entry<String, ? extends List<String>> nameAndValues : values.entrySet()) {
+			var name = nameAndValues.getKey();
+			var argValues = nameAndValues.getValue();
+			if (name == null || argValues == null)
+				throw new IllegalArgumentException("Values must not contain null keys or lists.");
+			// no argument has a blank name and, unlike an unknown name, there's nothing to report for it
+			if (name.isBlank())
+				throw new IllegalArgumentException("Values must not contain blank keys.");
+
+			var leafIndex = leafIndices.get(name);
+			if (leafIndex == null)
+				mutableWarnings.add(new ArgsMessage.UnknownArgument(name, ArgsParser.NAME_SUGGESTIONS.get(type).closestTo(name)));
+			else
+				bind(args.get(leafIndex), argValues);
+		}
+		return new ArgsMessages(List.copyOf(mutableErrors), List.copyOf(mutableWarnings));
+	}
+
+	private void bind(Arg<?> arg, List<String> values) {
+		for (int i = 0; i < values.size(); i++)
+			if (values.get(i) == null)
+				throw new IllegalArgumentException("The values of '%s' must not contain null.".formatted(arg.name()));
+
+		// like the tokens after "--", the rest may be empty
+		if (arg instanceof RestArg rest) {
+			rest.setValues(values);
+			return;
+		}
+
+		// like an argument name that isn't followed by a value
+		if (values.isEmpty()) {
+			if (ArgsParser.isFlag(arg))
+				setValue(arg, "true");
+			else
+				mutableErrors.add(new ArgsMessage.MissingValue(arg.name()));
+			return;
+		}
+		if (!ArgsParser.isContainer(arg)) {
+			// like the values that follow an argument name's first value
+			setValue(arg, values.getFirst());
+			for (int i = 1; i < values.size(); i++)
+				mutableErrors.add(new ArgsMessage.UnexpectedValue(values.get(i)));
+			return;
+		}
+
+		arg.expectValues(values.size());
+		for (int i = 0; i < values.size(); i++)
+			setValue(arg, values.get(i));
+	}
+
+	private void setValue(Arg<?> arg, String value) {
+		try {
+			arg.setValue(value);
+		} catch (IllegalArgumentException ex) {
+			mutableErrors.add(new ArgsMessage.IllegalValue(arg.name(), arg.type(), value, ex));
+		}
+	}
+
+}
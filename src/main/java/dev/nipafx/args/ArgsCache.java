@@ -0,0 +1,269 @@
+package dev.nipafx.args;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses command-line arguments like {@link Args} but remembers the results, so parsing the same argument array
+ * to the same args types again returns the args records that were created the first time - without converting
+ * values or calling constructors.
+ *
+ * <p>Args records are immutable, so sharing them is safe unless their constructors have side effects that must
+ * happen on every parse. Annotate such types with {@link Uncacheable @Uncacheable} and they will be parsed anew
+ * every time.</p>
+ *
+ * <p>The cache holds at most the specified number of results and evicts the least recently used one when it's
+ * full. Only successful parses are cached, so invalid argument arrays are parsed (and reported) every time.
+ * The cache is thread-safe, but unlike {@code Args}, looking up and storing results (not parsing) briefly locks it.</p>
+ *
+ * <pre>{@code
+ * // create once and share
+ * var cache = ArgsCache.withMaxSize(1_000);
+ * var jobArgs = cache.parse(args, JobArgs.class);
+ * }</pre>
+ */
+public final class ArgsCache {
+
+	private static final ClassValue<Boolean> CACHEABLE = new ClassValue<>() {
+
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			if (type.isAnnotationPresent(Uncacheable.class))
+				return false;
+			if (type.isRecord())
+				for (RecordComponent component : type.getRecordComponents())
+					if (component.getType().isRecord() && !get(component.getType()))
+						return false;
+			return true;
+		}
+
+	};
+
+	private final Map<Key, Record[]> results;
+	private long hits;
+	private long misses;
+
+	private ArgsCache(int maxSize) {
+		this.results = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Record[]> eldest) {
+				return size() > maxSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a cache that holds at most {@code maxSize} results.
+	 *
+	 * @param maxSize the maximum number of cached results
+	 * @return a new, empty cache
+	 * @throws IllegalArgumentException if {@code maxSize} is not positive
+	 */
+	public static ArgsCache withMaxSize(int maxSize) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("The cache's maximum size must be positive but was %d.".formatted(maxSize));
+		return new ArgsCache(maxSize);
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class)} but returns the cached instance if the same argument array
+	 * was parsed to the same type before.
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param type the args type to be created - must be a record or a sealed interface with record implementations
+	 * @return an instance of {@code type}, populated with values from {@code argStrings}
+	 * @param <ARGS_TYPE> the args type to be created - must be a record or a sealed interface with record implementations
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public <ARGS_TYPE> ARGS_TYPE parse(String[] argStrings, Class<ARGS_TYPE> type) throws ArgsParseException {
+		Args.throwIfAnyIsNull(argStrings, type);
+		var instances = parseOrGet(argStrings, type);
+		return type.cast(instances[0]);
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class, Class)} but returns the cached instances if the same argument array
+	 * was parsed to the same types before.
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param type1 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param type2 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @return a pair of {@code [type1, type2]}, populated with values from {@code argStrings}
+	 * @param <ARGS_TYPE_1> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param <ARGS_TYPE_2> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public <ARGS_TYPE_1, ARGS_TYPE_2> Parsed2<ARGS_TYPE_1, ARGS_TYPE_2> parse(
+			String[] argStrings, Class<ARGS_TYPE_1> type1, Class<ARGS_TYPE_2> type2) throws ArgsParseException {
+		Args.throwIfAnyIsNull(argStrings, type1, type2);
+		var instances = parseOrGet(argStrings, type1, type2);
+		return new Parsed2<>(
+				type1.cast(instances[0]),
+				type2.cast(instances[1]));
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class, Class, Class)} but returns the cached instances if the same argument
+	 * array was parsed to the same types before.
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param type1 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param type2 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param type3 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @return a triple of {@code [type1, type2, type3]}, populated with values from {@code argStrings}
+	 * @param <ARGS_TYPE_1> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param <ARGS_TYPE_2> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param <ARGS_TYPE_3> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public <ARGS_TYPE_1, ARGS_TYPE_2, ARGS_TYPE_3> Parsed3<ARGS_TYPE_1, ARGS_TYPE_2, ARGS_TYPE_3> parse(
+			String[] argStrings, Class<ARGS_TYPE_1> type1, Class<ARGS_TYPE_2> type2, Class<ARGS_TYPE_3> type3) throws ArgsParseException {
+		Args.throwIfAnyIsNull(argStrings, type1, type2, type3);
+		var instances = parseOrGet(argStrings, type1, type2, type3);
+		return new Parsed3<>(
+				type1.cast(instances[0]),
+				type2.cast(instances[1]),
+				type3.cast(instances[2]));
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class[])} but returns the cached instances if the same argument array
+	 * was parsed to the same types before.
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param types the args types to be created (at least one) - must be records or sealed interfaces with record implementations
+	 * @return a container with instances of all {@code types}, populated with values from {@code argStrings}
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} or no type as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public ParsedN parse(String[] argStrings, Class<?>... types) throws ArgsParseException {
+		if (types == null || types.length == 0)
+			throw new IllegalArgumentException("At least one args type must be specified.");
+		Args.throwIfAnyIsNull(argStrings, types);
+		var typesCopy = types.clone();
+		return new ParsedN(typesCopy, parseOrGet(argStrings, typesCopy));
+	}
+
+	private Record[] parseOrGet(String[] argStrings, Class<?>... types) throws ArgsParseException {
+		var statistics = ArgsStatistics.enabled();
+		long start = statistics == null ? 0 : System.nanoTime();
+		// copy the array, so the caller can't change the key after the fact
+		var key = new Key(types.clone(), argStrings.clone());
+		Record[] cached;
+		synchronized (results) {
+			cached = results.get(key);
+			if (cached != null)
+				hits++;
+			else
+				misses++;
+		}
+		// misses are recorded by `Args::parse`
+		if (cached != null) {
+			if (statistics != null)
+				statistics.recordParse(types, System.nanoTime() - start);
+			return cached;
+		}
+
+		var instances = Args.parse(key.argStrings, false, null, key.types);
+		if (isCacheable(key.types, instances))
+			synchronized (results) {
+				results.put(key, instances);
+			}
+		return instances;
+	}
+
+	private static boolean isCacheable(Class<?>[] types, Record[] instances) {
+		for (int i = 0; i < types.length; i++)
+			if (!CACHEABLE.get(types[i]) || !CACHEABLE.get(instances[i].getClass()))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Returns the number of cache hits and misses so far as well as the current number of cached results.
+	 *
+	 * @return the cache's statistics
+	 */
+	public Statistics statistics() {
+		synchronized (results) {
+			return new Statistics(hits, misses, results.size());
+		}
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	/**
+	 * Marks an args type (record or sealed interface) whose instances must not be cached,
+	 * e.g. because its constructor has side effects that must happen on every parse.
+	 * Records that contain such records as components aren't cached either.
+	 */
+	@Documented
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public @interface Uncacheable { }
+
+	/**
+	 * A snapshot of a cache's statistics.
+	 *
+	 * @param hits the number of parses that returned cached results
+	 * @param misses the number of parses that had to parse the argument array (including failed parses
+	 *               and those to {@link Uncacheable @Uncacheable} types)
+	 * @param size the number of cached results
+	 */
+	public record Statistics(long hits, long misses, int size) { }
+
+	/**
+	 * Both arrays are private copies and the hash is computed once from their content
+	 * ({@code String} caches its hash, so that's mostly a matter of combining cached values).
+	 */
+	private static final class Key {
+
+		private final Class<?>[] types;
+		private final String[] argStrings;
+		private final int hash;
+
+		Key(Class<?>[] types, String[] argStrings) {
+			this.types = types;
+			this.argStrings = argStrings;
+			this.hash = 31 * Arrays.hashCode(types) + Arrays.hashCode(argStrings);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return this == other
+					|| other instanceof Key key
+					&& hash == key.hash
+					&& Arrays.equals(types, key.types)
+					&& Arrays.equals(argStrings, key.argStrings);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+	}
+
+}
@@ -24,6 +24,15 @@ public enum ArgsDefinitionErrorCode {
 	FAULTY_STATIC_INITIALIZER,
 
 	/** At most one sealed interface may be called {@code Action} or {@code ActionArgs}. */
-	MULTIPLE_ACTIONS
+	MULTIPLE_ACTIONS,
+
+	/** At most one component of all args records that are parsed together may be annotated with {@link Rest @Rest}. */
+	MULTIPLE_REST_ARGUMENTS,
+
+	/**
+	 * A {@link ShortName short name} wasn't an ASCII letter or was declared on a component
+	 * that can't have one (a nested args record or a {@link Rest @Rest} component).
+	 */
+	ILLEGAL_SHORT_NAME
 
 }
@@ -0,0 +1,180 @@
+package dev.nipafx.args;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses command-line arguments like {@link Args} but replaces each converted value (e.g. a {@code String},
+ * {@code Path}, or number) with an equal instance that was seen before - optionally also whole args records.
+ *
+ * <p>This is meant for bulk-parsing many argument arrays (e.g. stored command lines) whose results are kept
+ * around: when the same values (or records) show up again and again, the retained heap then grows with
+ * the number of distinct values instead of the number of parsed arrays.</p>
+ *
+ * <p>The interner holds at most the specified number of canonical instances. Once it's full, new values are
+ * no longer interned (but those it already holds are still used). The interner is thread-safe and lock-free,
+ * so it can be shared by threads that parse concurrently.</p>
+ *
+ * <pre>{@code
+ * var interner = ArgsInterner.forValuesAndRecords(1_000_000);
+ * for (String[] commandLine : commandLines)
+ *     jobs.add(interner.parse(commandLine, JobArgs.class));
+ * }</pre>
+ */
+public final class ArgsInterner {
+
+	private final ConcurrentHashMap<Object, Object> canonicalInstances;
+	private final int maxSize;
+	private final boolean internRecords;
+
+	private ArgsInterner(int maxSize, boolean internRecords) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("The interner's maximum size must be positive but was %d.".formatted(maxSize));
+		this.canonicalInstances = new ConcurrentHashMap<>();
+		this.maxSize = maxSize;
+		this.internRecords = internRecords;
+	}
+
+	/**
+	 * Creates an interner for converted values that holds at most {@code maxSize} instances.
+	 *
+	 * @param maxSize the maximum number of canonical instances
+	 * @return a new, empty interner
+	 * @throws IllegalArgumentException if {@code maxSize} is not positive
+	 */
+	public static ArgsInterner forValues(int maxSize) {
+		return new ArgsInterner(maxSize, false);
+	}
+
+	/**
+	 * Creates an interner for converted values and args records (including nested ones)
+	 * that holds at most {@code maxSize} instances.
+	 *
+	 * <p>Equal args records are then the same instance, so only use this if the records'
+	 * identity doesn't matter (e.g. they're not used for synchronization).</p>
+	 *
+	 * @param maxSize the maximum number of canonical instances
+	 * @return a new, empty interner
+	 * @throws IllegalArgumentException if {@code maxSize} is not positive
+	 */
+	public static ArgsInterner forValuesAndRecords(int maxSize) {
+		return new ArgsInterner(maxSize, true);
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class)} but interns the converted values (and maybe the records).
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param type the args type to be created - must be a record or a sealed interface with record implementations
+	 * @return an instance of {@code type}, populated with values from {@code argStrings}
+	 * @param <ARGS_TYPE> the args type to be created - must be a record or a sealed interface with record implementations
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public <ARGS_TYPE> ARGS_TYPE parse(String[] argStrings, Class<ARGS_TYPE> type) throws ArgsParseException {
+		Args.throwIfAnyIsNull(argStrings, type);
+		var instances = Args.parse(argStrings, false, this, type);
+		return type.cast(instances[0]);
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class, Class)} but interns the converted values (and maybe the records).
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param type1 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param type2 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @return a pair of {@code [type1, type2]}, populated with values from {@code argStrings}
+	 * @param <ARGS_TYPE_1> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param <ARGS_TYPE_2> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public <ARGS_TYPE_1, ARGS_TYPE_2> Parsed2<ARGS_TYPE_1, ARGS_TYPE_2> parse(
+			String[] argStrings, Class<ARGS_TYPE_1> type1, Class<ARGS_TYPE_2> type2) throws ArgsParseException {
+		Args.throwIfAnyIsNull(argStrings, type1, type2);
+		var instances = Args.parse(argStrings, false, this, type1, type2);
+		return new Parsed2<>(
+				type1.cast(instances[0]),
+				type2.cast(instances[1]));
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class, Class, Class)} but interns the converted values (and maybe the records).
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param type1 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param type2 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param type3 one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @return a triple of {@code [type1, type2, type3]}, populated with values from {@code argStrings}
+	 * @param <ARGS_TYPE_1> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param <ARGS_TYPE_2> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @param <ARGS_TYPE_3> one of the args types to be created - must be a record or a sealed interface with record implementations
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public <ARGS_TYPE_1, ARGS_TYPE_2, ARGS_TYPE_3> Parsed3<ARGS_TYPE_1, ARGS_TYPE_2, ARGS_TYPE_3> parse(
+			String[] argStrings, Class<ARGS_TYPE_1> type1, Class<ARGS_TYPE_2> type2, Class<ARGS_TYPE_3> type3) throws ArgsParseException {
+		Args.throwIfAnyIsNull(argStrings, type1, type2, type3);
+		var instances = Args.parse(argStrings, false, this, type1, type2, type3);
+		return new Parsed3<>(
+				type1.cast(instances[0]),
+				type2.cast(instances[1]),
+				type3.cast(instances[2]));
+	}
+
+	/**
+	 * Like {@link Args#parse(String[], Class[])} but interns the converted values (and maybe the records).
+	 *
+	 * @param argStrings the string array to be parsed - usually {@code String[] args} as passed to {@code main}
+	 * @param types the args types to be created (at least one) - must be records or sealed interfaces with record implementations
+	 * @return a container with instances of all {@code types}, populated with values from {@code argStrings}
+	 * @throws ArgsParseException when the specified argument array can't be correctly parsed
+	 * @throws ArgsDefinitionException when not all specified types are valid args types
+	 * @throws IllegalArgumentException when an illegal argument was passed to {@code parse} (it was likely {@code null} or no type as other cases are covered by other exceptions)
+	 * @throws IllegalStateException when an unexpected internal state is encountered - this is likely a bug
+	 */
+	public ParsedN parse(String[] argStrings, Class<?>... types) throws ArgsParseException {
+		if (types == null || types.length == 0)
+			throw new IllegalArgumentException("At least one args type must be specified.");
+		Args.throwIfAnyIsNull(argStrings, types);
+		var typesCopy = types.clone();
+		return new ParsedN(typesCopy, Args.parse(argStrings, false, this, typesCopy));
+	}
+
+	/**
+	 * Returns the number of canonical instances the interner holds.
+	 *
+	 * @return the number of canonical instances
+	 */
+	public int size() {
+		return canonicalInstances.size();
+	}
+
+	/**
+	 * @return an instance that is equal to {@code value} - the first such instance that was interned
+	 * 		or {@code value} itself if it's the first or the interner is full
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T intern(T value) {
+		var canonical = canonicalInstances.get(value);
+		if (canonical != null)
+			return (T) canonical;
+		if (canonicalInstances.size() >= maxSize)
+			return value;
+		canonical = canonicalInstances.putIfAbsent(value, value);
+		return canonical == null ? value : (T) canonical;
+	}
+
+	/**
+	 * @return the canonical instance of {@code record} if records are interned, otherwise {@code record} itself
+	 */
+	<T extends Record> T internRecord(T record) {
+		return internRecords ? intern(record) : record;
+	}
+
+}
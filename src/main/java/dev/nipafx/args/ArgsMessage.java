@@ -1,5 +1,6 @@
 package dev.nipafx.args;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -37,22 +38,41 @@ public sealed interface ArgsMessage {
 	/**
 	 * Indicates that an argument couldn't be mapped to a record component.
 	 *
-	 * @param argumentName the name of the argument (which doesn't include "--")
+	 * @param argumentName the name of the argument (which doesn't include "--"),
+	 *                     or for short names, "-" and the character (e.g. "-x")
+	 * @param suggestions the names of known arguments that are most similar to {@code argumentName}
+	 *                    (without "--"; closest first)
 	 */
-	record UnknownArgument(String argumentName) implements ArgsWarningMessage {
+	record UnknownArgument(String argumentName, List<String> suggestions) implements ArgsWarningMessage {
 
 		/**
 		 * Creates a message indicating that an argument couldn't be mapped to a record component.
 		 *
-		 * @param argumentName the name of the argument (which doesn't include "--")
+		 * @param argumentName the name of the argument (which doesn't include "--"),
+		 *                     or for short names, "-" and the character (e.g. "-x")
+		 * @param suggestions the names of known arguments that are most similar to {@code argumentName}
+		 *                    (without "--"; closest first)
 		 */
 		public UnknownArgument {
 			internalErrorOnNullOrBlank(argumentName);
+			suggestions = List.copyOf(internalErrorOnNull(suggestions));
+		}
+
+		/**
+		 * Creates a message indicating that an argument couldn't be mapped to a record component
+		 * without suggesting any similar arguments.
+		 *
+		 * @param argumentName the name of the argument (which doesn't include "--")
+		 */
+		public UnknownArgument(String argumentName) {
+			this(argumentName, List.of());
 		}
 
 		@Override
 		public String toMessage() {
-			return "The provided argument '--%s' is unknown.".formatted(argumentName);
+			// short names already include their "-"
+			var argument = argumentName.startsWith("-") ? argumentName : "--".concat(argumentName);
+			return "The provided argument '%s' is unknown.%s".formatted(argument, didYouMean(suggestions, "--"));
 		}
 
 	}
@@ -159,7 +179,8 @@ public sealed interface ArgsMessage {
 		public IllegalValue {
 			internalErrorOnNullOrBlank(argumentName);
 			internalErrorOnNull(argumentType);
-			internalErrorOnNullOrBlank(value);
+			// values come from users and can be empty (e.g. `--intArg ""`)
+			internalErrorOnNull(value);
 			internalErrorOnNull(parseError);
 		}
 
@@ -184,7 +205,7 @@ public sealed interface ArgsMessage {
 		 * @param value the encountered value
 		 */
 		public UnexpectedValue {
-			internalErrorOnNullOrBlank(value);
+			internalErrorOnNull(value);
 		}
 
 		@Override
@@ -200,8 +221,10 @@ public sealed interface ArgsMessage {
 	 * @param modeName the name of the mode (which doesn't include "--")
 	 * @param allowedValues the allowed values
 	 * @param actualValue the actual value provided for the mode
+	 * @param suggestions the allowed values that are most similar to {@code actualValue} (closest first)
 	 */
-	record IllegalModeValue(String modeName, Set<String> allowedValues, String actualValue) implements ArgsErrorMessage {
+	record IllegalModeValue(String modeName, Set<String> allowedValues, String actualValue, List<String> suggestions)
+			implements ArgsErrorMessage {
 
 		/**
 		 * Creates a message indicating that the value provided for the mode was unknown.
@@ -209,12 +232,26 @@ public sealed interface ArgsMessage {
 		 * @param modeName the name of the mode (which doesn't include "--")
 		 * @param allowedValues the allowed values
 		 * @param actualValue the actual value provided for the mode
+		 * @param suggestions the allowed values that are most similar to {@code actualValue} (closest first)
 		 */
 		public IllegalModeValue {
 			internalErrorOnNullOrBlank(modeName);
 			internalErrorOnNullOrEmpty(allowedValues);
 			allowedValues = Set.copyOf(allowedValues);
 			internalErrorOnNullOrBlank(actualValue);
+			suggestions = List.copyOf(internalErrorOnNull(suggestions));
+		}
+
+		/**
+		 * Creates a message indicating that the value provided for the mode was unknown
+		 * without suggesting any similar values.
+		 *
+		 * @param modeName the name of the mode (which doesn't include "--")
+		 * @param allowedValues the allowed values
+		 * @param actualValue the actual value provided for the mode
+		 */
+		public IllegalModeValue(String modeName, Set<String> allowedValues, String actualValue) {
+			this(modeName, allowedValues, actualValue, List.of());
 		}
 
 		@Override
@@ -222,8 +259,8 @@ public sealed interface ArgsMessage {
 			var allowedNames = allowedValues.stream()
 					.sorted()
 					.collect(joining("', '", "'", "'"));
-			return "The value '%s' for argument '--%s' did not match any of the allowed values: [ %s ]"
-					.formatted(actualValue, modeName, allowedNames);
+			return "The value '%s' for argument '--%s' did not match any of the allowed values: [ %s ]%s"
+					.formatted(actualValue, modeName, allowedNames, didYouMean(suggestions, ""));
 		}
 
 	}
@@ -233,19 +270,33 @@ public sealed interface ArgsMessage {
 	 *
 	 * @param allowedValues the allowed values
 	 * @param actualValue the first encountered value in the argument array
+	 * @param suggestions the allowed values that are most similar to {@code actualValue} (closest first)
 	 */
-	record UnknownAction(Set<String> allowedValues, String actualValue) implements ArgsErrorMessage {
+	record UnknownAction(Set<String> allowedValues, String actualValue, List<String> suggestions) implements ArgsErrorMessage {
 
 		/**
 		 * Creates a message indicating that the first argument was not a known value for the action.
 		 *
 		 * @param allowedValues the allowed values
 		 * @param actualValue the first encountered value in the argument array
+		 * @param suggestions the allowed values that are most similar to {@code actualValue} (closest first)
 		 */
 		public UnknownAction {
 			internalErrorOnNullOrEmpty(allowedValues);
 			allowedValues = Set.copyOf(allowedValues);
 			internalErrorOnNullOrBlank(actualValue);
+			suggestions = List.copyOf(internalErrorOnNull(suggestions));
+		}
+
+		/**
+		 * Creates a message indicating that the first argument was not a known value for the action
+		 * without suggesting any similar values.
+		 *
+		 * @param allowedValues the allowed values
+		 * @param actualValue the first encountered value in the argument array
+		 */
+		public UnknownAction(Set<String> allowedValues, String actualValue) {
+			this(allowedValues, actualValue, List.of());
 		}
 
 		@Override
@@ -253,8 +304,8 @@ public sealed interface ArgsMessage {
 			var allowedNames = allowedValues.stream()
 					.sorted()
 					.collect(joining("', '", "'", "'"));
-			return "The first provided value '%s' did not match any of the allowed values: [ %s ]."
-					.formatted(actualValue, allowedNames);
+			return "The first provided value '%s' did not match any of the allowed values: [ %s ].%s"
+					.formatted(actualValue, allowedNames, didYouMean(suggestions, ""));
 		}
 
 	}
@@ -288,4 +339,14 @@ public sealed interface ArgsMessage {
 
 	}
 
+	private static String didYouMean(List<String> suggestions, String prefix) {
+		if (suggestions.isEmpty())
+			return "";
+		if (suggestions.size() == 1)
+			return " Did you mean '%s%s'?".formatted(prefix, suggestions.getFirst());
+		return suggestions.stream()
+				.map(suggestion -> prefix + suggestion)
+				.collect(joining("', '", " Did you mean one of [ '", "' ]?"));
+	}
+
 }
@@ -6,6 +6,8 @@ import static dev.nipafx.args.Check.internalErrorOnNull;
 
 record ArgsMessages(List<ArgsMessage> errors, List<ArgsMessage> warnings) {
 
+	static final ArgsMessages NONE = new ArgsMessages(List.of(), List.of());
+
 	ArgsMessages {
 		errors = List.copyOf(internalErrorOnNull(errors));
 		warnings = List.copyOf(internalErrorOnNull(warnings));
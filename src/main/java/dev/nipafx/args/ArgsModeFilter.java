@@ -1,20 +1,49 @@
 package dev.nipafx.args;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 import static dev.nipafx.args.ArgsDefinitionErrorCode.ILL_DEFINED_ARGS_TYPE;
 import static dev.nipafx.args.ArgsDefinitionErrorCode.MULTIPLE_ACTIONS;
 import static dev.nipafx.args.Check.internalErrorOnNull;
-import static java.util.Arrays.stream;
-import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toMap;
 
+/**
+ * Filters mode and action selectors from the argument array and resolves the matching record types.
+ *
+ * <p>Instances are mutable and not thread-safe, so each parse must create its own.
+ * The static methods are stateless and hence thread-safe.</p>
+ */
 class ArgsModeFilter {
 
+	/**
+	 * The records of each mode or action interface by the values that select them (must not be mutated).
+	 * If the interface is ill-defined, computing them throws on every access.
+	 */
+	private static final ClassValue<Map<String, Class<? extends Record>>> VALUES_BY_TYPE_NAME = new ClassValue<>() {
+
+		@Override
+		protected Map<String, Class<? extends Record>> computeValue(Class<?> type) {
+			return createValuesByTypeName(type, ArgsSchemaIndex.indexOf(type));
+		}
+
+	};
+
+	/**
+	 * The values of each mode or action interface, from which the closest ones are suggested for unknown values.
+	 */
+	private static final ClassValue<Suggestions> VALUE_SUGGESTIONS = new ClassValue<>() {
+
+		@Override
+		protected Suggestions computeValue(Class<?> type) {
+			return Suggestions.of(VALUES_BY_TYPE_NAME.get(type).keySet());
+		}
+
+	};
+
 	private final List<String> argList;
 	private final List<ArgsMessage> errors;
 	private final List<Class<? extends Record>> recordTypes;
@@ -27,21 +56,18 @@ class ArgsModeFilter {
 		this.recordTypes = new ArrayList<>();
 	}
 
-	public ArgsAndTypes processModes(String[] argStrings, Class<?>[] types) {
+	public ArgsAndTypes processModes(List<String> argStrings, Class<?>[] types) {
 		internalErrorOnNull(argStrings);
 		internalErrorOnNull(types);
 
-		argList.addAll(List.of(argStrings));
+		argList.addAll(argStrings);
 
 		for (Class<?> type : types) {
+			// throws if an interface isn't sealed with exclusively record implementations
 			if (type.isRecord())
 				processRecord(type);
-			else if (type.isInterface() && type.isSealed()) {
-				processSealedInterface(type);
-			} else {
-				var message = "Types must be records or sealed interfaces with exclusively record implementations, but '%s' isn't.";
-				throw new ArgsDefinitionException(ILL_DEFINED_ARGS_TYPE, message.formatted(type));
-			}
+			else
+				processSealedInterface(type, VALUES_BY_TYPE_NAME.get(type));
 		}
 
 		var argsAndTypes = new ArgsAndTypes(List.copyOf(argList), List.copyOf(recordTypes), List.copyOf(errors));
@@ -57,21 +83,20 @@ class ArgsModeFilter {
 		recordTypes.add((Class<? extends Record>) type);
 	}
 
-	private void processSealedInterface(Class<?> type) {
-		if (Set.of("Action", "ActionArgs").contains(type.getSimpleName()))
-			processAction(type);
+	private void processSealedInterface(Class<?> type, Map<String, Class<? extends Record>> valueTypesByName) {
+		if (hasActionName(type))
+			processAction(type, valueTypesByName);
 		else
-			processMode(type);
+			processMode(type, valueTypesByName);
 	}
 
-	private void processAction(Class<?> type) {
+	private void processAction(Class<?> type, Map<String, Class<? extends Record>> valueTypesByName) {
 		if (actionFound) {
 			var message = "There can only be one action, but %s is the second such interface.".formatted(type);
 			throw new ArgsDefinitionException(MULTIPLE_ACTIONS, message);
 		}
 		actionFound = true;
 
-		var valueTypesByName = createValuesByTypeName(type);
 		if (argList.isEmpty())
 			errors.add(new ArgsMessage.MissingAction(valueTypesByName.keySet()));
 		else {
@@ -79,7 +104,8 @@ class ArgsModeFilter {
 			var valueType = valueTypesByName.get(value);
 
 			if (valueType == null)
-				errors.add(new ArgsMessage.UnknownAction(valueTypesByName.keySet(), value));
+				errors.add(new ArgsMessage.UnknownAction(
+						valueTypesByName.keySet(), value, VALUE_SUGGESTIONS.get(type).closestTo(value)));
 			else {
 				argList.removeFirst();
 				recordTypes.add(valueType);
@@ -87,21 +113,23 @@ class ArgsModeFilter {
 		}
 	}
 
-	private void processMode(Class<?> type) {
-		// create names of argument and values
+	private void processMode(Class<?> type, Map<String, Class<? extends Record>> valueTypesByName) {
 		var modeName = createArgumentName(type);
-		var valueTypesByName = createValuesByTypeName(type);
 
 		// detect and remove arguments
-		var argumentIndex = argList.indexOf("--" + modeName);
+		var argumentIndex = argList.indexOf("--".concat(modeName));
 		if (argumentIndex == -1)
 			errors.add(new ArgsMessage.MissingArgument(modeName));
+		// the argument list ends before "--", so the mode argument may be its last element
+		else if (argumentIndex + 1 == argList.size())
+			errors.add(new ArgsMessage.MissingValue(modeName));
 		else {
 			var value = argList.get(argumentIndex + 1);
 			var valueType = valueTypesByName.get(value);
 
 			if (valueType == null)
-				errors.add(new ArgsMessage.IllegalModeValue(modeName, valueTypesByName.keySet(), value));
+				errors.add(new ArgsMessage.IllegalModeValue(
+						modeName, valueTypesByName.keySet(), value, VALUE_SUGGESTIONS.get(type).closestTo(value)));
 			else {
 				argList.remove(argumentIndex + 1);
 				argList.remove(argumentIndex);
@@ -110,26 +138,98 @@ class ArgsModeFilter {
 		}
 	}
 
+	/**
+	 * @return all records the specified args type can resolve to, i.e. the type itself if it's a record
+	 * 		or the implementations if it's a sealed interface
+	 * @throws ArgsDefinitionException if the type is neither a record nor a sealed interface with record implementations
+	 */
 	@SuppressWarnings("unchecked")
-	private static Map<String, Class<? extends Record>> createValuesByTypeName(Class<?> type) {
-		return stream(type.getPermittedSubclasses())
-				.map(subtype -> {
-					if (subtype.isRecord())
-						return (Class<? extends Record>) subtype;
-					else {
-						var message = "Types must be records or sealed interfaces with exclusively record implementations, but '%s' isn't.";
-						throw new ArgsDefinitionException(ILL_DEFINED_ARGS_TYPE, message.formatted(subtype));
-					}
-				})
-				.collect(toMap(ArgsModeFilter::createArgumentName, identity()));
+	static List<Class<? extends Record>> resolveRecordTypes(Class<?> type) {
+		if (type.isRecord())
+			return List.of((Class<? extends Record>) type);
+		return List.copyOf(VALUES_BY_TYPE_NAME.get(type).values());
+	}
+
+	static boolean isAction(Class<?> type) {
+		return type.isInterface() && type.isSealed() && hasActionName(type);
+	}
+
+	private static boolean hasActionName(Class<?> type) {
+		var simpleName = type.getSimpleName();
+		return simpleName.equals("Action") || simpleName.equals("ActionArgs");
+	}
+
+	/**
+	 * @param index the index to take the values from if it contains the type - if {@code null},
+	 * 		they're determined by reflecting over the type
+	 * @return the records of the specified mode or action interface by the values that select them
+	 * 		(must not be mutated)
+	 * @throws ArgsDefinitionException if the type isn't a sealed interface with exclusively record implementations
+	 */
+	static Map<String, Class<? extends Record>> createValuesByTypeName(Class<?> type, ArgsSchemaIndex.Index index) {
+		var entry = index == null ? null : index.sealed().get(type.getName());
+		if (entry != null) {
+			var valuesByTypeName = valuesFromIndex(type, entry);
+			if (valuesByTypeName != null)
+				return valuesByTypeName;
+		}
+
+		if (!type.isInterface() || !type.isSealed()) {
+			var message = "Types must be records or sealed interfaces with exclusively record implementations, but '%s' isn't.";
+			throw new ArgsDefinitionException(ILL_DEFINED_ARGS_TYPE, message.formatted(type));
+		}
+		return valuesFromReflection(type);
+	}
+
+	/**
+	 * @return the values or {@code null} if the index doesn't match the type
+	 * 		(e.g. because the type was changed without updating the index)
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Class<? extends Record>> valuesFromIndex(Class<?> type, ArgsSchemaIndex.SealedEntry entry) {
+		var recordTypeNamesByValue = entry.recordTypeNamesByValue();
+		var valuesByTypeName = HashMap.<String, Class<? extends Record>> newHashMap(recordTypeNamesByValue.size());
+		try {
+			for (Map.Entry<String, String> value : recordTypeNamesByValue.entrySet()) {
+				var valueType = ArgsSchemaIndex.resolve(value.getValue(), type.getClassLoader());
+				if (!valueType.isRecord() || !type.isAssignableFrom(valueType))
+					return null;
+				valuesByTypeName.put(value.getKey(), (Class<? extends Record>) valueType);
+			}
+		} catch (ClassNotFoundException ex) {
+			return null;
+		}
+		return Collections.unmodifiableMap(valuesByTypeName);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Class<? extends Record>> valuesFromReflection(Class<?> type) {
+		var subtypes = type.getPermittedSubclasses();
+		var valuesByTypeName = HashMap.<String, Class<? extends Record>> newHashMap(subtypes.length);
+		for (Class<?> subtype : subtypes) {
+			if (!subtype.isRecord()) {
+				var message = "Types must be records or sealed interfaces with exclusively record implementations, but '%s' isn't.";
+				throw new ArgsDefinitionException(ILL_DEFINED_ARGS_TYPE, message.formatted(subtype));
+			}
+			var previous = valuesByTypeName.put(createArgumentName(subtype), (Class<? extends Record>) subtype);
+			if (previous != null) {
+				var message = "The subtypes %s and %s of %s map to the same value.".formatted(previous, subtype, type);
+				throw new IllegalStateException(message);
+			}
+		}
+		return Collections.unmodifiableMap(valuesByTypeName);
 	}
 
-	private static String createArgumentName(Class<?> type) {
+	/**
+	 * @return the name of the mode argument for a mode interface or the value that selects a mode or action record
+	 * 		(i.e. the simple name without a trailing "Args" and starting with a lower-case letter)
+	 */
+	static String createArgumentName(Class<?> type) {
 		var originalName = type.getSimpleName();
 		var argsLessName = originalName.endsWith("Args")
 				? originalName.substring(0, originalName.length() - 4)
 				: originalName;
-		return argsLessName.substring(0, 1).toLowerCase(Locale.US) + argsLessName.substring(1);
+		return argsLessName.substring(0, 1).toLowerCase(Locale.US).concat(argsLessName.substring(1));
 	}
 
 }
@@ -1,199 +1,368 @@
 package dev.nipafx.args;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.Function;
+import java.util.Set;
 
 import static dev.nipafx.args.Check.internalErrorOnNull;
 
 class ArgsParser {
 
-	private State state;
+	/*
+	 * STATE MACHINE
+	 *
+	 * The parser is a state machine whose transitions are looked up in a table that is indexed by
+	 * the current state, the class of the current token, and the kind of the current arg (i.e. the
+	 * one whose name was the last known name). Each table entry encodes the actions to perform and
+	 * the next state. This keeps the parse loop free of allocations and virtual calls (and of
+	 * lambdas - see comment in `Args`).
+	 */
+
+	// states
+	private static final int EXPECTING_NAME = 0;
+	private static final int EXPECTING_VALUE = 1;
+	private static final int EXPECTING_NAME_OR_ADDITIONAL_VALUE = 2;
+	private static final int IGNORING_VALUE = 3;
+	private static final int STATES = 4;
+
+	// token classes
+	private static final int VALUE = 0;
+	private static final int KNOWN_NAME = 1;
+	private static final int UNKNOWN_NAME = 2;
+	private static final int END = 3;
+	private static final int TOKEN_CLASSES = 4;
+
+	// arg kinds
+	private static final int SINGLE = 0;
+	private static final int FLAG = 1;
+	private static final int CONTAINER = 2;
+	private static final int ARG_KINDS = 3;
+
+	// actions (bit flags, which are performed in this order)
+	private static final int SET_TRUE = 1;
+	private static final int REPORT_MISSING_VALUE = 1 << 1;
+	private static final int REPORT_UNEXPECTED_VALUE = 1 << 2;
+	private static final int REPORT_UNKNOWN_NAME = 1 << 3;
+	private static final int EXPECT_VALUES = 1 << 4;
+	private static final int SET_VALUE = 1 << 5;
+
+	// the actions that create messages
+	private static final int REPORTS = REPORT_MISSING_VALUE | REPORT_UNEXPECTED_VALUE | REPORT_UNKNOWN_NAME;
+
+	// the lower two bits of an entry are the next state, the upper bits the actions
+	private static final int STATE_BITS = 2;
+	private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+	private static final int[] TRANSITIONS = createTransitions();
+
+	/**
+	 * List arguments with at least this many values in a row (e.g. {@code --ids 1 2 3 ...}) parse them
+	 * in parallel - configure with the system property {@code recordArgs.parallelThreshold}
+	 * (e.g. set it to {@code 2147483647} to always parse sequentially).
+	 */
+	private static final int PARALLEL_THRESHOLD = Integer.getInteger("recordArgs.parallelThreshold", 100_000);
+
+	/**
+	 * The names of each args record's arguments, from which the closest ones are suggested for unknown names.
+	 * Like the record's schema, this is computed once per type and then shared by all parses.
+	 */
+	static final ClassValue<Suggestions> NAME_SUGGESTIONS = new ClassValue<>() {
 
-	// used by `State` implementations
-	private final List<Arg<?>> args;
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Suggestions computeValue(Class<?> type) {
+			return Suggestions.of(RecordSchema.of((Class<? extends Record>) type).leafNames());
+		}
+
+	};
+
+	private final Map<String, Arg<?>> argsByName;
+	// indexed by the short names' characters (`null` if there are no short names)
+	private final Arg<?>[] argsByShortName;
+	// `null` if values that belong to no arg are errors
+	private final RestArg rest;
+	private final List<Class<? extends Record>> types;
 	private final List<ArgsMessage> mutableErrors;
 	private final List<ArgsMessage> mutableWarnings;
 
-	private ArgsParser(List<Arg<?>> args) {
-		this.args = List.copyOf(internalErrorOnNull(args));
+	// the state of the current parse
+	private int state;
+	private Arg<?> currentArg;
+	private int currentKind;
+	// an optimistic parse creates no messages and aborts at the first of these actions or an illegal value
+	private boolean optimistic;
+	private int anomalies;
+	private boolean aborted;
+
+	private ArgsParser(List<Arg<?>> args, Arg<?>[] argsByShortName, RestArg rest, List<Class<? extends Record>> types) {
+		this.argsByName = HashMap.newHashMap(internalErrorOnNull(args).size());
+		for (Arg<?> arg : args)
+			// the rest arg has no name on the command line
+			if (!(arg instanceof RestArg))
+				argsByName.put(arg.name(), arg);
+		this.argsByShortName = argsByShortName;
+		this.rest = rest;
+		this.types = internalErrorOnNull(types);
 		this.mutableErrors = new ArrayList<>();
 		this.mutableWarnings = new ArrayList<>();
-
-		this.state = new ExpectingName();
 	}
 
 	/**
 	 * @param args list of {@link Arg}s, which will be mutated according to the args string
+	 * @param types the args records the {@code args} were created for (used to suggest names for unknown arguments)
 	 */
-	static ArgsParser forArgs(List<Arg<?>> args) {
-		return new ArgsParser(args);
+	static ArgsParser forArgs(List<Arg<?>> args, List<Class<? extends Record>> types) {
+		return new ArgsParser(args, null, null, types);
 	}
 
-	public ArgsMessages parse(List<String> argStrings) {
-		internalErrorOnNull(argStrings);
-
-		for (String argString : argStrings)
-			state = state.transition(argString);
-		state.finish();
-		return new ArgsMessages(List.copyOf(mutableErrors), List.copyOf(mutableWarnings));
-	}
-
-	/*
-	 * STATE MACHINE
+	/**
+	 * Like {@link #forArgs(List, List)} but also resolves short names and, if there's a {@code rest} arg,
+	 * the first value that belongs to no arg isn't an error and, instead, it and all following tokens are its value.
+	 *
+	 * @param argsByShortName for each ASCII character, the arg with that short name - may be {@code null} if there are none
+	 * @param rest may be {@code null}
 	 */
-
-	private interface State {
-
-		State transition(String argString);
-
-		void finish();
-
+	static ArgsParser forArgs(List<Arg<?>> args, Arg<?>[] argsByShortName, RestArg rest, List<Class<? extends Record>> types) {
+		return new ArgsParser(args, argsByShortName, rest, types);
 	}
 
-	private abstract class GeneralState implements State {
-
-		protected final Optional<String> asArgName(String argString) {
-			return argString.startsWith("--")
-					? Optional.of(argString.substring(2))
-					: Optional.empty();
-		}
-
-		protected final Optional<Arg<?>> findArgument(String argName) {
-			return args.stream()
-					.filter(arg -> arg.name().equals(argName))
-					.findFirst();
-		}
-
-		protected final State transitionToArgumentState(
-				String argName,
-				Function<Arg<?>, ? extends State> createStateForArg,
-				Function<String, ? extends State> createStateForUnknownArg) {
-			return findArgument(argName)
-					.<State> map(createStateForArg)
-					.orElseGet(() -> {
-						mutableWarnings.add(new ArgsMessage.UnknownArgument(argName));
-						return createStateForUnknownArg.apply(argName);
-					});
-		}
-
-		protected final State transition(
-				String argString,
-				Function<Arg<?>, ? extends State> createStateForArg,
-				Function<String, ? extends State> createStateForUnknownArg,
-				Function<String, ? extends State> createStateForValue) {
-			return asArgName(argString)
-					.map(argName -> transitionToArgumentState(argName, createStateForArg, createStateForUnknownArg))
-					.orElseGet(() -> createStateForValue.apply(argString));
-		}
-
-		protected final void setValue(Arg<?> arg, String argString) {
-			try {
-				arg.setValue(argString);
-			} catch (IllegalArgumentException ex) {
-				mutableErrors.add(new ArgsMessage.IllegalValue(arg.name(), arg.type(), argString, ex));
+	private static int[] createTransitions() {
+		var transitions = new int[STATES * TOKEN_CLASSES * ARG_KINDS];
+		for (int kind = 0; kind < ARG_KINDS; kind++) {
+			// a known name always starts a new arg, which expects a value; an unknown name's value is ignored
+			for (int state = 0; state < STATES; state++) {
+				setTransition(transitions, state, KNOWN_NAME, kind, 0, EXPECTING_VALUE);
+				setTransition(transitions, state, UNKNOWN_NAME, kind, REPORT_UNKNOWN_NAME, IGNORING_VALUE);
+				setTransition(transitions, state, END, kind, 0, state);
 			}
-		}
 
-		@Override
-		public void finish() {
+			setTransition(transitions, EXPECTING_NAME, VALUE, kind, REPORT_UNEXPECTED_VALUE, EXPECTING_NAME);
+			setTransition(transitions, EXPECTING_NAME_OR_ADDITIONAL_VALUE, VALUE, kind, SET_VALUE, EXPECTING_NAME_OR_ADDITIONAL_VALUE);
+			setTransition(transitions, IGNORING_VALUE, VALUE, kind, 0, IGNORING_VALUE);
 		}
 
+		// an arg without value is an error unless it's a flag, which is then set to true
+		// (but a value-less arg followed by an unknown name is left unset, which the caller reports as missing)
+		setTransition(transitions, EXPECTING_VALUE, KNOWN_NAME, SINGLE, REPORT_MISSING_VALUE, EXPECTING_VALUE);
+		setTransition(transitions, EXPECTING_VALUE, KNOWN_NAME, FLAG, SET_TRUE, EXPECTING_VALUE);
+		setTransition(transitions, EXPECTING_VALUE, KNOWN_NAME, CONTAINER, REPORT_MISSING_VALUE, EXPECTING_VALUE);
+		setTransition(transitions, EXPECTING_VALUE, END, SINGLE, REPORT_MISSING_VALUE, EXPECTING_VALUE);
+		setTransition(transitions, EXPECTING_VALUE, END, FLAG, SET_TRUE, EXPECTING_VALUE);
+		setTransition(transitions, EXPECTING_VALUE, END, CONTAINER, REPORT_MISSING_VALUE, EXPECTING_VALUE);
+
+		setTransition(transitions, EXPECTING_VALUE, VALUE, SINGLE, SET_VALUE, EXPECTING_NAME);
+		setTransition(transitions, EXPECTING_VALUE, VALUE, FLAG, SET_VALUE, EXPECTING_NAME);
+		setTransition(transitions, EXPECTING_VALUE, VALUE, CONTAINER, EXPECT_VALUES | SET_VALUE, EXPECTING_NAME_OR_ADDITIONAL_VALUE);
+		return transitions;
 	}
 
-	private final class ExpectingName extends GeneralState {
+	private static void setTransition(int[] transitions, int state, int tokenClass, int argKind, int actions, int nextState) {
+		transitions[index(state, tokenClass, argKind)] = actions << STATE_BITS | nextState;
+	}
 
-		@Override
-		public State transition(String argString) {
-			return transition(
-					argString,
-					ExpectingValue::new,
-					unknownArgName -> new IgnoringValue(),
-					string -> {
-						mutableErrors.add(new ArgsMessage.UnexpectedValue(string));
-						return this;
-					});
-		}
+	private static int index(int state, int tokenClass, int argKind) {
+		return (state * TOKEN_CLASSES + tokenClass) * ARG_KINDS + argKind;
+	}
 
+	private static int kindOf(Arg<?> arg) {
+		Class<?> type = arg.type();
+		if (type == List.class || type == Set.class || type == Map.class)
+			return CONTAINER;
+		var isFlag = type == Boolean.class || type == boolean.class
+				|| arg instanceof OptionalArg<?> opt && opt.valueType() == Boolean.class;
+		return isFlag ? FLAG : SINGLE;
 	}
 
-	private final class ExpectingValue extends GeneralState {
+	/**
+	 * @return whether the arg is a flag, i.e. is set to {@code true} if it's given without a value
+	 */
+	static boolean isFlag(Arg<?> arg) {
+		return kindOf(arg) == FLAG;
+	}
 
-		private final Arg<?> currentArg;
+	/**
+	 * @return whether the arg is a container, i.e. takes any number of values
+	 */
+	static boolean isContainer(Arg<?> arg) {
+		return kindOf(arg) == CONTAINER;
+	}
 
-		ExpectingValue(Arg<?> currentArg) {
-			this.currentArg = internalErrorOnNull(currentArg);
-		}
+	public ArgsMessages parse(List<String> argStrings) {
+		internalErrorOnNull(argStrings);
+		optimistic = false;
+		anomalies = 0;
+		parseTokens(argStrings);
+		return new ArgsMessages(List.copyOf(mutableErrors), List.copyOf(mutableWarnings));
+	}
 
-		@Override
-		public State transition(String argString) {
-			return transition(
-					argString,
-					arg -> {
-						processMissingValue();
-						return new ExpectingValue(arg);
-					},
-					unknownArgName -> new IgnoringValue(),
-					string -> {
-						setValue(currentArg, string);
-						return currentArg.type() == List.class | currentArg.type() == Map.class
-								? new ExpectingNameOrAdditionalValue(currentArg)
-								: new ExpectingName();
-					});
-		}
+	/**
+	 * Like {@link #parse(List)} but assumes that the tokens are well-formed: it creates no messages and aborts
+	 * at the first anomaly (e.g. a missing or illegal value), in which case the args are left in an undefined state
+	 * and the tokens need to be parsed again (with new args) to find out what's wrong.
+	 *
+	 * @param ignoreUnknownNames whether unknown names (and their values) are skipped instead of being an anomaly
+	 * @return the (empty) messages or {@code null} if an anomaly was found
+	 */
+	public ArgsMessages parseOptimistically(List<String> argStrings, boolean ignoreUnknownNames) {
+		internalErrorOnNull(argStrings);
+		optimistic = true;
+		anomalies = REPORTS;
+		// with a rest arg, an unexpected value starts the rest
+		if (rest != null)
+			anomalies &= ~REPORT_UNEXPECTED_VALUE;
+		if (ignoreUnknownNames)
+			anomalies &= ~REPORT_UNKNOWN_NAME;
+		parseTokens(argStrings);
+		return aborted ? null : ArgsMessages.NONE;
+	}
 
-		private void processMissingValue() {
-			Class<?> type = currentArg.type();
-			var isBoolean = type == Boolean.class || type == boolean.class
-					|| currentArg instanceof OptionalArg<?> opt && opt.valueType() == Boolean.class;
-			if (isBoolean)
-				setValue(currentArg, "true");
+	private void parseTokens(List<String> argStrings) {
+		state = EXPECTING_NAME;
+		currentArg = null;
+		currentKind = SINGLE;
+		aborted = false;
+		for (int position = 0; position < argStrings.size() && !aborted; position++) {
+			var argString = argStrings.get(position);
+			if (argString.startsWith("--")) {
+				var argName = argString.substring(2);
+				var namedArg = argsByName.get(argName);
+				position += transition(namedArg == null ? UNKNOWN_NAME : KNOWN_NAME, namedArg, argString, argName, argStrings, position);
+			} else if (isShortNames(argString))
+				position += transitionForShortNames(argString, argStrings, position);
 			else
-				mutableErrors.add(new ArgsMessage.MissingValue(currentArg.name()));
+				position += transition(VALUE, null, argString, null, argStrings, position);
 		}
+		if (!aborted)
+			transition(END, null, null, null, argStrings, argStrings.size());
+	}
 
-		@Override
-		public void finish() {
-			processMissingValue();
+	/**
+	 * @return the number of tokens after the current one that were processed as well
+	 */
+	private int transition(int tokenClass, Arg<?> namedArg, String argString, String argName, List<String> argStrings, int position) {
+		int transition = TRANSITIONS[index(state, tokenClass, currentKind)];
+		int actions = transition >>> STATE_BITS;
+		if (optimistic) {
+			if ((actions & anomalies) != 0) {
+				aborted = true;
+				return 0;
+			}
+			// the only report that can remain is for an unknown name, which is ignored
+			actions &= ~REPORT_UNKNOWN_NAME;
 		}
+		int processedTokens = performActions(actions, currentArg, argString, argName, argStrings, position);
+		state = transition & STATE_MASK;
 
+		if (tokenClass == KNOWN_NAME) {
+			currentArg = namedArg;
+			currentKind = kindOf(namedArg);
+		}
+		return processedTokens;
 	}
 
-	private final class ExpectingNameOrAdditionalValue extends GeneralState {
-
-		private final Arg<?> currentArg;
+	/**
+	 * @return whether the token starts with "-" and a known short name
+	 */
+	private boolean isShortNames(String argString) {
+		if (argsByShortName == null || argString.length() < 2 || argString.charAt(0) != '-')
+			return false;
+		char shortName = argString.charAt(1);
+		return shortName < argsByShortName.length && argsByShortName[shortName] != null;
+	}
 
-		ExpectingNameOrAdditionalValue(Arg<?> currentArg) {
-			this.currentArg = internalErrorOnNull(currentArg);
+	/**
+	 * Processes a token of short names (e.g. "-v", "-xvf", or "-p8080") as if each name was given in its long form
+	 * and a value that follows a name that isn't a flag's was the next token - without creating strings for the names.
+	 *
+	 * @return the number of tokens after the current one that were processed as well
+	 */
+	private int transitionForShortNames(String argString, List<String> argStrings, int position) {
+		for (int i = 1; i < argString.length() && !aborted; i++) {
+			char shortName = argString.charAt(i);
+			var namedArg = shortName < argsByShortName.length ? argsByShortName[shortName] : null;
+			if (namedArg == null)
+				// the remaining characters are ignored like the values of an unknown name
+				return transition(UNKNOWN_NAME, null, argString, "-".concat(String.valueOf(shortName)), argStrings, position);
+
+			transition(KNOWN_NAME, namedArg, argString, null, argStrings, position);
+			if (currentKind != FLAG && i + 1 < argString.length())
+				return transition(VALUE, null, argString.substring(i + 1), null, argStrings, position);
 		}
+		return 0;
+	}
 
-		@Override
-		public State transition(String argString) {
-			return transition(
-					argString,
-					ExpectingValue::new,
-					unknownArgName -> new IgnoringValue(),
-					string -> {
-						setValue(currentArg, string);
-						return this;
-					});
+	/**
+	 * @return the number of tokens after the current one that were processed as well
+	 */
+	private int performActions(int actions, Arg<?> currentArg, String argString, String argName, List<String> argStrings, int position) {
+		if (actions == 0)
+			return 0;
+		if ((actions & SET_TRUE) != 0)
+			setValue(currentArg, "true");
+		if ((actions & REPORT_MISSING_VALUE) != 0)
+			mutableErrors.add(new ArgsMessage.MissingValue(currentArg.name()));
+		if ((actions & REPORT_UNEXPECTED_VALUE) != 0) {
+			// the rest is taken as it is, so it's neither scanned for names nor copied
+			if (rest != null) {
+				rest.setValues(argStrings.subList(position, argStrings.size()));
+				return argStrings.size() - position - 1;
+			}
+			mutableErrors.add(new ArgsMessage.UnexpectedValue(argString));
+		}
+		if ((actions & REPORT_UNKNOWN_NAME) != 0)
+			// short names are single characters, for which suggestions make no sense
+			mutableWarnings.add(new ArgsMessage.UnknownArgument(
+					argName, argName.startsWith("-") ? List.of() : suggestNamesFor(argName)));
+		if ((actions & EXPECT_VALUES) != 0) {
+			int count = countValues(argStrings, position);
+			if (count >= PARALLEL_THRESHOLD && currentArg instanceof ListArg<?> listArg) {
+				setValuesInParallel(listArg, argStrings.subList(position, position + count));
+				return count - 1;
+			}
+			currentArg.expectValues(count);
 		}
+		if ((actions & SET_VALUE) != 0)
+			setValue(currentArg, argString);
+		return 0;
+	}
 
+	private List<String> suggestNamesFor(String argName) {
+		var suggestions = new ArrayList<Suggestions>(types.size());
+		for (Class<? extends Record> type : types)
+			suggestions.add(NAME_SUGGESTIONS.get(type));
+		return Suggestions.closestTo(argName, suggestions);
 	}
 
-	private final class IgnoringValue extends GeneralState {
+	/**
+	 * @return the number of values in the run that starts at the specified position,
+	 * 		i.e. until the next argument name or the end of the args strings
+	 */
+	private int countValues(List<String> argStrings, int position) {
+		int end = position;
+		while (end < argStrings.size() && !argStrings.get(end).startsWith("--") && !isShortNames(argStrings.get(end)))
+			end++;
+		return end - position;
+	}
 
-		@Override
-		public State transition(String argString) {
-			return transition(
-					argString,
-					ExpectingValue::new,
-					unknownArgName -> new IgnoringValue(),
-					ignoredValue -> this);
-		}
+	private void setValuesInParallel(ListArg<?> arg, List<String> argStrings) {
+		var failures = arg.setValuesInParallel(argStrings);
+		for (int i = 0; i < failures.length; i++)
+			if (failures[i] != null && optimistic)
+				aborted = true;
+			else if (failures[i] != null)
+				mutableErrors.add(new ArgsMessage.IllegalValue(arg.name(), arg.type(), argStrings.get(i), failures[i]));
+	}
 
+	private void setValue(Arg<?> arg, String argString) {
+		try {
+			arg.setValue(argString);
+		} catch (IllegalArgumentException ex) {
+			if (optimistic)
+				aborted = true;
+			else
+				mutableErrors.add(new ArgsMessage.IllegalValue(arg.name(), arg.type(), argString, ex));
+		}
 	}
 
 }
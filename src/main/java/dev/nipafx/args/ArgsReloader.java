@@ -0,0 +1,434 @@
+package dev.nipafx.args;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Holds an args record that is parsed from an argument file and replaced when the file changes,
+ * so long-running programs can pick up new configuration without restarting.
+ *
+ * <p>The argument file contains the same arguments as a {@code String[] args} array would, separated by
+ * whitespace (including line breaks) - lines that start with {@code #} are comments - and may use
+ * {@link ShortName short names} like the command line does. A {@link Rest @Rest} component takes the tokens
+ * after "--" (in argument files, the rest can't start at the first value that belongs to no other argument).
+ * For example:</p>
+ *
+ * <pre>{@code
+ * # the server's configuration
+ * --http.port 8080
+ * --tags web api
+ * }</pre>
+ *
+ * <p>On reload, only the arguments whose tokens changed are parsed again - the values of the others are
+ * carried over from the current instance. The new instance is created with the record's constructor (so it
+ * can validate the values) and then published atomically: {@link #get()} is a single volatile read that never
+ * blocks and returns either the old or the new instance, never a mix of both. If the changed file can't be
+ * parsed or the constructor fails, the current instance stays in place and listeners are informed about
+ * the failure. Listeners are informed about successful reloads with a diff of the changed arguments.</p>
+ *
+ * <pre>{@code
+ * var config = ArgsReloader.load(Path.of("server.args"), ServerArgs.class);
+ * config.addListener(reload -> log(reload.changes()));
+ * config.watch();
+ * // on the hot path
+ * var port = config.get().http().port();
+ * }</pre>
+ *
+ * <p>Reloads are serialized, so listeners are called from one thread at a time - either the watching thread
+ * or one that calls {@link #reload()}. Unlike {@link Args}, the reloader only supports args records
+ * (no sealed interfaces) and strict parsing.</p>
+ *
+ * @param <ARGS_TYPE> the args record type
+ */
+public final class ArgsReloader<ARGS_TYPE extends Record> implements AutoCloseable {
+
+	private static final String SEPARATOR = "--";
+
+	private final Path argFile;
+	private final RecordSchema<ARGS_TYPE> schema;
+	private final List<String> leafNames;
+	private final Set<String> knownNames;
+	// `null` if the record has no short names
+	private final int[] shortNameLeaves;
+	private final boolean[] flagLeaves;
+	private final int restLeaf;
+	private final List<Listener<? super ARGS_TYPE>> listeners;
+	private final Object reloadLock;
+
+	// written only under `reloadLock`, read without locking
+	private volatile Snapshot<ARGS_TYPE> snapshot;
+	// `null` until `watch` is called
+	private WatchService watchService;
+
+	private ArgsReloader(Path argFile, Class<ARGS_TYPE> type) {
+		this.argFile = argFile.toAbsolutePath();
+		this.schema = RecordSchema.of(type);
+		this.leafNames = schema.leafNames();
+		this.knownNames = Set.copyOf(leafNames);
+		this.shortNameLeaves = schema.shortNameLeaves();
+		var args = schema.createArgs();
+		this.flagLeaves = new boolean[args.size()];
+		for (int i = 0; i < flagLeaves.length; i++)
+			flagLeaves[i] = ArgsParser.isFlag(args.get(i));
+		this.restLeaf = schema.restLeaf();
+		this.listeners = new CopyOnWriteArrayList<>();
+		this.reloadLock = new Object();
+	}
+
+	/**
+	 * Parses the specified argument file to create an instance of the specified type - call {@link #watch()}
+	 * to reload it when the file changes.
+	 *
+	 * @param argFile the file containing the arguments
+	 * @param type the args type to be created - must be a record
+	 * @return a reloader holding an instance of {@code type}, populated with values from {@code argFile}
+	 * @param <ARGS_TYPE> the args type to be created - must be a record
+	 * @throws IOException when the file can't be read
+	 * @throws ArgsParseException when the file's arguments can't be correctly parsed
+	 * @throws ArgsDefinitionException when the specified type is not a valid args type
+	 * @throws IllegalArgumentException when an illegal argument was passed (it was likely {@code null} as other cases are covered by other exceptions)
+	 */
+	public static <ARGS_TYPE extends Record> ArgsReloader<ARGS_TYPE> load(Path argFile, Class<ARGS_TYPE> type)
+			throws IOException, ArgsParseException {
+		if (argFile == null || type == null)
+			throw new IllegalArgumentException("Neither the argument file nor the type must be null.");
+		var reloader = new ArgsReloader<>(argFile, type);
+		reloader.reload();
+		return reloader;
+	}
+
+	/**
+	 * Returns the current instance without blocking.
+	 *
+	 * @return the instance that was created from the argument file most recently
+	 */
+	public ARGS_TYPE get() {
+		return snapshot.instance();
+	}
+
+	/**
+	 * Registers a listener that is informed about all following reloads.
+	 *
+	 * @param listener the listener to register
+	 * @throws IllegalArgumentException when the listener is {@code null}
+	 */
+	public void addListener(Listener<? super ARGS_TYPE> listener) {
+		if (listener == null)
+			throw new IllegalArgumentException("The listener must not be null.");
+		listeners.add(listener);
+	}
+
+	/**
+	 * Reads the argument file and, if its arguments changed, publishes a new instance (see class comment for details).
+	 * Listeners are informed about the changes or, if this method throws, about the failure.
+	 *
+	 * @return the reload if arguments changed, otherwise an empty {@code Optional}
+	 * @throws IOException when the file can't be read
+	 * @throws ArgsParseException when the file's arguments can't be correctly parsed
+	 */
+	public Optional<Reload<ARGS_TYPE>> reload() throws IOException, ArgsParseException {
+		synchronized (reloadLock) {
+			try {
+				var reload = reloadUnderLock();
+				reload.ifPresent(this::informListeners);
+				return reload;
+			} catch (IOException | ArgsParseException ex) {
+				for (Listener<? super ARGS_TYPE> listener : listeners)
+					listener.reloadFailed(ex);
+				throw ex;
+			}
+		}
+	}
+
+	private Optional<Reload<ARGS_TYPE>> reloadUnderLock() throws IOException, ArgsParseException {
+		var tokens = readTokens(argFile);
+		var tokensByName = groupByName(tokens);
+		var previous = snapshot;
+		if (previous != null && previous.tokensByName().equals(tokensByName))
+			return Optional.empty();
+
+		// parse only the arguments whose tokens changed (and those that aren't known, so they're reported)
+		var changedTokens = new ArrayList<String>();
+		var errors = new ArrayList<ArgsMessage>();
+		for (Map.Entry<String, List<String>> nameAndTokens : tokensByName.entrySet())
+			if (nameAndTokens.getKey().equals(SEPARATOR)) {
+				// like `Args::parse` without a rest arg, there's nowhere for the tokens after "--" to go
+				if (restLeaf == -1)
+					errors.add(new ArgsMessage.UnexpectedValue(SEPARATOR));
+			}
+			else if (nameAndTokens.getKey().startsWith("-"))
+				// an unknown short name
+				errors.add(new ArgsMessage.UnknownArgument(nameAndTokens.getKey(), List.of()));
+			else if (previous == null || !knownNames.contains(nameAndTokens.getKey())
+					|| !nameAndTokens.getValue().equals(previous.tokensByName().get(nameAndTokens.getKey())))
+				changedTokens.addAll(nameAndTokens.getValue());
+
+		var argStrings = tokens.toArray(String[]::new);
+		try {
+			var args = schema.createArgs();
+			var messages = ArgsParser
+					.forArgs(args, List.of(schema.type()))
+					.parse(changedTokens);
+			errors.addAll(messages.errors());
+			errors.addAll(messages.warnings());
+			var restTokens = tokensByName.get(SEPARATOR);
+			if (restLeaf != -1 && restTokens != null)
+				((RestArg) args.get(restLeaf)).setValues(List.copyOf(restTokens.subList(1, restTokens.size())));
+
+			var leafValues = new Object[leafNames.size()];
+			for (int i = 0; i < leafValues.length; i++) {
+				var name = leafNames.get(i);
+				// the rest isn't grouped under its name but under "--"
+				var groupName = i == restLeaf ? SEPARATOR : name;
+				if (previous != null && Objects.equals(tokensByName.get(groupName), previous.tokensByName().get(groupName)))
+					leafValues[i] = previous.leafValues()[i];
+				else if (args.get(i).value().isPresent())
+					leafValues[i] = args.get(i).value().get();
+				else
+					errors.add(new ArgsMessage.MissingArgument(name));
+			}
+			if (!errors.isEmpty())
+				throw new InternalArgsException(errors);
+
+			var instance = previous == null || !Arrays.equals(leafValues, previous.leafValues())
+					? Args.constructArgType(schema, leafValues)
+					: previous.instance();
+			snapshot = new Snapshot<>(instance, tokensByName, leafValues);
+			return previous == null || instance == previous.instance()
+					? Optional.empty()
+					: Optional.of(new Reload<>(previous.instance(), instance, diff(previous.leafValues(), leafValues)));
+		} catch (InternalArgsException ex) {
+			throw new ArgsParseException(argStrings, List.of(schema.type()), ex);
+		}
+	}
+
+	/*
+	 * This is the only place where RecordArgs splits raw text into tokens. It deliberately stays scalar
+	 * (no `jdk.incubator.vector`): it runs once per load or reload of a file that is usually a few lines long,
+	 * off the parse path, so the file I/O dominates and a vectorized scanner couldn't make up for the
+	 * incubator module that it would require every user to add.
+	 */
+	private static List<String> readTokens(Path argFile) throws IOException {
+		var tokens = new ArrayList<String>();
+		for (String line : Files.readAllLines(argFile)) {
+			var trimmed = line.strip();
+			if (trimmed.isEmpty() || trimmed.startsWith("#"))
+				continue;
+			for (String token : trimmed.split("\\s+"))
+				tokens.add(token);
+		}
+		return tokens;
+	}
+
+	/**
+	 * Groups each argument name with its values (e.g. {@code --port 8080} under "port") - if a name occurs
+	 * more than once, all occurrences are in the same group; values before the first name are grouped under ""
+	 * and "--" and all tokens after it under "--".
+	 *
+	 * <p>Short names are written in their long form and grouped under the argument they stand for,
+	 * so e.g. {@code -vp 8080} becomes {@code --verbose} under "verbose" and {@code --port 8080} under "port"
+	 * (that way, a changed short name changes the group of the argument it stands for). An unknown short name
+	 * is grouped under itself (e.g. "-q") with the values that follow it.</p>
+	 */
+	private Map<String, List<String>> groupByName(List<String> tokens) {
+		var tokensByName = new HashMap<String, List<String>>();
+		var currentTokens = tokensByName.computeIfAbsent("", __ -> new ArrayList<>());
+		for (int position = 0; position < tokens.size(); position++) {
+			var token = tokens.get(position);
+			if (token.equals(SEPARATOR)) {
+				tokensByName.put(SEPARATOR, new ArrayList<>(tokens.subList(position, tokens.size())));
+				break;
+			}
+			if (isShortNames(token)) {
+				currentTokens = groupShortNames(token, tokensByName);
+				continue;
+			}
+			if (token.startsWith("--"))
+				currentTokens = tokensByName.computeIfAbsent(token.substring(2), __ -> new ArrayList<>());
+			currentTokens.add(token);
+		}
+		tokensByName.values().removeIf(List::isEmpty);
+		return tokensByName;
+	}
+
+	/**
+	 * Like {@code ArgsParser}, reads a token as short names if it starts with "-" and a known short name.
+	 */
+	private boolean isShortNames(String token) {
+		if (shortNameLeaves == null || token.length() < 2 || token.charAt(0) != '-')
+			return false;
+		char shortName = token.charAt(1);
+		return shortName < shortNameLeaves.length && shortNameLeaves[shortName] != -1;
+	}
+
+	/**
+	 * @return the group that the values after the token belong to
+	 */
+	private List<String> groupShortNames(String token, Map<String, List<String>> tokensByName) {
+		List<String> currentTokens = null;
+		for (int i = 1; i < token.length(); i++) {
+			char shortName = token.charAt(i);
+			int leaf = shortName < shortNameLeaves.length ? shortNameLeaves[shortName] : -1;
+			if (leaf == -1) {
+				// like `ArgsParser`, ignore the remaining characters
+				var name = "-".concat(String.valueOf(shortName));
+				currentTokens = tokensByName.computeIfAbsent(name, __ -> new ArrayList<>());
+				currentTokens.add(name);
+				return currentTokens;
+			}
+
+			var name = leafNames.get(leaf);
+			currentTokens = tokensByName.computeIfAbsent(name, __ -> new ArrayList<>());
+			currentTokens.add("--".concat(name));
+			// the remaining characters are the value of a name that isn't a flag's (e.g. "-p8080")
+			if (!flagLeaves[leaf] && i + 1 < token.length()) {
+				currentTokens.add(token.substring(i + 1));
+				return currentTokens;
+			}
+		}
+		return currentTokens;
+	}
+
+	private List<Change> diff(Object[] previousValues, Object[] currentValues) {
+		var changes = new ArrayList<Change>();
+		for (int i = 0; i < currentValues.length; i++)
+			if (!Objects.equals(previousValues[i], currentValues[i]))
+				changes.add(new Change(leafNames.get(i), previousValues[i], currentValues[i]));
+		return List.copyOf(changes);
+	}
+
+	private void informListeners(Reload<ARGS_TYPE> reload) {
+		for (Listener<? super ARGS_TYPE> listener : listeners)
+			listener.reloaded(reload);
+	}
+
+	/**
+	 * Starts a daemon thread that watches the argument file and {@link #reload() reloads} it when it changes
+	 * (failed reloads are reported to the listeners).
+	 * Calling this more than once has no effect.
+	 *
+	 * @throws IOException when the file's directory can't be watched
+	 */
+	public synchronized void watch() throws IOException {
+		if (watchService != null)
+			return;
+		watchService = argFile.getFileSystem().newWatchService();
+		// editors often replace the file instead of modifying it, so creations must be watched, too
+		argFile.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+		var service = watchService;
+		Thread
+				.ofPlatform()
+				.name("args-reloader-" + argFile.getFileName())
+				.daemon()
+				.start(() -> watch(service));
+	}
+
+	private void watch(WatchService service) {
+		try {
+			while (true) {
+				var key = service.take();
+				var fileChanged = false;
+				for (WatchEvent<?> event : key.pollEvents())
+					fileChanged |= argFile.getFileName().equals(event.context());
+				key.reset();
+				if (fileChanged)
+					try {
+						reload();
+					} catch (IOException | ArgsParseException ex) {
+						// listeners were informed and the current instance stays in place
+					} catch (RuntimeException ex) {
+						// a listener failed, which must not stop the watching
+						var thread = Thread.currentThread();
+						thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+					}
+			}
+		} catch (ClosedWatchServiceException | InterruptedException ex) {
+			// the reloader was closed
+		}
+	}
+
+	/**
+	 * Stops watching the argument file (if it was watched) - the current instance remains available.
+	 *
+	 * @throws IOException when the underlying watch service can't be closed
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (watchService != null)
+			watchService.close();
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	/**
+	 * Is informed about reloads.
+	 *
+	 * @param <ARGS_TYPE> the args record type
+	 */
+	@FunctionalInterface
+	public interface Listener<ARGS_TYPE extends Record> {
+
+		/**
+		 * Called after a new instance was published.
+		 *
+		 * @param reload the previous and the new instance and the changes between them
+		 */
+		void reloaded(Reload<? extends ARGS_TYPE> reload);
+
+		/**
+		 * Called when a reload failed, in which case the previous instance stays in place - does nothing by default.
+		 *
+		 * @param exception the {@link IOException} or {@link ArgsParseException} that caused the reload to fail
+		 */
+		default void reloadFailed(Exception exception) { }
+
+	}
+
+	/**
+	 * A successful reload.
+	 *
+	 * @param previous the instance that was replaced
+	 * @param current the instance that was published
+	 * @param changes the arguments whose values changed (in declaration order) - nested records' arguments
+	 *                are listed with their full names (e.g. {@code http.port})
+	 * @param <ARGS_TYPE> the args record type
+	 */
+	public record Reload<ARGS_TYPE extends Record>(ARGS_TYPE previous, ARGS_TYPE current, List<Change> changes) { }
+
+	/**
+	 * A changed argument.
+	 *
+	 * @param argumentName the name of the argument (which doesn't include "--")
+	 * @param previousValue the argument's previous value
+	 * @param currentValue the argument's current value
+	 */
+	public record Change(String argumentName, Object previousValue, Object currentValue) { }
+
+	/**
+	 * Everything a reload needs from the previous one, which is published as a whole.
+	 *
+	 * @param tokensByName see {@link #groupByName(List)}
+	 * @param leafValues the values in the order of {@link RecordSchema#leafNames()}
+	 */
+	private record Snapshot<ARGS_TYPE extends Record>(
+			ARGS_TYPE instance, Map<String, List<String>> tokensByName, Object[] leafValues) { }
+
+}
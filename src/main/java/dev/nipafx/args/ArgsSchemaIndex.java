@@ -0,0 +1,503 @@
+package dev.nipafx.args;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * A binary index of args types that is computed at build time, so {@code Args} doesn't need to reflect
+ * over the types when it first parses them.
+ *
+ * <p>For each args record, the index contains the names, (generic) types, {@link Rest @Rest} flags,
+ * and {@link ShortName short names} of its components, and whether it is annotated with
+ * {@link ShortNames @ShortNames}. For each mode or action interface, it contains the table that maps
+ * each value to its record. Finally, it lists the combinations of types that passed
+ * {@link Args#checkDefinition(Class[]) Args::checkDefinition} when the index was written.
+ * Only types that are well-defined are indexed, so the index contains no definition errors.</p>
+ *
+ * <p>The index is a resource at {@value #RESOURCE} (the RecordArgs Maven plugin writes it to the build output
+ * in the phase {@code process-classes}, so it's packaged into the jar). When {@code Args} first creates
+ * the schema of a type, it reads the indexes of the type's class loader and, if the type is indexed,
+ * creates its schema from there, which avoids {@code Class::getRecordComponents},
+ * {@code RecordComponent::getGenericType}, and {@code Class::getPermittedSubclasses}. When {@code Args} parses
+ * a combination of types that was checked, it skips checking that their args are unique.
+ * Types that aren't indexed or no longer match the index (e.g. because they were recompiled without
+ * updating the index) are reflected over as usual. The format is (big-endian, strings are modified UTF-8):</p>
+ *
+ * <pre>
+ * index     = magic (int "RAsi") | version (byte) | recordCount (int) | record* | sealedCount (int) | sealed*
+ *             | parseCount (int) | parse*
+ * record    = typeName | shortNames (boolean) | componentCount (int) | component*
+ * component = name | typeName | typeArgumentCount (int) | typeName* | rest (boolean) | shortName (char, 0 if none)
+ * sealed    = typeName | valueCount (int) | (value | recordTypeName)*
+ * parse     = typeCount (int) | typeName*
+ * </pre>
+ *
+ * <p>All methods are thread-safe.</p>
+ */
+public final class ArgsSchemaIndex {
+
+	/**
+	 * The name of the resource that contains the index.
+	 */
+	public static final String RESOURCE = "META-INF/record-args/schema.index";
+
+	private static final int MAGIC = 0x52_41_73_69;
+	private static final byte VERSION = 1;
+
+	/**
+	 * The indexes of all class loaders that loaded args types so far (weak, so class loaders can be collected).
+	 */
+	private static final Map<ClassLoader, Index> INDEXES = new WeakHashMap<>();
+
+	/**
+	 * The index of each args type's class loader, so looking it up on each parse needs no lock.
+	 */
+	private static final ClassValue<Index> INDEXES_BY_TYPE = new ClassValue<>() {
+
+		@Override
+		protected Index computeValue(Class<?> type) {
+			return indexOf(type.getClassLoader());
+		}
+
+	};
+
+	private ArgsSchemaIndex() {
+		// private constructor to prevent initialization
+	}
+
+	/*
+	 * WRITE
+	 */
+
+	/**
+	 * Writes the index of the specified args types and combinations of args types to the specified stream.
+	 *
+	 * <p>The types are reflected over (even if an index for them already exists) and indexed
+	 * together with their nested args records and, for sealed interfaces, their implementations.
+	 * The combinations are checked with {@link Args#checkDefinition(Class[]) Args::checkDefinition}.
+	 * Types and combinations that are ill-defined aren't indexed but returned with their definition error.</p>
+	 *
+	 * @param types args records and sealed interfaces
+	 * @param parses the combinations of types that are passed to {@code Args::parse} (in that order)
+	 * @param out the stream to write the index to (it isn't closed)
+	 * @return the definition errors by type name or, for combinations, by the comma-separated type names
+	 * 		(in the order they were found)
+	 * @throws IllegalArgumentException if any argument is or contains {@code null} or if a parse is empty
+	 * @throws IOException if writing to {@code out} fails
+	 */
+	public static Map<String, ArgsDefinitionException> write(
+			Collection<Class<?>> types, Collection<List<Class<?>>> parses, OutputStream out) throws IOException {
+		if (types == null || parses == null || out == null)
+			throw new IllegalArgumentException("Neither types, nor parses, nor output stream must be null.");
+		for (Class<?> type : types)
+			if (type == null)
+				throw new IllegalArgumentException("Types must not contain null.");
+		for (List<Class<?>> parse : parses) {
+			if (parse == null || parse.isEmpty())
+				throw new IllegalArgumentException("Parses must neither be null nor empty.");
+			for (Class<?> type : parse)
+				if (type == null)
+					throw new IllegalArgumentException("Parses must not contain null.");
+		}
+
+		var records = new LinkedHashMap<String, RecordEntry>();
+		var sealed = new LinkedHashMap<String, SealedEntry>();
+		var checkedParses = new ArrayList<String[]>();
+		var errors = new LinkedHashMap<String, ArgsDefinitionException>();
+		for (Class<?> type : types)
+			try {
+				index(type, records, sealed);
+			} catch (ArgsDefinitionException ex) {
+				errors.put(type.getName(), ex);
+			}
+		for (List<Class<?>> parse : parses) {
+			var parseTypes = parse.toArray(Class<?>[]::new);
+			var typeNames = new String[parseTypes.length];
+			for (int i = 0; i < parseTypes.length; i++)
+				typeNames[i] = parseTypes[i].getName();
+			try {
+				Args.checkDefinition(parseTypes);
+				for (Class<?> type : parseTypes)
+					index(type, records, sealed);
+				checkedParses.add(typeNames);
+			} catch (ArgsDefinitionException ex) {
+				errors.put(String.join(",", typeNames), ex);
+			}
+		}
+
+		write(new Index(records, sealed, checkedParses), out);
+		return errors;
+	}
+
+	private static void index(Class<?> type, Map<String, RecordEntry> records, Map<String, SealedEntry> sealed) {
+		if (records.containsKey(type.getName()) || sealed.containsKey(type.getName()))
+			return;
+
+		if (type.isRecord()) {
+			@SuppressWarnings("unchecked")
+			var recordType = (Class<? extends Record>) type;
+			// reflects over the type (and its nested records) and throws if any of them is ill-defined
+			RecordSchema.create(recordType, null);
+			var components = new ArrayList<ComponentEntry>();
+			for (RecordComponent component : type.getRecordComponents()) {
+				var typeArguments = new ArrayList<String>();
+				if (component.getGenericType() instanceof ParameterizedType parameterized)
+					for (Type typeArgument : parameterized.getActualTypeArguments())
+						typeArguments.add(((Class<?>) typeArgument).getName());
+				var shortName = component.getAnnotation(ShortName.class);
+				components.add(new ComponentEntry(
+						component.getName(),
+						component.getType().getName(),
+						List.copyOf(typeArguments),
+						component.isAnnotationPresent(Rest.class),
+						shortName == null ? 0 : shortName.value()));
+			}
+			records.put(type.getName(), new RecordEntry(type.isAnnotationPresent(ShortNames.class), List.copyOf(components)));
+			for (RecordComponent component : type.getRecordComponents())
+				if (component.getType().isRecord() && component.getType() != DataSize.class)
+					index(component.getType(), records, sealed);
+		} else {
+			// throws if the type isn't a sealed interface with exclusively record implementations
+			var valuesByName = ArgsModeFilter.createValuesByTypeName(type, null);
+			for (Class<? extends Record> valueType : valuesByName.values())
+				index(valueType, records, sealed);
+			var recordTypeNamesByValue = new LinkedHashMap<String, String>();
+			for (Map.Entry<String, Class<? extends Record>> value : valuesByName.entrySet())
+				recordTypeNamesByValue.put(value.getKey(), value.getValue().getName());
+			sealed.put(type.getName(), new SealedEntry(recordTypeNamesByValue));
+		}
+	}
+
+	private static void write(Index index, OutputStream stream) throws IOException {
+		var out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+
+		out.writeInt(index.records().size());
+		for (Map.Entry<String, RecordEntry> record : index.records().entrySet()) {
+			out.writeUTF(record.getKey());
+			out.writeBoolean(record.getValue().shortNames());
+			out.writeInt(record.getValue().components().size());
+			for (ComponentEntry component : record.getValue().components()) {
+				out.writeUTF(component.name());
+				out.writeUTF(component.typeName());
+				out.writeInt(component.typeArgumentNames().size());
+				for (String typeArgumentName : component.typeArgumentNames())
+					out.writeUTF(typeArgumentName);
+				out.writeBoolean(component.rest());
+				out.writeChar(component.shortName());
+			}
+		}
+
+		out.writeInt(index.sealed().size());
+		for (Map.Entry<String, SealedEntry> sealed : index.sealed().entrySet()) {
+			out.writeUTF(sealed.getKey());
+			out.writeInt(sealed.getValue().recordTypeNamesByValue().size());
+			for (Map.Entry<String, String> value : sealed.getValue().recordTypeNamesByValue().entrySet()) {
+				out.writeUTF(value.getKey());
+				out.writeUTF(value.getValue());
+			}
+		}
+
+		out.writeInt(index.parses().size());
+		for (String[] parse : index.parses()) {
+			out.writeInt(parse.length);
+			for (String typeName : parse)
+				out.writeUTF(typeName);
+		}
+		out.flush();
+	}
+
+	/*
+	 * READ
+	 */
+
+	/*
+	 * Reading the index is on the parse path, so it follows the same rules
+	 * (see `Args`: no lambdas, method references, streams, pattern switches, or string concatenation).
+	 */
+
+	/**
+	 * @return the index of the specified type's class loader (empty if there's none)
+	 * @throws IllegalStateException if an index resource is corrupted
+	 */
+	static Index indexOf(Class<?> type) {
+		return INDEXES_BY_TYPE.get(type);
+	}
+
+	/**
+	 * @return whether the specified types were checked together when the index of the first type's
+	 * 		class loader was written
+	 */
+	static boolean isChecked(Class<?>[] types) {
+		var loader = types[0].getClassLoader();
+		var parses = INDEXES_BY_TYPE.get(types[0]).parses();
+		for (int i = 0; i < parses.size(); i++) {
+			var parse = parses.get(i);
+			if (parse.length != types.length)
+				continue;
+			var checked = true;
+			for (int j = 0; j < types.length && checked; j++)
+				checked = types[j].getClassLoader() == loader && types[j].getName().equals(parse[j]);
+			if (checked)
+				return true;
+		}
+		return false;
+	}
+
+	private static Index indexOf(ClassLoader loader) {
+		// types loaded by the bootstrap class loader aren't args types
+		if (loader == null)
+			return Index.EMPTY;
+		synchronized (INDEXES) {
+			var index = INDEXES.get(loader);
+			if (index == null) {
+				index = load(loader);
+				INDEXES.put(loader, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * @return the merged indexes of all {@value #RESOURCE} resources of the specified class loader,
+	 * 		except those that were written by a different version of RecordArgs
+	 * @throws IllegalStateException if a resource is corrupted
+	 */
+	static Index load(ClassLoader loader) {
+		try {
+			var resources = loader.getResources(RESOURCE);
+			var index = Index.EMPTY;
+			while (resources.hasMoreElements()) {
+				var resource = resources.nextElement();
+				try (var in = resource.openStream()) {
+					var read = read(in);
+					if (read == null)
+						continue;
+					index = index == Index.EMPTY ? read : index.merge(read);
+				} catch (IOException | IllegalArgumentException ex) {
+					var message = "The args schema index %s is corrupted - rebuild it.".formatted(resource);
+					throw new IllegalStateException(message, ex);
+				}
+			}
+			return index;
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Could not find the args schema indexes.", ex);
+		}
+	}
+
+	/**
+	 * @return the index or {@code null} if it was written by a different version of RecordArgs
+	 * @throws IOException if the stream ends prematurely or can't be read
+	 * @throws IllegalArgumentException if the stream doesn't contain an index
+	 */
+	static Index read(InputStream stream) throws IOException {
+		var in = new DataInputStream(stream);
+		if (in.readInt() != MAGIC)
+			throw new IllegalArgumentException("The stream doesn't contain an args schema index.");
+		if (in.readByte() != VERSION)
+			return null;
+
+		int recordCount = readCount(in);
+		var records = HashMap.<String, RecordEntry> newHashMap(recordCount);
+		for (int i = 0; i < recordCount; i++) {
+			var typeName = in.readUTF();
+			var shortNames = in.readBoolean();
+			var components = new ComponentEntry[readCount(in)];
+			for (int j = 0; j < components.length; j++) {
+				var name = in.readUTF();
+				var componentTypeName = in.readUTF();
+				var typeArgumentNames = new String[readCount(in)];
+				for (int k = 0; k < typeArgumentNames.length; k++)
+					typeArgumentNames[k] = in.readUTF();
+				components[j] = new ComponentEntry(name, componentTypeName, List.of(typeArgumentNames), in.readBoolean(), in.readChar());
+			}
+			records.put(typeName, new RecordEntry(shortNames, List.of(components)));
+		}
+
+		int sealedCount = readCount(in);
+		var sealed = HashMap.<String, SealedEntry> newHashMap(sealedCount);
+		for (int i = 0; i < sealedCount; i++) {
+			var typeName = in.readUTF();
+			int valueCount = readCount(in);
+			var recordTypeNamesByValue = LinkedHashMap.<String, String> newLinkedHashMap(valueCount);
+			for (int j = 0; j < valueCount; j++)
+				recordTypeNamesByValue.put(in.readUTF(), in.readUTF());
+			sealed.put(typeName, new SealedEntry(recordTypeNamesByValue));
+		}
+
+		int parseCount = readCount(in);
+		var parses = new ArrayList<String[]>(parseCount);
+		for (int i = 0; i < parseCount; i++) {
+			var typeNames = new String[readCount(in)];
+			for (int j = 0; j < typeNames.length; j++)
+				typeNames[j] = in.readUTF();
+			parses.add(typeNames);
+		}
+		return new Index(records, sealed, parses);
+	}
+
+	private static int readCount(DataInputStream in) throws IOException {
+		var count = in.readInt();
+		// the index is small, so larger counts mean it's corrupted (and allocating that much would fail)
+		if (count < 0 || count > 0xFFFF)
+			throw new IllegalArgumentException("The args schema index is corrupted (count %s).".formatted(count));
+		return count;
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	/**
+	 * @param records the record entries by type name
+	 * @param sealed the mode and action interface entries by type name
+	 * @param parses the type names of the combinations of types that were checked together
+	 */
+	record Index(Map<String, RecordEntry> records, Map<String, SealedEntry> sealed, List<String[]> parses) {
+
+		static final Index EMPTY = new Index(Map.of(), Map.of(), List.of());
+
+		Index {
+			internalErrorOnNull(records);
+			internalErrorOnNull(sealed);
+			internalErrorOnNull(parses);
+		}
+
+		Index merge(Index other) {
+			var records = new HashMap<>(this.records);
+			records.putAll(other.records);
+			var sealed = new HashMap<>(this.sealed);
+			sealed.putAll(other.sealed);
+			var parses = new ArrayList<>(this.parses);
+			parses.addAll(other.parses);
+			return new Index(records, sealed, parses);
+		}
+
+	}
+
+	/**
+	 * @param shortNames whether the record is annotated with {@link ShortNames @ShortNames}
+	 * @param components the record's components in declaration order
+	 */
+	record RecordEntry(boolean shortNames, List<ComponentEntry> components) { }
+
+	/**
+	 * @param typeName the name of the component's raw type
+	 * @param typeArgumentNames the names of the type arguments (empty if the type isn't parameterized)
+	 * @param rest whether the component is annotated with {@link Rest @Rest}
+	 * @param shortName the declared {@link ShortName short name} or 0 if there's none
+	 */
+	record ComponentEntry(String name, String typeName, List<String> typeArgumentNames, boolean rest, char shortName) {
+
+		/**
+		 * @return the component's generic type, like {@code RecordComponent::getGenericType} returns it
+		 * @throws ClassNotFoundException if a type can't be found
+		 */
+		Type resolveGenericType(ClassLoader loader) throws ClassNotFoundException {
+			var rawType = resolve(typeName, loader);
+			if (typeArgumentNames.isEmpty())
+				return rawType;
+			var typeArguments = new Type[typeArgumentNames.size()];
+			for (int i = 0; i < typeArguments.length; i++)
+				typeArguments[i] = resolve(typeArgumentNames.get(i), loader);
+			return new IndexedParameterizedType(rawType, typeArguments);
+		}
+
+	}
+
+	/**
+	 * @param recordTypeNamesByValue the names of the records that the mode or action values select, by value
+	 */
+	record SealedEntry(Map<String, String> recordTypeNamesByValue) { }
+
+	/**
+	 * Resolves the type with the specified name (as returned by {@code Class::getName}) without initializing it.
+	 */
+	static Class<?> resolve(String typeName, ClassLoader loader) throws ClassNotFoundException {
+		return switch (typeName) {
+			case "boolean" -> boolean.class;
+			case "byte" -> byte.class;
+			case "short" -> short.class;
+			case "char" -> char.class;
+			case "int" -> int.class;
+			case "long" -> long.class;
+			case "float" -> float.class;
+			case "double" -> double.class;
+			default -> Class.forName(typeName, false, loader);
+		};
+	}
+
+	/**
+	 * A parameterized type like {@code List<String>} that is equal to the one reflection creates for it.
+	 */
+	private static final class IndexedParameterizedType implements ParameterizedType {
+
+		private final Class<?> rawType;
+		private final Type[] typeArguments;
+
+		private IndexedParameterizedType(Class<?> rawType, Type[] typeArguments) {
+			this.rawType = rawType;
+			this.typeArguments = typeArguments;
+		}
+
+		@Override
+		public Type[] getActualTypeArguments() {
+			return typeArguments.clone();
+		}
+
+		@Override
+		public Type getRawType() {
+			return rawType;
+		}
+
+		@Override
+		public Type getOwnerType() {
+			return rawType.getDeclaringClass();
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof ParameterizedType parameterized
+					&& rawType.equals(parameterized.getRawType())
+					&& Objects.equals(getOwnerType(), parameterized.getOwnerType())
+					&& Arrays.equals(typeArguments, parameterized.getActualTypeArguments());
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(typeArguments) ^ Objects.hashCode(getOwnerType()) ^ rawType.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			var name = new StringBuilder(rawType.getName()).append('<');
+			for (int i = 0; i < typeArguments.length; i++) {
+				if (i > 0)
+					name.append(", ");
+				name.append(typeArguments[i].getTypeName());
+			}
+			return name.append('>').toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,445 @@
+package dev.nipafx.args;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Encodes args records into a compact binary form and decodes them without tokenizing or converting strings.
+ *
+ * <p>The layout of each args record type is computed once from its schema: the kind of each leaf
+ * (simple, optional, list, or map) and the types of its values. The encoding is then just the values
+ * in leaf order (big-endian):</p>
+ *
+ * <pre>
+ * snapshot = magic (int "RArg") | version (byte) | fingerprint (long) | leaf*
+ * leaf     = value                                  (simple)
+ *          | present (byte 0/1) | value?            (Optional)
+ *          | size (int) | value*                    (List, Set)
+ *          | size (int) | (key value)*              (Map)
+ * value    = int | long | float | double | boolean (byte 0/1)
+ *          | length (int) | UTF-8 bytes             (String, Path)
+ *          | seconds (long) | nanos (int)           (Duration)
+ *          | bytes (long)                           (DataSize)
+ *          | ordinal (int)                          (enums)
+ * </pre>
+ *
+ * <p>The fingerprint is a hash of the record's name, its leaves' names and types, and the names of the constants
+ * of enum types, so snapshots of a different version of the record (or its enums) are rejected. All methods are stateless and hence thread-safe.</p>
+ */
+final class ArgsSnapshot {
+
+	private static final int MAGIC = 0x52_41_72_67;
+	private static final byte VERSION = 1;
+
+	// leaf kinds
+	private static final int SIMPLE = 0;
+	private static final int OPTIONAL = 1;
+	private static final int LIST = 2;
+	private static final int MAP = 3;
+	private static final int SET = 4;
+
+	// value types
+	private static final int STRING = 0;
+	private static final int PATH = 1;
+	private static final int INT = 2;
+	private static final int LONG = 3;
+	private static final int FLOAT = 4;
+	private static final int DOUBLE = 5;
+	private static final int BOOLEAN = 6;
+	private static final int DURATION = 7;
+	private static final int DATA_SIZE = 8;
+	private static final int ENUM = 9;
+
+	private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected Layout computeValue(Class<?> type) {
+			return Layout.of(RecordSchema.of((Class<? extends Record>) type));
+		}
+
+	};
+
+	private ArgsSnapshot() {
+		// private constructor to prevent initialization
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the record contains {@code null}
+	 */
+	static byte[] encode(Record args) {
+		internalErrorOnNull(args);
+		var schema = RecordSchema.of(args.getClass());
+		var layout = LAYOUTS.get(args.getClass());
+		var leafValues = schema.leafValuesOf(args);
+
+		var out = new Output();
+		out.ensureRemaining(13);
+		out.buffer.putInt(MAGIC).put(VERSION).putLong(layout.fingerprint());
+		for (int i = 0; i < leafValues.length; i++)
+			encodeLeaf(out, layout.leafKinds()[i], layout.keyTypes()[i], layout.valueTypes()[i], leafValues[i]);
+		return Arrays.copyOf(out.buffer.array(), out.buffer.position());
+	}
+
+	private static void encodeLeaf(Output out, int leafKind, int keyType, int valueType, Object value) {
+		switch (leafKind) {
+			case SIMPLE -> encodeValue(out, valueType, value);
+			case OPTIONAL -> {
+				var optional = (Optional<?>) value;
+				out.ensureRemaining(1);
+				out.buffer.put(optional.isPresent() ? (byte) 1 : 0);
+				if (optional.isPresent())
+					encodeValue(out, valueType, optional.get());
+			}
+			case LIST, SET -> {
+				var collection = (Collection<?>) value;
+				out.ensureRemaining(4);
+				out.buffer.putInt(collection.size());
+				for (Object element : collection)
+					encodeValue(out, valueType, element);
+			}
+			case MAP -> {
+				var map = (Map<?, ?>) value;
+				out.ensureRemaining(4);
+				out.buffer.putInt(map.size());
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					encodeValue(out, keyType, entry.getKey());
+					encodeValue(out, valueType, entry.getValue());
+				}
+			}
+			default -> throw new IllegalStateException("Unexpected leaf kind: " + leafKind);
+		}
+	}
+
+	private static void encodeValue(Output out, int valueType, Object value) {
+		if (value == null)
+			throw new IllegalArgumentException("Args records with null values or container elements can't be encoded.");
+		switch (valueType) {
+			case STRING, PATH -> {
+				var bytes = value.toString().getBytes(UTF_8);
+				out.ensureRemaining(4 + bytes.length);
+				out.buffer.putInt(bytes.length).put(bytes);
+			}
+			case INT -> {
+				out.ensureRemaining(4);
+				out.buffer.putInt((Integer) value);
+			}
+			case LONG -> {
+				out.ensureRemaining(8);
+				out.buffer.putLong((Long) value);
+			}
+			case FLOAT -> {
+				out.ensureRemaining(4);
+				out.buffer.putFloat((Float) value);
+			}
+			case DOUBLE -> {
+				out.ensureRemaining(8);
+				out.buffer.putDouble((Double) value);
+			}
+			case BOOLEAN -> {
+				out.ensureRemaining(1);
+				out.buffer.put((Boolean) value ? (byte) 1 : 0);
+			}
+			case DURATION -> {
+				var duration = (Duration) value;
+				out.ensureRemaining(12);
+				out.buffer.putLong(duration.getSeconds()).putInt(duration.getNano());
+			}
+			case DATA_SIZE -> {
+				out.ensureRemaining(8);
+				out.buffer.putLong(((DataSize) value).bytes());
+			}
+			case ENUM -> {
+				out.ensureRemaining(4);
+				out.buffer.putInt(((Enum<?>) value).ordinal());
+			}
+			default -> throw new IllegalStateException("Unexpected value type: " + valueType);
+		}
+	}
+
+	/**
+	 * Decodes the snapshot that starts at the buffer's position (without changing it).
+	 *
+	 * @param type the args type the snapshot is decoded to - a record or a mode or action interface
+	 * 		(in which case the record is identified by the snapshot's fingerprint)
+	 * @throws IllegalArgumentException if the buffer doesn't contain a snapshot of an args record of {@code type},
+	 * 		it is corrupted, or the record's constructor throws an exception
+	 * @throws ArgsDefinitionException if {@code type} is not a valid args type
+	 */
+	static Record decode(ByteBuffer snapshot, Class<?> type) {
+		internalErrorOnNull(snapshot);
+		internalErrorOnNull(type);
+		var in = snapshot.duplicate().order(ByteOrder.BIG_ENDIAN);
+		try {
+			if (in.getInt() != MAGIC)
+				throw new IllegalArgumentException("The buffer doesn't contain an args snapshot.");
+			var version = in.get();
+			if (version != VERSION)
+				throw new IllegalArgumentException("The args snapshot has the unsupported version %d.".formatted(version));
+			var recordType = findRecordType(type, in.getLong());
+
+			var schema = RecordSchema.of(recordType);
+			var layout = LAYOUTS.get(recordType);
+			var leafValues = new Object[schema.leafCount()];
+			for (int i = 0; i < leafValues.length; i++)
+				leafValues[i] = decodeLeaf(in, layout, i);
+			return Args.constructArgType(schema, leafValues);
+		} catch (BufferUnderflowException ex) {
+			throw new IllegalArgumentException("The args snapshot is truncated.", ex);
+		} catch (InternalArgsException ex) {
+			var messages = ex.errors().stream()
+					.map(ArgsMessage::toMessage)
+					.collect(joining(" "));
+			throw new IllegalArgumentException("The args record can't be created from the snapshot: " + messages, ex);
+		}
+	}
+
+	private static Class<? extends Record> findRecordType(Class<?> type, long fingerprint) {
+		for (Class<? extends Record> recordType : ArgsModeFilter.resolveRecordTypes(type))
+			if (LAYOUTS.get(recordType).fingerprint() == fingerprint)
+				return recordType;
+		var message = "The args snapshot was created for a different version of the args type %s (or a different type).";
+		throw new IllegalArgumentException(message.formatted(type.getName()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object decodeLeaf(ByteBuffer in, Layout layout, int leaf) {
+		var leafKind = layout.leafKinds()[leaf];
+		var keyType = layout.keyTypes()[leaf];
+		var valueType = layout.valueTypes()[leaf];
+		var keyEnum = layout.keyEnums()[leaf];
+		var valueEnum = layout.valueEnums()[leaf];
+		return switch (leafKind) {
+			case SIMPLE -> decodeValue(in, valueType, valueEnum);
+			case OPTIONAL -> decodeFlag(in) ? Optional.of(decodeValue(in, valueType, valueEnum)) : Optional.empty();
+			case LIST -> {
+				var size = decodeSize(in);
+				var list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++)
+					list.add(decodeValue(in, valueType, valueEnum));
+				yield new FrozenList<>(list);
+			}
+			case SET -> {
+				var size = decodeSize(in);
+				var set = SetArg.newSet((Class<Object>) layout.valueClasses()[leaf], size);
+				for (int i = 0; i < size; i++)
+					if (!set.add(decodeValue(in, valueType, valueEnum)))
+						throw corrupted("duplicate set element");
+				yield new FrozenSet<>(set);
+			}
+			case MAP -> {
+				var size = decodeSize(in);
+				var map = HashMap.<Object, Object> newHashMap(size);
+				for (int i = 0; i < size; i++)
+					if (map.put(decodeValue(in, keyType, keyEnum), decodeValue(in, valueType, valueEnum)) != null)
+						throw corrupted("duplicate map key");
+				yield new FrozenMap<>(map);
+			}
+			default -> throw new IllegalStateException("Unexpected leaf kind: " + leafKind);
+		};
+	}
+
+	private static int decodeSize(ByteBuffer in) {
+		var size = in.getInt();
+		// every element takes at least one byte, which keeps corrupted sizes from allocating huge buffers
+		if (size < 0 || size > in.remaining())
+			throw corrupted("size %d".formatted(size));
+		return size;
+	}
+
+	private static boolean decodeFlag(ByteBuffer in) {
+		var flag = in.get();
+		if (flag != 0 && flag != 1)
+			throw corrupted("flag %d".formatted(flag));
+		return flag == 1;
+	}
+
+	/**
+	 * @param enumLookup the lookup for the enum if {@code valueType} is {@code ENUM}, otherwise {@code null}
+	 */
+	private static Object decodeValue(ByteBuffer in, int valueType, EnumLookup enumLookup) {
+		return switch (valueType) {
+			case STRING -> decodeString(in);
+			case PATH -> Path.of(decodeString(in));
+			case INT -> in.getInt();
+			case LONG -> in.getLong();
+			case FLOAT -> in.getFloat();
+			case DOUBLE -> in.getDouble();
+			case BOOLEAN -> decodeFlag(in);
+			case DURATION -> decodeDuration(in);
+			case DATA_SIZE -> decodeDataSize(in);
+			// throws an `IllegalArgumentException` for ordinals without constant
+			case ENUM -> enumLookup.constant(in.getInt());
+			default -> throw new IllegalStateException("Unexpected value type: " + valueType);
+		};
+	}
+
+	private static Duration decodeDuration(ByteBuffer in) {
+		var seconds = in.getLong();
+		var nanos = in.getInt();
+		// with nanos in that range, `Duration::ofSeconds` can't overflow
+		if (nanos < 0 || nanos > 999_999_999)
+			throw corrupted("duration nanos %d".formatted(nanos));
+		return Duration.ofSeconds(seconds, nanos);
+	}
+
+	private static DataSize decodeDataSize(ByteBuffer in) {
+		var bytes = in.getLong();
+		if (bytes < 0)
+			throw corrupted("data size %d".formatted(bytes));
+		return new DataSize(bytes);
+	}
+
+	private static IllegalArgumentException corrupted(String detail) {
+		return new IllegalArgumentException("The args snapshot is corrupted (%s).".formatted(detail));
+	}
+
+	private static String decodeString(ByteBuffer in) {
+		var length = decodeSize(in);
+		if (in.hasArray()) {
+			var string = new String(in.array(), in.arrayOffset() + in.position(), length, UTF_8);
+			in.position(in.position() + length);
+			return string;
+		}
+		// e.g. a memory-mapped buffer
+		var bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	/**
+	 * The encoding of an args record type, i.e. for each leaf (in the order of {@link RecordSchema#leaves()})
+	 * its kind and the types of its keys (maps only) and values (including the lookups for enum types).
+	 */
+	private record Layout(
+			long fingerprint, int[] leafKinds, int[] keyTypes, int[] valueTypes,
+			Class<?>[] valueClasses, EnumLookup[] keyEnums, EnumLookup[] valueEnums) {
+
+		static Layout of(RecordSchema<?> schema) {
+			var leaves = schema.leaves();
+			var leafKinds = new int[leaves.size()];
+			var keyTypes = new int[leaves.size()];
+			var valueTypes = new int[leaves.size()];
+			var valueClasses = new Class<?>[leaves.size()];
+			var keyEnums = new EnumLookup[leaves.size()];
+			var valueEnums = new EnumLookup[leaves.size()];
+			var fingerprint = new Fingerprint().add(schema.type().getName());
+			for (int i = 0; i < leafKinds.length; i++) {
+				var leaf = leaves.get(i);
+				fingerprint.add(leaf.name()).add(leaf.type().getTypeName());
+				if (leaf.type() instanceof ParameterizedType parameterized) {
+					var typeArguments = parameterized.getActualTypeArguments();
+					leafKinds[i] = switch (parameterized.getRawType().getTypeName()) {
+						case "java.util.Optional" -> OPTIONAL;
+						case "java.util.List" -> LIST;
+						case "java.util.Set" -> SET;
+						case "java.util.Map" -> MAP;
+						default -> throw new IllegalStateException("Unexpected argument type: " + leaf.type());
+					};
+					keyTypes[i] = leafKinds[i] == MAP ? valueTypeOf(typeArguments[0]) : -1;
+					keyEnums[i] = leafKinds[i] == MAP ? enumLookupOf(typeArguments[0], fingerprint) : null;
+					valueTypes[i] = valueTypeOf(typeArguments[typeArguments.length - 1]);
+					valueClasses[i] = (Class<?>) typeArguments[typeArguments.length - 1];
+					valueEnums[i] = enumLookupOf(typeArguments[typeArguments.length - 1], fingerprint);
+				} else {
+					leafKinds[i] = SIMPLE;
+					keyTypes[i] = -1;
+					valueTypes[i] = valueTypeOf(leaf.type());
+					valueClasses[i] = (Class<?>) leaf.type();
+					valueEnums[i] = enumLookupOf(leaf.type(), fingerprint);
+				}
+			}
+			return new Layout(fingerprint.value(), leafKinds, keyTypes, valueTypes, valueClasses, keyEnums, valueEnums);
+		}
+
+		/**
+		 * @return the lookup if {@code type} is an enum (whose constants are then added to the fingerprint), otherwise {@code null}
+		 */
+		private static EnumLookup enumLookupOf(Type type, Fingerprint fingerprint) {
+			if (!(type instanceof Class<?> enumType && enumType.isEnum()))
+				return null;
+			var lookup = EnumLookup.of(enumType);
+			for (String name : lookup.names())
+				fingerprint.add(name);
+			return lookup;
+		}
+
+		private static int valueTypeOf(Type type) {
+			if (type instanceof Class<?> enumType && enumType.isEnum())
+				return ENUM;
+			return switch (type.getTypeName()) {
+				case "java.lang.String" -> STRING;
+				case "java.nio.file.Path" -> PATH;
+				case "java.lang.Integer", "int" -> INT;
+				case "java.lang.Long", "long" -> LONG;
+				case "java.lang.Float", "float" -> FLOAT;
+				case "java.lang.Double", "double" -> DOUBLE;
+				case "java.lang.Boolean", "boolean" -> BOOLEAN;
+				case "java.time.Duration" -> DURATION;
+				case "dev.nipafx.args.DataSize" -> DATA_SIZE;
+				default -> throw new IllegalStateException("Unexpected argument type: " + type);
+			};
+		}
+
+	}
+
+	/**
+	 * A 64-bit FNV-1a hash, which (unlike {@code hashCode}) is specified and hence the same in all JVMs.
+	 */
+	private static final class Fingerprint {
+
+		private long value = 0xcbf29ce484222325L;
+
+		Fingerprint add(String string) {
+			for (int i = 0; i < string.length(); i++) {
+				value ^= string.charAt(i);
+				value *= 0x100000001b3L;
+			}
+			// separate strings, so "ab" + "c" differs from "a" + "bc"
+			value ^= 0xff;
+			value *= 0x100000001b3L;
+			return this;
+		}
+
+		long value() {
+			return value;
+		}
+
+	}
+
+	/**
+	 * A heap buffer that grows as needed.
+	 */
+	private static final class Output {
+
+		private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+		void ensureRemaining(int bytes) {
+			if (buffer.remaining() >= bytes)
+				return;
+			var capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+			buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+		}
+
+	}
+
+}
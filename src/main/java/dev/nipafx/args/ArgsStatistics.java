@@ -0,0 +1,300 @@
+package dev.nipafx.args;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts parses, failures, and reported messages and records parse latencies per args type -
+ * once enabled, for all parses in this JVM (including those by {@link ArgsCache} and {@link ArgsInterner}).
+ * Results that {@code ArgsCache} returns from its cache count as (successful) parses, too, so the latencies
+ * reflect what callers actually experience.
+ *
+ * <p>Statistics are disabled by default, which costs each parse a single volatile read.
+ * {@link #enable()} starts recording and registers the statistics with the platform MBean server
+ * as {@value #OBJECT_NAME}, where tools like JConsole or JMX exporters can read them.
+ * This requires the module {@code java.management}, which modular applications need to require
+ * (or add with {@code --add-modules}).</p>
+ *
+ * <p>Recording never locks: counters are {@link LongAdder}s, which spread concurrent increments over
+ * several cells, and latencies go into histograms whose buckets are such adders as well. Reading the
+ * statistics sums these cells, so values read during concurrent parses may be slightly inconsistent
+ * with one another.</p>
+ *
+ * <pre>{@code
+ * // at launch
+ * ArgsStatistics.enable();
+ * // later, in code (or via JMX)
+ * long failed = ArgsStatistics.enable().getFailedParseCount();
+ * }</pre>
+ */
+public final class ArgsStatistics implements ArgsStatisticsMXBean {
+
+	/**
+	 * The name under which the statistics are registered with the platform MBean server.
+	 */
+	public static final String OBJECT_NAME = "dev.nipafx.args:type=ArgsStatistics";
+
+	// `null` while statistics are disabled
+	private static volatile ArgsStatistics enabled;
+
+	private final LongAdder parses = new LongAdder();
+	private final LongAdder failedParses = new LongAdder();
+	private final LongAdder unknownArguments = new LongAdder();
+	private final Map<Class<?>, LongAdder> messageCounts = new ConcurrentHashMap<>();
+	private final Map<Class<?>, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+	private ArgsStatistics() { }
+
+	/**
+	 * Starts recording statistics for all parses and registers them with the platform MBean server
+	 * as {@value #OBJECT_NAME}. If statistics are already enabled, this does nothing.
+	 *
+	 * @return the statistics, which can also be read directly
+	 * @throws IllegalStateException if the statistics can't be registered with the platform MBean server
+	 * 		(e.g. because another copy of RecordArgs already registered its statistics)
+	 */
+	public static synchronized ArgsStatistics enable() {
+		if (enabled != null)
+			return enabled;
+
+		var statistics = new ArgsStatistics();
+		Registration.register(statistics);
+		enabled = statistics;
+		return statistics;
+	}
+
+	/**
+	 * Stops recording statistics and unregisters them from the platform MBean server.
+	 * If statistics aren't enabled, this does nothing.
+	 */
+	public static synchronized void disable() {
+		if (enabled == null)
+			return;
+
+		enabled = null;
+		Registration.unregister();
+	}
+
+	/**
+	 * @return the statistics to record to or {@code null} if they're disabled
+	 */
+	static ArgsStatistics enabled() {
+		return enabled;
+	}
+
+	/*
+	 * RECORDING
+	 *
+	 * These methods are on the parse path, so they follow its rules (see comment in `Args`).
+	 */
+
+	void recordParse(Class<?>[] types, long nanos) {
+		parses.increment();
+		recordLatency(types, nanos);
+	}
+
+	void recordFailedParse(Class<?>[] types, List<ArgsMessage> errors, long nanos) {
+		parses.increment();
+		failedParses.increment();
+		recordMessages(errors);
+		recordLatency(types, nanos);
+	}
+
+	void recordMessages(List<ArgsMessage> messages) {
+		for (ArgsMessage message : messages) {
+			if (message instanceof ArgsMessage.UnknownArgument)
+				unknownArguments.increment();
+			var counter = messageCounts.get(message.getClass());
+			if (counter == null) {
+				messageCounts.putIfAbsent(message.getClass(), new LongAdder());
+				counter = messageCounts.get(message.getClass());
+			}
+			counter.increment();
+		}
+	}
+
+	private void recordLatency(Class<?>[] types, long nanos) {
+		for (Class<?> type : types) {
+			var histogram = latencies.get(type);
+			if (histogram == null) {
+				latencies.putIfAbsent(type, new LatencyHistogram());
+				histogram = latencies.get(type);
+			}
+			histogram.record(nanos);
+		}
+	}
+
+	/*
+	 * READING
+	 */
+
+	@Override
+	public long getParseCount() {
+		return parses.sum();
+	}
+
+	@Override
+	public long getFailedParseCount() {
+		return failedParses.sum();
+	}
+
+	@Override
+	public long getUnknownArgumentCount() {
+		return unknownArguments.sum();
+	}
+
+	@Override
+	public Map<String, Long> getMessageCounts() {
+		var counts = new TreeMap<String, Long>();
+		messageCounts.forEach((type, counter) -> counts.put(type.getSimpleName(), counter.sum()));
+		return counts;
+	}
+
+	@Override
+	public Map<String, Long> getLatencyP50Nanos() {
+		return percentiles(0.5);
+	}
+
+	@Override
+	public Map<String, Long> getLatencyP90Nanos() {
+		return percentiles(0.9);
+	}
+
+	@Override
+	public Map<String, Long> getLatencyP99Nanos() {
+		return percentiles(0.99);
+	}
+
+	@Override
+	public Map<String, Long> getLatencyMaxNanos() {
+		var maxima = new TreeMap<String, Long>();
+		latencies.forEach((type, histogram) -> maxima.put(type.getName(), histogram.max()));
+		return maxima;
+	}
+
+	private Map<String, Long> percentiles(double percentile) {
+		var percentiles = new TreeMap<String, Long>();
+		latencies.forEach((type, histogram) -> percentiles.put(type.getName(), histogram.percentile(percentile)));
+		return percentiles;
+	}
+
+	@Override
+	public void reset() {
+		// parses that record concurrently to a reset may be partially counted
+		parses.reset();
+		failedParses.reset();
+		unknownArguments.reset();
+		messageCounts.clear();
+		latencies.clear();
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	/**
+	 * A log-linear histogram: values below 4 get a bucket each and every power-of-two range above that
+	 * is split into four buckets, so a bucket's bounds are at most 25% apart and 248 buckets cover all
+	 * positive {@code long} values.
+	 */
+	static final class LatencyHistogram {
+
+		private static final int SUB_BUCKET_BITS = 2;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+		private final LongAdder[] buckets = new LongAdder[BUCKETS];
+		private final AtomicLong max = new AtomicLong();
+
+		LatencyHistogram() {
+			for (int i = 0; i < BUCKETS; i++)
+				buckets[i] = new LongAdder();
+		}
+
+		void record(long value) {
+			// `System.nanoTime` isn't guaranteed to be monotonic across cores
+			long nonNegative = Math.max(value, 0);
+			buckets[bucketOf(nonNegative)].increment();
+			long currentMax = max.get();
+			while (nonNegative > currentMax && !max.compareAndSet(currentMax, nonNegative))
+				currentMax = max.get();
+		}
+
+		static int bucketOf(long value) {
+			if (value < SUB_BUCKETS)
+				return (int) value;
+			int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+			int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+			return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+		}
+
+		static long upperBoundOf(int bucket) {
+			if (bucket < SUB_BUCKETS)
+				return bucket;
+			int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+			int subBucket = bucket % SUB_BUCKETS;
+			long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+			return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+		}
+
+		/**
+		 * @return the upper bound of the bucket that contains the value at the given percentile
+		 * 		(but no more than the maximum) or 0 if no values were recorded
+		 */
+		long percentile(double percentile) {
+			var counts = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] = buckets[i].sum();
+				total += counts[i];
+			}
+			if (total == 0)
+				return 0;
+
+			long rank = Math.max(1, (long) Math.ceil(percentile * total));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += counts[i];
+				if (seen >= rank)
+					return Math.min(upperBoundOf(i), max());
+			}
+			return max();
+		}
+
+		long max() {
+			return max.get();
+		}
+
+	}
+
+	/**
+	 * Separated from {@code ArgsStatistics}, so the JMX classes are only loaded when statistics are enabled.
+	 */
+	private static final class Registration {
+
+		static void register(ArgsStatistics statistics) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(statistics, new ObjectName(OBJECT_NAME));
+			} catch (JMException ex) {
+				throw new IllegalStateException("Registering the args statistics as %s failed.".formatted(OBJECT_NAME), ex);
+			}
+		}
+
+		static void unregister() {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+			} catch (JMException ex) {
+				throw new IllegalStateException("Unregistering the args statistics as %s failed.".formatted(OBJECT_NAME), ex);
+			}
+		}
+
+	}
+
+}
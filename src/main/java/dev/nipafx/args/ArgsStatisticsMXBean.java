@@ -0,0 +1,77 @@
+package dev.nipafx.args;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link ArgsStatistics}, which is registered with the platform MBean server
+ * as {@value ArgsStatistics#OBJECT_NAME}.
+ *
+ * <p>Latencies are recorded in buckets whose bounds are at most 25% apart, so percentiles are reported
+ * as the upper bound of the bucket they fall into and may overestimate the actual latency by that much.</p>
+ */
+public interface ArgsStatisticsMXBean {
+
+	/**
+	 * Returns the number of parses.
+	 *
+	 * @return the number of parses (successful or not) since statistics were enabled or reset
+	 */
+	long getParseCount();
+
+	/**
+	 * Returns the number of failed parses.
+	 *
+	 * @return the number of parses that threw an {@link ArgsParseException} since statistics were enabled or reset
+	 */
+	long getFailedParseCount();
+
+	/**
+	 * Returns the number of unknown arguments.
+	 *
+	 * @return the number of unknown arguments that were encountered (by strict and lenient parses)
+	 * 		since statistics were enabled or reset
+	 */
+	long getUnknownArgumentCount();
+
+	/**
+	 * Returns the number of messages per message type.
+	 *
+	 * @return the number of reported messages (errors and warnings) by their type's simple name
+	 * 		(e.g. {@code MissingArgument}) since statistics were enabled or reset
+	 */
+	Map<String, Long> getMessageCounts();
+
+	/**
+	 * Returns the median parse latency per args type.
+	 *
+	 * @return the median parse latency in nanoseconds by args type name
+	 */
+	Map<String, Long> getLatencyP50Nanos();
+
+	/**
+	 * Returns the 90th percentile of the parse latency per args type.
+	 *
+	 * @return the 90th percentile of the parse latency in nanoseconds by args type name
+	 */
+	Map<String, Long> getLatencyP90Nanos();
+
+	/**
+	 * Returns the 99th percentile of the parse latency per args type.
+	 *
+	 * @return the 99th percentile of the parse latency in nanoseconds by args type name
+	 */
+	Map<String, Long> getLatencyP99Nanos();
+
+	/**
+	 * Returns the maximum parse latency per args type.
+	 *
+	 * @return the maximum parse latency in nanoseconds by args type name
+	 */
+	Map<String, Long> getLatencyMaxNanos();
+
+	/**
+	 * Sets all counters to zero and forgets all latencies.
+	 */
+	void reset();
+
+}
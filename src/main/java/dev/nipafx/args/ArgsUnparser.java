@@ -0,0 +1,195 @@
+package dev.nipafx.args;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * Turns args records back into argument arrays that parse to equal records.
+ *
+ * <p>The array is created in two passes over the record's leaf values: the first one counts the tokens they need,
+ * the second one writes them into an array of exactly that size.
+ * Like {@code ArgsParser}, this uses no lambdas - see comment in {@code Args}.</p>
+ *
+ * <p>All methods are stateless and hence thread-safe.</p>
+ */
+final class ArgsUnparser {
+
+	private static final String[] NO_TOKENS = new String[0];
+
+	/**
+	 * The argument names (including "--") of each args record's leaves in the order of {@link RecordSchema#leafNames()}.
+	 */
+	private static final ClassValue<String[]> ARGUMENT_NAMES = new ClassValue<>() {
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected String[] computeValue(Class<?> type) {
+			var leafNames = RecordSchema.of((Class<? extends Record>) type).leafNames();
+			var argumentNames = new String[leafNames.size()];
+			for (int i = 0; i < argumentNames.length; i++)
+				argumentNames[i] = "--".concat(leafNames.get(i));
+			return argumentNames;
+		}
+
+	};
+
+	/**
+	 * The values that select a mode or action record (e.g. "withString") and the names of mode arguments
+	 * (e.g. "--mode") - see {@link ArgsModeFilter#createArgumentName(Class)}.
+	 */
+	private static final ClassValue<String> SELECTOR_NAMES = new ClassValue<>() {
+
+		@Override
+		protected String computeValue(Class<?> type) {
+			var name = ArgsModeFilter.createArgumentName(type);
+			return type.isInterface() ? "--".concat(name) : name;
+		}
+
+	};
+
+	private ArgsUnparser() {
+		// private constructor to prevent initialization
+	}
+
+	/**
+	 * @param args an instance of {@code type}
+	 * @param type the args type {@code args} was (or would be) parsed to - a record or a mode or action interface
+	 * @throws IllegalArgumentException if {@code args} isn't an instance of {@code type} or has values that can't be unparsed
+	 * @throws ArgsDefinitionException if {@code type} is not a valid args type
+	 */
+	static String[] unparse(Object args, Class<?> type) {
+		internalErrorOnNull(args);
+		internalErrorOnNull(type);
+		var isRecordOfType = type.isRecord()
+				? args.getClass() == type
+				// implementations of args interfaces must be records, which the parse will check
+				: type.isInstance(args) && args.getClass().isRecord();
+		if (!isRecordOfType) {
+			// throws if `type` isn't a valid args type
+			ArgsModeFilter.resolveRecordTypes(type);
+			var message = "The instance of %s is not a record of the args type %s.".formatted(args.getClass(), type);
+			throw new IllegalArgumentException(message);
+		}
+
+		var selector = NO_TOKENS;
+		if (ArgsModeFilter.isAction(type))
+			selector = new String[] { SELECTOR_NAMES.get(args.getClass()) };
+		else if (!type.isRecord())
+			selector = new String[] { SELECTOR_NAMES.get(type), SELECTOR_NAMES.get(args.getClass()) };
+		return unparse((Record) args, selector);
+	}
+
+	private static String[] unparse(Record args, String[] selector) {
+		var schema = RecordSchema.of(args.getClass());
+		var leafValues = schema.leafValuesOf(args);
+		int tokenCount = selector.length;
+		for (Object value : leafValues)
+			tokenCount += tokenCount(value);
+
+		var tokens = new String[tokenCount];
+		System.arraycopy(selector, 0, tokens, 0, selector.length);
+		var argumentNames = ARGUMENT_NAMES.get(args.getClass());
+		int position = selector.length;
+		int restLeaf = schema.restLeaf();
+		var shortNameLeaves = schema.shortNameLeaves();
+		for (int i = 0; i < leafValues.length; i++)
+			if (i != restLeaf)
+				position = writeTokens(argumentNames[i], leafValues[i], shortNameLeaves, tokens, position);
+		// the rest comes last, so "--" can mark where it starts
+		if (restLeaf != -1)
+			writeRest(argumentNames[restLeaf], (Collection<?>) leafValues[restLeaf], tokens, position);
+		return tokens;
+	}
+
+	/**
+	 * @return the number of tokens for the value (including its name) - absent and empty values need none
+	 */
+	private static int tokenCount(Object value) {
+		if (value instanceof Optional<?> optional)
+			return optional.isPresent() ? 2 : 0;
+		// lists and sets
+		if (value instanceof Collection<?> collection)
+			return collection.isEmpty() ? 0 : collection.size() + 1;
+		if (value instanceof Map<?, ?> map)
+			return map.isEmpty() ? 0 : map.size() + 1;
+		return 2;
+	}
+
+	/**
+	 * @param shortNameLeaves the record's {@link RecordSchema#shortNameLeaves() short names} - may be {@code null}
+	 * @return the position after the written tokens
+	 */
+	private static int writeTokens(String argumentName, Object value, int[] shortNameLeaves, String[] tokens, int position) {
+		if (tokenCount(value) == 0)
+			return position;
+
+		tokens[position++] = argumentName;
+		if (value instanceof Optional<?> optional)
+			tokens[position++] = toValueString(argumentName, optional.get(), shortNameLeaves);
+		else if (value instanceof Collection<?> collection)
+			for (Object element : collection)
+				tokens[position++] = toValueString(argumentName, element, shortNameLeaves);
+		else if (value instanceof Map<?, ?> map)
+			for (Map.Entry<?, ?> entry : map.entrySet())
+				tokens[position++] = toKeyValueString(argumentName, entry.getKey(), entry.getValue(), shortNameLeaves);
+		else
+			tokens[position++] = toValueString(argumentName, value, shortNameLeaves);
+		return position;
+	}
+
+	private static void writeRest(String argumentName, Collection<?> rest, String[] tokens, int position) {
+		if (rest.isEmpty())
+			return;
+
+		tokens[position++] = "--";
+		// after "--", tokens are taken as they are (even those starting with "--")
+		for (Object element : rest) {
+			if (element == null) {
+				var message = "The argument '%s' contains null, which can't be unparsed.".formatted(argumentName);
+				throw new IllegalArgumentException(message);
+			}
+			tokens[position++] = (String) element;
+		}
+	}
+
+	private static String toValueString(String argumentName, Object value, int[] shortNameLeaves) {
+		if (value == null) {
+			var message = "The argument '%s' contains null, which can't be unparsed.".formatted(argumentName);
+			throw new IllegalArgumentException(message);
+		}
+		// enums may override `toString`, but they're parsed by name
+		var string = value instanceof Enum<?> constant ? constant.name() : value.toString();
+		if (string.startsWith("--") || startsWithShortName(string, shortNameLeaves)) {
+			var message = "The value '%s' of argument '%s' can't be unparsed because it would be parsed as an argument name."
+					.formatted(string, argumentName);
+			throw new IllegalArgumentException(message);
+		}
+		return string;
+	}
+
+	/**
+	 * @return whether the parser would read the string as short names (e.g. "-v" if there's a short name 'v')
+	 */
+	private static boolean startsWithShortName(String string, int[] shortNameLeaves) {
+		if (shortNameLeaves == null || string.length() < 2 || string.charAt(0) != '-')
+			return false;
+		char shortName = string.charAt(1);
+		return shortName < shortNameLeaves.length && shortNameLeaves[shortName] != -1;
+	}
+
+	private static String toKeyValueString(String argumentName, Object key, Object value, int[] shortNameLeaves) {
+		// only the key starts the token, so only it could be mistaken for a name
+		var keyString = toValueString(argumentName, key, shortNameLeaves);
+		var valueString = toValueString(argumentName, value, null);
+		if (keyString.indexOf('=') != -1 || valueString.indexOf('=') != -1 || valueString.isEmpty()) {
+			var message = "The pair '%s' -> '%s' of argument '%s' can't be unparsed because it would not be parsed as a 'key=value' pair."
+					.formatted(keyString, valueString, argumentName);
+			throw new IllegalArgumentException(message);
+		}
+		return keyString.concat("=").concat(valueString);
+	}
+
+}
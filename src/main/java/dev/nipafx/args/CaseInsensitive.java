@@ -0,0 +1,17 @@
+package dev.nipafx.args;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an enum whose constants are matched case-insensitively when parsing argument values,
+ * so for an enum with a constant {@code DEBUG}, "DEBUG", "debug", and "Debug" are all accepted.
+ * Its constants' names must then differ in more than their case.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CaseInsensitive { }
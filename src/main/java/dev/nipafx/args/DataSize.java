@@ -0,0 +1,81 @@
+package dev.nipafx.args;
+
+/**
+ * A number of bytes, e.g. a buffer or cache size, that can be used as the type of args record components.
+ *
+ * <p>Arguments are parsed from a number with an optional unit - either "B" (the default), one of the decimal units
+ * "kB", "MB", "GB", "TB" (powers of 1000), or one of the binary units "KiB", "MiB", "GiB", "TiB" (powers of 1024).
+ * Units are case-insensitive and digits can be separated by underscores, so "512MiB", "1_500kb", and "4096"
+ * are all valid.</p>
+ *
+ * @param bytes the number of bytes (non-negative)
+ */
+public record DataSize(long bytes) implements Comparable<DataSize> {
+
+	private static final String[] BINARY_UNITS = { "B", "KiB", "MiB", "GiB", "TiB" };
+	private static final String[] DECIMAL_UNITS = { "B", "kB", "MB", "GB", "TB" };
+
+	/**
+	 * Creates a data size.
+	 *
+	 * @param bytes the number of bytes
+	 * @throws IllegalArgumentException if {@code bytes} is negative
+	 */
+	public DataSize {
+		if (bytes < 0)
+			throw new IllegalArgumentException("A data size must not be negative but was %d.".formatted(bytes));
+	}
+
+	/**
+	 * Parses a data size like arguments of this type are parsed (see class documentation).
+	 *
+	 * @param text the text to parse, e.g. "512MiB"
+	 * @return the data size
+	 * @throws NumberFormatException if {@code text} is not a valid data size
+	 */
+	public static DataSize parse(CharSequence text) {
+		if (text == null)
+			throw new IllegalArgumentException("The text to parse must not be null.");
+		return Numbers.parseDataSize(text, 0, text.length());
+	}
+
+	@Override
+	public int compareTo(DataSize other) {
+		return Long.compare(bytes, other.bytes);
+	}
+
+	/**
+	 * Formats the data size with the largest binary (or, failing that, decimal) unit that represents it exactly,
+	 * e.g. "512MiB", "3kB", or "1500B", which {@link #parse(CharSequence) parses} to an equal data size.
+	 *
+	 * @return the formatted data size
+	 */
+	@Override
+	public String toString() {
+		if (bytes == 0)
+			return "0B";
+		var binary = largestExactUnit(1024);
+		var decimal = largestExactUnit(1000);
+		return binary >= decimal
+				? formatWith(1024, binary, BINARY_UNITS)
+				: formatWith(1000, decimal, DECIMAL_UNITS);
+	}
+
+	private int largestExactUnit(long base) {
+		int exponent = 0;
+		long unit = 1;
+		while (exponent < BINARY_UNITS.length - 1 && bytes % (unit * base) == 0) {
+			unit *= base;
+			exponent++;
+		}
+		return exponent;
+	}
+
+	private String formatWith(long base, int exponent, String[] units) {
+		long amount = bytes;
+		for (int i = 0; i < exponent; i++)
+			amount /= base;
+		return Long.toString(amount).concat(units[exponent]);
+	}
+
+}
@@ -0,0 +1,157 @@
+package dev.nipafx.args;
+
+import java.util.Arrays;
+
+import static dev.nipafx.args.ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE;
+import static dev.nipafx.args.Check.internalErrorOnNull;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Resolves an enum's constants by name in constant time without {@code Enum::valueOf}
+ * (and hence without creating exceptions for unknown names).
+ *
+ * <p>The constants are stored in a table that is indexed by a seeded hash of their names. When the lookup
+ * is created (once per enum, when an args record's schema is analyzed), seeds (and, if necessary, larger tables)
+ * are tried until every constant has its own slot, i.e. the hash is perfect for this set of names. A lookup
+ * then hashes the value, checks the single slot it points to, and compares the name - no probing, no collisions.
+ * For {@link CaseInsensitive @CaseInsensitive} enums, names are hashed and compared case-insensitively.</p>
+ *
+ * <p>Instances are immutable once created and can hence be shared between threads
+ * (given they are safely published, e.g. via a {@code ClassValue}).</p>
+ */
+final class EnumLookup {
+
+	private static final ClassValue<EnumLookup> LOOKUPS = new ClassValue<>() {
+
+		@Override
+		protected EnumLookup computeValue(Class<?> type) {
+			return new EnumLookup(type);
+		}
+
+	};
+
+	// seeds to try per table size before doubling it
+	private static final int SEEDS_PER_SIZE = 64;
+
+	private final Class<?> type;
+	private final Enum<?>[] constants;
+	private final boolean caseInsensitive;
+	private final Enum<?>[] table;
+	private final int mask;
+	private final int seed;
+
+	private EnumLookup(Class<?> type) {
+		this.type = internalErrorOnNull(type);
+		this.constants = (Enum<?>[]) type.getEnumConstants();
+		this.caseInsensitive = type.isAnnotationPresent(CaseInsensitive.class);
+		if (caseInsensitive)
+			failOnNamesThatOnlyDifferInCase();
+
+		// start with a table that's at least twice as large as the number of constants
+		int size = Integer.highestOneBit(Math.max(1, constants.length * 2 - 1)) << 1;
+		int seed = 0;
+		var table = tableFor(size, seed);
+		while (table == null) {
+			if (++seed == SEEDS_PER_SIZE) {
+				seed = 0;
+				size <<= 1;
+			}
+			table = tableFor(size, seed);
+		}
+		this.table = table;
+		this.mask = size - 1;
+		this.seed = seed;
+	}
+
+	/**
+	 * @throws ArgsDefinitionException if the enum is {@link CaseInsensitive @CaseInsensitive}
+	 * 		but has constants whose names only differ in case
+	 */
+	static EnumLookup of(Class<?> enumType) {
+		return LOOKUPS.get(enumType);
+	}
+
+	private void failOnNamesThatOnlyDifferInCase() {
+		for (int i = 0; i < constants.length; i++)
+			for (int j = i + 1; j < constants.length; j++)
+				if (constants[i].name().equalsIgnoreCase(constants[j].name())) {
+					var message = "The case-insensitive enum %s has the constants %s and %s, whose names only differ in case."
+							.formatted(type.getName(), constants[i].name(), constants[j].name());
+					throw new ArgsDefinitionException(UNSUPPORTED_ARGUMENT_TYPE, message);
+				}
+	}
+
+	/**
+	 * @return a table with each constant in its hash's slot or {@code null} if two constants would share one
+	 */
+	private Enum<?>[] tableFor(int size, int seed) {
+		var table = new Enum<?>[size];
+		for (Enum<?> constant : constants) {
+			int slot = hash(constant.name(), 0, constant.name().length(), seed) & (size - 1);
+			if (table[slot] != null)
+				return null;
+			table[slot] = constant;
+		}
+		return table;
+	}
+
+	private int hash(String text, int begin, int end, int seed) {
+		// FNV-1a with the seed mixed into the offset basis and a final avalanche step
+		int hash = 0x811c9dc5 ^ seed * 0x9e3779b9;
+		for (int i = begin; i < end; i++) {
+			char character = text.charAt(i);
+			hash ^= caseInsensitive ? Character.toLowerCase(Character.toUpperCase(character)) : character;
+			hash *= 0x01000193;
+		}
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		return hash ^ hash >>> 13;
+	}
+
+	/**
+	 * @return the constant whose name is the range {@code [begin, end)} of {@code text}
+	 * @throws IllegalArgumentException if there's no such constant
+	 */
+	Object valueOf(String text, int begin, int end) {
+		var constant = table[hash(text, begin, end, seed) & mask];
+		if (constant != null) {
+			var name = constant.name();
+			if (name.length() == end - begin && name.regionMatches(caseInsensitive, 0, text, begin, end - begin))
+				return constant;
+		}
+		throw unknownConstant(text.substring(begin, end));
+	}
+
+	/**
+	 * @return the constant with the given ordinal
+	 * @throws IllegalArgumentException if there's no such constant
+	 */
+	Object constant(int ordinal) {
+		if (ordinal < 0 || ordinal >= constants.length) {
+			var message = "The enum %s has no constant with ordinal %d.".formatted(type.getName(), ordinal);
+			throw new IllegalArgumentException(message);
+		}
+		return constants[ordinal];
+	}
+
+	/**
+	 * @return the constants' names in declaration order
+	 */
+	String[] names() {
+		var names = new String[constants.length];
+		for (int i = 0; i < names.length; i++)
+			names[i] = constants[i].name();
+		return names;
+	}
+
+	private IllegalArgumentException unknownConstant(String value) {
+		var allowed = Arrays.stream(constants)
+				.map(Enum::name)
+				.collect(joining(", ", "[", "]"));
+		var message = caseInsensitive
+				? "'%s' is none of the allowed values %s (case-insensitive).".formatted(value, allowed)
+				: "'%s' is none of the allowed values %s.".formatted(value, allowed);
+		return new IllegalArgumentException(message);
+	}
+
+}
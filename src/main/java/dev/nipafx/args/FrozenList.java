@@ -0,0 +1,61 @@
+package dev.nipafx.args;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * An unmodifiable list that takes over a buffer that was filled during parsing (instead of copying it)
+ * and caches its hash code.
+ *
+ * <p>The buffer must not be mutated after it was handed over. Like the lists of {@link List#copyOf(java.util.Collection)
+ * List::copyOf}, which this list replaces, it's serializable - as such a list.</p>
+ *
+ * @param <E> the type of the list's elements
+ */
+final class FrozenList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+	private final ArrayList<E> elements;
+
+	// like `String`, compute lazily and cache in a racy but benign way (the computation is deterministic)
+	private int hash;
+	private boolean hashIsZero;
+
+	FrozenList(ArrayList<E> elements) {
+		this.elements = internalErrorOnNull(elements);
+	}
+
+	@Override
+	public E get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0 && !hashIsZero) {
+			h = super.hashCode();
+			if (h == 0)
+				hashIsZero = true;
+			else
+				hash = h;
+		}
+		return h;
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return List.copyOf(elements);
+	}
+
+}
@@ -0,0 +1,105 @@
+package dev.nipafx.args;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * An unmodifiable map that takes over a buffer that was filled during parsing (instead of copying it)
+ * and caches its hash code.
+ *
+ * <p>The buffer must not be mutated after it was handed over. Like the maps of {@link Map#copyOf(Map) Map::copyOf},
+ * which this map replaces, it's serializable - as such a map.</p>
+ *
+ * @param <K> the type of the map's keys
+ * @param <V> the type of the map's values
+ */
+final class FrozenMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+	private final Map<K, V> entries;
+
+	// like `String`, compute lazily and cache in a racy but benign way (the computation is deterministic)
+	private int hash;
+	private boolean hashIsZero;
+
+	FrozenMap(Map<K, V> entries) {
+		// the unmodifiable view doesn't copy and keeps the buffer's constant-time lookups
+		this.entries = Collections.unmodifiableMap(internalErrorOnNull(entries));
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return entries.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return entries.containsValue(value);
+	}
+
+	@Override
+	public V get(Object key) {
+		return entries.get(key);
+	}
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		return entries.getOrDefault(key, defaultValue);
+	}
+
+	@Override
+	public Set<K> keySet() {
+		return entries.keySet();
+	}
+
+	@Override
+	public Collection<V> values() {
+		return entries.values();
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return entries.entrySet();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		entries.forEach(action);
+	}
+
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0 && !hashIsZero) {
+			h = entries.hashCode();
+			if (h == 0)
+				hashIsZero = true;
+			else
+				hash = h;
+		}
+		return h;
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return Map.copyOf(entries);
+	}
+
+}
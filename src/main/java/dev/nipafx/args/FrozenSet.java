@@ -0,0 +1,73 @@
+package dev.nipafx.args;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * An unmodifiable set that takes over a buffer that was filled during parsing (instead of copying it)
+ * and caches its hash code.
+ *
+ * <p>The buffer must not be mutated after it was handed over. Like other unmodifiable sets, it's serializable -
+ * as an unmodifiable set that keeps the buffer's order and type (e.g. {@code EnumSet}).</p>
+ *
+ * @param <E> the type of the set's elements
+ */
+final class FrozenSet<E> extends AbstractSet<E> implements Serializable {
+
+	private final Set<E> elements;
+
+	// like `String`, compute lazily and cache in a racy but benign way (the computation is deterministic)
+	private int hash;
+	private boolean hashIsZero;
+
+	FrozenSet(Set<E> elements) {
+		// the unmodifiable view doesn't copy and keeps the buffer's lookups (e.g. an `EnumSet`'s bit tests)
+		this.elements = Collections.unmodifiableSet(internalErrorOnNull(elements));
+	}
+
+	@Override
+	public boolean contains(Object element) {
+		return elements.contains(element);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return elements.iterator();
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return elements.isEmpty();
+	}
+
+	@Override
+	public int hashCode() {
+		int h = hash;
+		if (h == 0 && !hashIsZero) {
+			h = elements.hashCode();
+			if (h == 0)
+				hashIsZero = true;
+			else
+				hash = h;
+		}
+		return h;
+	}
+
+	@Serial
+	private Object writeReplace() {
+		// unlike `Set::copyOf`, this keeps the order of the values
+		return elements;
+	}
+
+}
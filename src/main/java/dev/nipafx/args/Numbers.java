@@ -0,0 +1,407 @@
+package dev.nipafx.args;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses numbers, durations, and data sizes from a range of a {@code CharSequence} without creating substrings.
+ *
+ * <p>Integral values may be hexadecimal (prefixed with "0x") and all numbers may separate digits with
+ * underscores (e.g. "1_000_000"). Floating-point values are parsed with Clinger's fast path: if the decimal
+ * significand fits into the 53 (or 24) bits of a {@code double}'s (or {@code float}'s) mantissa and the
+ * power of ten is exactly representable, the value is a single, correctly rounded multiplication or division.
+ * That covers the vast majority of values in configurations and only the others (e.g. with more than 15
+ * significant digits, "NaN", or hexadecimal notation) are handed to the JDK's parsers.</p>
+ *
+ * <p>All methods throw {@link NumberFormatException}s (which are {@code IllegalArgumentException}s) for illegal
+ * values. Like the rest of the parse path, they use no lambdas - see comment in {@code Args}.</p>
+ */
+final class Numbers {
+
+	private static final long MAX_EXACT_DOUBLE_SIGNIFICAND = 1L << 53;
+	private static final long MAX_EXACT_FLOAT_SIGNIFICAND = 1L << 24;
+	// 10^22 is the largest power of ten that is exact in a double, 10^10 in a float
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+	private static final float[] FLOAT_POWERS_OF_TEN = {
+			1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+	// more digits may overflow a `long`
+	private static final int MAX_SIGNIFICAND_DIGITS = 18;
+
+	private Numbers() {
+		// private constructor to prevent initialization
+	}
+
+	/*
+	 * INTEGRAL NUMBERS
+	 */
+
+	static int parseInt(CharSequence text, int begin, int end) {
+		long value = parseLong(text, begin, end);
+		if (value < Integer.MIN_VALUE || Integer.MAX_VALUE < value)
+			throw illegalNumber(text, begin, end, "out of range for an int");
+		return (int) value;
+	}
+
+	static long parseLong(CharSequence text, int begin, int end) {
+		int position = begin;
+		boolean negative = false;
+		if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+			negative = text.charAt(position) == '-';
+			position++;
+		}
+		int radix = 10;
+		if (end - position > 2 && text.charAt(position) == '0' && (text.charAt(position + 1) | 0x20) == 'x') {
+			radix = 16;
+			position += 2;
+		}
+		if (position == end)
+			throw illegalNumber(text, begin, end, null);
+
+		// accumulate negatively because the negative range is larger than the positive one (like `Long.parseLong`)
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplicationLimit = limit / radix;
+		long value = 0;
+		for (int i = position; i < end; i++) {
+			char character = text.charAt(i);
+			if (character == '_') {
+				checkSeparator(text, begin, end, i, position, radix);
+				continue;
+			}
+			int digit = digitOf(character, radix);
+			if (digit < 0)
+				throw illegalNumber(text, begin, end, null);
+			if (value < multiplicationLimit)
+				throw illegalNumber(text, begin, end, "out of range for a long");
+			value *= radix;
+			if (value < limit + digit)
+				throw illegalNumber(text, begin, end, "out of range for a long");
+			value -= digit;
+		}
+		return negative ? value : -value;
+	}
+
+	private static int digitOf(char character, int radix) {
+		if ('0' <= character && character <= '9')
+			return character - '0';
+		if (radix == 16) {
+			char lowerCase = (char) (character | 0x20);
+			if ('a' <= lowerCase && lowerCase <= 'f')
+				return lowerCase - 'a' + 10;
+		}
+		return -1;
+	}
+
+	/**
+	 * Separators must be surrounded by digits, so "1_000" is legal but "_1", "1_", and "1__0" are not.
+	 */
+	private static void checkSeparator(CharSequence text, int begin, int end, int index, int firstDigit, int radix) {
+		boolean surroundedByDigits = index > firstDigit && index + 1 < end
+				&& digitOf(text.charAt(index - 1), radix) >= 0
+				&& digitOf(text.charAt(index + 1), radix) >= 0;
+		if (!surroundedByDigits)
+			throw illegalNumber(text, begin, end, "digit separators must be surrounded by digits");
+	}
+
+	/*
+	 * FLOATING-POINT NUMBERS
+	 */
+
+	static double parseDouble(CharSequence text, int begin, int end) {
+		var decimal = Decimal.parse(text, begin, end);
+		if (decimal != null) {
+			if (decimal.significand == 0)
+				return decimal.negative ? -0.0 : 0.0;
+			if (decimal.significand <= MAX_EXACT_DOUBLE_SIGNIFICAND
+					&& -DOUBLE_POWERS_OF_TEN.length < decimal.exponent && decimal.exponent < DOUBLE_POWERS_OF_TEN.length) {
+				double value = decimal.exponent < 0
+						? decimal.significand / DOUBLE_POWERS_OF_TEN[-decimal.exponent]
+						: decimal.significand * DOUBLE_POWERS_OF_TEN[decimal.exponent];
+				return decimal.negative ? -value : value;
+			}
+		}
+		return Double.parseDouble(withoutSeparators(text, begin, end));
+	}
+
+	static float parseFloat(CharSequence text, int begin, int end) {
+		var decimal = Decimal.parse(text, begin, end);
+		if (decimal != null) {
+			if (decimal.significand == 0)
+				return decimal.negative ? -0.0f : 0.0f;
+			if (decimal.significand <= MAX_EXACT_FLOAT_SIGNIFICAND
+					&& -FLOAT_POWERS_OF_TEN.length < decimal.exponent && decimal.exponent < FLOAT_POWERS_OF_TEN.length) {
+				float value = decimal.exponent < 0
+						? decimal.significand / FLOAT_POWERS_OF_TEN[-decimal.exponent]
+						: decimal.significand * FLOAT_POWERS_OF_TEN[decimal.exponent];
+				return decimal.negative ? -value : value;
+			}
+		}
+		return Float.parseFloat(withoutSeparators(text, begin, end));
+	}
+
+	/**
+	 * Removes separators (after checking that each of them is surrounded by digits) for the JDK's parsers,
+	 * which don't support them.
+	 */
+	private static String withoutSeparators(CharSequence text, int begin, int end) {
+		var builder = new StringBuilder(end - begin);
+		for (int i = begin; i < end; i++) {
+			char character = text.charAt(i);
+			if (character == '_')
+				checkSeparator(text, begin, end, i, begin, 10);
+			else
+				builder.append(character);
+		}
+		return builder.toString();
+	}
+
+	/*
+	 * DURATIONS AND DATA SIZES
+	 */
+
+	/**
+	 * Parses a sequence of amounts with units (e.g. "250ms", "1h30m", or "-5s"), where the units are
+	 * "d", "h", "m", "s", "ms", "us" (or "µs"), and "ns", or an ISO-8601 duration (e.g. "PT1.5S").
+	 */
+	static Duration parseDuration(CharSequence text, int begin, int end) {
+		int position = begin;
+		boolean negative = position < end && text.charAt(position) == '-';
+		if (negative || position < end && text.charAt(position) == '+')
+			position++;
+		if (position < end && (text.charAt(position) | 0x20) == 'p')
+			return parseIsoDuration(text, begin, end);
+		if (end - position == 1 && text.charAt(position) == '0')
+			return Duration.ZERO;
+		if (position == end)
+			throw illegalDuration(text, begin, end, null);
+
+		long seconds = 0;
+		long nanos = 0;
+		try {
+			while (position < end) {
+				int amountEnd = position;
+				while (amountEnd < end && (isDigit(text.charAt(amountEnd)) || text.charAt(amountEnd) == '_'))
+					amountEnd++;
+				int unitEnd = amountEnd;
+				while (unitEnd < end && !isDigit(text.charAt(unitEnd)))
+					unitEnd++;
+				if (amountEnd == position || unitEnd == amountEnd)
+					throw illegalDuration(text, begin, end, "every amount needs a unit");
+
+				long amount = parseLong(text, position, amountEnd);
+				if (regionEquals(text, amountEnd, unitEnd, "d"))
+					seconds = Math.addExact(seconds, Math.multiplyExact(amount, 86_400L));
+				else if (regionEquals(text, amountEnd, unitEnd, "h"))
+					seconds = Math.addExact(seconds, Math.multiplyExact(amount, 3_600L));
+				else if (regionEquals(text, amountEnd, unitEnd, "m"))
+					seconds = Math.addExact(seconds, Math.multiplyExact(amount, 60L));
+				else if (regionEquals(text, amountEnd, unitEnd, "s"))
+					seconds = Math.addExact(seconds, amount);
+				else if (regionEquals(text, amountEnd, unitEnd, "ms"))
+					nanos = Math.addExact(nanos, Math.multiplyExact(amount, 1_000_000L));
+				else if (regionEquals(text, amountEnd, unitEnd, "us") || regionEquals(text, amountEnd, unitEnd, "\u00B5s"))
+					nanos = Math.addExact(nanos, Math.multiplyExact(amount, 1_000L));
+				else if (regionEquals(text, amountEnd, unitEnd, "ns"))
+					nanos = Math.addExact(nanos, amount);
+				else
+					throw illegalDuration(text, begin, end, "unknown unit");
+				position = unitEnd;
+			}
+			var duration = Duration.ofSeconds(seconds, nanos);
+			return negative ? duration.negated() : duration;
+		} catch (ArithmeticException ex) {
+			throw illegalDuration(text, begin, end, "too long");
+		}
+	}
+
+	private static Duration parseIsoDuration(CharSequence text, int begin, int end) {
+		try {
+			return Duration.parse(text.subSequence(begin, end));
+		} catch (DateTimeParseException ex) {
+			// `DateTimeParseException` is no `IllegalArgumentException`, which the parser expects
+			var exception = illegalDuration(text, begin, end, null);
+			exception.initCause(ex);
+			throw exception;
+		}
+	}
+
+	/**
+	 * Parses a number of bytes with an optional unit (e.g. "512MiB"), where the units are "B", the decimal
+	 * "kB", "MB", "GB", "TB" (powers of 1000), and the binary "KiB", "MiB", "GiB", "TiB" (powers of 1024) -
+	 * all case-insensitive.
+	 */
+	static DataSize parseDataSize(CharSequence text, int begin, int end) {
+		int amountEnd = begin;
+		while (amountEnd < end && (isDigit(text.charAt(amountEnd)) || text.charAt(amountEnd) == '_'))
+			amountEnd++;
+		if (amountEnd == begin)
+			throw illegalDataSize(text, begin, end, null);
+
+		long amount = parseLong(text, begin, amountEnd);
+		long unit = dataSizeUnit(text, amountEnd, end);
+		if (unit < 0)
+			throw illegalDataSize(text, begin, end, "unknown unit");
+		try {
+			return new DataSize(Math.multiplyExact(amount, unit));
+		} catch (ArithmeticException ex) {
+			throw illegalDataSize(text, begin, end, "too large");
+		}
+	}
+
+	/**
+	 * @return the number of bytes in the unit or -1 if it's unknown
+	 */
+	private static long dataSizeUnit(CharSequence text, int begin, int end) {
+		int length = end - begin;
+		if (length == 0 || length == 1 && (text.charAt(begin) | 0x20) == 'b')
+			return 1;
+		if (length < 2 || length > 3 || (text.charAt(end - 1) | 0x20) != 'b')
+			return -1;
+		if (length == 3 && (text.charAt(begin + 1) | 0x20) != 'i')
+			return -1;
+
+		int exponent = switch (text.charAt(begin) | 0x20) {
+			case 'k' -> 1;
+			case 'm' -> 2;
+			case 'g' -> 3;
+			case 't' -> 4;
+			default -> -1;
+		};
+		if (exponent < 0)
+			return -1;
+		long base = length == 3 ? 1024 : 1000;
+		long unit = 1;
+		for (int i = 0; i < exponent; i++)
+			unit *= base;
+		return unit;
+	}
+
+	/*
+	 * HELPERS
+	 */
+
+	private static boolean isDigit(char character) {
+		return '0' <= character && character <= '9';
+	}
+
+	private static boolean regionEquals(CharSequence text, int begin, int end, String expected) {
+		if (end - begin != expected.length())
+			return false;
+		for (int i = 0; i < expected.length(); i++)
+			if (text.charAt(begin + i) != expected.charAt(i))
+				return false;
+		return true;
+	}
+
+	private static NumberFormatException illegalNumber(CharSequence text, int begin, int end, String reason) {
+		return illegalValue("number", text, begin, end, reason);
+	}
+
+	private static NumberFormatException illegalDuration(CharSequence text, int begin, int end, String reason) {
+		return illegalValue("duration", text, begin, end, reason);
+	}
+
+	private static NumberFormatException illegalDataSize(CharSequence text, int begin, int end, String reason) {
+		return illegalValue("data size", text, begin, end, reason);
+	}
+
+	private static NumberFormatException illegalValue(String kind, CharSequence text, int begin, int end, String reason) {
+		var value = text.subSequence(begin, end);
+		var message = reason == null
+				? "'%s' is not a valid %s.".formatted(value, kind)
+				: "'%s' is not a valid %s (%s).".formatted(value, kind, reason);
+		return new NumberFormatException(message);
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	/**
+	 * A decimal number {@code (-1)^negative * significand * 10^exponent} as written in the text.
+	 */
+	private static final class Decimal {
+
+		private final boolean negative;
+		private final long significand;
+		private final int exponent;
+
+		private Decimal(boolean negative, long significand, int exponent) {
+			this.negative = negative;
+			this.significand = significand;
+			this.exponent = exponent;
+		}
+
+		/**
+		 * @return the decimal or {@code null} if the text isn't a plain decimal number (e.g. "NaN" or "0x1p3"),
+		 * 		has too many significant digits, or an unusually large exponent - the JDK parsers take care of those
+		 */
+		static Decimal parse(CharSequence text, int begin, int end) {
+			int position = begin;
+			boolean negative = false;
+			if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+				negative = text.charAt(position) == '-';
+				position++;
+			}
+
+			long significand = 0;
+			int significantDigits = 0;
+			int digits = 0;
+			int fractionDigits = 0;
+			boolean inFraction = false;
+			char previous = 0;
+			for (; position < end; position++) {
+				char character = text.charAt(position);
+				if (isDigit(character)) {
+					// leading zeros aren't significant
+					if (significand != 0 || character != '0')
+						significantDigits++;
+					if (significantDigits > MAX_SIGNIFICAND_DIGITS)
+						return null;
+					significand = significand * 10 + (character - '0');
+					digits++;
+					if (inFraction)
+						fractionDigits++;
+				} else if (character == '_') {
+					if (!isDigit(previous) || position + 1 == end || !isDigit(text.charAt(position + 1)))
+						return null;
+				} else if (character == '.' && !inFraction) {
+					inFraction = true;
+				} else {
+					break;
+				}
+				previous = character;
+			}
+			if (digits == 0)
+				return null;
+
+			int exponent = 0;
+			if (position < end && (text.charAt(position) | 0x20) == 'e') {
+				position++;
+				boolean negativeExponent = false;
+				if (position < end && (text.charAt(position) == '-' || text.charAt(position) == '+')) {
+					negativeExponent = text.charAt(position) == '-';
+					position++;
+				}
+				int exponentDigits = 0;
+				for (; position < end && isDigit(text.charAt(position)); position++) {
+					exponent = exponent * 10 + (text.charAt(position) - '0');
+					// larger exponents don't fit the fast path anyway
+					if (++exponentDigits > 3)
+						return null;
+				}
+				if (exponentDigits == 0)
+					return null;
+				if (negativeExponent)
+					exponent = -exponent;
+			}
+			// anything else (e.g. a type suffix like "f" or whitespace) is left to the JDK parsers
+			if (position != end)
+				return null;
+			return new Decimal(negative, significand, exponent - fractionDigits);
+		}
+
+	}
+
+}
@@ -0,0 +1,262 @@
+package dev.nipafx.args;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * Result of parsing arguments to any number of args types with {@link Args#parse(String[], Class[])}.
+ *
+ * <p>Each args type passed to {@code Args::parse} has a fixed slot in this container (its position in the
+ * argument list). The slots are resolved once per combination of types and then shared by all results
+ * of parsing to that combination, so a parse doesn't resolve anything. {@link #get(Class) get(Class)} looks up
+ * the specified type's slot in a small identity table and then reads the instance from an array -
+ * there's no scan over the types, boxing, or reflection involved. To skip the lookup as well, resolve
+ * a {@link Slot} once (e.g. in a static field) and pass it to {@link #get(Slot) get(Slot)}, which is an
+ * array read:</p>
+ *
+ * <pre>{@code
+ * private static final Class<?>[] TYPES = { LogArgs.class, DbArgs.class, HttpArgs.class, CacheArgs.class };
+ * private static final ParsedN.Slot<DbArgs> DB = ParsedN.slot(DbArgs.class, TYPES);
+ *
+ * ParsedN parsed = Args.parse(args, TYPES);
+ * DbArgs db = parsed.get(DB);
+ * }</pre>
+ */
+public final class ParsedN {
+
+	private final Layout layout;
+	private final Object[] instances;
+
+	ParsedN(Class<?>[] types, Object[] instances) {
+		this.layout = Layout.of(internalErrorOnNull(types));
+		this.instances = internalErrorOnNull(instances);
+		if (types.length != instances.length)
+			throw new IllegalStateException("There must be exactly one instance per type.");
+		for (int i = 0; i < types.length; i++)
+			if (!types[i].isInstance(instances[i]))
+				throw new IllegalStateException("The instance '%s' is not of type '%s'.".formatted(instances[i], types[i]));
+	}
+
+	/**
+	 * Resolves the slot of the specified args type in the results of parsing to the specified types,
+	 * which can then be passed to {@link #get(Slot)}.
+	 *
+	 * @param type one of the {@code types}
+	 * @param types the args types in the order in which they are passed to {@code Args::parse}
+	 * @return the slot of {@code type} (if it occurs more than once in {@code types}, the first one)
+	 * @param <ARGS_TYPE> one of the {@code types}
+	 * @throws IllegalArgumentException if {@code type} or {@code types} is {@code null} or contains {@code null},
+	 * 		or if {@code type} isn't one of the {@code types}
+	 */
+	public static <ARGS_TYPE> Slot<ARGS_TYPE> slot(Class<ARGS_TYPE> type, Class<?>... types) {
+		if (type == null || types == null || types.length == 0)
+			throw new IllegalArgumentException("Type must not be null and types must neither be null nor empty.");
+		for (Class<?> each : types)
+			if (each == null)
+				throw new IllegalArgumentException("Types must not contain null.");
+		var layout = Layout.of(types);
+		return new Slot<>(layout, layout.slotOf(type), type);
+	}
+
+	/**
+	 * Returns the instance of the specified args type.
+	 *
+	 * @param type one of the args types passed to {@code Args::parse}
+	 * @return the instance of {@code type}
+	 * @param <ARGS_TYPE> one of the args types passed to {@code Args::parse}
+	 * @throws IllegalArgumentException if {@code type} wasn't passed to {@code Args::parse}
+	 */
+	public <ARGS_TYPE> ARGS_TYPE get(Class<ARGS_TYPE> type) {
+		return type.cast(instances[layout.slotOf(type)]);
+	}
+
+	/**
+	 * Returns the instance in the specified slot.
+	 *
+	 * @param slot a slot that was {@link #slot(Class, Class[]) resolved} for the args types passed to {@code Args::parse}
+	 * @return the instance of the slot's args type
+	 * @param <ARGS_TYPE> the slot's args type
+	 * @throws IllegalArgumentException if the slot was resolved for other args types than were passed to {@code Args::parse}
+	 */
+	public <ARGS_TYPE> ARGS_TYPE get(Slot<ARGS_TYPE> slot) {
+		// layouts are canonical, so the same types always have the same layout
+		if (slot.layout != layout) {
+			var message = "The slot was resolved for the types %s, but %s were passed to `Args::parse`."
+					.formatted(slot.layout, layout);
+			throw new IllegalArgumentException(message);
+		}
+		return slot.type.cast(instances[slot.index]);
+	}
+
+	/**
+	 * Returns the instance of the args type at the specified position in the list of types passed to {@code Args::parse}.
+	 *
+	 * @param index the position of the args type in the list of types passed to {@code Args::parse}
+	 * @return the instance of the args type at {@code index}
+	 * @throws IndexOutOfBoundsException if {@code index} is negative or not smaller than {@link #size() size()}
+	 */
+	public Object get(int index) {
+		return instances[index];
+	}
+
+	/**
+	 * Returns the number of args types passed to {@code Args::parse}.
+	 *
+	 * @return the number of args types passed to {@code Args::parse}
+	 */
+	public int size() {
+		return instances.length;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return this == other
+				|| other instanceof ParsedN parsed
+				   && layout == parsed.layout
+				   && Arrays.equals(instances, parsed.instances);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * layout.hashCode() + Arrays.hashCode(instances);
+	}
+
+	@Override
+	public String toString() {
+		return "ParsedN" + Arrays.toString(instances);
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	/**
+	 * The slot of an args type in the results of parsing to a specific combination of args types -
+	 * resolve it with {@link ParsedN#slot(Class, Class[])}.
+	 *
+	 * @param <ARGS_TYPE> the args type
+	 */
+	public static final class Slot<ARGS_TYPE> {
+
+		private final Layout layout;
+		private final int index;
+		private final Class<ARGS_TYPE> type;
+
+		private Slot(Layout layout, int index, Class<ARGS_TYPE> type) {
+			this.layout = layout;
+			this.index = index;
+			this.type = type;
+		}
+
+		/**
+		 * Returns the slot's position in the list of types passed to {@code Args::parse}.
+		 *
+		 * @return the slot's position in the list of types passed to {@code Args::parse}
+		 */
+		public int index() {
+			return index;
+		}
+
+		/**
+		 * Returns the args type whose instance is in this slot.
+		 *
+		 * @return the args type whose instance is in this slot
+		 */
+		public Class<ARGS_TYPE> type() {
+			return type;
+		}
+
+		@Override
+		public String toString() {
+			return "Slot[" + type.getName() + " at " + index + " of " + layout + "]";
+		}
+
+	}
+
+	/**
+	 * The slots of a combination of args types, which is created once per combination (so it can be compared
+	 * by identity) and maps each type to its slot with an open-addressing table that is keyed by identity.
+	 */
+	private static final class Layout {
+
+		// the layouts of all combinations, grouped by their first type (there are usually very few per type)
+		private static final ClassValue<List<Layout>> LAYOUTS = new ClassValue<>() {
+
+			@Override
+			protected List<Layout> computeValue(Class<?> firstType) {
+				return new CopyOnWriteArrayList<>();
+			}
+
+		};
+
+		private final Class<?>[] types;
+		// `slots[i]` is the slot of `keys[i]` - the table is at most half full, so lookups end at an empty key
+		private final Class<?>[] keys;
+		private final int[] slots;
+
+		private Layout(Class<?>[] types) {
+			this.types = types;
+			int capacity = Integer.highestOneBit(types.length) << 2;
+			this.keys = new Class<?>[capacity];
+			this.slots = new int[capacity];
+			for (int slot = 0; slot < types.length; slot++) {
+				int i = indexOf(types[slot]);
+				// if a type occurs more than once, the first slot wins
+				if (keys[i] == null) {
+					keys[i] = types[slot];
+					slots[i] = slot;
+				}
+			}
+		}
+
+		static Layout of(Class<?>[] types) {
+			var layouts = LAYOUTS.get(types[0]);
+			var layout = find(layouts, types);
+			if (layout != null)
+				return layout;
+			synchronized (layouts) {
+				layout = find(layouts, types);
+				if (layout == null) {
+					layout = new Layout(types.clone());
+					layouts.add(layout);
+				}
+				return layout;
+			}
+		}
+
+		private static Layout find(List<Layout> layouts, Class<?>[] types) {
+			for (int i = 0; i < layouts.size(); i++)
+				if (Arrays.equals(layouts.get(i).types, types))
+					return layouts.get(i);
+			return null;
+		}
+
+		/**
+		 * @return the index in {@code keys} where {@code type} is or would be
+		 */
+		private int indexOf(Class<?> type) {
+			int mask = keys.length - 1;
+			int i = System.identityHashCode(type) & mask;
+			while (keys[i] != null && keys[i] != type)
+				i = (i + 1) & mask;
+			return i;
+		}
+
+		int slotOf(Class<?> type) {
+			int i = indexOf(type);
+			if (keys[i] == null)
+				throw new IllegalArgumentException("The type '%s' wasn't passed to `Args::parse`.".formatted(type));
+			return slots[i];
+		}
+
+		@Override
+		public String toString() {
+			return Arrays.toString(types);
+		}
+
+	}
+
+}
@@ -0,0 +1,556 @@
+package dev.nipafx.args;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static dev.nipafx.args.ArgsDefinitionErrorCode.DUPLICATE_ARGUMENT_DEFINITION;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.ILLEGAL_ACCESS;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.ILLEGAL_SHORT_NAME;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.MULTIPLE_REST_ARGUMENTS;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE;
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * The structure of an args record, i.e. its components and its canonical constructor,
+ * which is computed once per type and then shared by all parses.
+ *
+ * <p>Components of a record type are nested args records. Their components are flattened
+ * into the same list of leaves as the outer record's components, where their names are
+ * prefixed with the nested record's component name and a dot (e.g. {@code http.port}).
+ * That way, the parser only ever deals with one flat list of {@link Arg}s, no matter how
+ * deep the nesting goes.</p>
+ *
+ * <p>If the type is in the {@link ArgsSchemaIndex schema index} of its class loader, the schema is created
+ * from its entry there instead of reflecting over the type's components. Both yield the same schema.</p>
+ *
+ * <p>Schemas are shared by all threads and hence immutable. The {@code ClassValue} that caches
+ * them may compute a schema more than once when threads race, but only one instance is published
+ * and all of them are equivalent. {@link Arg}s are mutable, which is why {@link #createArgs()}
+ * creates new ones for each parse.</p>
+ *
+ * @param <R> the args record type
+ */
+final class RecordSchema<R extends Record> {
+
+	private static final ClassValue<RecordSchema<?>> SCHEMAS = new ClassValue<>() {
+
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		protected RecordSchema<?> computeValue(Class<?> type) {
+			return new RecordSchema(type, "", List.of(), ArgsSchemaIndex.indexOf(type));
+		}
+
+	};
+
+	/**
+	 * Short names are ASCII letters, so a table with an entry per ASCII character can map all of them.
+	 */
+	static final int SHORT_NAME_TABLE_SIZE = 128;
+
+	private final Class<R> type;
+	private final List<Component> components;
+	private final int leafCount;
+	// the index of the `@Rest` leaf or -1 if there's none
+	private final int restLeaf;
+	// for each ASCII character, the index of the leaf with that short name or -1 (`null` if there are no short names)
+	private final int[] shortNameLeaves;
+	private final Constructor<R> constructor;
+
+	/**
+	 * @param index the index to create the schema from if it contains the type - may be {@code null}
+	 */
+	private RecordSchema(Class<R> type, String namePrefix, List<Class<?>> enclosingTypes, ArgsSchemaIndex.Index index) {
+		this.type = internalErrorOnNull(type);
+		var nestedEnclosingTypes = new ArrayList<>(enclosingTypes);
+		nestedEnclosingTypes.add(type);
+
+		var declaration = index == null ? null : declarationFromIndex(type, index);
+		if (declaration == null)
+			declaration = declarationFromReflection(type);
+		var declaredComponents = declaration.components();
+		var components = new ArrayList<Component>(declaredComponents.size());
+		int leafCount = 0;
+		int restLeaf = -1;
+		for (int i = 0; i < declaredComponents.size(); i++) {
+			var component = createComponent(declaredComponents.get(i), namePrefix, nestedEnclosingTypes, index);
+			components.add(component);
+			int componentRestLeaf = -1;
+			if (component instanceof Leaf leaf && leaf.rest())
+				componentRestLeaf = 0;
+			else if (component instanceof Nested nested)
+				componentRestLeaf = nested.schema().restLeaf();
+			if (componentRestLeaf != -1) {
+				if (restLeaf != -1) {
+					var message = "Args record %s has more than one @Rest component.".formatted(type);
+					throw new ArgsDefinitionException(MULTIPLE_REST_ARGUMENTS, message);
+				}
+				restLeaf = leafCount + componentRestLeaf;
+			}
+			leafCount += component.leafCount();
+		}
+		// may replace leaves with ones that have derived short names
+		this.shortNameLeaves = createShortNameLeaves(type, components, declaration.shortNames());
+		this.components = List.copyOf(components);
+		this.leafCount = leafCount;
+		this.restLeaf = restLeaf;
+		this.constructor = makeAccessible(declaration.constructor(), type);
+	}
+
+	/**
+	 * @throws ArgsDefinitionException if the type, or a nested args record, has components of unsupported types
+	 */
+	@SuppressWarnings("unchecked")
+	static <R extends Record> RecordSchema<R> of(Class<R> type) {
+		return (RecordSchema<R>) SCHEMAS.get(type);
+	}
+
+	/**
+	 * Creates a new schema (instead of returning the cached one).
+	 *
+	 * @param index the index to create the schema from if it contains the type -
+	 * 		if {@code null}, the schema is created by reflecting over the type
+	 * @throws ArgsDefinitionException if the type, or a nested args record, has components of unsupported types
+	 */
+	static <R extends Record> RecordSchema<R> create(Class<R> type, ArgsSchemaIndex.Index index) {
+		return new RecordSchema<>(type, "", List.of(), index);
+	}
+
+	private static <R extends Record> Declaration<R> declarationFromReflection(Class<R> type) {
+		var recordComponents = type.getRecordComponents();
+		var components = new ArrayList<DeclaredComponent>(recordComponents.length);
+		var parameters = new Class<?>[recordComponents.length];
+		for (int i = 0; i < recordComponents.length; i++) {
+			var component = recordComponents[i];
+			var shortName = component.getAnnotation(ShortName.class);
+			components.add(new DeclaredComponent(
+					component.getName(),
+					component.getType(),
+					component.getGenericType(),
+					component.isAnnotationPresent(Rest.class),
+					shortName == null ? 0 : shortName.value(),
+					new Accessor(type, component.getName(), component.getAccessor())));
+			parameters[i] = component.getType();
+		}
+		return new Declaration<>(components, type.isAnnotationPresent(ShortNames.class), findCanonicalConstructor(type, parameters));
+	}
+
+	/**
+	 * @return the declaration from the index or {@code null} if the index doesn't contain the type
+	 * 		or doesn't match it (e.g. because the type was changed without updating the index)
+	 */
+	private static <R extends Record> Declaration<R> declarationFromIndex(Class<R> type, ArgsSchemaIndex.Index index) {
+		var entry = index.records().get(type.getName());
+		if (entry == null)
+			return null;
+
+		var loader = type.getClassLoader();
+		var entryComponents = entry.components();
+		var components = new ArrayList<DeclaredComponent>(entryComponents.size());
+		var parameters = new Class<?>[entryComponents.size()];
+		try {
+			for (int i = 0; i < parameters.length; i++) {
+				var component = entryComponents.get(i);
+				var componentType = ArgsSchemaIndex.resolve(component.typeName(), loader);
+				components.add(new DeclaredComponent(
+						component.name(),
+						componentType,
+						component.resolveGenericType(loader),
+						component.rest(),
+						component.shortName(),
+						new Accessor(type, component.name(), null)));
+				parameters[i] = componentType;
+			}
+			return new Declaration<>(components, entry.shortNames(), type.getDeclaredConstructor(parameters));
+		} catch (ClassNotFoundException | NoSuchMethodException ex) {
+			return null;
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Component createComponent(
+			DeclaredComponent component, String namePrefix, List<Class<?>> enclosingTypes, ArgsSchemaIndex.Index index) {
+		var name = namePrefix.concat(component.name());
+		var componentType = component.type();
+		// `DataSize` is a record but parsed from a single value
+		if (componentType.isRecord() && componentType != DataSize.class) {
+			if (enclosingTypes.contains(componentType)) {
+				var message = "Args record %s recursively contains itself via component '%s'.".formatted(componentType, name);
+				throw new ArgsDefinitionException(UNSUPPORTED_ARGUMENT_TYPE, message);
+			}
+			if (component.shortName() != 0) {
+				var message = "The nested args record '%s' can't have a short name.".formatted(name);
+				throw new ArgsDefinitionException(ILLEGAL_SHORT_NAME, message);
+			}
+			var schema = new RecordSchema(componentType, name.concat("."), enclosingTypes, index);
+			return new Nested(name, schema, component.accessor());
+		}
+
+		var genericType = component.genericType();
+		var rest = component.rest();
+		// fails early if the component type isn't supported
+		if (rest)
+			failIfNotListOfStrings(name, genericType);
+		else
+			Arg.of(name, genericType);
+		checkShortName(component.shortName(), name, rest);
+		return new Leaf(name, genericType, component.accessor(), rest, component.shortName());
+	}
+
+	/**
+	 * @param shortName the declared short name or 0 if there's none
+	 */
+	private static void checkShortName(char shortName, String name, boolean rest) {
+		if (shortName == 0)
+			return;
+		if (rest) {
+			var message = "The @Rest component '%s' can't have a short name.".formatted(name);
+			throw new ArgsDefinitionException(ILLEGAL_SHORT_NAME, message);
+		}
+		if (!isAsciiLetter(shortName)) {
+			var message = "The short name '%s' of component '%s' is not an ASCII letter.".formatted(shortName, name);
+			throw new ArgsDefinitionException(ILLEGAL_SHORT_NAME, message);
+		}
+	}
+
+	private static boolean isAsciiLetter(char character) {
+		return character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z';
+	}
+
+	/**
+	 * Creates the table that maps short names to leaves, so the parser can resolve them by indexing into an array.
+	 * If the record is annotated with {@link ShortNames @ShortNames} ({@code deriveShortNames}), this derives short names for its leaves
+	 * and replaces them in {@code components} with leaves that have them.
+	 *
+	 * @return for each ASCII character, the index of the leaf with that short name or -1
+	 * 		- {@code null} if no leaf has a short name
+	 */
+	private static int[] createShortNameLeaves(Class<?> type, List<Component> components, boolean deriveShortNames) {
+		var shortNameLeaves = new int[SHORT_NAME_TABLE_SIZE];
+		Arrays.fill(shortNameLeaves, -1);
+		var found = false;
+		int leafIndex = 0;
+		for (Component component : components) {
+			if (component instanceof Leaf leaf && leaf.shortName() != 0) {
+				assignShortName(type, shortNameLeaves, leaf.shortName(), leafIndex);
+				found = true;
+			} else if (component instanceof Nested nested && nested.schema().shortNameLeaves != null) {
+				var nestedShortNameLeaves = nested.schema().shortNameLeaves;
+				for (char shortName = 0; shortName < SHORT_NAME_TABLE_SIZE; shortName++)
+					if (nestedShortNameLeaves[shortName] != -1)
+						assignShortName(type, shortNameLeaves, shortName, leafIndex + nestedShortNameLeaves[shortName]);
+				found = true;
+			}
+			leafIndex += component.leafCount();
+		}
+
+		if (deriveShortNames) {
+			leafIndex = 0;
+			for (int i = 0; i < components.size(); i++) {
+				if (components.get(i) instanceof Leaf leaf && leaf.shortName() == 0 && !leaf.rest()) {
+					var shortName = deriveShortName(leaf.name(), shortNameLeaves);
+					if (shortName != 0) {
+						shortNameLeaves[shortName] = leafIndex;
+						components.set(i, new Leaf(leaf.name(), leaf.type(), leaf.accessor(), false, shortName));
+						found = true;
+					}
+				}
+				leafIndex += components.get(i).leafCount();
+			}
+		}
+		return found ? shortNameLeaves : null;
+	}
+
+	private static void assignShortName(Class<?> type, int[] shortNameLeaves, char shortName, int leafIndex) {
+		if (shortNameLeaves[shortName] != -1) {
+			var message = "Args record %s has more than one component with the short name '-%s'.".formatted(type, shortName);
+			throw new ArgsDefinitionException(DUPLICATE_ARGUMENT_DEFINITION, message);
+		}
+		shortNameLeaves[shortName] = leafIndex;
+	}
+
+	/**
+	 * @return the first letter of the name (of the component, not including the prefix of enclosing records)
+	 * 		in lower or upper case, whichever is still free - or 0 if neither is
+	 */
+	private static char deriveShortName(String name, int[] shortNameLeaves) {
+		var firstLetter = name.charAt(name.lastIndexOf('.') + 1);
+		if (!isAsciiLetter(firstLetter))
+			return 0;
+		var lowerCase = Character.toLowerCase(firstLetter);
+		if (shortNameLeaves[lowerCase] == -1)
+			return lowerCase;
+		var upperCase = Character.toUpperCase(firstLetter);
+		if (shortNameLeaves[upperCase] == -1)
+			return upperCase;
+		return 0;
+	}
+
+	private static void failIfNotListOfStrings(String name, Type type) {
+		var isListOfStrings = type instanceof ParameterizedType paramType
+				&& paramType.getRawType() == List.class
+				&& paramType.getActualTypeArguments()[0] == String.class;
+		if (!isListOfStrings) {
+			var message = "The @Rest component '%s' must be a List<String> but is a %s.".formatted(name, type.getTypeName());
+			throw new ArgsDefinitionException(UNSUPPORTED_ARGUMENT_TYPE, message);
+		}
+	}
+
+	private static <R extends Record> Constructor<R> findCanonicalConstructor(Class<R> type, Class<?>[] parameters) {
+		try {
+			return type.getDeclaredConstructor(parameters);
+		// errors that should've been avoided by RecordArgs (i.e. likely bugs)
+		} catch (NoSuchMethodException ex) {
+			var message = "The canonical constructor for %s could not be found - presumably it has these parameters: %s"
+					.formatted(type, List.of(parameters));
+			throw new IllegalStateException(message, ex);
+		}
+	}
+
+	private static <T extends AccessibleObject> T makeAccessible(T constructorOrMethod, Class<?> type) {
+		try {
+			constructorOrMethod.setAccessible(true);
+			return constructorOrMethod;
+		// errors that should've been avoided by the caller
+		} catch (InaccessibleObjectException | SecurityException ex) {
+			var message = "Make sure Args has reflective access to the args record %s, e.g. with an `opens ... to ...` directive."
+					.formatted(type);
+			throw new ArgsDefinitionException(ILLEGAL_ACCESS, message, ex);
+		}
+	}
+
+	Class<R> type() {
+		return type;
+	}
+
+	/**
+	 * @return the record's components in declaration order
+	 */
+	List<Component> components() {
+		return components;
+	}
+
+	/**
+	 * @return the number of {@link Arg}s this record (including nested records) is flattened to
+	 */
+	int leafCount() {
+		return leafCount;
+	}
+
+	/**
+	 * @return the index of the {@link Rest @Rest} leaf (in the order of {@link #leaves()}) or -1 if there's none
+	 */
+	int restLeaf() {
+		return restLeaf;
+	}
+
+	/**
+	 * @return for each ASCII character, the index of the leaf (in the order of {@link #leaves()}) with that
+	 * 		{@link ShortName short name} or -1 - {@code null} if no leaf has a short name (must not be mutated)
+	 */
+	int[] shortNameLeaves() {
+		return shortNameLeaves;
+	}
+
+	/**
+	 * @return the canonical constructor, which is already made accessible
+	 */
+	Constructor<R> constructor() {
+		return constructor;
+	}
+
+	/**
+	 * Creates new {@link Arg}s (which are mutable and must hence not be shared between parses)
+	 * for all leaves in depth-first declaration order.
+	 */
+	List<Arg<?>> createArgs() {
+		return createArgs(null);
+	}
+
+	/**
+	 * Like {@link #createArgs()} but the args intern their values with the specified interner.
+	 *
+	 * @param interner may be {@code null}
+	 */
+	List<Arg<?>> createArgs(ArgsInterner interner) {
+		var args = new ArrayList<Arg<?>>(leafCount);
+		addArgs(args, interner);
+		return args;
+	}
+
+	/**
+	 * @return all leaves in depth-first declaration order
+	 */
+	List<Leaf> leaves() {
+		var leaves = new ArrayList<Leaf>(leafCount);
+		addLeaves(leaves);
+		return leaves;
+	}
+
+	private void addLeaves(List<Leaf> leaves) {
+		for (Component component : components)
+			if (component instanceof Nested nested)
+				nested.schema().addLeaves(leaves);
+			else if (component instanceof Leaf leaf)
+				leaves.add(leaf);
+	}
+
+	/**
+	 * @return the names of all leaves in depth-first declaration order
+	 */
+	List<String> leafNames() {
+		var names = new ArrayList<String>(leafCount);
+		for (Leaf leaf : leaves())
+			names.add(leaf.name());
+		return names;
+	}
+
+	/**
+	 * Reads the values of all leaves of the specified instance (including those of nested records)
+	 * in depth-first declaration order.
+	 *
+	 * @throws IllegalArgumentException if a value is {@code null} or an accessor throws an exception
+	 */
+	Object[] leafValuesOf(Record instance) {
+		var values = new Object[leafCount];
+		addLeafValues(instance, values, 0);
+		return values;
+	}
+
+	private void addLeafValues(Record instance, Object[] values, int firstLeaf) {
+		int leafIndex = firstLeaf;
+		for (Component component : components) {
+			var value = read(component, instance);
+			if (component instanceof Nested nested)
+				nested.schema().addLeafValues((Record) value, values, leafIndex);
+			else
+				values[leafIndex] = value;
+			leafIndex += component.leafCount();
+		}
+	}
+
+	private static Object read(Component component, Record instance) {
+		Object value;
+		try {
+			value = component.accessor().method().invoke(instance);
+		} catch (IllegalAccessException ex) {
+			var message = "The accessor of '%s' should have been made accessible.".formatted(component.name());
+			throw new IllegalStateException(message, ex);
+		} catch (InvocationTargetException ex) {
+			var message = "The accessor of '%s' threw an exception.".formatted(component.name());
+			throw new IllegalArgumentException(message, ex.getTargetException());
+		}
+		if (value == null) {
+			var message = "The value of '%s' is null.".formatted(component.name());
+			throw new IllegalArgumentException(message);
+		}
+		return value;
+	}
+
+	private void addArgs(List<Arg<?>> args, ArgsInterner interner) {
+		for (Component component : components)
+			if (component instanceof Nested nested)
+				nested.schema().addArgs(args, interner);
+			else if (component instanceof Leaf leaf)
+				args.add(leaf.rest() ? new RestArg(leaf.name()) : Arg.of(leaf.name(), leaf.type(), interner));
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	sealed interface Component {
+
+		/**
+		 * @return the component's full name, including the prefixes of enclosing nested records
+		 */
+		String name();
+
+		int leafCount();
+
+		Accessor accessor();
+
+	}
+
+	/**
+	 * @param rest whether the component is annotated with {@link Rest @Rest}
+	 * @param shortName the declared or derived {@link ShortName short name} or 0 if there's none
+	 */
+	record Leaf(String name, Type type, Accessor accessor, boolean rest, char shortName) implements Component {
+
+		@Override
+		public int leafCount() {
+			return 1;
+		}
+
+	}
+
+	record Nested(String name, RecordSchema<?> schema, Accessor accessor) implements Component {
+
+		@Override
+		public int leafCount() {
+			return schema.leafCount();
+		}
+
+	}
+
+	/**
+	 * A component's accessor, which is only looked up (and made accessible) when it's first needed
+	 * because parsing doesn't need it.
+	 */
+	static final class Accessor {
+
+		private final Class<?> recordType;
+		private final String name;
+		private volatile Method method;
+
+		/**
+		 * @param method the accessor if it's already known - may be {@code null}
+		 */
+		private Accessor(Class<?> recordType, String name, Method method) {
+			this.recordType = recordType;
+			this.name = name;
+			this.method = method == null ? null : makeAccessible(method, recordType);
+		}
+
+		/**
+		 * @return the accessor, which is already made accessible
+		 */
+		Method method() {
+			var method = this.method;
+			if (method == null) {
+				try {
+					method = makeAccessible(recordType.getDeclaredMethod(name), recordType);
+				} catch (NoSuchMethodException ex) {
+					var message = "The accessor of '%s' in %s could not be found - is the args schema index outdated?"
+							.formatted(name, recordType);
+					throw new IllegalStateException(message, ex);
+				}
+				this.method = method;
+			}
+			return method;
+		}
+
+	}
+
+	/**
+	 * What a schema is created from, either by reflecting over the record or from its entry in the index.
+	 *
+	 * @param shortNames whether the record is annotated with {@link ShortNames @ShortNames}
+	 * @param constructor the canonical constructor (not yet made accessible)
+	 */
+	private record Declaration<R extends Record>(List<DeclaredComponent> components, boolean shortNames, Constructor<R> constructor) { }
+
+	/**
+	 * @param shortName the declared {@link ShortName short name} or 0 if there's none
+	 */
+	private record DeclaredComponent(String name, Class<?> type, Type genericType, boolean rest, char shortName, Accessor accessor) { }
+
+}
@@ -0,0 +1,21 @@
+package dev.nipafx.args;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code List<String>} component that takes the rest of the argument array as it is, i.e.
+ * all tokens after "--" or, if there's no "--", from the first value that belongs to no other argument on.
+ * The rest isn't parsed (so tokens starting with "--" are kept as they are) and not even copied: after "--",
+ * the list is an unmodifiable view on the argument array, so the array must not be changed while the list is in use.
+ *
+ * <p>The component has no name on the command line and is empty if there's no rest.
+ * Of all args records that are parsed together, at most one may have a rest component.</p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface Rest { }
@@ -0,0 +1,29 @@
+package dev.nipafx.args;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a short name for a component, so for {@code @ShortName('p') int port}, "-p 8080" is the same as
+ * "--port 8080". Short names are ASCII letters and can be clustered: if {@code -x} and {@code -v} are flags,
+ * "-xv" is the same as "-x -v", and a name that takes a value can be followed by it, e.g. "-p8080".
+ *
+ * <p>Nested args records and {@link Rest @Rest} components can't have short names.
+ * To derive short names from the components' names, annotate the args record with {@link ShortNames @ShortNames}.</p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface ShortName {
+
+	/**
+	 * Returns the component's short name.
+	 *
+	 * @return the short name (without "-") - must be an ASCII letter
+	 */
+	char value();
+
+}
@@ -0,0 +1,20 @@
+package dev.nipafx.args;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an args record whose components get short names derived from their names: in declaration order,
+ * each component that can have a {@link ShortName short name} but doesn't declare one gets the first letter
+ * of its name - in lower case or, if that's taken, in upper case. If both are taken, the component has no short name.
+ *
+ * <p>This only applies to the record's own components, not to those of nested args records
+ * (which can be annotated themselves).</p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ShortNames { }
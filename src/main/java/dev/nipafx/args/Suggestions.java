@@ -0,0 +1,179 @@
+package dev.nipafx.args;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static dev.nipafx.args.Check.internalErrorOnNull;
+
+/**
+ * Finds the names closest to a misspelled one by their Levenshtein distance.
+ *
+ * <p>The names are stored in a trie, which a lookup walks depth-first while computing one row of the usual
+ * edit-distance matrix per trie node (i.e. it simulates a Levenshtein automaton for the misspelled name).
+ * Names with a common prefix share the rows for that prefix and a subtree is skipped as soon as its row
+ * exceeds the maximum distance, so a lookup only visits the few nodes that are close to the misspelled name
+ * instead of comparing it to every name. Because of the maximum distance, only a band of each row needs
+ * to be computed.</p>
+ *
+ * <p>Instances are effectively immutable once created and can hence be shared between threads
+ * (given they are safely published, e.g. via a {@code ClassValue}).</p>
+ */
+final class Suggestions {
+
+	private static final int MAX_SUGGESTIONS = 3;
+
+	private final Node root;
+	private final int longestName;
+
+	private Suggestions(Node root, int longestName) {
+		this.root = root;
+		this.longestName = longestName;
+	}
+
+	static Suggestions of(Collection<String> names) {
+		var root = new Node();
+		int longestName = 0;
+		for (String name : internalErrorOnNull(names)) {
+			root.add(name);
+			longestName = Math.max(longestName, name.length());
+		}
+		return new Suggestions(root, longestName);
+	}
+
+	/**
+	 * @return up to three names that are closest to {@code name} (but not equal to it), ordered by distance and then alphabetically
+	 */
+	List<String> closestTo(String name) {
+		var matches = new ArrayList<Match>();
+		collectMatches(name, matches);
+		return bestOf(matches);
+	}
+
+	/**
+	 * Like {@link #closestTo(String)} but searches several tries (e.g. one per args record) at once.
+	 */
+	static List<String> closestTo(String name, List<Suggestions> suggestions) {
+		var matches = new ArrayList<Match>();
+		for (Suggestions suggestion : suggestions)
+			suggestion.collectMatches(name, matches);
+		return bestOf(matches);
+	}
+
+	/**
+	 * Short names tolerate one edit, longer ones two (more than that suggests mostly unrelated names).
+	 */
+	static int maxDistance(String name) {
+		return name.length() < 5 ? 1 : 2;
+	}
+
+	private void collectMatches(String query, List<Match> matches) {
+		int maxDistance = maxDistance(query);
+		int columns = query.length() + 1;
+		// no name that is longer than the query by more than the maximum distance can match
+		int maxDepth = Math.min(longestName, query.length() + maxDistance);
+		// row `d` (at `d * columns`) holds the distances between the query's prefixes and the trie path of length `d`
+		var rows = new int[(maxDepth + 1) * columns];
+		for (int column = 0; column < columns; column++)
+			rows[column] = Math.min(column, maxDistance + 1);
+		root.collectMatches(query, maxDistance, rows, 0, maxDepth, matches);
+	}
+
+	private static List<String> bestOf(List<Match> matches) {
+		if (matches.isEmpty())
+			return List.of();
+
+		matches.sort(null);
+		var names = new ArrayList<String>(MAX_SUGGESTIONS);
+		for (Match match : matches)
+			if (names.size() < MAX_SUGGESTIONS && !names.contains(match.name()))
+				names.add(match.name());
+		return List.copyOf(names);
+	}
+
+	/*
+	 * INNER TYPES
+	 */
+
+	private static final class Node {
+
+		// `children[i]` is the subtree for names that continue with `labels[i]`
+		private char[] labels = new char[0];
+		private Node[] children = new Node[0];
+		// `null` unless a name ends at this node
+		private String name;
+
+		void add(String name) {
+			var node = this;
+			for (int i = 0; i < name.length(); i++)
+				node = node.childFor(name.charAt(i));
+			node.name = name;
+		}
+
+		private Node childFor(char label) {
+			for (int i = 0; i < labels.length; i++)
+				if (labels[i] == label)
+					return children[i];
+
+			labels = Arrays.copyOf(labels, labels.length + 1);
+			children = Arrays.copyOf(children, children.length + 1);
+			labels[labels.length - 1] = label;
+			children[children.length - 1] = new Node();
+			return children[children.length - 1];
+		}
+
+		/**
+		 * Expects the row for this node (at {@code depth}) to be computed and computes the rows for its children.
+		 * Distances are capped at {@code maxDistance + 1}, which all cells outside the band are considered to have.
+		 */
+		void collectMatches(String query, int maxDistance, int[] rows, int depth, int maxDepth, List<Match> matches) {
+			int columns = query.length() + 1;
+			if (name != null && Math.abs(depth - query.length()) <= maxDistance) {
+				int distance = rows[depth * columns + query.length()];
+				if (0 < distance && distance <= maxDistance)
+					matches.add(new Match(name, distance));
+			}
+			if (depth == maxDepth)
+				return;
+
+			int childDepth = depth + 1;
+			int previous = depth * columns;
+			int current = childDepth * columns;
+			int first = Math.max(1, childDepth - maxDistance);
+			int last = Math.min(query.length(), childDepth + maxDistance);
+			int cap = maxDistance + 1;
+			for (int i = 0; i < labels.length; i++) {
+				char label = labels[i];
+				rows[current + first - 1] = first == 1 ? Math.min(childDepth, cap) : cap;
+				if (last < query.length())
+					rows[current + last + 1] = cap;
+
+				int rowMinimum = rows[current + first - 1];
+				for (int column = first; column <= last; column++) {
+					int substitution = rows[previous + column - 1] + (label == query.charAt(column - 1) ? 0 : 1);
+					int insertionOrDeletion = Math.min(rows[previous + column], rows[current + column - 1]) + 1;
+					int cell = Math.min(Math.min(substitution, insertionOrDeletion), cap);
+					rows[current + column] = cell;
+					rowMinimum = Math.min(rowMinimum, cell);
+				}
+
+				// if every prefix of the query is too far from this path, so are all names that continue it
+				if (rowMinimum <= maxDistance)
+					children[i].collectMatches(query, maxDistance, rows, childDepth, maxDepth, matches);
+			}
+		}
+
+	}
+
+	private record Match(String name, int distance) implements Comparable<Match> {
+
+		@Override
+		public int compareTo(Match other) {
+			int byDistance = Integer.compare(distance, other.distance);
+			return byDistance != 0 ? byDistance : name.compareTo(other.name);
+		}
+
+	}
+
+}
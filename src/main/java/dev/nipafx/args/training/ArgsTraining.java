@@ -0,0 +1,148 @@
+package dev.nipafx.args.training;
+
+import dev.nipafx.args.Args;
+import dev.nipafx.args.ArgsMessage;
+import dev.nipafx.args.ArgsParseException;
+import dev.nipafx.args.DataSize;
+import dev.nipafx.args.Rest;
+import dev.nipafx.args.ShortName;
+import dev.nipafx.args.ShortNames;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A training run that exercises all of RecordArgs' parse paths (including error handling),
+ * so a CDS archive or AOT cache created during the run covers all of its classes.
+ *
+ * <p>To create a dynamic AppCDS archive (JDK 21+) or an AOT cache (JDK 25+) for RecordArgs, run:</p>
+ * <pre>{@code
+ * java -XX:ArchiveClassesAtExit=record-args.jsa -cp record-args.jar dev.nipafx.args.training.ArgsTraining
+ * java -XX:AOTCacheOutput=record-args.aot -cp record-args.jar dev.nipafx.args.training.ArgsTraining
+ * }</pre>
+ *
+ * <p>Then launch the application with {@code -XX:SharedArchiveFile=record-args.jsa} or
+ * {@code -XX:AOTCache=record-args.aot}, respectively, and with {@code record-args.jar}
+ * as the first class path entry.</p>
+ */
+public class ArgsTraining {
+
+	private static final int ITERATIONS = 100;
+
+	private ArgsTraining() {
+		// private constructor to prevent initialization
+	}
+
+	/**
+	 * Parses various argument arrays to various args types.
+	 *
+	 * @param args ignored
+	 */
+	public static void main(String[] args) {
+		for (int i = 0; i < ITERATIONS; i++) {
+			parse(new String[] {
+					"--string", "string", "--path", "/tmp", "--intValue", "42", "--longValue", "42",
+					"--floatValue", "4.2", "--doubleValue", "4.2", "--flag" },
+					Simple.class);
+			parse(new String[] { "--optional", "value", "--list", "one", "two", "--map", "1=one", "2=two" }, Containers.class);
+			parse(new String[] { "--timeout", "1m30s", "--cache", "64MiB", "--threads", "0x10", "--unit", "SECONDS" }, Units.class);
+			parse(new String[] { "-xv", "-f", "archive.tar", "-l9" }, Archive.class);
+			parse(new String[] { "--dryRun", "--", "git", "commit", "--amend" }, Wrapper.class);
+			parse(new String[] { "--dryRun", "false", "git", "status" }, Wrapper.class);
+			parse(new String[] { "--http.url", "localhost", "--http.port", "8080", "--db.url", "jdbc:h2:mem:" }, Nested.class);
+			parse(new String[] { "--mode", "client", "--port", "8080", "--logLevel", "3" }, Mode.class, Logging.class);
+			parse(new String[] { "copy", "--from", "/a", "--to", "/b", "--mode", "server", "--port", "8080", "--logLevel", "3" },
+					Action.class, Mode.class, Logging.class);
+			parse(new String[] {
+					"--string", "string", "--path", "/tmp", "--intValue", "42", "--longValue", "42",
+					"--floatValue", "4.2", "--doubleValue", "4.2", "--flag", "--list", "one",
+					"--http.url", "localhost", "--http.port", "8080", "--db.url", "jdbc:h2:mem:", "--logLevel", "3" },
+					Simple.class, Containers.class, Nested.class, Logging.class);
+
+			// error paths
+			parse(new String[] { "--unknown", "--string", "string", "--intValue", "forty-two", "--map", "1" }, Simple.class);
+			parse(new String[] { "--mode", "unknown" }, Mode.class);
+			parse(new String[] { "unknown" }, Action.class);
+			parseLeniently(new String[] { "--unknown", "--logLevel", "3" }, Logging.class);
+		}
+	}
+
+	private static void parse(String[] args, Class<?> type) {
+		try {
+			Args.parse(args, type);
+		} catch (ArgsParseException ex) {
+			consume(ex);
+		}
+	}
+
+	private static void parse(String[] args, Class<?> type1, Class<?> type2) {
+		try {
+			Args.parse(args, type1, type2);
+		} catch (ArgsParseException ex) {
+			consume(ex);
+		}
+	}
+
+	private static void parse(String[] args, Class<?> type1, Class<?> type2, Class<?> type3) {
+		try {
+			Args.parse(args, type1, type2, type3);
+		} catch (ArgsParseException ex) {
+			consume(ex);
+		}
+	}
+
+	private static void parse(String[] args, Class<?>... types) {
+		try {
+			Args.parse(args, types);
+		} catch (ArgsParseException ex) {
+			consume(ex);
+		}
+	}
+
+	private static void parseLeniently(String[] args, Class<?> type) {
+		try {
+			Args.parseLeniently(args, type);
+		} catch (ArgsParseException ex) {
+			consume(ex);
+		}
+	}
+
+	private static void consume(ArgsParseException ex) {
+		// `toMessage` loads the message formatting code
+		ex.errors().forEach(ArgsMessage::toMessage);
+	}
+
+	/*
+	 * ARGS TYPES
+	 */
+
+	record Simple(String string, Path path, int intValue, long longValue, float floatValue, double doubleValue, boolean flag) { }
+
+	record Containers(Optional<String> optional, List<String> list, Map<Integer, String> map) { }
+
+	record Units(Duration timeout, DataSize cache, int threads, TimeUnit unit) { }
+
+	@ShortNames
+	record Archive(boolean extract, boolean verbose, Path file, @ShortName('l') int level) { }
+
+	record Wrapper(boolean dryRun, @Rest List<String> command) { }
+
+	record Http(String url, int port) { }
+	record Db(String url) { }
+	record Nested(Http http, Db db) { }
+
+	record Logging(int logLevel) { }
+
+	sealed interface Mode permits Client, Server { }
+	record Client(int port) implements Mode { }
+	record Server(int port) implements Mode { }
+
+	sealed interface Action permits Copy, Move { }
+	record Copy(Path from, Path to) implements Action { }
+	record Move(Path from, Path to) implements Action { }
+
+}
@@ -16,5 +16,8 @@
  * tokens to {@code Args::parse}.
  */
 module dev.nipafx.args {
+	// only needed to register `ArgsStatistics` with the platform MBean server, which is optional
+	requires static java.management;
+
 	exports dev.nipafx.args;
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.WithInteger;
+import dev.nipafx.args.Records.WithListAndMore;
+import dev.nipafx.args.Records.WithMap;
+import dev.nipafx.args.Records.WithNested;
+import dev.nipafx.args.Records.WithOptional;
+import dev.nipafx.args.Records.WithPositiveInteger;
+import dev.nipafx.args.Records.WithRest;
+import dev.nipafx.args.Records.WithString;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BindingTests {
+
+	@Test
+	void withValue_recordWithStringArg_binds() throws ArgsParseException {
+		var values = Map.of("stringArg", List.of("value"));
+		WithString bound = Args.bind(values, WithString.class);
+
+		assertThat(bound.stringArg()).isEqualTo("value");
+	}
+
+	@Test
+	void withoutValues_recordWithOptionalArg_bindsEmptyOptional() throws ArgsParseException {
+		Map<String, List<String>> values = Map.of();
+		WithOptional bound = Args.bind(values, WithOptional.class);
+
+		assertThat(bound.optionalArg()).isEmpty();
+	}
+
+	@Test
+	void withValuesAndFlag_recordWithListArg_bindsAll() throws ArgsParseException {
+		var values = Map.of("stringArgs", List.of("a", "b", "a"), "booleanArg", List.<String> of());
+		WithListAndMore bound = Args.bind(values, WithListAndMore.class);
+
+		assertThat(bound.stringArgs()).containsExactly("a", "b", "a");
+		assertThat(bound.booleanArg()).isTrue();
+	}
+
+	@Test
+	void withKeyValuePairs_recordWithMapArg_bindsPairs() throws ArgsParseException {
+		var values = Map.of("mapArgs", List.of("1=one", "2=two"));
+		WithMap bound = Args.bind(values, WithMap.class);
+
+		assertThat(bound.mapArgs()).isEqualTo(Map.of(1, "one", 2, "two"));
+	}
+
+	@Test
+	void withNestedNames_recordWithNestedRecords_bindsAll() throws ArgsParseException {
+		var values = Map.of("inner.stringArg", List.of("value"), "list.stringArgs", List.of("a", "b"), "intArg", List.of("42"));
+		WithNested bound = Args.bind(values, WithNested.class);
+
+		assertThat(bound.inner().stringArg()).isEqualTo("value");
+		assertThat(bound.list().stringArgs()).containsExactly("a", "b");
+		assertThat(bound.intArg()).isEqualTo(42);
+	}
+
+	@Test
+	void withValues_recordWithRestArg_bindsListAsItIs() throws ArgsParseException {
+		var values = Map.of("rest", List.of("git", "--amend"));
+		WithRest bound = Args.bind(values, WithRest.class);
+
+		assertThat(bound.rest()).containsExactly("git", "--amend");
+	}
+
+	@Test
+	void withoutValues_recordWithRestArg_bindsEmptyList() throws ArgsParseException {
+		var values = Map.of("rest", List.<String> of());
+		WithRest bound = Args.bind(values, WithRest.class);
+
+		assertThat(bound.rest()).isEmpty();
+	}
+
+	@Test
+	void withoutValues_recordWithStringArg_missingArgumentError() {
+		Map<String, List<String>> values = Map.of();
+		var exception = assertThrows(ArgsParseException.class, () -> Args.bind(values, WithString.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.MissingArgument(var name) && name.equals("stringArg"));
+	}
+
+	@Test
+	void withTwoValues_recordWithIntegerArg_unexpectedValueError() {
+		var values = Map.of("intArg", List.of("1", "2"));
+		var exception = assertThrows(ArgsParseException.class, () -> Args.bind(values, WithInteger.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.UnexpectedValue(var value) && value.equals("2"));
+	}
+
+	@Test
+	void withIllegalValue_recordWithIntegerArg_illegalValueErrorWithEquivalentArgs() {
+		var values = Map.of("intArg", List.of("one"));
+		var exception = assertThrows(ArgsParseException.class, () -> Args.bind(values, WithInteger.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.IllegalValue(var name, var __, var value, var ___)
+						&& name.equals("intArg") && value.equals("one"));
+		assertThat(exception.args()).containsExactly("--intArg", "one");
+	}
+
+	@Test
+	void withEmptyValue_recordWithIntegerArg_illegalValueError() {
+		var values = Map.of("intArg", List.of(""));
+		var exception = assertThrows(ArgsParseException.class, () -> Args.bind(values, WithInteger.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.IllegalValue(var name, var __, var value, var ___)
+						&& name.equals("intArg") && value.isEmpty());
+	}
+
+	@Test
+	void withValueRejectedByConstructor_recordWithValidation_failedConstructionError() {
+		var values = Map.of("intArg", List.of("-1"));
+		var exception = assertThrows(ArgsParseException.class, () -> Args.bind(values, WithPositiveInteger.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.FailedConstruction(var ex) && ex.getClass() == IllegalArgumentException.class);
+	}
+
+	@Test
+	void withUnknownName_recordWithStringArg_unknownArgumentError() {
+		var values = Map.of("stringArg", List.of("value"), "stringArgs", List.of("value"));
+		var exception = assertThrows(ArgsParseException.class, () -> Args.bind(values, WithString.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.UnknownArgument(var name, var suggestions)
+						&& name.equals("stringArgs") && suggestions.equals(List.of("stringArg")));
+	}
+
+	@Test
+	void withUnknownName_recordWithStringArg_bindsLeniently() throws ArgsParseException {
+		var values = new LinkedHashMap<String, List<String>>();
+		values.put("unknown", List.of("value"));
+		values.put("stringArg", List.of("value"));
+		WithString bound = Args.bindLeniently(values, WithString.class);
+
+		assertThat(bound.stringArg()).isEqualTo("value");
+	}
+
+	@Test
+	void withNullValue_illegalArgumentException() {
+		var values = new LinkedHashMap<String, List<String>>();
+		values.put("stringArg", null);
+
+		assertThrows(IllegalArgumentException.class, () -> Args.bind(values, WithString.class));
+	}
+
+	@Test
+	void withBlankKey_illegalArgumentException() {
+		for (String key : List.of("", " ")) {
+			var values = Map.of(key, List.of("x"), "stringArg", List.of("value"));
+
+			assertThrows(IllegalArgumentException.class, () -> Args.bind(values, WithString.class));
+			assertThrows(IllegalArgumentException.class, () -> Args.bindLeniently(values, WithString.class));
+		}
+	}
+
+}
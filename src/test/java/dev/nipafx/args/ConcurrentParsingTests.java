@@ -0,0 +1,127 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.Action;
+import dev.nipafx.args.Records.Mode;
+import dev.nipafx.args.Records.Type;
+import dev.nipafx.args.Records.WithDeeplyNested;
+import dev.nipafx.args.Records.WithInteger;
+import dev.nipafx.args.Records.WithListAndMore;
+import dev.nipafx.args.Records.WithMany;
+import dev.nipafx.args.Records.WithMap;
+import dev.nipafx.args.Records.WithMapAndMore;
+import dev.nipafx.args.Records.WithOptional;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parses from many platform and virtual threads at once and compares the results to those of a single-threaded run.
+ */
+class ConcurrentParsingTests {
+
+	private static final int PLATFORM_THREADS = 200;
+	private static final int VIRTUAL_THREADS = 400;
+	private static final int ITERATIONS = 50;
+
+	private static final List<Scenario> SCENARIOS = List.of(
+			new Scenario(
+					new String[] { "--stringArg", "string", "--intArg", "42", "--floatArg", "5.5", "--booleanArg", "--numberArgs", "1", "2", "3" },
+					WithMany.class),
+			new Scenario(
+					new String[] { "--mode", "withString", "--stringArg", "string", "--type", "withMap", "--mapArgs", "1=one", "2=two" },
+					Mode.class, Type.class),
+			new Scenario(
+					new String[] { "--mode", "withList", "--stringArgs", "a", "b", "c", "--type", "withPath", "--pathArg", "/tmp" },
+					Mode.class, Type.class),
+			new Scenario(new String[] { "withInteger", "--intArg", "42" }, Action.class),
+			new Scenario(new String[] { "withOptional", "--optionalArg", "string" }, Action.class),
+			new Scenario(
+					new String[] { "--stringArgs", "a", "b", "--mapArgs", "1=one", "--booleanArg" },
+					WithListAndMore.class, WithMap.class),
+			new Scenario(
+					new String[] { "--outer.inner.stringArg", "string", "--outer.list.stringArgs", "a", "--outer.intArg", "42", "--flag.booleanArg" },
+					WithDeeplyNested.class),
+			// error paths
+			new Scenario(new String[] { "--intArg", "forty-two" }, WithInteger.class),
+			new Scenario(new String[] { "--mapArgs", "1=one", "1=uno" }, WithMapAndMore.class),
+			new Scenario(new String[] { "withInt", "--intArg", "42" }, Action.class),
+			new Scenario(new String[] { "--mode", "withStringies", "--stringArg", "string" }, Mode.class),
+			new Scenario(new String[] { "--unknown", "--optionalArg" }, WithOptional.class));
+
+	@Test
+	void manyPlatformAndVirtualThreads_parseConcurrently_sameOutcomesAsSingleThreaded() throws InterruptedException {
+		var start = new CountDownLatch(1);
+		var done = new CountDownLatch(PLATFORM_THREADS + VIRTUAL_THREADS);
+		var outcomes = new ConcurrentLinkedQueue<ScenarioOutcome>();
+		var failures = new ConcurrentLinkedQueue<Throwable>();
+
+		var threads = new ArrayList<Thread>();
+		for (int i = 0; i < PLATFORM_THREADS + VIRTUAL_THREADS; i++) {
+			// each thread starts at a different scenario, so all of them are parsed concurrently
+			var offset = i;
+			Runnable parseScenarios = () -> {
+				try {
+					start.await();
+					for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+						var index = (offset + iteration) % SCENARIOS.size();
+						outcomes.add(new ScenarioOutcome(index, SCENARIOS.get(index).parse()));
+					}
+				} catch (Throwable ex) {
+					failures.add(ex);
+				} finally {
+					done.countDown();
+				}
+			};
+			threads.add(i < PLATFORM_THREADS
+					? Thread.ofPlatform().unstarted(parseScenarios)
+					: Thread.ofVirtual().unstarted(parseScenarios));
+		}
+		threads.forEach(Thread::start);
+		// the concurrent run happens first, so it may be the one to analyze the args types
+		start.countDown();
+		assertThat(done.await(1, TimeUnit.MINUTES)).isTrue();
+
+		// oracle
+		var expectedOutcomes = new ArrayList<Outcome>();
+		for (Scenario scenario : SCENARIOS)
+			expectedOutcomes.add(scenario.parse());
+
+		assertThat(failures).isEmpty();
+		assertThat(outcomes).hasSize((PLATFORM_THREADS + VIRTUAL_THREADS) * ITERATIONS);
+		for (ScenarioOutcome outcome : outcomes)
+			assertThat(outcome.outcome()).isEqualTo(expectedOutcomes.get(outcome.scenario()));
+	}
+
+	@Test
+	void argumentArray_changedAfterParse_resultUnaffected() throws ArgsParseException {
+		String[] args = { "--stringArgs", "a", "b", "--booleanArg" };
+		var parsed = Args.parse(args, WithListAndMore.class);
+		args[1] = "changed";
+
+		assertThat(parsed.stringArgs()).containsExactly("a", "b");
+	}
+
+	private record Scenario(String[] args, Class<?>... types) {
+
+		Outcome parse() {
+			try {
+				// each parse gets its own copy, so threads don't share the array
+				return new Outcome(Args.parse(args.clone(), types), List.of());
+			} catch (ArgsParseException ex) {
+				return new Outcome(null, ex.errors().map(ArgsMessage::toMessage).toList());
+			}
+		}
+
+	}
+
+	private record Outcome(ParsedN parsed, List<String> errors) { }
+
+	private record ScenarioOutcome(int scenario, Outcome outcome) { }
+
+}
@@ -3,9 +3,17 @@ package dev.nipafx.args;
 import dev.nipafx.args.Records.Action;
 import dev.nipafx.args.Records.ActionArgs;
 import dev.nipafx.args.Records.Class;
+import dev.nipafx.args.Records.AnotherWithString;
 import dev.nipafx.args.Records.Interface;
+import dev.nipafx.args.Records.Mode;
+import dev.nipafx.args.Records.ModeArgs;
+import dev.nipafx.args.Records.ModeWithUnsupportedType;
+import dev.nipafx.args.Records.SubtypesWithOverlappingComponents;
+import dev.nipafx.args.Records.Type;
+import dev.nipafx.args.Records.WithBoolean;
 import dev.nipafx.args.Records.WithInitializerException;
 import dev.nipafx.args.Records.WithMany;
+import dev.nipafx.args.Records.WithModeComponent;
 import dev.nipafx.args.Records.WithString;
 import dev.nipafx.args.Records.WithStringArray;
 import org.junit.jupiter.api.Nested;
@@ -17,6 +25,7 @@ import static dev.nipafx.args.ArgsDefinitionErrorCode.ILL_DEFINED_ARGS_TYPE;
 import static dev.nipafx.args.ArgsDefinitionErrorCode.MULTIPLE_ACTIONS;
 import static dev.nipafx.args.ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Nested
@@ -64,4 +73,52 @@ class DefinitionErrorsTests {
 		assertThat(exception.errorCode()).isEqualTo(MULTIPLE_ACTIONS);
 	}
 
+	@Test
+	void checkDefinition_validTypes_noError() {
+		assertDoesNotThrow(() -> Args.checkDefinition(Mode.class, Type.class, Action.class, WithBoolean.class));
+	}
+
+	@Test
+	void checkDefinition_modeSubtypesWithSameComponents_noError() {
+		assertDoesNotThrow(() -> Args.checkDefinition(SubtypesWithOverlappingComponents.class));
+	}
+
+	@Test
+	void checkDefinition_class_noRecordError() {
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.checkDefinition(Class.class));
+		assertThat(exception.errorCode()).isEqualTo(ILL_DEFINED_ARGS_TYPE);
+	}
+
+	@Test
+	void checkDefinition_unselectedModeSubtypeAndRecordWithSameComponents_duplicateArgError() {
+		// `Args.parse(new String[] { "--mode", "withList" }, Mode.class, AnotherWithString.class)` would pass
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.checkDefinition(Mode.class, AnotherWithString.class));
+		assertThat(exception.errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+	}
+
+	@Test
+	void checkDefinition_modeAndComponentWithItsName_duplicateArgError() {
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.checkDefinition(Mode.class, WithModeComponent.class));
+		assertThat(exception.errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+	}
+
+	@Test
+	void checkDefinition_modesWithSameName_duplicateArgError() {
+		// `Mode` and `ModeArgs` are both selected with "--mode"
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.checkDefinition(Mode.class, ModeArgs.class));
+		assertThat(exception.errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+	}
+
+	@Test
+	void checkDefinition_unsupportedTypeInModeSubtype_unsupportedArgumentTypeError() {
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.checkDefinition(ModeWithUnsupportedType.class));
+		assertThat(exception.errorCode()).isEqualTo(UNSUPPORTED_ARGUMENT_TYPE);
+	}
+
+	@Test
+	void checkDefinition_multipleActions_multipleActionsError() {
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.checkDefinition(Action.class, ActionArgs.class));
+		assertThat(exception.errorCode()).isEqualTo(MULTIPLE_ACTIONS);
+	}
+
 }
@@ -0,0 +1,103 @@
+package dev.nipafx.args;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NumbersTests {
+
+	@Test
+	void integralValues_parsedInRange() {
+		var text = "x-42_000y";
+		assertThat(Numbers.parseInt(text, 1, 8)).isEqualTo(-42_000);
+		assertThat(Numbers.parseLong(text, 2, 8)).isEqualTo(42_000L);
+		assertThat(Numbers.parseInt("+0x1F", 0, 5)).isEqualTo(31);
+		assertThat(Numbers.parseLong("-9223372036854775808", 0, 20)).isEqualTo(Long.MIN_VALUE);
+		assertThat(Numbers.parseInt("-2147483648", 0, 11)).isEqualTo(Integer.MIN_VALUE);
+	}
+
+	@Test
+	void illegalIntegralValues_throw() {
+		for (String value : List.of("", "-", "0x", "1_", "_1", "1__0", "1.0", "12a", "9223372036854775808", "2147483648"))
+			assertThrows(NumberFormatException.class, () -> Numbers.parseInt(value, 0, value.length()), value);
+	}
+
+	@Test
+	void randomDoubles_sameAsJdk() {
+		var random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			var value = switch (i % 4) {
+				case 0 -> Double.toString(random.nextDouble());
+				case 1 -> Double.toString(random.nextLong() / Math.pow(10, random.nextInt(20)));
+				case 2 -> (random.nextInt(2_000_000) - 1_000_000) + "." + random.nextInt(1_000);
+				default -> random.nextInt(100_000) + "e" + (random.nextInt(60) - 30);
+			};
+			// boxed, so -0.0 and 0.0 differ
+			assertThat(Double.valueOf(Numbers.parseDouble(value, 0, value.length()))).as(value).isEqualTo(Double.valueOf(Double.parseDouble(value)));
+			assertThat(Float.valueOf(Numbers.parseFloat(value, 0, value.length()))).as(value).isEqualTo(Float.valueOf(Float.parseFloat(value)));
+		}
+	}
+
+	@Test
+	void specialDoubles_sameAsJdk() {
+		for (String value : List.of("0", "-0.0", "0.1", "1.", ".5", "1e22", "1e23", "9007199254740993", "4.9e-324", "1e400",
+				"NaN", "-Infinity", "0x1p3", "1.5f", " 2.5 ", "123456789012345678901234567890"))
+			// boxed, so NaN equals NaN and -0.0 differs from 0.0
+			assertThat(Double.valueOf(Numbers.parseDouble(value, 0, value.length()))).as(value).isEqualTo(Double.valueOf(Double.parseDouble(value)));
+	}
+
+	@Test
+	void separatedDoubles_parsed() {
+		assertThat(Numbers.parseDouble("1_000.000_5", 0, 11)).isEqualTo(1000.0005);
+		assertThat(Numbers.parseDouble("1_234_567_890_123_456_789.5", 0, 27)).isEqualTo(1234567890123456789.5);
+		for (String value : List.of("1_.5", "1._5", "_1.5", "1.5_"))
+			assertThrows(NumberFormatException.class, () -> Numbers.parseDouble(value, 0, value.length()), value);
+	}
+
+	@Test
+	void durations_parsed() {
+		assertThat(Numbers.parseDuration("0", 0, 1)).isEqualTo(Duration.ZERO);
+		assertThat(Numbers.parseDuration("1d2h3m4s5ms6us7ns", 0, 17)).isEqualTo(Duration
+				.ofDays(1).plusHours(2).plusMinutes(3).plusSeconds(4).plusMillis(5).plusNanos(6_007));
+		assertThat(Numbers.parseDuration("10µs", 0, 4)).isEqualTo(Duration.ofNanos(10_000));
+		assertThat(Numbers.parseDuration("1_500ms", 0, 7)).isEqualTo(Duration.ofMillis(1_500));
+		assertThat(Numbers.parseDuration("-PT5M", 0, 5)).isEqualTo(Duration.ofMinutes(-5));
+	}
+
+	@Test
+	void illegalDurations_throw() {
+		for (String value : List.of("", "-", "5", "ms", "5 s", "5x", "5M", "1h-5m", "P5", "99999999999999999d"))
+			assertThrows(NumberFormatException.class, () -> Numbers.parseDuration(value, 0, value.length()), value);
+	}
+
+	@Test
+	void dataSizes_parsed() {
+		assertThat(Numbers.parseDataSize("1b", 0, 2)).isEqualTo(new DataSize(1));
+		assertThat(Numbers.parseDataSize("2KiB", 0, 4)).isEqualTo(new DataSize(2_048));
+		assertThat(Numbers.parseDataSize("3gb", 0, 3)).isEqualTo(new DataSize(3_000_000_000L));
+		assertThat(Numbers.parseDataSize("1TiB", 0, 4)).isEqualTo(new DataSize(1L << 40));
+	}
+
+	@Test
+	void illegalDataSizes_throw() {
+		for (String value : List.of("", "MiB", "-1KiB", "1.5GiB", "1PB", "1kiB_", "1 MiB", "9999999999TiB"))
+			assertThrows(NumberFormatException.class, () -> Numbers.parseDataSize(value, 0, value.length()), value);
+	}
+
+	@Test
+	void dataSizes_formatted_parseToEqualSizes() {
+		for (long bytes : List.of(0L, 1L, 1_500L, 3_000L, 1_024L, 512L * 1024 * 1024, 5L << 40, 7_000_000_000_000_000L)) {
+			var size = new DataSize(bytes);
+			assertThat(DataSize.parse(size.toString())).as(size.toString()).isEqualTo(size);
+		}
+		assertThat(new DataSize(512L * 1024 * 1024)).hasToString("512MiB");
+		assertThat(new DataSize(3_000)).hasToString("3kB");
+		assertThat(new DataSize(1_500)).hasToString("1500B");
+	}
+
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,6 +44,16 @@ class ParsingActionTests {
 				.containsExactlyInAnyOrder(new ArgsMessage.UnknownAction(Set.of("withInteger", "withOptional"), "withInt"));
 	}
 
+	@Test
+	void justAction_misspelledSelection_unknownActionErrorWithSuggestion() {
+		String[] args = { "withIntegr", "--intArg", "42" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, Action.class));
+		assertThat(exception.errors())
+				.containsExactlyInAnyOrder(new ArgsMessage.UnknownAction(Set.of("withInteger", "withOptional"), "withIntegr", List.of("withInteger")));
+		assertThat(exception.errors().findFirst().orElseThrow().toMessage())
+				.endsWith("Did you mean 'withInteger'?");
+	}
+
 	@Test
 	void justAction_correctSelectionButValuesForWrongSubtype_unknownArgumentError() {
 		String[] args = { "withInteger", "--optionalArg", "string" };
@@ -0,0 +1,103 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.Color;
+import dev.nipafx.args.Records.Level;
+import dev.nipafx.args.Records.WithCaseInsensitiveEnum;
+import dev.nipafx.args.Records.WithClashingCasesEnum;
+import dev.nipafx.args.Records.WithEnum;
+import dev.nipafx.args.Records.WithEnumContainers;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingEnumValuesTests {
+
+	@Test
+	void withConstantName_programWithEnumArg_parses() throws ArgsParseException {
+		String[] args = { "--levelArg", "INFO" };
+		WithEnum parsed = Args.parse(args, WithEnum.class);
+
+		assertThat(parsed.levelArg()).isEqualTo(Level.INFO);
+	}
+
+	@Test
+	void withOtherCase_programWithEnumArg_illegalValueListsConstants() {
+		String[] args = { "--levelArg", "info" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithEnum.class));
+
+		var error = exception.errors().findFirst().orElseThrow();
+		assertThat(error).isInstanceOf(ArgsMessage.IllegalValue.class);
+		var illegalValue = (ArgsMessage.IllegalValue) error;
+		assertThat(illegalValue.argumentName()).isEqualTo("levelArg");
+		assertThat(illegalValue.argumentType()).isEqualTo(Level.class);
+		assertThat(illegalValue.parseError()).hasMessage("'info' is none of the allowed values [DEBUG, INFO, WARN].");
+	}
+
+	@Test
+	void withOtherCase_programWithCaseInsensitiveEnumArg_parses() throws ArgsParseException {
+		for (String value : List.of("green", "GREEN", "Green", "gReEn")) {
+			String[] args = { "--colorArg", value };
+			WithCaseInsensitiveEnum parsed = Args.parse(args, WithCaseInsensitiveEnum.class);
+
+			assertThat(parsed.colorArg()).isEqualTo(Color.GREEN);
+		}
+	}
+
+	@Test
+	void withUnknownValue_programWithCaseInsensitiveEnumArg_illegalValue() {
+		String[] args = { "--colorArg", "purple" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithCaseInsensitiveEnum.class));
+
+		var error = (ArgsMessage.IllegalValue) exception.errors().findFirst().orElseThrow();
+		assertThat(error.parseError())
+				.hasMessage("'purple' is none of the allowed values [RED, GREEN, BLUE] (case-insensitive).");
+	}
+
+	@Test
+	void caseInsensitiveEnumWithClashingNames_definitionError() {
+		String[] args = { "--clashingArg", "value" };
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithClashingCasesEnum.class));
+
+		assertThat(exception.errorCode()).isEqualTo(ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE);
+	}
+
+	@Test
+	void withContainerArgs_programWithEnumContainers_parses() throws ArgsParseException {
+		String[] args = { "--optionalLevel", "WARN", "--colors", "red", "BLUE", "--levelColors", "DEBUG=green", "INFO=Red" };
+		WithEnumContainers parsed = Args.parse(args, WithEnumContainers.class);
+
+		assertThat(parsed.optionalLevel()).contains(Level.WARN);
+		assertThat(parsed.colors()).containsExactly(Color.RED, Color.BLUE);
+		assertThat(parsed.levelColors()).isEqualTo(Map.of(Level.DEBUG, Color.GREEN, Level.INFO, Color.RED));
+	}
+
+	@Test
+	void withIllegalMapKey_programWithEnumContainers_illegalValue() {
+		String[] args = { "--levelColors", "TRACE=green" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithEnumContainers.class));
+
+		var error = (ArgsMessage.IllegalValue) exception.errors().findFirst().orElseThrow();
+		assertThat(error.parseError()).hasMessage("'TRACE' is none of the allowed values [DEBUG, INFO, WARN].");
+	}
+
+	@Test
+	void largeEnum_everyConstantFound() {
+		var lookup = EnumLookup.of(Character.UnicodeScript.class);
+		for (Character.UnicodeScript script : Character.UnicodeScript.values())
+			assertThat(lookup.valueOf(script.name(), 0, script.name().length())).isSameAs(script);
+	}
+
+	@Test
+	void rangeOfValue_constantFound() {
+		var lookup = EnumLookup.of(TimeUnit.class);
+
+		assertThat(lookup.valueOf("key=SECONDS", 4, 11)).isSameAs(TimeUnit.SECONDS);
+		assertThrows(IllegalArgumentException.class, () -> lookup.valueOf("SECONDS", 0, 6));
+	}
+
+}
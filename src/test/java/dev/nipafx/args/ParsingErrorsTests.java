@@ -4,12 +4,14 @@ import dev.nipafx.args.Records.None;
 import dev.nipafx.args.Records.WithBoolean;
 import dev.nipafx.args.Records.WithConstructorException;
 import dev.nipafx.args.Records.WithInteger;
+import dev.nipafx.args.Records.WithIntegerList;
 import dev.nipafx.args.Records.WithList;
 import dev.nipafx.args.Records.WithMap;
 import dev.nipafx.args.Records.WithString;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,6 +36,41 @@ class ParsingErrorsTests {
 				.containsExactlyInAnyOrder(new ArgsMessage.MissingArgument("booleanArg"));
 	}
 
+	@Test
+	void misspelledArgName_unknownArgumentErrorWithSuggestion() {
+		String[] args = { "--stringAgr", "string" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithString.class));
+		assertThat(exception.errors())
+				.contains(new ArgsMessage.UnknownArgument("stringAgr", List.of("stringArg")));
+		assertThat(new ArgsMessage.UnknownArgument("stringAgr", List.of("stringArg")).toMessage())
+				.isEqualTo("The provided argument '--stringAgr' is unknown. Did you mean '--stringArg'?");
+	}
+
+	@Test
+	void misspelledArgName_multipleRecords_suggestionFromAnyRecord() {
+		String[] args = { "--stringArg", "string", "--intArg", "42", "--intArgs", "42" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithString.class, WithInteger.class));
+		assertThat(exception.errors())
+				.containsExactlyInAnyOrder(new ArgsMessage.UnknownArgument("intArgs", List.of("intArg")));
+	}
+
+	@Test
+	void unknownArgumentWithSeveralSuggestions_listsThemInMessage() {
+		var message = new ArgsMessage.UnknownArgument("port", List.of("host", "post"));
+		assertThat(message.toMessage())
+				.isEqualTo("The provided argument '--port' is unknown. Did you mean one of [ '--host', '--post' ]?");
+	}
+
+	@Test
+	void entirelyDifferentArgName_unknownArgumentErrorWithoutSuggestion() {
+		String[] args = { "--stringArg", "string", "--xyz", "string" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithString.class));
+		assertThat(exception.errors())
+				.containsExactlyInAnyOrder(new ArgsMessage.UnknownArgument("xyz", List.of()));
+		assertThat(exception.errors().findFirst().orElseThrow().toMessage())
+				.isEqualTo("The provided argument '--xyz' is unknown.");
+	}
+
 	@Test
 	void mentionsListArgWithoutValue_missingValueError() {
 		String[] args = { "--stringArgs" };
@@ -60,6 +97,26 @@ class ParsingErrorsTests {
 								 && argName.equals("mapArgs") && argType == Map.class && value.equals("one"));
 	}
 
+	@Test
+	void mapArgWithMultipleEqualSigns_illegalValueError() {
+		String[] args = { "--mapArgs", "1=one=two" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithMap.class));
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.IllegalValue(var argName, var argType, var value, var __)
+								 && argName.equals("mapArgs") && argType == Map.class && value.equals("1=one=two"));
+	}
+
+	@Test
+	void mapArgWithDuplicateKey_illegalValueError() {
+		String[] args = { "--mapArgs", "1=one", "2=two", "1=uno" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithMap.class));
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.IllegalValue(var argName, var argType, var value, var __)
+								 && argName.equals("mapArgs") && argType == Map.class && value.equals("1=uno"));
+	}
+
 	@Test
 	void expectedArgWithoutValue_missingArgumentError() {
 		String[] args = { "--stringArg" };
@@ -104,6 +161,34 @@ class ParsingErrorsTests {
 								 && argName.equals("intArg") && argType == int.class && value.equals("five"));
 	}
 
+	@Test
+	void severalValuesOfWrongType_allIllegalValueErrors() {
+		String[] args = { "--intArgs", "1", "one", "2", "two" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithIntegerList.class));
+		assertThat(exception.errors())
+				.hasSize(2)
+				.allMatch(msg -> msg instanceof ArgsMessage.IllegalValue(var argName, var __, var value, var ___)
+								 && argName.equals("intArgs") && (value.equals("one") || value.equals("two")));
+	}
+
+	@Test
+	void lenientlyWithUnknownArgAndValueOfWrongType_onlyIllegalValueError() {
+		String[] args = { "--unknown", "value", "--intArg", "five" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parseLeniently(args, WithInteger.class));
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.IllegalValue(var argName, var __, var value, var ___)
+								 && argName.equals("intArg") && value.equals("five"));
+	}
+
+	@Test
+	void missingValueAfterValidArgs_onlyMissingValueError() {
+		String[] args = { "--stringArg", "string", "--intArg" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithString.class, WithInteger.class));
+		assertThat(exception.errors())
+				.containsExactlyInAnyOrder(new ArgsMessage.MissingValue("intArg"));
+	}
+
 	@Test
 	void constructorThrowsException_constructorError() {
 		String[] args = { };
@@ -1,11 +1,21 @@
 package dev.nipafx.args;
 
+import dev.nipafx.args.Records.WithIntegerList;
 import dev.nipafx.args.Records.WithList;
 import dev.nipafx.args.Records.WithListAndMore;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Nested
 class ParsingListValuesTests {
@@ -42,4 +52,73 @@ class ParsingListValuesTests {
 		assertThat(parsed.stringArgs()).containsExactly("string 1", "string 2", "string 3");
 	}
 
+	@Test
+	void withListArgs_programWithListArg_unmodifiable() throws ArgsParseException {
+		String[] args = { "--stringArgs", "string 1", "string 2" };
+		WithList parsed = Args.parse(args, WithList.class);
+
+		assertThrows(UnsupportedOperationException.class, () -> parsed.stringArgs().add("string 3"));
+		assertThrows(UnsupportedOperationException.class, () -> parsed.stringArgs().set(0, "string 3"));
+		assertThrows(UnsupportedOperationException.class, () -> parsed.stringArgs().removeIf(string -> true));
+	}
+
+	@Test
+	void withListArgs_programWithListArg_equalToListOf() throws ArgsParseException {
+		String[] args = { "--stringArgs", "string 1", "string 2" };
+		WithList parsed = Args.parse(args, WithList.class);
+
+		assertThat(parsed.stringArgs()).isEqualTo(List.of("string 1", "string 2"));
+		assertThat(parsed.stringArgs().hashCode()).isEqualTo(List.of("string 1", "string 2").hashCode());
+		assertThat(parsed).isEqualTo(new WithList(List.of("string 1", "string 2")));
+		assertThat(parsed.hashCode()).isEqualTo(new WithList(List.of("string 1", "string 2")).hashCode());
+	}
+
+	@Test
+	void withManyListArgs_programWithIntegerListArg_parsesInOrder() throws ArgsParseException {
+		// enough values to be parsed in parallel
+		var values = IntStream.range(0, 250_000).boxed().toList();
+		var args = IntStream.range(-1, values.size())
+				.mapToObj(i -> i == -1 ? "--intArgs" : String.valueOf(i))
+				.toArray(String[]::new);
+		WithIntegerList parsed = Args.parse(args, WithIntegerList.class);
+
+		assertThat(parsed.intArgs()).isEqualTo(values);
+	}
+
+	@Test
+	void withManyListArgsSomeIllegal_programWithIntegerListArg_errorsInOrder() {
+		// enough values to be parsed in parallel
+		var args = IntStream.range(-1, 250_000)
+				.mapToObj(i -> switch (i) {
+					case -1 -> "--intArgs";
+					case 7, 123_456, 249_999 -> "illegal-" + i;
+					default -> String.valueOf(i);
+				})
+				.toArray(String[]::new);
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithIntegerList.class));
+
+		assertThat(exception.errors())
+				.map(error -> ((ArgsMessage.IllegalValue) error).value())
+				.containsExactly("illegal-7", "illegal-123456", "illegal-249999");
+	}
+
+	@Test
+	void withListArgs_programWithListArg_serializable() throws Exception {
+		String[] args = { "--stringArgs", "string 1", "string 2" };
+		WithList parsed = Args.parse(args, WithList.class);
+
+		assertThat(serializeAndDeserialize(parsed.stringArgs())).isEqualTo(List.of("string 1", "string 2"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (T) in.readObject();
+		}
+	}
+
 }
@@ -5,9 +5,15 @@ import dev.nipafx.args.Records.WithMapAndMore;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Nested
 class ParsingMapValuesTests {
@@ -39,6 +45,31 @@ class ParsingMapValuesTests {
 				3, "three"));
 	}
 
+	@Test
+	void withRepeatedArg_programWithMapArg_parses() throws ArgsParseException {
+		String[] args = { "--mapArgs", "1=one", "--booleanArg", "--mapArgs", "2=two", "3=three" };
+		WithMapAndMore parsed = Args.parse(args, WithMapAndMore.class);
+
+		assertThat(parsed.mapArgs()).isEqualTo(Map.of(
+				1, "one",
+				2, "two",
+				3, "three"));
+	}
+
+	@Test
+	void withManyArgPairs_programWithMapArg_parses() throws ArgsParseException {
+		String[] args = new String[10_001];
+		args[0] = "--mapArgs";
+		for (int i = 1; i < args.length; i++)
+			args[i] = i + "=value" + i;
+		WithMap parsed = Args.parse(args, WithMap.class);
+
+		assertThat(parsed.mapArgs())
+				.hasSize(10_000)
+				.containsEntry(1, "value1")
+				.containsEntry(10_000, "value10000");
+	}
+
 	@Test
 	void withMultipleArgPairsFollowedByOtherArg_programWithMapArg_parses() throws ArgsParseException {
 		String[] args = { "--mapArgs", "1=one", "2=two", "3=three", "--booleanArg" };
@@ -51,4 +82,43 @@ class ParsingMapValuesTests {
 		assertThat(parsed.booleanArg()).isTrue();
 	}
 
+	@Test
+	void withMultipleArgPairs_programWithMapArg_unmodifiable() throws ArgsParseException {
+		String[] args = { "--mapArgs", "1=one", "2=two" };
+		WithMap parsed = Args.parse(args, WithMap.class);
+
+		assertThrows(UnsupportedOperationException.class, () -> parsed.mapArgs().put(3, "three"));
+		assertThrows(UnsupportedOperationException.class, () -> parsed.mapArgs().remove(1));
+		assertThrows(UnsupportedOperationException.class, () -> parsed.mapArgs().entrySet().clear());
+	}
+
+	@Test
+	void withMultipleArgPairs_programWithMapArg_equalToMapOf() throws ArgsParseException {
+		String[] args = { "--mapArgs", "1=one", "2=two" };
+		WithMap parsed = Args.parse(args, WithMap.class);
+
+		assertThat(parsed.mapArgs().hashCode()).isEqualTo(Map.of(1, "one", 2, "two").hashCode());
+		assertThat(parsed).isEqualTo(new WithMap(Map.of(1, "one", 2, "two")));
+		assertThat(parsed.hashCode()).isEqualTo(new WithMap(Map.of(1, "one", 2, "two")).hashCode());
+	}
+
+	@Test
+	void withMultipleArgPairs_programWithMapArg_serializable() throws Exception {
+		String[] args = { "--mapArgs", "1=one", "2=two" };
+		WithMap parsed = Args.parse(args, WithMap.class);
+
+		assertThat(serializeAndDeserialize(parsed.mapArgs())).isEqualTo(Map.of(1, "one", 2, "two"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (T) in.readObject();
+		}
+	}
+
 }
@@ -12,6 +12,7 @@ import dev.nipafx.args.Records.WithStringArgs;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,12 +38,24 @@ class ParsingModesTests {
 				.containsExactlyInAnyOrder(new ArgsMessage.IllegalModeValue("mode", Set.of("withString", "withList"), "withStringies"));
 	}
 
+	@Test
+	void singleMode_selectionWithoutValue_missingValueError() {
+		String[][] argArrays = {
+				{ "--stringArg", "string", "--mode" },
+				{ "--mode", "--", "withString" } };
+		for (String[] args : argArrays) {
+			var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, Mode.class));
+			assertThat(exception.errors())
+					.containsExactlyInAnyOrder(new ArgsMessage.MissingValue("mode"));
+		}
+	}
+
 	@Test
 	void singleMode_correctSelectionButValuesForWrongSubtype_unknownArgumentError() {
 		String[] args = { "--mode", "withList", "--stringArg", "string" };
 		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, Mode.class));
 		assertThat(exception.errors())
-				.containsExactlyInAnyOrder(new ArgsMessage.UnknownArgument("stringArg"));
+				.containsExactlyInAnyOrder(new ArgsMessage.UnknownArgument("stringArg", List.of("stringArgs")));
 	}
 
 	@Test
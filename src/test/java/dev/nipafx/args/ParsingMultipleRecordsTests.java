@@ -1,5 +1,11 @@
 package dev.nipafx.args;
 
+import dev.nipafx.args.Records.Action;
+import dev.nipafx.args.Records.Type;
+import dev.nipafx.args.Records.WithBoolean;
+import dev.nipafx.args.Records.WithDouble;
+import dev.nipafx.args.Records.WithFloat;
+import dev.nipafx.args.Records.WithInteger;
 import dev.nipafx.args.Records.WithLong;
 import dev.nipafx.args.Records.WithMany;
 import dev.nipafx.args.Records.WithMap;
@@ -12,6 +18,7 @@ import java.nio.file.Path;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Nested
 class ParsingMultipleRecordsTests {
@@ -78,4 +85,63 @@ class ParsingMultipleRecordsTests {
 				3, "three"));
 	}
 
+	@Test
+	void multipleArgsSixTypes_correctValues_parses() throws ArgsParseException {
+		String[] args = {
+				"withInteger", "--longArg", "42", "--floatArg", "4.2", "--type", "withMap", "--mapArgs", "1=one",
+				"--doubleArg", "2.4", "--intArg", "63", "--booleanArg" };
+		var parsed = Args.parse(args,
+				WithLong.class, WithFloat.class, WithDouble.class, WithBoolean.class, Type.class, Action.class);
+
+		assertThat(parsed.size()).isEqualTo(6);
+		assertThat(parsed.get(WithLong.class).longArg()).isEqualTo(42L);
+		assertThat(parsed.get(WithFloat.class).floatArg()).isEqualTo(4.2f);
+		assertThat(parsed.get(WithDouble.class).doubleArg()).isEqualTo(2.4);
+		assertThat(parsed.get(WithBoolean.class).booleanArg()).isTrue();
+		assertThat(parsed.get(Type.class)).isEqualTo(new WithMap(Map.of(1, "one")));
+		assertThat(parsed.get(Action.class)).isEqualTo(new WithInteger(63));
+		assertThat(parsed.get(5)).isEqualTo(new WithInteger(63));
+	}
+
+	@Test
+	void multipleArgsNTypes_getUnparsedType_exception() throws ArgsParseException {
+		String[] args = { "--longArg", "42", "--floatArg", "4.2", "--doubleArg", "2.4", "--booleanArg" };
+		var parsed = Args.parse(args, WithLong.class, WithFloat.class, WithDouble.class, WithBoolean.class);
+
+		assertThrows(IllegalArgumentException.class, () -> parsed.get(WithString.class));
+	}
+
+	@Test
+	void multipleArgsNTypes_getBySlot_parses() throws ArgsParseException {
+		Class<?>[] types = { WithLong.class, WithFloat.class, WithDouble.class, WithBoolean.class };
+		var floatSlot = ParsedN.slot(WithFloat.class, types);
+		var booleanSlot = ParsedN.slot(WithBoolean.class, types);
+		String[] args = { "--longArg", "42", "--floatArg", "4.2", "--doubleArg", "2.4", "--booleanArg" };
+		var parsed = Args.parse(args, types);
+
+		assertThat(floatSlot.index()).isEqualTo(1);
+		assertThat(parsed.get(floatSlot).floatArg()).isEqualTo(4.2f);
+		assertThat(parsed.get(booleanSlot).booleanArg()).isTrue();
+	}
+
+	@Test
+	void multipleArgsNTypes_getBySlotOfOtherTypes_exception() throws ArgsParseException {
+		var slot = ParsedN.slot(WithLong.class, WithLong.class, WithFloat.class, WithDouble.class, WithBoolean.class);
+		String[] args = { "--longArg", "42", "--floatArg", "4.2", "--doubleArg", "2.4", "--booleanArg" };
+		var parsed = Args.parse(args, WithFloat.class, WithLong.class, WithDouble.class, WithBoolean.class);
+
+		assertThrows(IllegalArgumentException.class, () -> parsed.get(slot));
+	}
+
+	@Test
+	void slotOfUnlistedType_exception() {
+		assertThrows(IllegalArgumentException.class, () -> ParsedN.slot(WithString.class, WithLong.class, WithFloat.class));
+	}
+
+	@Test
+	void noTypes_exception() {
+		String[] args = { };
+		assertThrows(IllegalArgumentException.class, () -> Args.parse(args));
+	}
+
 }
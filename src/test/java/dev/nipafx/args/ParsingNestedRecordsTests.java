@@ -0,0 +1,99 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.WithDeeplyNested;
+import dev.nipafx.args.Records.WithIndirectRecursion;
+import dev.nipafx.args.Records.WithNested;
+import dev.nipafx.args.Records.WithNestedConstructorException;
+import dev.nipafx.args.Records.WithRecursion;
+import dev.nipafx.args.Records.WithSeveralNestedConstructorExceptions;
+import dev.nipafx.args.Records.WithString;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static dev.nipafx.args.ArgsDefinitionErrorCode.DUPLICATE_ARGUMENT_DEFINITION;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Nested
+class ParsingNestedRecordsTests {
+
+	@Test
+	void nestedRecord_dottedNames_parses() throws ArgsParseException {
+		String[] args = { "--inner.stringArg", "string", "--intArg", "42", "--list.stringArgs", "one", "two" };
+		var parsed = Args.parse(args, WithNested.class);
+
+		assertThat(parsed.inner().stringArg()).isEqualTo("string");
+		assertThat(parsed.list().stringArgs()).containsExactly("one", "two");
+		assertThat(parsed.intArg()).isEqualTo(42);
+	}
+
+	@Test
+	void deeplyNestedRecord_dottedNames_parses() throws ArgsParseException {
+		String[] args = { "--outer.inner.stringArg", "string", "--outer.intArg", "42", "--flag.booleanArg" };
+		var parsed = Args.parse(args, WithDeeplyNested.class);
+
+		assertThat(parsed.outer().inner().stringArg()).isEqualTo("string");
+		assertThat(parsed.outer().list().stringArgs()).isEmpty();
+		assertThat(parsed.outer().intArg()).isEqualTo(42);
+		assertThat(parsed.flag().booleanArg()).isTrue();
+	}
+
+	@Test
+	void nestedRecord_undottedName_unknownArgumentError() {
+		String[] args = { "--stringArg", "string", "--inner.stringArg", "string", "--intArg", "42" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithNested.class));
+		assertThat(exception.errors())
+				.containsExactlyInAnyOrder(new ArgsMessage.UnknownArgument("stringArg"));
+	}
+
+	@Test
+	void nestedRecord_missingValue_missingArgumentErrorWithDottedName() {
+		String[] args = { "--intArg", "42" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithNested.class));
+		assertThat(exception.errors())
+				.containsExactlyInAnyOrder(new ArgsMessage.MissingArgument("inner.stringArg"));
+	}
+
+	@Test
+	void nestedRecordThrowsException_constructorError() {
+		String[] args = { };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithNestedConstructorException.class));
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.FailedConstruction(var ex) && ex.getClass() == IllegalArgumentException.class);
+	}
+
+	@Test
+	void severalNestedRecordsThrowExceptions_allConstructorErrors() {
+		String[] args = { "--second.intArg", "-1", "--third.intArg", "1" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithSeveralNestedConstructorExceptions.class));
+		assertThat(exception.errors())
+				.hasSize(2)
+				.allMatch(msg -> msg instanceof ArgsMessage.FailedConstruction(var ex) && ex.getClass() == IllegalArgumentException.class);
+	}
+
+	@Test
+	void nestedAndTopLevelRecord_sameComponents_parses() throws ArgsParseException {
+		String[] args = { "--inner.stringArg", "inner", "--stringArg", "outer", "--intArg", "42" };
+		var parsed = Args.parse(args, WithNested.class, WithString.class);
+
+		assertThat(parsed.first().inner().stringArg()).isEqualTo("inner");
+		assertThat(parsed.second().stringArg()).isEqualTo("outer");
+	}
+
+	@Test
+	void recursiveRecord_unsupportedArgumentTypeError() {
+		String[] args = { };
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithRecursion.class));
+		assertThat(exception.errorCode()).isEqualTo(UNSUPPORTED_ARGUMENT_TYPE);
+	}
+
+	@Test
+	void indirectlyRecursiveRecord_unsupportedArgumentTypeError() {
+		String[] args = { };
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithIndirectRecursion.class));
+		assertThat(exception.errorCode()).isEqualTo(UNSUPPORTED_ARGUMENT_TYPE);
+	}
+
+}
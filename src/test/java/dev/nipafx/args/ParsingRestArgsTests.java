@@ -0,0 +1,137 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.AnotherWithRest;
+import dev.nipafx.args.Records.WithIntegerRest;
+import dev.nipafx.args.Records.WithNestedRest;
+import dev.nipafx.args.Records.WithRest;
+import dev.nipafx.args.Records.WithString;
+import dev.nipafx.args.Records.WithTwoRests;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static dev.nipafx.args.ArgsDefinitionErrorCode.MULTIPLE_REST_ARGUMENTS;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingRestArgsTests {
+
+	@Test
+	void withoutRest_programWithRestArg_parsesEmptyList() throws ArgsParseException {
+		String[] args = { "--optionalArg", "value" };
+		WithRest parsed = Args.parse(args, WithRest.class);
+
+		assertThat(parsed.optionalArg()).contains("value");
+		assertThat(parsed.rest()).isEmpty();
+	}
+
+	@Test
+	void withSeparator_programWithRestArg_takesTokensAfterSeparatorAsTheyAre() throws ArgsParseException {
+		String[] args = { "--flag", "--", "git", "--optionalArg", "--", "value" };
+		WithRest parsed = Args.parse(args, WithRest.class);
+
+		assertThat(parsed.flag()).contains(true);
+		assertThat(parsed.optionalArg()).isEmpty();
+		assertThat(parsed.rest()).containsExactly("git", "--optionalArg", "--", "value");
+	}
+
+	@Test
+	void withoutSeparator_programWithRestArg_firstFreeValueStartsRest() throws ArgsParseException {
+		String[] args = { "--optionalArg", "value", "git", "--flag" };
+		WithRest parsed = Args.parse(args, WithRest.class);
+
+		assertThat(parsed.optionalArg()).contains("value");
+		assertThat(parsed.flag()).isEmpty();
+		assertThat(parsed.rest()).containsExactly("git", "--flag");
+	}
+
+	@Test
+	void withFreeValueBeforeSeparator_programWithRestArg_unexpectedValueError() {
+		String[] args = { "--optionalArg", "value", "stray", "--", "git" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithRest.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.UnexpectedValue(var value) && value.equals("stray"));
+	}
+
+	@Test
+	void withSeparator_programWithRestArg_restIsUnmodifiableViewOnArray() throws ArgsParseException {
+		String[] args = { "--", "git", "status" };
+		WithRest parsed = Args.parse(args, WithRest.class);
+		args[2] = "log";
+
+		assertThat(parsed.rest()).containsExactly("git", "log");
+		assertThrows(UnsupportedOperationException.class, () -> parsed.rest().set(0, "svn"));
+	}
+
+	@Test
+	void withLongRest_programWithRestArg_takesAllTokens() throws ArgsParseException {
+		var args = new String[200_001];
+		args[0] = "--";
+		for (int i = 1; i < args.length; i++)
+			args[i] = i % 2 == 0 ? "--value" : "value";
+		WithRest parsed = Args.parse(args, WithRest.class);
+
+		assertThat(parsed.rest()).hasSize(200_000);
+		assertThat(parsed.rest().get(199_999)).isSameAs(args[200_000]);
+	}
+
+	@Test
+	void withSeparator_programWithNestedRestArg_takesTokensAfterSeparator() throws ArgsParseException {
+		String[] args = { "--inner.flag", "--intArg", "42", "--", "git", "status" };
+		WithNestedRest parsed = Args.parse(args, WithNestedRest.class);
+
+		assertThat(parsed.intArg()).isEqualTo(42);
+		assertThat(parsed.inner().flag()).contains(true);
+		assertThat(parsed.inner().rest()).containsExactly("git", "status");
+	}
+
+	@Test
+	void withSeparator_programWithoutRestArg_unexpectedValueError() {
+		String[] args = { "--stringArg", "value", "--", "git" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithString.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.UnexpectedValue(var value) && value.equals("--"));
+	}
+
+	@Test
+	void restArg_unparsedAfterSeparator_parsesToEqualRecord() throws ArgsParseException {
+		var args = new WithRest(Optional.of("value"), Optional.of(true), List.of("git", "--amend"));
+		var unparsed = Args.unparse(args);
+
+		assertThat(unparsed).containsExactly("--optionalArg", "value", "--flag", "true", "--", "git", "--amend");
+		assertThat(Args.parse(unparsed, WithRest.class)).isEqualTo(args);
+	}
+
+	@Test
+	void restArgOfOtherTypeThanListOfStrings_definitionError() {
+		String[] args = { };
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithIntegerRest.class));
+
+		assertThat(exception.errorCode()).isEqualTo(UNSUPPORTED_ARGUMENT_TYPE);
+	}
+
+	@Test
+	void twoRestArgsInOneRecord_definitionError() {
+		String[] args = { };
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithTwoRests.class));
+
+		assertThat(exception.errorCode()).isEqualTo(MULTIPLE_REST_ARGUMENTS);
+	}
+
+	@Test
+	void restArgsInTwoRecords_definitionError() {
+		String[] args = { };
+		var parseException = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithRest.class, AnotherWithRest.class));
+		var checkException = assertThrows(ArgsDefinitionException.class, () -> Args.checkDefinition(WithRest.class, AnotherWithRest.class));
+
+		assertThat(parseException.errorCode()).isEqualTo(MULTIPLE_REST_ARGUMENTS);
+		assertThat(checkException.errorCode()).isEqualTo(MULTIPLE_REST_ARGUMENTS);
+	}
+
+}
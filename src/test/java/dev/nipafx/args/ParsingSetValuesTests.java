@@ -0,0 +1,106 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.Level;
+import dev.nipafx.args.Records.WithEnumSet;
+import dev.nipafx.args.Records.WithIntegerSetAndMore;
+import dev.nipafx.args.Records.WithSet;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingSetValuesTests {
+
+	@Test
+	void withoutArgs_programWithSetArg_parses() throws ArgsParseException {
+		String[] args = { };
+		WithSet parsed = Args.parse(args, WithSet.class);
+
+		assertThat(parsed.stringArgs()).isEmpty();
+	}
+
+	@Test
+	void withRepeatedValues_programWithSetArg_parsesDistinctValuesInOrder() throws ArgsParseException {
+		String[] args = { "--stringArgs", "b", "a", "b", "c", "a" };
+		WithSet parsed = Args.parse(args, WithSet.class);
+
+		assertThat(parsed.stringArgs()).containsExactly("b", "a", "c");
+	}
+
+	@Test
+	void withArgMentionedTwice_programWithSetArg_parsesAllValues() throws ArgsParseException {
+		String[] args = { "--intArgs", "1", "2", "--booleanArg", "--intArgs", "2", "3" };
+		WithIntegerSetAndMore parsed = Args.parse(args, WithIntegerSetAndMore.class);
+
+		assertThat(parsed.intArgs()).containsExactly(1, 2, 3);
+		assertThat(parsed.booleanArg()).isTrue();
+	}
+
+	@Test
+	void withEnumValues_programWithEnumSetArg_parsesToEqualEnumSet() throws ArgsParseException {
+		String[] args = { "--levels", "WARN", "DEBUG", "WARN" };
+		WithEnumSet parsed = Args.parse(args, WithEnumSet.class);
+
+		assertThat(parsed.levels())
+				.isEqualTo(EnumSet.of(Level.DEBUG, Level.WARN))
+				// like `EnumSet`, iterates in declaration order
+				.containsExactly(Level.DEBUG, Level.WARN);
+	}
+
+	@Test
+	void withIllegalValue_programWithEnumSetArg_illegalValueError() {
+		String[] args = { "--levels", "WARN", "TRACE" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithEnumSet.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.IllegalValue(var argName, var argType, var value, var __)
+								 && argName.equals("levels") && argType == Set.class && value.equals("TRACE"));
+	}
+
+	@Test
+	void withSetArgs_programWithSetArg_unmodifiable() throws ArgsParseException {
+		String[] args = { "--levels", "INFO" };
+		WithEnumSet parsed = Args.parse(args, WithEnumSet.class);
+
+		assertThrows(UnsupportedOperationException.class, () -> parsed.levels().add(Level.DEBUG));
+		assertThrows(UnsupportedOperationException.class, () -> parsed.levels().remove(Level.INFO));
+		assertThrows(UnsupportedOperationException.class, () -> parsed.levels().iterator().remove());
+	}
+
+	@Test
+	void withSetArgs_programWithSetArg_serializableInOrder() throws Exception {
+		String[] args = { "--stringArgs", "b", "a", "c" };
+		WithSet parsed = Args.parse(args, WithSet.class);
+
+		assertThat(serializeAndDeserialize(parsed.stringArgs())).containsExactly("b", "a", "c");
+	}
+
+	@Test
+	void withEnumValues_programWithEnumSetArg_serializable() throws Exception {
+		String[] args = { "--levels", "WARN", "INFO" };
+		WithEnumSet parsed = Args.parse(args, WithEnumSet.class);
+
+		assertThat(serializeAndDeserialize(parsed.levels())).isEqualTo(EnumSet.of(Level.INFO, Level.WARN));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
+		var bytes = new ByteArrayOutputStream();
+		try (var out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (T) in.readObject();
+		}
+	}
+
+}
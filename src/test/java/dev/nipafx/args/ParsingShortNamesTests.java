@@ -0,0 +1,136 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.AnotherWithShortName;
+import dev.nipafx.args.Records.WithDerivedShortNames;
+import dev.nipafx.args.Records.WithDuplicateShortNames;
+import dev.nipafx.args.Records.WithNestedShortNames;
+import dev.nipafx.args.Records.WithNonLetterShortName;
+import dev.nipafx.args.Records.WithShortNames;
+import org.junit.jupiter.api.Test;
+
+import static dev.nipafx.args.ArgsDefinitionErrorCode.DUPLICATE_ARGUMENT_DEFINITION;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.ILLEGAL_SHORT_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingShortNamesTests {
+
+	@Test
+	void withShortFlag_programWithShortNames_setsFlag() throws ArgsParseException {
+		String[] args = { "-v" };
+		WithShortNames parsed = Args.parse(args, WithShortNames.class);
+
+		assertThat(parsed.verbose()).contains(true);
+		assertThat(parsed.extract()).isEmpty();
+	}
+
+	@Test
+	void withShortNameAndValue_programWithShortNames_parsesValue() throws ArgsParseException {
+		String[] args = { "-p", "8080" };
+		WithShortNames parsed = Args.parse(args, WithShortNames.class);
+
+		assertThat(parsed.port()).contains(8080);
+	}
+
+	@Test
+	void withShortNameAndAttachedValue_programWithShortNames_parsesValue() throws ArgsParseException {
+		String[] args = { "-p8080" };
+		WithShortNames parsed = Args.parse(args, WithShortNames.class);
+
+		assertThat(parsed.port()).contains(8080);
+	}
+
+	@Test
+	void withClusteredShortNames_programWithShortNames_parsesAll() throws ArgsParseException {
+		for (String[] args : new String[][] { { "-xvp", "8080" }, { "-xvp8080" }, { "-x", "-v", "-p", "8080" }, { "-vx", "--port", "8080" } }) {
+			WithShortNames parsed = Args.parse(args, WithShortNames.class);
+
+			assertThat(parsed.extract()).as(String.join(" ", args)).contains(true);
+			assertThat(parsed.verbose()).as(String.join(" ", args)).contains(true);
+			assertThat(parsed.port()).as(String.join(" ", args)).contains(8080);
+		}
+	}
+
+	@Test
+	void withShortNameAfterListValues_programWithShortNames_endsList() throws ArgsParseException {
+		String[] args = { "-i", "1", "-2", "3", "-v" };
+		WithShortNames parsed = Args.parse(args, WithShortNames.class);
+
+		// "-2" is no short name, so it's a value
+		assertThat(parsed.ids()).containsExactly(1, -2, 3);
+		assertThat(parsed.verbose()).contains(true);
+	}
+
+	@Test
+	void withUnknownShortNameInCluster_programWithShortNames_unknownArgumentError() {
+		String[] args = { "-vq" };
+		var exception = assertThrows(ArgsParseException.class, () -> Args.parse(args, WithShortNames.class));
+
+		assertThat(exception.errors())
+				.hasSize(1)
+				.allMatch(msg -> msg instanceof ArgsMessage.UnknownArgument(var name, var suggestions)
+						&& name.equals("-q") && suggestions.isEmpty())
+				.allMatch(msg -> msg.toMessage().equals("The provided argument '-q' is unknown."));
+	}
+
+	@Test
+	void withUnknownShortNameInCluster_programWithShortNames_parsesLeniently() throws ArgsParseException {
+		String[] args = { "-xvq", "value", "-p", "80" };
+		WithShortNames parsed = Args.parseLeniently(args, WithShortNames.class);
+
+		assertThat(parsed.extract()).contains(true);
+		// like a flag followed by an unknown long name, it's left unset
+		assertThat(parsed.verbose()).isEmpty();
+		assertThat(parsed.port()).contains(80);
+	}
+
+	@Test
+	void withDerivedShortNames_programWithShortNames_parsesAll() throws ArgsParseException {
+		String[] args = { "-v", "-V", "42", "-n", "one", "--version", "1.0" };
+		WithDerivedShortNames parsed = Args.parse(args, WithDerivedShortNames.class);
+
+		assertThat(parsed.verbose()).contains(true);
+		assertThat(parsed.value()).contains(42);
+		assertThat(parsed.number()).contains("one");
+		assertThat(parsed.version()).contains("1.0");
+	}
+
+	@Test
+	void withShortNamesOfNestedRecord_programWithNestedShortNames_parsesAll() throws ArgsParseException {
+		String[] args = { "-vo", "out.txt", "-p", "80" };
+		WithNestedShortNames parsed = Args.parse(args, WithNestedShortNames.class);
+
+		assertThat(parsed.inner().verbose()).contains(true);
+		assertThat(parsed.inner().port()).contains(80);
+		assertThat(parsed.output()).contains("out.txt");
+	}
+
+	@Test
+	void shortNameThatIsNoLetter_definitionError() {
+		String[] args = { };
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithNonLetterShortName.class));
+
+		assertThat(exception.errorCode()).isEqualTo(ILLEGAL_SHORT_NAME);
+	}
+
+	@Test
+	void duplicateShortNamesInOneRecord_definitionError() {
+		String[] args = { };
+		var exception = assertThrows(ArgsDefinitionException.class, () -> Args.parse(args, WithDuplicateShortNames.class));
+
+		assertThat(exception.errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+	}
+
+	@Test
+	void duplicateShortNamesInTwoRecords_definitionError() {
+		String[] args = { };
+		var parseException = assertThrows(ArgsDefinitionException.class,
+				() -> Args.parse(args, WithShortNames.class, AnotherWithShortName.class));
+		var checkException = assertThrows(ArgsDefinitionException.class,
+				() -> Args.checkDefinition(WithShortNames.class, AnotherWithShortName.class));
+
+		assertThat(parseException.errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+		assertThat(checkException.errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+	}
+
+}
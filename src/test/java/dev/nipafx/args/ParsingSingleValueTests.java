@@ -2,7 +2,10 @@ package dev.nipafx.args;
 
 import dev.nipafx.args.Records.None;
 import dev.nipafx.args.Records.WithBoolean;
+import dev.nipafx.args.Records.WithDataSize;
 import dev.nipafx.args.Records.WithDouble;
+import dev.nipafx.args.Records.WithDuration;
+import dev.nipafx.args.Records.WithDurationsAndSizes;
 import dev.nipafx.args.Records.WithFloat;
 import dev.nipafx.args.Records.WithInteger;
 import dev.nipafx.args.Records.WithLong;
@@ -12,6 +15,8 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -74,6 +79,48 @@ class ParsingSingleValueTests {
 		assertThat(parsed.doubleArg()).isEqualTo(5.5d);
 	}
 
+	@Test
+	void withHexAndSeparatedIntegerArgs_programWithIntegerArg_parses() throws ArgsParseException {
+		assertThat(Args.parse(new String[] { "--intArg", "0xFF" }, WithInteger.class).intArg()).isEqualTo(255);
+		assertThat(Args.parse(new String[] { "--intArg", "-0x10" }, WithInteger.class).intArg()).isEqualTo(-16);
+		assertThat(Args.parse(new String[] { "--intArg", "1_000_000" }, WithInteger.class).intArg()).isEqualTo(1_000_000);
+		assertThat(Args.parse(new String[] { "--longArg", "0x7fff_ffff_ffff_ffff" }, WithLong.class).longArg()).isEqualTo(Long.MAX_VALUE);
+		assertThat(Args.parse(new String[] { "--doubleArg", "1_000.25" }, WithDouble.class).doubleArg()).isEqualTo(1000.25);
+	}
+
+	@Test
+	void withDurationArg_programWithDurationArg_parses() throws ArgsParseException {
+		assertThat(Args.parse(new String[] { "--durationArg", "250ms" }, WithDuration.class).durationArg())
+				.isEqualTo(Duration.ofMillis(250));
+		assertThat(Args.parse(new String[] { "--durationArg", "1h30m" }, WithDuration.class).durationArg())
+				.isEqualTo(Duration.ofMinutes(90));
+		assertThat(Args.parse(new String[] { "--durationArg", "-5s" }, WithDuration.class).durationArg())
+				.isEqualTo(Duration.ofSeconds(-5));
+		assertThat(Args.parse(new String[] { "--durationArg", "PT1.5S" }, WithDuration.class).durationArg())
+				.isEqualTo(Duration.ofMillis(1_500));
+	}
+
+	@Test
+	void withDataSizeArg_programWithDataSizeArg_parses() throws ArgsParseException {
+		assertThat(Args.parse(new String[] { "--sizeArg", "512MiB" }, WithDataSize.class).sizeArg())
+				.isEqualTo(new DataSize(512L * 1024 * 1024));
+		assertThat(Args.parse(new String[] { "--sizeArg", "1_500kb" }, WithDataSize.class).sizeArg())
+				.isEqualTo(new DataSize(1_500_000));
+		assertThat(Args.parse(new String[] { "--sizeArg", "4096" }, WithDataSize.class).sizeArg())
+				.isEqualTo(new DataSize(4096));
+	}
+
+	@Test
+	void withDurationAndDataSizeContainerArgs_programWithContainerArgs_parses() throws ArgsParseException {
+		String[] args = { "--durationArgs", "1s", "2m", "--sizeArgs", "heap=2GiB", "cache=64MB" };
+		WithDurationsAndSizes parsed = Args.parse(args, WithDurationsAndSizes.class);
+
+		assertThat(parsed.durationArgs()).containsExactly(Duration.ofSeconds(1), Duration.ofMinutes(2));
+		assertThat(parsed.sizeArgs()).isEqualTo(Map.of(
+				"heap", new DataSize(2L * 1024 * 1024 * 1024),
+				"cache", new DataSize(64_000_000)));
+	}
+
 	@Test
 	void withBooleanFalseArg_programWithBooleanArg_parses() throws ArgsParseException {
 		String[] args = { "--booleanArg", "false" };
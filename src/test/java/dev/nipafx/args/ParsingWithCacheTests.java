@@ -0,0 +1,108 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.AnotherWithString;
+import dev.nipafx.args.Records.WithInteger;
+import dev.nipafx.args.Records.WithNestedSideEffect;
+import dev.nipafx.args.Records.WithSideEffect;
+import dev.nipafx.args.Records.WithString;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingWithCacheTests {
+
+	@Test
+	void sameArgs_parsedTwice_sameInstance() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(10);
+		var first = cache.parse(new String[] { "--stringArg", "string" }, WithString.class);
+		var second = cache.parse(new String[] { "--stringArg", "string" }, WithString.class);
+
+		assertThat(second).isSameAs(first);
+		assertThat(cache.statistics()).isEqualTo(new ArgsCache.Statistics(1, 1, 1));
+	}
+
+	@Test
+	void sameArgsDifferentTypes_parsedTwice_differentInstances() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(10);
+		var first = cache.parse(new String[] { "--stringArg", "string" }, WithString.class);
+		var second = cache.parse(new String[] { "--stringArg", "string" }, AnotherWithString.class);
+
+		assertThat(first).isEqualTo(new WithString("string"));
+		assertThat(second).isEqualTo(new AnotherWithString("string"));
+		assertThat(cache.statistics()).isEqualTo(new ArgsCache.Statistics(0, 2, 2));
+	}
+
+	@Test
+	void differentArgs_parsedTwice_differentInstances() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(10);
+		var first = cache.parse(new String[] { "--stringArg", "string" }, WithString.class);
+		var second = cache.parse(new String[] { "--stringArg", "other string" }, WithString.class);
+
+		assertThat(first.stringArg()).isEqualTo("string");
+		assertThat(second.stringArg()).isEqualTo("other string");
+		assertThat(cache.statistics()).isEqualTo(new ArgsCache.Statistics(0, 2, 2));
+	}
+
+	@Test
+	void argsArrayChangedAfterParse_parsedAgain_cacheUnaffected() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(10);
+		String[] args = { "--stringArg", "string" };
+		var first = cache.parse(args, WithString.class);
+		args[1] = "other string";
+		var second = cache.parse(args, WithString.class);
+
+		assertThat(first.stringArg()).isEqualTo("string");
+		assertThat(second.stringArg()).isEqualTo("other string");
+	}
+
+	@Test
+	void maxSizeExceeded_leastRecentlyUsedEvicted() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(2);
+		var one = cache.parse(new String[] { "--stringArg", "one" }, WithString.class);
+		var two = cache.parse(new String[] { "--stringArg", "two" }, WithString.class);
+		// makes "two" the least recently used result
+		cache.parse(new String[] { "--stringArg", "one" }, WithString.class);
+		cache.parse(new String[] { "--stringArg", "three" }, WithString.class);
+
+		assertThat(cache.parse(new String[] { "--stringArg", "one" }, WithString.class)).isSameAs(one);
+		assertThat(cache.parse(new String[] { "--stringArg", "two" }, WithString.class)).isNotSameAs(two);
+		assertThat(cache.statistics()).isEqualTo(new ArgsCache.Statistics(2, 4, 2));
+	}
+
+	@Test
+	void faultyArgs_parsedTwice_notCached() {
+		var cache = ArgsCache.withMaxSize(10);
+		assertThrows(ArgsParseException.class, () -> cache.parse(new String[] { "--intArg", "one" }, WithInteger.class));
+		assertThrows(ArgsParseException.class, () -> cache.parse(new String[] { "--intArg", "one" }, WithInteger.class));
+
+		assertThat(cache.statistics()).isEqualTo(new ArgsCache.Statistics(0, 2, 0));
+	}
+
+	@Test
+	void uncacheableType_parsedTwice_constructorCalledTwice() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(10);
+		int callsBefore = WithSideEffect.CONSTRUCTOR_CALLS.get();
+		cache.parse(new String[] { "--stringArg", "string" }, WithSideEffect.class);
+		cache.parse(new String[] { "--stringArg", "string" }, WithSideEffect.class);
+
+		assertThat(WithSideEffect.CONSTRUCTOR_CALLS.get() - callsBefore).isEqualTo(2);
+		assertThat(cache.statistics().size()).isZero();
+	}
+
+	@Test
+	void nestedUncacheableType_parsedTwice_notCached() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(10);
+		var first = cache.parse(new String[] { "--inner.stringArg", "string" }, WithNestedSideEffect.class);
+		var second = cache.parse(new String[] { "--inner.stringArg", "string" }, WithNestedSideEffect.class);
+
+		assertThat(second).isNotSameAs(first);
+		assertThat(cache.statistics().size()).isZero();
+	}
+
+	@Test
+	void nonPositiveMaxSize_create_exception() {
+		assertThrows(IllegalArgumentException.class, () -> ArgsCache.withMaxSize(0));
+	}
+
+}
@@ -0,0 +1,89 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.WithList;
+import dev.nipafx.args.Records.WithMap;
+import dev.nipafx.args.Records.WithNested;
+import dev.nipafx.args.Records.WithPath;
+import dev.nipafx.args.Records.WithString;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingWithInternerTests {
+
+	// `new String(...)` makes sure that equal values from different argument arrays aren't the same instance to begin with
+	@SuppressWarnings("StringOperationCanBeSimplified")
+	private static String[] args(String... args) {
+		var copies = new String[args.length];
+		for (int i = 0; i < args.length; i++)
+			copies[i] = new String(args[i]);
+		return copies;
+	}
+
+	@Test
+	void equalStringValues_parsedTwice_sameInstance() throws ArgsParseException {
+		var interner = ArgsInterner.forValues(100);
+		var first = interner.parse(args("--stringArg", "eu-west-1"), WithString.class);
+		var second = interner.parse(args("--stringArg", "eu-west-1"), WithString.class);
+
+		assertThat(second.stringArg()).isSameAs(first.stringArg());
+		assertThat(second).isNotSameAs(first);
+	}
+
+	@Test
+	void equalPathValues_parsedTwice_sameInstance() throws ArgsParseException {
+		var interner = ArgsInterner.forValues(100);
+		var first = interner.parse(args("--pathArg", "/tmp"), WithPath.class);
+		var second = interner.parse(args("--pathArg", "/tmp"), WithPath.class);
+
+		assertThat(second.pathArg()).isSameAs(first.pathArg());
+	}
+
+	@Test
+	void equalContainerValues_parsedTwice_sameInstances() throws ArgsParseException {
+		var interner = ArgsInterner.forValues(100);
+		var first = interner.parse(args("--stringArgs", "one", "two", "--mapArgs", "1=one"), WithList.class, WithMap.class);
+		var second = interner.parse(args("--stringArgs", "one", "two", "--mapArgs", "1=one"), WithList.class, WithMap.class);
+
+		assertThat(second.first().stringArgs().get(0)).isSameAs(first.first().stringArgs().get(0));
+		assertThat(second.first().stringArgs().get(1)).isSameAs(first.first().stringArgs().get(1));
+		assertThat(second.second().mapArgs().get(1)).isSameAs(first.second().mapArgs().get(1));
+		// values are interned across args
+		assertThat(second.second().mapArgs().get(1)).isSameAs(first.first().stringArgs().get(0));
+	}
+
+	@Test
+	void equalRecords_parsedTwiceWithRecordInterning_sameInstance() throws ArgsParseException {
+		var interner = ArgsInterner.forValuesAndRecords(100);
+		var first = interner.parse(args("--inner.stringArg", "string", "--list.stringArgs", "one", "--intArg", "42"), WithNested.class);
+		var second = interner.parse(args("--inner.stringArg", "string", "--list.stringArgs", "one", "--intArg", "42"), WithNested.class);
+		var third = interner.parse(args("--inner.stringArg", "string", "--list.stringArgs", "one", "--intArg", "63"), WithNested.class);
+
+		assertThat(second).isSameAs(first);
+		assertThat(third).isNotSameAs(first);
+		// nested records are interned as well
+		assertThat(third.inner()).isSameAs(first.inner());
+		assertThat(third.list()).isSameAs(first.list());
+	}
+
+	@Test
+	void fullInterner_parseNewValue_notInterned() throws ArgsParseException {
+		var interner = ArgsInterner.forValues(1);
+		var first = interner.parse(args("--stringArg", "one"), WithString.class);
+		var second = interner.parse(args("--stringArg", "two"), WithString.class);
+		var third = interner.parse(args("--stringArg", "two"), WithString.class);
+		var fourth = interner.parse(args("--stringArg", "one"), WithString.class);
+
+		assertThat(interner.size()).isEqualTo(1);
+		assertThat(third.stringArg()).isEqualTo(second.stringArg()).isNotSameAs(second.stringArg());
+		assertThat(fourth.stringArg()).isSameAs(first.stringArg());
+	}
+
+	@Test
+	void nonPositiveMaxSize_create_exception() {
+		assertThrows(IllegalArgumentException.class, () -> ArgsInterner.forValues(0));
+		assertThrows(IllegalArgumentException.class, () -> ArgsInterner.forValuesAndRecords(-1));
+	}
+
+}
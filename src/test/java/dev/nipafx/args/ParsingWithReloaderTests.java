@@ -0,0 +1,241 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.ArgsReloader.Change;
+import dev.nipafx.args.ArgsReloader.Reload;
+import dev.nipafx.args.Records.WithNested;
+import dev.nipafx.args.Records.WithPositiveInteger;
+import dev.nipafx.args.Records.WithRest;
+import dev.nipafx.args.Records.WithShortNames;
+import dev.nipafx.args.Records.WithString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingWithReloaderTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void argFile_parsed() throws IOException, ArgsParseException {
+		var argFile = write("""
+				# a comment
+				--inner.stringArg string
+				--list.stringArgs one two
+				  three
+				--intArg 42
+				""");
+		try (var reloader = ArgsReloader.load(argFile, WithNested.class)) {
+			assertThat(reloader.get()).isEqualTo(new WithNested(
+					new WithString("string"), new Records.WithList(List.of("one", "two", "three")), 42));
+		}
+	}
+
+	@Test
+	void invalidArgFile_loadFails() throws IOException {
+		var argFile = write("--stringArg string --unknown value");
+		var exception = assertThrows(ArgsParseException.class, () -> ArgsReloader.load(argFile, WithString.class));
+		assertThat(exception.errors())
+				.containsExactlyInAnyOrder(new ArgsMessage.UnknownArgument("unknown", List.of()));
+	}
+
+	@Test
+	void unchangedArgs_reload_nothingPublished() throws IOException, ArgsParseException {
+		var argFile = write("--stringArg string");
+		try (var reloader = ArgsReloader.load(argFile, WithString.class)) {
+			var first = reloader.get();
+			write("# reformatted\n--stringArg\n\tstring\n");
+
+			assertThat(reloader.reload()).isEmpty();
+			assertThat(reloader.get()).isSameAs(first);
+		}
+	}
+
+	@Test
+	void changedArg_reload_newInstanceWithDiff() throws IOException, ArgsParseException {
+		var argFile = write("--inner.stringArg string --list.stringArgs one two --intArg 42");
+		try (var reloader = ArgsReloader.load(argFile, WithNested.class)) {
+			var first = reloader.get();
+			write("--inner.stringArg string --list.stringArgs one two --intArg 63");
+
+			var reload = reloader.reload().orElseThrow();
+			var second = reloader.get();
+			assertThat(reload.previous()).isSameAs(first);
+			assertThat(reload.current()).isSameAs(second);
+			assertThat(reload.changes()).containsExactly(new Change("intArg", 42, 63));
+			assertThat(second.intArg()).isEqualTo(63);
+			// unchanged args weren't parsed again
+			assertThat(second.inner().stringArg()).isSameAs(first.inner().stringArg());
+			assertThat(second.list().stringArgs()).isSameAs(first.list().stringArgs());
+		}
+	}
+
+	@Test
+	void removedArg_reload_failsAndKeepsCurrentInstance() throws IOException, ArgsParseException {
+		var argFile = write("--stringArg string");
+		try (var reloader = ArgsReloader.load(argFile, WithString.class)) {
+			var first = reloader.get();
+			var failures = new ArrayBlockingQueue<Exception>(1);
+			reloader.addListener(new ArgsReloader.Listener<>() {
+
+				@Override
+				public void reloaded(Reload<? extends WithString> reload) { }
+
+				@Override
+				public void reloadFailed(Exception exception) {
+					failures.add(exception);
+				}
+
+			});
+			write("");
+
+			var exception = assertThrows(ArgsParseException.class, reloader::reload);
+			assertThat(exception.errors()).containsExactlyInAnyOrder(new ArgsMessage.MissingArgument("stringArg"));
+			assertThat(failures).containsExactly(exception);
+			assertThat(reloader.get()).isSameAs(first);
+		}
+	}
+
+	@Test
+	void separatorWithoutRestArg_loadFails() throws IOException {
+		var argFile = write("--stringArg string -- value");
+		var exception = assertThrows(ArgsParseException.class, () -> ArgsReloader.load(argFile, WithString.class));
+		assertThat(exception.errors()).containsExactlyInAnyOrder(new ArgsMessage.UnexpectedValue("--"));
+	}
+
+	@Test
+	void addedSeparator_reload_failsAndKeepsCurrentInstance() throws IOException, ArgsParseException {
+		var argFile = write("--stringArg string");
+		try (var reloader = ArgsReloader.load(argFile, WithString.class)) {
+			var first = reloader.get();
+			var failures = new ArrayBlockingQueue<Exception>(1);
+			reloader.addListener(new ArgsReloader.Listener<>() {
+
+				@Override
+				public void reloaded(Reload<? extends WithString> reload) { }
+
+				@Override
+				public void reloadFailed(Exception exception) {
+					failures.add(exception);
+				}
+
+			});
+			write("--stringArg string --");
+
+			var exception = assertThrows(ArgsParseException.class, reloader::reload);
+			assertThat(exception.errors()).containsExactlyInAnyOrder(new ArgsMessage.UnexpectedValue("--"));
+			assertThat(failures).containsExactly(exception);
+			assertThat(reloader.get()).isSameAs(first);
+		}
+	}
+
+	@Test
+	void argFileWithShortNames_parsed() throws IOException, ArgsParseException {
+		var argFile = write("-xv -p 8080 --ids 1 2");
+		try (var reloader = ArgsReloader.load(argFile, WithShortNames.class)) {
+			assertThat(reloader.get()).isEqualTo(new WithShortNames(
+					Optional.of(true), Optional.of(true), Optional.of(8080), List.of(1, 2)));
+		}
+	}
+
+	@Test
+	void changedShortNames_reload_changedArgsUpdated() throws IOException, ArgsParseException {
+		var argFile = write("-xv -p 8080 -i 1 2");
+		try (var reloader = ArgsReloader.load(argFile, WithShortNames.class)) {
+			var first = reloader.get();
+			write("-x -p9090 -i 1 2");
+
+			var reload = reloader.reload().orElseThrow();
+			assertThat(reload.changes()).containsExactly(
+					new Change("verbose", Optional.of(true), Optional.empty()),
+					new Change("port", Optional.of(8080), Optional.of(9090)));
+			assertThat(reloader.get()).isEqualTo(new WithShortNames(
+					Optional.empty(), Optional.of(true), Optional.of(9090), List.of(1, 2)));
+			assertThat(reloader.get().ids()).isSameAs(first.ids());
+		}
+	}
+
+	@Test
+	void unknownShortName_loadFails() throws IOException {
+		var argFile = write("-xq -p 8080");
+		var exception = assertThrows(ArgsParseException.class, () -> ArgsReloader.load(argFile, WithShortNames.class));
+		assertThat(exception.errors()).containsExactlyInAnyOrder(new ArgsMessage.UnknownArgument("-q", List.of()));
+	}
+
+	@Test
+	void argFileWithRest_parsed() throws IOException, ArgsParseException {
+		var argFile = write("--optionalArg value\n-- git --amend\n");
+		try (var reloader = ArgsReloader.load(argFile, WithRest.class)) {
+			assertThat(reloader.get()).isEqualTo(new WithRest(Optional.of("value"), Optional.empty(), List.of("git", "--amend")));
+		}
+	}
+
+	@Test
+	void changedRest_reload_onlyRestUpdated() throws IOException, ArgsParseException {
+		var argFile = write("--optionalArg value -- git status");
+		try (var reloader = ArgsReloader.load(argFile, WithRest.class)) {
+			var first = reloader.get();
+			write("--optionalArg value -- git log");
+
+			var reload = reloader.reload().orElseThrow();
+			assertThat(reload.changes()).containsExactly(new Change("rest", List.of("git", "status"), List.of("git", "log")));
+			assertThat(reloader.get().optionalArg()).isSameAs(first.optionalArg());
+			write("--optionalArg value");
+
+			reloader.reload().orElseThrow();
+			assertThat(reloader.get().rest()).isEmpty();
+		}
+	}
+
+	@Test
+	void restWithoutSeparator_loadFails() throws IOException {
+		var argFile = write("--optionalArg value git");
+		var exception = assertThrows(ArgsParseException.class, () -> ArgsReloader.load(argFile, WithRest.class));
+		assertThat(exception.errors()).containsExactlyInAnyOrder(new ArgsMessage.UnexpectedValue("git"));
+	}
+
+	@Test
+	void valueRejectedByConstructor_reload_failsAndKeepsCurrentInstance() throws IOException, ArgsParseException {
+		var argFile = write("--intArg 42");
+		try (var reloader = ArgsReloader.load(argFile, WithPositiveInteger.class)) {
+			write("--intArg -1");
+
+			var exception = assertThrows(ArgsParseException.class, reloader::reload);
+			assertThat(exception.errors())
+					.hasSize(1)
+					.allMatch(error -> error instanceof ArgsMessage.FailedConstruction);
+			assertThat(reloader.get()).isEqualTo(new WithPositiveInteger(42));
+		}
+	}
+
+	@Test
+	void watchedArgFile_changed_listenerInformed() throws IOException, ArgsParseException, InterruptedException {
+		var argFile = write("--stringArg string");
+		try (var reloader = ArgsReloader.load(argFile, WithString.class)) {
+			var reloads = new ArrayBlockingQueue<Reload<? extends WithString>>(10);
+			reloader.addListener(reloads::add);
+			reloader.watch();
+			write("--stringArg changed");
+
+			var reload = reloads.poll(30, TimeUnit.SECONDS);
+			assertThat(reload).isNotNull();
+			assertThat(reload.changes()).containsExactly(new Change("stringArg", "string", "changed"));
+			assertThat(reloader.get()).isEqualTo(new WithString("changed"));
+		}
+	}
+
+	private Path write(String content) throws IOException {
+		return Files.writeString(directory.resolve("app.args"), content);
+	}
+
+}
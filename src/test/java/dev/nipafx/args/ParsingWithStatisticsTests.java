@@ -0,0 +1,165 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.WithInteger;
+import dev.nipafx.args.Records.WithList;
+import dev.nipafx.args.Records.WithString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsingWithStatisticsTests {
+
+	private ArgsStatistics statistics;
+
+	@BeforeEach
+	void enableStatistics() {
+		statistics = ArgsStatistics.enable();
+		statistics.reset();
+	}
+
+	@AfterEach
+	void disableStatistics() {
+		ArgsStatistics.disable();
+	}
+
+	@Test
+	void successfulParse_counted() throws ArgsParseException {
+		Args.parse(new String[] { "--stringArg", "string" }, WithString.class);
+		Args.parse(new String[] { "--stringArg", "string" }, WithString.class);
+
+		assertThat(statistics.getParseCount()).isEqualTo(2);
+		assertThat(statistics.getFailedParseCount()).isZero();
+		assertThat(statistics.getMessageCounts()).isEmpty();
+		assertThat(statistics.getLatencyP50Nanos()).containsOnlyKeys(WithString.class.getName());
+		assertThat(statistics.getLatencyMaxNanos().get(WithString.class.getName())).isPositive();
+	}
+
+	@Test
+	void cachedParse_hitsAndMissesCounted() throws ArgsParseException {
+		var cache = ArgsCache.withMaxSize(10);
+		for (int i = 0; i < 3; i++)
+			cache.parse(new String[] { "--stringArg", "string" }, WithString.class);
+
+		assertThat(cache.statistics().hits()).isEqualTo(2);
+		assertThat(statistics.getParseCount()).isEqualTo(3);
+		assertThat(statistics.getFailedParseCount()).isZero();
+		assertThat(statistics.getLatencyMaxNanos()).containsOnlyKeys(WithString.class.getName());
+	}
+
+	@Test
+	void failedParse_countedWithMessages() {
+		assertThrows(ArgsParseException.class, () -> Args.parse(new String[] { "--intArg", "forty-two" }, WithInteger.class));
+		assertThrows(ArgsParseException.class, () -> Args.parse(new String[] { "--intArg", "1", "--unknown", "x" }, WithInteger.class));
+		assertThrows(ArgsParseException.class, () -> Args.parse(new String[] { }, WithInteger.class));
+
+		assertThat(statistics.getParseCount()).isEqualTo(3);
+		assertThat(statistics.getFailedParseCount()).isEqualTo(3);
+		assertThat(statistics.getUnknownArgumentCount()).isEqualTo(1);
+		assertThat(statistics.getMessageCounts()).isEqualTo(Map.of(
+				"IllegalValue", 1L,
+				"UnknownArgument", 1L,
+				"MissingArgument", 1L));
+		assertThat(statistics.getLatencyP99Nanos()).containsOnlyKeys(WithInteger.class.getName());
+	}
+
+	@Test
+	void lenientParseWithUnknownArgument_unknownArgumentCounted() throws ArgsParseException {
+		Args.parseLeniently(new String[] { "--stringArg", "string", "--unknown", "x" }, WithString.class);
+
+		assertThat(statistics.getParseCount()).isEqualTo(1);
+		assertThat(statistics.getFailedParseCount()).isZero();
+		assertThat(statistics.getUnknownArgumentCount()).isEqualTo(1);
+		assertThat(statistics.getMessageCounts()).isEqualTo(Map.of("UnknownArgument", 1L));
+	}
+
+	@Test
+	void lenientParseWithUnknownArgument_valuesParsedOnce() throws ArgsParseException {
+		var parsed = Args.parseLeniently(
+				new String[] { "--stringArgs", "one", "two", "--unknown", "x", "--stringArgs", "three" }, WithList.class);
+
+		assertThat(parsed.stringArgs()).containsExactly("one", "two", "three");
+		assertThat(statistics.getUnknownArgumentCount()).isEqualTo(1);
+	}
+
+	@Test
+	void multipleTypes_latencyRecordedForEach() throws ArgsParseException {
+		Args.parse(new String[] { "--stringArg", "string", "--intArg", "42" }, WithString.class, WithInteger.class);
+
+		assertThat(statistics.getParseCount()).isEqualTo(1);
+		assertThat(statistics.getLatencyP90Nanos()).containsOnlyKeys(WithString.class.getName(), WithInteger.class.getName());
+	}
+
+	@Test
+	void enabled_readableViaPlatformMBeanServer() throws Exception {
+		Args.parse(new String[] { "--stringArg", "string" }, WithString.class);
+
+		var server = ManagementFactory.getPlatformMBeanServer();
+		var name = new ObjectName(ArgsStatistics.OBJECT_NAME);
+		assertThat(server.isRegistered(name)).isTrue();
+		assertThat(server.getAttribute(name, "ParseCount")).isEqualTo(1L);
+		assertThat(server.getAttribute(name, "FailedParseCount")).isEqualTo(0L);
+	}
+
+	@Test
+	void enabledTwice_sameStatistics() {
+		assertThat(ArgsStatistics.enable()).isSameAs(statistics);
+	}
+
+	@Test
+	void disabled_unregisteredAndNotRecorded() throws Exception {
+		ArgsStatistics.disable();
+		Args.parse(new String[] { "--stringArg", "string" }, WithString.class);
+
+		assertThat(statistics.getParseCount()).isZero();
+		assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(ArgsStatistics.OBJECT_NAME))).isFalse();
+	}
+
+	@Test
+	void concurrentParses_allCounted() throws InterruptedException {
+		var threads = new ArrayList<Thread>();
+		for (int i = 0; i < 50; i++)
+			threads.add(Thread.ofVirtual().start(() -> {
+				for (int iteration = 0; iteration < 20; iteration++)
+					try {
+						Args.parse(new String[] { "--intArg", "forty-two" }, WithInteger.class);
+					} catch (ArgsParseException ex) {
+						// expected
+					}
+			}));
+		for (Thread thread : threads)
+			thread.join();
+
+		assertThat(statistics.getParseCount()).isEqualTo(1_000);
+		assertThat(statistics.getFailedParseCount()).isEqualTo(1_000);
+		assertThat(statistics.getMessageCounts()).isEqualTo(Map.of("IllegalValue", 1_000L));
+	}
+
+	@Test
+	void histogram_percentilesWithinBucketPrecision() {
+		var histogram = new ArgsStatistics.LatencyHistogram();
+		for (long value = 1; value <= 1_000; value++)
+			histogram.record(value * 1_000);
+
+		assertThat(histogram.percentile(0.5)).isBetween(500_000L, 625_000L);
+		assertThat(histogram.percentile(0.99)).isBetween(990_000L, 1_000_000L);
+		assertThat(histogram.max()).isEqualTo(1_000_000L);
+	}
+
+	@Test
+	void histogram_bucketBoundsAreContiguous() {
+		for (int bucket = 1; bucket < ArgsStatistics.LatencyHistogram.bucketOf(Long.MAX_VALUE); bucket++) {
+			long lowerBound = ArgsStatistics.LatencyHistogram.upperBoundOf(bucket - 1) + 1;
+			assertThat(ArgsStatistics.LatencyHistogram.bucketOf(lowerBound)).isEqualTo(bucket);
+			assertThat(ArgsStatistics.LatencyHistogram.bucketOf(ArgsStatistics.LatencyHistogram.upperBoundOf(bucket))).isEqualTo(bucket);
+		}
+	}
+
+}
@@ -1,9 +1,12 @@
 package dev.nipafx.args;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class Records {
 
@@ -16,11 +19,43 @@ class Records {
 	record WithFloat(float floatArg) { }
 	record WithDouble(double doubleArg) { }
 	record WithBoolean(boolean booleanArg) { }
+	record WithDuration(Duration durationArg) { }
+	record WithDataSize(DataSize sizeArg) { }
+	record WithDurationsAndSizes(List<Duration> durationArgs, Map<String, DataSize> sizeArgs) { }
+
+	enum Level { DEBUG, INFO, WARN }
+	@CaseInsensitive
+	enum Color { RED, GREEN, BLUE }
+	@CaseInsensitive
+	enum ClashingCases { value, VALUE }
+	record WithEnum(Level levelArg) { }
+	record WithCaseInsensitiveEnum(Color colorArg) { }
+	record WithClashingCasesEnum(ClashingCases clashingArg) { }
+	record WithEnumContainers(Optional<Level> optionalLevel, List<Color> colors, Map<Level, Color> levelColors) { }
+	record WithSet(Set<String> stringArgs) { }
+	record WithEnumSet(Set<Level> levels) { }
+	record WithIntegerSetAndMore(Set<Integer> intArgs, boolean booleanArg) { }
+	record WithRest(Optional<String> optionalArg, Optional<Boolean> flag, @Rest List<String> rest) { }
+	record WithNestedRest(int intArg, WithRest inner) { }
+	record AnotherWithRest(@Rest List<String> otherRest) { }
+	record WithIntegerRest(@Rest List<Integer> rest) { }
+	record WithTwoRests(@Rest List<String> rest, @Rest List<String> otherRest) { }
+	record WithShortNames(
+			@ShortName('v') Optional<Boolean> verbose, @ShortName('x') Optional<Boolean> extract,
+			@ShortName('p') Optional<Integer> port, @ShortName('i') List<Integer> ids) { }
+	@ShortNames
+	record WithDerivedShortNames(
+			Optional<Boolean> verbose, Optional<Integer> value, Optional<String> version, @ShortName('n') Optional<String> number) { }
+	record WithNestedShortNames(WithShortNames inner, @ShortName('o') Optional<String> output) { }
+	record AnotherWithShortName(@ShortName('v') Optional<Boolean> version) { }
+	record WithNonLetterShortName(@ShortName('1') Optional<String> one) { }
+	record WithDuplicateShortNames(@ShortName('a') Optional<String> first, @ShortName('a') Optional<String> second) { }
 
 	record WithOptional(Optional<String> optionalArg) implements Action { }
 	record WithOptionalBoolean(Optional<Boolean> optionalArg) { }
 	record WithList(List<String> stringArgs) implements Mode { }
 	record WithListAndMore(List<String> stringArgs, boolean booleanArg) { }
+	record WithIntegerList(List<Integer> intArgs) { }
 	record WithMap(Map<Integer, String> mapArgs) implements Type { }
 	record WithMapAndMore(Map<Integer, String> mapArgs, boolean booleanArg) { }
 
@@ -32,6 +67,15 @@ class Records {
 
 	}
 
+	record WithPositiveInteger(int intArg) {
+
+		WithPositiveInteger {
+			if (intArg <= 0)
+				throw new IllegalArgumentException("Must be positive: " + intArg);
+		}
+
+	}
+
 	record WithInitializerException() {
 
 		static {
@@ -42,7 +86,29 @@ class Records {
 
 	}
 
-	record WithStringArray(String[] stringsArg) { }
+	@ArgsCache.Uncacheable
+	record WithSideEffect(String stringArg) {
+
+		static final AtomicInteger CONSTRUCTOR_CALLS = new AtomicInteger();
+
+		WithSideEffect {
+			CONSTRUCTOR_CALLS.incrementAndGet();
+		}
+
+	}
+
+	record WithNestedSideEffect(WithSideEffect inner) { }
+
+	record WithNested(WithString inner, WithList list, int intArg) { }
+	record WithDeeplyNested(WithNested outer, WithBoolean flag) { }
+	record WithNestedConstructorException(WithConstructorException inner) { }
+	record WithSeveralNestedConstructorExceptions(
+			WithNestedConstructorException first, WithPositiveInteger second, WithPositiveInteger third) { }
+	record WithRecursion(WithRecursion self) { }
+	record WithIndirectRecursion(WithNestedRecursion nested) { }
+	record WithNestedRecursion(WithIndirectRecursion outer) { }
+
+	record WithStringArray(String[] stringsArg) implements ModeWithUnsupportedType { }
 	record WithMany(
 			String stringArg, Optional<Path> pathArg,
 			int intArg, float floatArg, boolean booleanArg,
@@ -63,6 +129,9 @@ class Records {
 	record WithPathArgs(Path pathArg) implements ActionArgs { }
 	record WithMapArgs(List<String> stringArgs) implements ActionArgs { }
 
+	sealed interface ModeWithUnsupportedType permits WithStringArray { }
+
 	sealed interface SubtypesWithOverlappingComponents permits WithString, AnotherWithString { }
 	record AnotherWithString(String stringArg) implements SubtypesWithOverlappingComponents { }
+	record WithModeComponent(String mode) { }
 }
@@ -0,0 +1,229 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.Action;
+import dev.nipafx.args.Records.ActionArgs;
+import dev.nipafx.args.Records.AnotherWithString;
+import dev.nipafx.args.Records.Interface;
+import dev.nipafx.args.Records.Mode;
+import dev.nipafx.args.Records.ModeArgs;
+import dev.nipafx.args.Records.ModeWithUnsupportedType;
+import dev.nipafx.args.Records.Type;
+import dev.nipafx.args.Records.WithBoolean;
+import dev.nipafx.args.Records.WithDataSize;
+import dev.nipafx.args.Records.WithDeeplyNested;
+import dev.nipafx.args.Records.WithDerivedShortNames;
+import dev.nipafx.args.Records.WithDuplicateShortNames;
+import dev.nipafx.args.Records.WithDurationsAndSizes;
+import dev.nipafx.args.Records.WithEnumContainers;
+import dev.nipafx.args.Records.WithList;
+import dev.nipafx.args.Records.WithMany;
+import dev.nipafx.args.Records.WithMap;
+import dev.nipafx.args.Records.WithNested;
+import dev.nipafx.args.Records.WithNestedRest;
+import dev.nipafx.args.Records.WithNestedShortNames;
+import dev.nipafx.args.Records.WithPath;
+import dev.nipafx.args.Records.WithRecursion;
+import dev.nipafx.args.Records.WithRest;
+import dev.nipafx.args.Records.WithSet;
+import dev.nipafx.args.Records.WithShortNames;
+import dev.nipafx.args.Records.WithString;
+import dev.nipafx.args.Records.WithStringArray;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static dev.nipafx.args.ArgsDefinitionErrorCode.DUPLICATE_ARGUMENT_DEFINITION;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.ILLEGAL_SHORT_NAME;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.ILL_DEFINED_ARGS_TYPE;
+import static dev.nipafx.args.ArgsDefinitionErrorCode.UNSUPPORTED_ARGUMENT_TYPE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SchemaIndexTests {
+
+	private static final List<Class<? extends Record>> RECORDS = List.of(
+			WithString.class, WithMany.class, WithDataSize.class, WithDurationsAndSizes.class, WithEnumContainers.class,
+			WithSet.class, WithMap.class, WithRest.class, WithNestedRest.class, WithNested.class, WithDeeplyNested.class,
+			WithShortNames.class, WithDerivedShortNames.class, WithNestedShortNames.class);
+
+	@Test
+	void wellDefinedRecords_writeAndRead_sameSchemasAsReflection() throws IOException {
+		var index = writeAndRead(List.<Class<?>> copyOf(RECORDS), List.of());
+
+		for (Class<? extends Record> type : RECORDS) {
+			assertThat(index.records()).containsKey(type.getName());
+			var indexed = RecordSchema.create(type, index);
+			var reflected = RecordSchema.create(type, null);
+
+			assertThat(indexed.leafNames()).isEqualTo(reflected.leafNames());
+			assertThat(indexed.restLeaf()).isEqualTo(reflected.restLeaf());
+			assertThat(indexed.shortNameLeaves()).isEqualTo(reflected.shortNameLeaves());
+			assertThat(indexed.constructor()).isEqualTo(reflected.constructor());
+			var indexedLeaves = indexed.leaves();
+			var reflectedLeaves = reflected.leaves();
+			for (int i = 0; i < indexedLeaves.size(); i++) {
+				var indexedLeaf = indexedLeaves.get(i);
+				var reflectedLeaf = reflectedLeaves.get(i);
+				assertThat(indexedLeaf.type()).isEqualTo(reflectedLeaf.type());
+				assertThat(reflectedLeaf.type()).isEqualTo(indexedLeaf.type());
+				assertThat(indexedLeaf.type().hashCode()).isEqualTo(reflectedLeaf.type().hashCode());
+				assertThat(indexedLeaf.type().getTypeName()).isEqualTo(reflectedLeaf.type().getTypeName());
+				assertThat(indexedLeaf.rest()).isEqualTo(reflectedLeaf.rest());
+				assertThat(indexedLeaf.shortName()).isEqualTo(reflectedLeaf.shortName());
+				assertThat(indexedLeaf.accessor().method()).isEqualTo(reflectedLeaf.accessor().method());
+			}
+		}
+	}
+
+	@Test
+	void nestedRecords_write_indexed() throws IOException {
+		var index = writeAndRead(List.of(WithDeeplyNested.class), List.of());
+
+		assertThat(index.records()).containsOnlyKeys(
+				WithDeeplyNested.class.getName(), WithNested.class.getName(), WithBoolean.class.getName(),
+				WithString.class.getName(), WithList.class.getName());
+	}
+
+	@Test
+	void modeAndActionInterfaces_writeAndRead_sameValuesAsReflection() throws IOException {
+		List<Class<?>> types = List.of(Mode.class, ModeArgs.class, Type.class, Action.class, ActionArgs.class);
+		var index = writeAndRead(types, List.of());
+
+		for (Class<?> type : types) {
+			assertThat(index.sealed()).containsKey(type.getName());
+			assertThat(ArgsModeFilter.createValuesByTypeName(type, index))
+					.isEqualTo(ArgsModeFilter.createValuesByTypeName(type, null));
+			for (Class<?> recordType : ArgsModeFilter.createValuesByTypeName(type, null).values())
+				assertThat(index.records()).containsKey(recordType.getName());
+		}
+	}
+
+	@Test
+	void illDefinedTypes_write_errorsReturnedAndTypesNotIndexed() throws IOException {
+		List<Class<?>> types = List.of(
+				WithStringArray.class, WithRecursion.class, WithDuplicateShortNames.class,
+				ModeWithUnsupportedType.class, Interface.class);
+		var out = new ByteArrayOutputStream();
+		var errors = ArgsSchemaIndex.write(types, List.of(), out);
+		var index = ArgsSchemaIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+		assertThat(errors).containsOnlyKeys(
+				WithStringArray.class.getName(), WithRecursion.class.getName(), WithDuplicateShortNames.class.getName(),
+				ModeWithUnsupportedType.class.getName(), Interface.class.getName());
+		assertThat(errors.get(WithStringArray.class.getName()).errorCode()).isEqualTo(UNSUPPORTED_ARGUMENT_TYPE);
+		assertThat(errors.get(WithRecursion.class.getName()).errorCode()).isEqualTo(UNSUPPORTED_ARGUMENT_TYPE);
+		assertThat(errors.get(WithDuplicateShortNames.class.getName()).errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+		assertThat(errors.get(ModeWithUnsupportedType.class.getName()).errorCode()).isEqualTo(UNSUPPORTED_ARGUMENT_TYPE);
+		assertThat(errors.get(Interface.class.getName()).errorCode()).isEqualTo(ILL_DEFINED_ARGS_TYPE);
+		assertThat(index.records()).isEmpty();
+		assertThat(index.sealed()).isEmpty();
+	}
+
+	@Test
+	void nestedRecordWithShortName_write_errorReturned() throws IOException {
+		record WithShortNamedNested(@ShortName('n') WithString nested) { }
+		var errors = ArgsSchemaIndex.write(List.of(WithShortNamedNested.class), List.of(), new ByteArrayOutputStream());
+
+		assertThat(errors.get(WithShortNamedNested.class.getName()).errorCode()).isEqualTo(ILLEGAL_SHORT_NAME);
+	}
+
+	@Test
+	void parses_write_onlyWellDefinedOnesIndexedAsChecked() throws IOException {
+		var out = new ByteArrayOutputStream();
+		var errors = ArgsSchemaIndex.write(
+				List.of(),
+				List.of(List.of(Mode.class, WithBoolean.class), List.of(WithString.class, AnotherWithString.class)),
+				out);
+		var index = ArgsSchemaIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+		var illDefinedParse = WithString.class.getName() + "," + AnotherWithString.class.getName();
+		assertThat(errors).containsOnlyKeys(illDefinedParse);
+		assertThat(errors.get(illDefinedParse).errorCode()).isEqualTo(DUPLICATE_ARGUMENT_DEFINITION);
+		assertThat(index.parses()).hasSize(1);
+		assertThat(index.parses().getFirst()).containsExactly(Mode.class.getName(), WithBoolean.class.getName());
+		assertThat(index.sealed()).containsOnlyKeys(Mode.class.getName());
+		assertThat(index.records()).containsKey(WithBoolean.class.getName());
+	}
+
+	@Test
+	void outdatedIndex_create_fallsBackToReflection() {
+		var outdatedComponent = new ArgsSchemaIndex.ComponentEntry("stringArg", "int", List.of(), false, (char) 0);
+		var missingComponent = new ArgsSchemaIndex.ComponentEntry("stringArg", "com.example.Missing", List.of(), false, (char) 0);
+		var outdatedValue = new ArgsSchemaIndex.SealedEntry(Map.of("path", WithPath.class.getName()));
+		for (var component : List.of(outdatedComponent, missingComponent)) {
+			var index = new ArgsSchemaIndex.Index(
+					Map.of(WithString.class.getName(), new ArgsSchemaIndex.RecordEntry(false, List.of(component))),
+					Map.of(Mode.class.getName(), outdatedValue),
+					List.of());
+
+			var schema = RecordSchema.create(WithString.class, index);
+			var values = ArgsModeFilter.createValuesByTypeName(Mode.class, index);
+
+			assertThat(schema.leaves().getFirst().type()).isEqualTo(String.class);
+			assertThat(values).isEqualTo(ArgsModeFilter.createValuesByTypeName(Mode.class, null));
+		}
+	}
+
+	@Test
+	void indexResources_load_mergedIndex(@TempDir Path folder) throws IOException {
+		writeIndex(folder.resolve("first"), List.of(WithString.class, Mode.class), List.of(List.of(Mode.class)));
+		writeIndex(folder.resolve("second"), List.of(WithBoolean.class), List.of(List.of(WithBoolean.class)));
+		var urls = new URL[] { folder.resolve("first").toUri().toURL(), folder.resolve("second").toUri().toURL() };
+
+		try (var loader = new URLClassLoader(urls, getClass().getClassLoader())) {
+			var index = ArgsSchemaIndex.load(loader);
+
+			assertThat(index.records()).containsKeys(WithString.class.getName(), WithBoolean.class.getName());
+			assertThat(index.sealed()).containsOnlyKeys(Mode.class.getName());
+			assertThat(index.parses()).hasSize(2);
+		}
+	}
+
+	@Test
+	void corruptedIndexResource_load_illegalStateException(@TempDir Path folder) throws IOException {
+		var out = new ByteArrayOutputStream();
+		ArgsSchemaIndex.write(List.of(WithMany.class), List.of(), out);
+		var bytes = out.toByteArray();
+		var resource = folder.resolve(ArgsSchemaIndex.RESOURCE);
+		Files.createDirectories(resource.getParent());
+		// cut off the index in the middle of a record entry
+		Files.write(resource, Arrays.copyOf(bytes, bytes.length / 2));
+
+		try (var loader = new URLClassLoader(new URL[] { folder.toUri().toURL() }, getClass().getClassLoader())) {
+			assertThrows(IllegalStateException.class, () -> ArgsSchemaIndex.load(loader));
+		}
+	}
+
+	@Test
+	void noIndex_read_illegalArgumentException() {
+		var noIndex = new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 });
+
+		assertThrows(IllegalArgumentException.class, () -> ArgsSchemaIndex.read(noIndex));
+	}
+
+	private static ArgsSchemaIndex.Index writeAndRead(List<Class<?>> types, List<List<Class<?>>> parses) throws IOException {
+		var out = new ByteArrayOutputStream();
+		var errors = ArgsSchemaIndex.write(types, parses, out);
+		assertThat(errors).isEmpty();
+		return ArgsSchemaIndex.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	private static void writeIndex(Path folder, List<Class<?>> types, List<List<Class<?>>> parses) throws IOException {
+		var resource = folder.resolve(ArgsSchemaIndex.RESOURCE);
+		Files.createDirectories(resource.getParent());
+		try (var out = Files.newOutputStream(resource)) {
+			ArgsSchemaIndex.write(types, parses, out);
+		}
+	}
+
+}
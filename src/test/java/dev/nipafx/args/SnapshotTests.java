@@ -0,0 +1,217 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.Action;
+import dev.nipafx.args.Records.AnotherWithString;
+import dev.nipafx.args.Records.Color;
+import dev.nipafx.args.Records.Level;
+import dev.nipafx.args.Records.Mode;
+import dev.nipafx.args.Records.WithBoolean;
+import dev.nipafx.args.Records.WithDataSize;
+import dev.nipafx.args.Records.WithDeeplyNested;
+import dev.nipafx.args.Records.WithDouble;
+import dev.nipafx.args.Records.WithDuration;
+import dev.nipafx.args.Records.WithDurationsAndSizes;
+import dev.nipafx.args.Records.WithEnum;
+import dev.nipafx.args.Records.WithEnumSet;
+import dev.nipafx.args.Records.WithEnumContainers;
+import dev.nipafx.args.Records.WithFloat;
+import dev.nipafx.args.Records.WithInteger;
+import dev.nipafx.args.Records.WithIntegerList;
+import dev.nipafx.args.Records.WithList;
+import dev.nipafx.args.Records.WithLong;
+import dev.nipafx.args.Records.WithMany;
+import dev.nipafx.args.Records.WithMap;
+import dev.nipafx.args.Records.WithNested;
+import dev.nipafx.args.Records.WithOptional;
+import dev.nipafx.args.Records.WithOptionalBoolean;
+import dev.nipafx.args.Records.WithPath;
+import dev.nipafx.args.Records.WithSet;
+import dev.nipafx.args.Records.WithString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotTests {
+
+	private static final List<Record> RECORDS = List.of(
+			new WithString("string"),
+			new WithString("ünïcödé ✓"),
+			new WithPath(Path.of("/tmp/some file")),
+			new WithInteger(-42),
+			new WithLong(Long.MIN_VALUE),
+			new WithFloat(Float.NaN),
+			new WithDouble(0.1 + 0.2),
+			new WithBoolean(true),
+			new WithDuration(Duration.ofMillis(-1_500)),
+			new WithEnum(Level.WARN),
+			new WithSet(Set.of()),
+			new WithSet(Set.of("one", "two")),
+			new WithEnumSet(EnumSet.of(Level.DEBUG, Level.WARN)),
+			new WithEnumContainers(Optional.of(Level.DEBUG), List.of(Color.BLUE, Color.BLUE), Map.of(Level.INFO, Color.RED)),
+			new WithDataSize(new DataSize(512L * 1024 * 1024)),
+			new WithDurationsAndSizes(List.of(Duration.ofDays(2), Duration.ofNanos(1)), Map.of("heap", new DataSize(1_500))),
+			new WithOptional(Optional.empty()),
+			new WithOptional(Optional.of("string")),
+			new WithOptionalBoolean(Optional.of(false)),
+			new WithList(List.of()),
+			new WithList(List.of("one", "--two", "")),
+			new WithMap(Map.of(1, "one=1", 2, "")),
+			new WithDeeplyNested(
+					new WithNested(new WithString("string"), new WithList(List.of("one")), 42),
+					new WithBoolean(false)),
+			new WithMany("string", Optional.of(Path.of("path")), 42, 2.5f, false, List.of(1, 2, 3)));
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void records_snapshotAndLoad_equalRecords() {
+		for (Record record : RECORDS) {
+			var snapshot = Args.snapshot(record);
+			assertThat(Args.load(ByteBuffer.wrap(snapshot), record.getClass())).isEqualTo(record);
+		}
+	}
+
+	@Test
+	void largeContainers_snapshotAndLoad_equalRecord() {
+		var ints = IntStream.range(0, 250_000).boxed().toList();
+		var map = new HashMap<Integer, String>();
+		for (int i = 0; i < 100_000; i++)
+			map.put(i, "value-" + i);
+		var list = new WithIntegerList(ints);
+		var withMap = new WithMap(map);
+
+		var listSnapshot = Args.snapshot(list);
+		assertThat(Args.load(ByteBuffer.wrap(listSnapshot), WithIntegerList.class)).isEqualTo(list);
+		// 13 bytes header, 4 bytes size, 4 bytes per value
+		assertThat(listSnapshot).hasSize(13 + 4 + 4 * ints.size());
+		assertThat(Args.load(ByteBuffer.wrap(Args.snapshot(withMap)), WithMap.class)).isEqualTo(withMap);
+	}
+
+	@Test
+	void modeAndAction_load_recordIdentifiedByFingerprint() {
+		var mode = new WithList(List.of("one", "two"));
+		var action = new WithOptional(Optional.of("string"));
+
+		assertThat(Args.load(ByteBuffer.wrap(Args.snapshot(mode)), Mode.class)).isEqualTo(mode);
+		assertThat(Args.load(ByteBuffer.wrap(Args.snapshot(action)), Action.class)).isEqualTo(action);
+	}
+
+	@Test
+	void snapshotFile_loadMapped_equalRecord() throws IOException {
+		var record = new WithNested(new WithString("string"), new WithList(List.of("one", "two")), 42);
+		var file = Files.write(directory.resolve("args.snapshot"), Args.snapshot(record));
+
+		assertThat(Args.load(file, WithNested.class)).isEqualTo(record);
+	}
+
+	@Test
+	void bufferWithOffset_load_readsFromPositionWithoutChangingIt() {
+		var record = new WithString("string");
+		var snapshot = Args.snapshot(record);
+		var buffer = ByteBuffer.allocateDirect(snapshot.length + 3);
+		buffer.position(3);
+		buffer.put(snapshot).position(3);
+
+		assertThat(Args.load(buffer, WithString.class)).isEqualTo(record);
+		assertThat(buffer.position()).isEqualTo(3);
+	}
+
+	@Test
+	void otherType_load_rejected() {
+		var snapshot = Args.snapshot(new WithString("string"));
+		var exception = assertThrows(IllegalArgumentException.class, () -> Args.load(ByteBuffer.wrap(snapshot), AnotherWithString.class));
+		assertThat(exception).hasMessageContaining("different version");
+	}
+
+	@Test
+	void otherFingerprint_load_rejected() {
+		var snapshot = Args.snapshot(new WithString("string"));
+		// flip a bit in the fingerprint, which follows magic and version
+		snapshot[5] ^= 1;
+		assertThrows(IllegalArgumentException.class, () -> Args.load(ByteBuffer.wrap(snapshot), WithString.class));
+	}
+
+	@Test
+	void noSnapshot_load_rejected() {
+		assertThrows(IllegalArgumentException.class, () -> Args.load(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }), WithString.class));
+	}
+
+	@Test
+	void truncatedSnapshot_load_rejected() {
+		var snapshot = Args.snapshot(new WithList(List.of("one", "two")));
+		var truncated = Arrays.copyOf(snapshot, snapshot.length - 1);
+		assertThrows(IllegalArgumentException.class, () -> Args.load(ByteBuffer.wrap(truncated), WithList.class));
+	}
+
+	@Test
+	void corruptedValues_load_rejected() {
+		// each snapshot's last value (after the 13 bytes header) is overwritten with an illegal one
+		var corruptions = Map.<Record, byte[]> of(
+				new WithList(List.of()), new byte[] { (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff },
+				new WithIntegerList(List.of()), new byte[] { 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff },
+				new WithDuration(Duration.ofSeconds(1)), new byte[] { 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff },
+				new WithDataSize(new DataSize(1)), new byte[] { (byte) 0x80, 0, 0, 0, 0, 0, 0, 0 },
+				new WithBoolean(true), new byte[] { 2 },
+				new WithOptional(Optional.empty()), new byte[] { 7 },
+				new WithEnum(Level.WARN), new byte[] { 0, 0, 0, 3 });
+		for (Map.Entry<Record, byte[]> recordAndCorruption : corruptions.entrySet()) {
+			var snapshot = Args.snapshot(recordAndCorruption.getKey());
+			var corruption = recordAndCorruption.getValue();
+			System.arraycopy(corruption, 0, snapshot, snapshot.length - corruption.length, corruption.length);
+			var type = recordAndCorruption.getKey().getClass();
+
+			assertThrows(IllegalArgumentException.class, () -> Args.load(ByteBuffer.wrap(snapshot), type));
+		}
+	}
+
+	@Test
+	void duplicateSetElement_load_rejected() {
+		var snapshot = Args.snapshot(new WithSet(Set.of("one", "two")));
+		// header, size, and the first element (4 bytes length, 3 bytes value) - copy it over the second
+		System.arraycopy(snapshot, 13 + 4, snapshot, 13 + 4 + 7, 7);
+
+		var exception = assertThrows(IllegalArgumentException.class, () -> Args.load(ByteBuffer.wrap(snapshot), WithSet.class));
+		assertThat(exception).hasMessageContaining("corrupted");
+	}
+
+	@Test
+	void anyByteCorrupted_load_recordOrIllegalArgumentException() {
+		for (Record record : RECORDS) {
+			var snapshot = Args.snapshot(record);
+			// the header is covered by other tests
+			for (int position = 13; position < snapshot.length; position++)
+				for (byte value : new byte[] { 0, 1, 0x7f, (byte) 0x80, (byte) 0xff }) {
+					var corrupted = snapshot.clone();
+					corrupted[position] = value;
+					try {
+						assertThat(Args.load(ByteBuffer.wrap(corrupted), record.getClass())).isInstanceOf(record.getClass());
+					} catch (IllegalArgumentException ex) {
+						// expected for most corruptions
+					}
+				}
+		}
+	}
+
+	@Test
+	void nullValue_snapshot_illegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> Args.snapshot(new WithString(null)));
+	}
+
+}
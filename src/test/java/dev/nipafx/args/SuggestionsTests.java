@@ -0,0 +1,100 @@
+package dev.nipafx.args;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Nested
+class SuggestionsTests {
+
+	@Test
+	void noNames_noSuggestions() {
+		assertThat(Suggestions.of(List.of()).closestTo("port")).isEmpty();
+	}
+
+	@Test
+	void exactMatch_notSuggested() {
+		assertThat(Suggestions.of(List.of("port", "verbose")).closestTo("port")).isEmpty();
+	}
+
+	@Test
+	void shortName_oneEditAllowed() {
+		var suggestions = Suggestions.of(List.of("prot", "post", "host", "ports", "xyz"));
+		assertThat(suggestions.closestTo("port")).containsExactly("ports", "post");
+	}
+
+	@Test
+	void severalMatches_bestOrderedByDistanceThenName() {
+		var suggestions = Suggestions.of(List.of("portname", "hostnm", "hostname", "hostnames", "hostName", "xyz"));
+		assertThat(suggestions.closestTo("hostname")).containsExactly("hostName", "hostnames", "hostnm");
+	}
+
+	@Test
+	void severalTries_bestOfAll() {
+		var first = Suggestions.of(List.of("hostnm", "xyz"));
+		var second = Suggestions.of(List.of("hostnames", "portname"));
+		assertThat(Suggestions.closestTo("hostname", List.of(first, second))).containsExactly("hostnames", "hostnm", "portname");
+	}
+
+	@Test
+	void manyNames_sameSuggestionsAsComparingWithAll() {
+		var random = new Random(42);
+		var names = IntStream.range(0, 5_000)
+				.mapToObj(__ -> randomName(random))
+				.distinct()
+				.toList();
+		var suggestions = Suggestions.of(names);
+
+		for (int i = 0; i < 500; i++) {
+			var query = randomName(random);
+			assertThat(suggestions.closestTo(query)).isEqualTo(closestByComparingWithAll(query, names));
+		}
+	}
+
+	private static String randomName(Random random) {
+		var length = 4 + random.nextInt(12);
+		var name = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			// a small alphabet makes close names likely
+			name.append((char) ('a' + random.nextInt(4)));
+		return name.toString();
+	}
+
+	private static List<String> closestByComparingWithAll(String query, List<String> names) {
+		var maxDistance = Suggestions.maxDistance(query);
+		var matches = new ArrayList<String>();
+		for (String name : names) {
+			var distance = distance(query, name);
+			if (0 < distance && distance <= maxDistance)
+				matches.add(name);
+		}
+		return matches.stream()
+				.sorted(Comparator
+						.comparingInt((String name) -> distance(query, name))
+						.thenComparing(Comparator.naturalOrder()))
+				.limit(3)
+				.toList();
+	}
+
+	private static int distance(String a, String b) {
+		var distances = new int[a.length() + 1][b.length() + 1];
+		for (int i = 0; i <= a.length(); i++)
+			distances[i][0] = i;
+		for (int j = 0; j <= b.length(); j++)
+			distances[0][j] = j;
+		for (int i = 1; i <= a.length(); i++)
+			for (int j = 1; j <= b.length(); j++) {
+				int substitution = distances[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+				distances[i][j] = Math.min(substitution, Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+			}
+		return distances[a.length()][b.length()];
+	}
+
+}
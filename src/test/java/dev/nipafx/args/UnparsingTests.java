@@ -0,0 +1,181 @@
+package dev.nipafx.args;
+
+import dev.nipafx.args.Records.Action;
+import dev.nipafx.args.Records.Color;
+import dev.nipafx.args.Records.Level;
+import dev.nipafx.args.Records.Mode;
+import dev.nipafx.args.Records.ModeArgs;
+import dev.nipafx.args.Records.WithBoolean;
+import dev.nipafx.args.Records.WithDataSize;
+import dev.nipafx.args.Records.WithDeeplyNested;
+import dev.nipafx.args.Records.WithDerivedShortNames;
+import dev.nipafx.args.Records.WithDouble;
+import dev.nipafx.args.Records.WithDuration;
+import dev.nipafx.args.Records.WithDurationsAndSizes;
+import dev.nipafx.args.Records.WithEnum;
+import dev.nipafx.args.Records.WithEnumSet;
+import dev.nipafx.args.Records.WithEnumContainers;
+import dev.nipafx.args.Records.WithFloat;
+import dev.nipafx.args.Records.WithInteger;
+import dev.nipafx.args.Records.WithList;
+import dev.nipafx.args.Records.WithLong;
+import dev.nipafx.args.Records.WithMany;
+import dev.nipafx.args.Records.WithMap;
+import dev.nipafx.args.Records.WithNested;
+import dev.nipafx.args.Records.WithNestedShortNames;
+import dev.nipafx.args.Records.WithOptional;
+import dev.nipafx.args.Records.WithOptionalBoolean;
+import dev.nipafx.args.Records.WithPath;
+import dev.nipafx.args.Records.WithSet;
+import dev.nipafx.args.Records.WithShortNames;
+import dev.nipafx.args.Records.WithString;
+import dev.nipafx.args.Records.WithStringArgs;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UnparsingTests {
+
+	private static final List<Record> RECORDS = List.of(
+			new WithString("string"),
+			new WithString(""),
+			new WithString("with spaces and -dash"),
+			new WithPath(Path.of("/tmp/some file")),
+			new WithInteger(-42),
+			new WithLong(Long.MIN_VALUE),
+			new WithFloat(1.0E-10f),
+			new WithFloat(Float.NaN),
+			new WithDouble(Double.NEGATIVE_INFINITY),
+			new WithDouble(0.1 + 0.2),
+			new WithBoolean(true),
+			new WithBoolean(false),
+			new WithDuration(Duration.ofMillis(-1_500)),
+			new WithEnum(Level.WARN),
+			new WithSet(Set.of()),
+			new WithSet(Set.of("one", "two")),
+			new WithEnumSet(EnumSet.of(Level.DEBUG, Level.WARN)),
+			new WithEnumContainers(Optional.of(Level.DEBUG), List.of(Color.BLUE, Color.BLUE), Map.of(Level.INFO, Color.RED)),
+			new WithDataSize(new DataSize(512L * 1024 * 1024)),
+			new WithDurationsAndSizes(List.of(Duration.ofDays(2), Duration.ofNanos(1)), Map.of("heap", new DataSize(1_500))),
+			new WithOptional(Optional.empty()),
+			new WithOptional(Optional.of("string")),
+			new WithOptionalBoolean(Optional.of(false)),
+			new WithList(List.of()),
+			new WithList(List.of("one", "two", "two", "three")),
+			new WithMap(Map.of()),
+			new WithMap(Map.of(1, "one", 2, "two", -3, "minus three")),
+			new WithNested(new WithString("string"), new WithList(List.of("one")), 42),
+			new WithDeeplyNested(
+					new WithNested(new WithString("string"), new WithList(List.of()), 42),
+					new WithBoolean(true)),
+			new WithMany("string", Optional.of(Path.of("path")), 42, 2.5f, false, List.of(1, 2, 3)),
+			new WithShortNames(Optional.of(true), Optional.empty(), Optional.of(-8080), List.of(-1, 2)),
+			new WithDerivedShortNames(Optional.of(false), Optional.of(-5), Optional.of("-x"), Optional.of("-")),
+			new WithNestedShortNames(
+					new WithShortNames(Optional.empty(), Optional.of(true), Optional.empty(), List.of()), Optional.of("-a")));
+
+	@Test
+	void records_unparseAndParse_equalRecords() throws ArgsParseException {
+		for (Record record : RECORDS) {
+			var args = Args.unparse(record);
+			assertThat(Args.parse(args, record.getClass())).isEqualTo(record);
+		}
+	}
+
+	@Test
+	void record_unparse_namesFollowedByValues() {
+		var args = Args.unparse(new WithNested(new WithString("string"), new WithList(List.of("one", "two")), 42));
+		assertThat(args).containsExactly("--inner.stringArg", "string", "--list.stringArgs", "one", "two", "--intArg", "42");
+	}
+
+	@Test
+	void emptyContainers_unparse_leftOut() {
+		assertThat(Args.unparse(new WithOptional(Optional.empty()))).isEmpty();
+		assertThat(Args.unparse(new WithList(List.of()))).isEmpty();
+		assertThat(Args.unparse(new WithMap(Map.of()))).isEmpty();
+	}
+
+	@Test
+	void mode_unparseAndParse_equalRecord() throws ArgsParseException {
+		Mode mode = new WithList(List.of("one", "two"));
+		var args = Args.unparse(mode, Mode.class);
+
+		assertThat(args).containsExactly("--mode", "withList", "--stringArgs", "one", "two");
+		assertThat(Args.parse(args, Mode.class)).isEqualTo(mode);
+	}
+
+	@Test
+	void modeWithArgsSuffix_unparseAndParse_equalRecord() throws ArgsParseException {
+		ModeArgs mode = new WithStringArgs("string");
+		var args = Args.unparse(mode, ModeArgs.class);
+
+		assertThat(args).containsExactly("--mode", "withString", "--stringArg", "string");
+		assertThat(Args.parse(args, ModeArgs.class)).isEqualTo(mode);
+	}
+
+	@Test
+	void action_unparseAndParse_equalRecord() throws ArgsParseException {
+		Action action = new WithOptional(Optional.of("string"));
+		var args = Args.unparse(action, Action.class);
+
+		assertThat(args).containsExactly("withOptional", "--optionalArg", "string");
+		assertThat(Args.parse(args, Action.class)).isEqualTo(action);
+	}
+
+	@Test
+	void actionAndRecord_concatenatedAndParsed_equalRecords() throws ArgsParseException {
+		Action action = new WithInteger(42);
+		var record = new WithString("string");
+		var actionArgs = Args.unparse(action, Action.class);
+		var recordArgs = Args.unparse(record);
+		var args = Stream.concat(Stream.of(actionArgs), Stream.of(recordArgs)).toArray(String[]::new);
+
+		var parsed = Args.parse(args, Action.class, WithString.class);
+		assertThat(parsed.first()).isEqualTo(action);
+		assertThat(parsed.second()).isEqualTo(record);
+	}
+
+	@Test
+	void recordNotOfType_unparse_illegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(new WithString("string"), (Class) Action.class));
+	}
+
+	@Test
+	void valueThatLooksLikeName_unparse_illegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(new WithString("--string")));
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(new WithList(List.of("one", "--two"))));
+	}
+
+	@Test
+	void valueThatLooksLikeShortName_unparse_illegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(
+				new WithDerivedShortNames(Optional.empty(), Optional.empty(), Optional.of("-v"), Optional.empty())));
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(
+				new WithDerivedShortNames(Optional.empty(), Optional.empty(), Optional.empty(), Optional.of("-nv"))));
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(
+				new WithNestedShortNames(new WithShortNames(Optional.empty(), Optional.empty(), Optional.empty(), List.of()), Optional.of("-p"))));
+	}
+
+	@Test
+	void mapValueWithEqualSign_unparse_illegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(new WithMap(Map.of(1, "one=two"))));
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(new WithMap(Map.of(1, ""))));
+	}
+
+	@Test
+	void nullValue_unparse_illegalArgumentException() {
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(new WithString(null)));
+		assertThrows(IllegalArgumentException.class, () -> Args.unparse(null));
+	}
+
+}